@@ -184,4 +184,27 @@ public class AddressAIT {
         assertEquals("ETH Default", AddressScheme.ETH_DEFAULT.toString());
         assertEquals("GEN Default", AddressScheme.GEN_DEFAULT.toString());
     }
+
+    @Test
+    public void testAddressClose() {
+        Network network = Network.findBuiltin("bitcoin-mainnet").get();
+        Address address = Address.create("1CC3X2gu58d6wXUWMffpuzN9JAfTUWu4Kj", network).get();
+
+        address.close();
+        address.close();
+
+        try {
+            address.toString();
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        try {
+            address.getCoreBRCryptoAddress();
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
 }
@@ -7,9 +7,16 @@
  */
 package com.breadwallet.corecrypto;
 
+import com.breadwallet.corenative.crypto.BRCryptoAmount;
+import com.breadwallet.corenative.crypto.BRCryptoComparison;
+import com.google.common.base.Optional;
 import com.google.common.primitives.UnsignedInteger;
 
 import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
 import static org.junit.Assert.*;
 
 public class AmountAIT {
@@ -207,4 +214,99 @@ public class AmountAIT {
         Amount btc3 = Amount.create(1e20, satoshi_btc);
         assertTrue (btc3.doubleAmount(btc_mongo).isPresent());
     }
+
+    @Test
+    public void testAmountMatchesCore() {
+        Currency btc = Currency.create("Bitcoin", "Bitcoin", "btc", "native", null);
+        Unit satoshi_btc = Unit.create(btc, "BTC-SAT", "Satoshi", "SAT");
+        Unit btc_btc = Unit.create(btc, "BTC-BTC", "Bitcoin", "B", satoshi_btc, UnsignedInteger.valueOf(8));
+
+        BigInteger max = BigInteger.ONE.shiftLeft(256).subtract(BigInteger.ONE);
+        BigInteger[] edges = new BigInteger[] { BigInteger.ZERO, BigInteger.ONE, max, max.subtract(BigInteger.ONE) };
+
+        Random random = new Random(0);
+        for (int i = 0; i < 1000; i++) {
+            BigInteger aValue = i < 16 ? edges[i % 4] : new BigInteger(random.nextInt(257), random);
+            BigInteger bValue = i < 16 ? edges[i / 4] : new BigInteger(random.nextInt(257), random);
+            boolean aNegative = random.nextBoolean();
+            boolean bNegative = random.nextBoolean();
+
+            Amount a = Amount.create(i % 2 == 0 ? satoshi_btc : btc_btc, aNegative, aValue);
+            Amount b = Amount.create(satoshi_btc, bNegative, bValue);
+            BRCryptoAmount aCore = BRCryptoAmount.create(aValue.toString(), aNegative, satoshi_btc.getCoreBRCryptoUnit()).get();
+            BRCryptoAmount bCore = BRCryptoAmount.create(bValue.toString(), bNegative, satoshi_btc.getCoreBRCryptoUnit()).get();
+
+            assertEquals(aCore.isZero(), a.isZero());
+            assertEquals(aCore.isNegative(), a.isNegative());
+            assertEquals(aCore.toStringWithBase(10, ""), a.toStringWithBase(10, ""));
+
+            assertMatchesCore(Optional.of(aCore.negate()), Optional.of(a.negate()));
+            assertMatchesCore(aCore.add(bCore), a.add(b));
+            assertMatchesCore(aCore.sub(bCore), a.sub(b));
+            assertMatchesCore(bCore.sub(aCore), b.sub(a));
+
+            BRCryptoComparison comparison = aCore.compare(bCore);
+            assertEquals(BRCryptoComparison.CRYPTO_COMPARE_LT == comparison, a.compareTo(b) < 0);
+            assertEquals(BRCryptoComparison.CRYPTO_COMPARE_EQ == comparison, a.compareTo(b) == 0);
+            assertEquals(BRCryptoComparison.CRYPTO_COMPARE_GT == comparison, a.compareTo(b) > 0);
+            assertEquals(BRCryptoComparison.CRYPTO_COMPARE_EQ == comparison, a.equals(b));
+
+            aCore.give();
+            bCore.give();
+        }
+    }
+
+    private static void assertMatchesCore(Optional<BRCryptoAmount> core, Optional<Amount> amount) {
+        assertEquals(core.isPresent(), amount.isPresent());
+        if (core.isPresent()) {
+            assertEquals(core.get().isNegative(), amount.get().isNegative());
+            assertEquals(core.get().isZero(), amount.get().isZero());
+            assertEquals(core.get().toStringWithBase(10, ""), amount.get().toStringWithBase(10, ""));
+            core.get().give();
+        }
+    }
+
+    @Test
+    public void testAmountClose() {
+        Currency btc = Currency.create("Bitcoin", "Bitcoin", "btc", "native", null);
+        Unit satoshi_btc = Unit.create(btc, "BTC-SAT", "Satoshi", "SAT");
+
+        Amount amount = Amount.create(100, satoshi_btc);
+        Amount negated = amount.negate();
+
+        amount.close();
+        amount.close();
+
+        try {
+            amount.toStringWithBase(10, "");
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        try {
+            amount.getCoreBRCryptoAmount();
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        try {
+            negated.add(amount);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        // an amount computed in Java, closed before its native amount was created
+        negated.close();
+        negated.close();
+
+        try {
+            negated.doubleAmount(satoshi_btc);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
 }
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corecrypto;
+
+import com.breadwallet.crypto.blockchaindb.errors.QueryError;
+import com.breadwallet.crypto.blockchaindb.errors.QueryNoDataError;
+import com.breadwallet.crypto.utility.CompletionHandler;
+import com.google.common.primitives.UnsignedLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class BlockHeightMonitorAIT {
+
+    private static final String NETWORK = "bitcoin-mainnet";
+
+    private ManualScheduledExecutor scheduler;
+    private FakeTicker ticker;
+    private BlockHeightMonitor monitor;
+    private FakeFetcher fetcher;
+
+    @Before
+    public void setup() {
+        scheduler = new ManualScheduledExecutor();
+        ticker = new FakeTicker();
+        monitor = new BlockHeightMonitor(scheduler, ticker);
+        fetcher = new FakeFetcher();
+    }
+
+    @Test
+    public void testBlockHeightMonitorJoinsFetchInFlight() {
+        RecordingHandler first = getHeight();
+        RecordingHandler second = getHeight();
+        assertEquals(1, fetcher.getFetchCount());
+
+        fetcher.respond(0, 100);
+        assertEquals(UnsignedLong.valueOf(100), first.height);
+        assertEquals(UnsignedLong.valueOf(100), second.height);
+    }
+
+    @Test
+    public void testBlockHeightMonitorAnswersFromCacheWhileFresh() {
+        getHeight();
+        fetcher.respond(0, 100);
+
+        // twice the default interval of 30 seconds
+        ticker.advance(60, TimeUnit.SECONDS);
+        RecordingHandler cached = getHeight();
+        assertEquals(UnsignedLong.valueOf(100), cached.height);
+        assertEquals(1, fetcher.getFetchCount());
+
+        ticker.advance(1, TimeUnit.MILLISECONDS);
+        RecordingHandler stale = getHeight();
+        assertNull(stale.height);
+        assertEquals(2, fetcher.getFetchCount());
+    }
+
+    @Test
+    public void testBlockHeightMonitorAdaptsIntervalToBlockTime() {
+        getHeight();
+        fetcher.respond(0, 100);
+        assertEquals(1, scheduler.getTaskCount());
+        assertEquals(30, scheduler.getTask(0).getDelay(TimeUnit.SECONDS));
+
+        // the first advance only marks a block boundary
+        ticker.advance(30, TimeUnit.SECONDS);
+        scheduler.runNext();
+        fetcher.respond(1, 101);
+        assertEquals(30, scheduler.getTask(1).getDelay(TimeUnit.SECONDS));
+
+        // two blocks in 30 seconds; polled at half the block time
+        ticker.advance(30, TimeUnit.SECONDS);
+        scheduler.runNext();
+        fetcher.respond(2, 103);
+        assertEquals(7500, scheduler.getTask(2).getDelay(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testBlockHeightMonitorDropsIdleNetworks() {
+        getHeight();
+        fetcher.respond(0, 100);
+        assertTrue(monitor.isMonitoring(NETWORK));
+
+        ticker.advance(11, TimeUnit.MINUTES);
+        scheduler.runNext();
+        assertEquals(1, fetcher.getFetchCount());
+        assertFalse(monitor.isMonitoring(NETWORK));
+        assertEquals(1, scheduler.getTaskCount());
+
+        // asked again, it starts over with the new fetcher
+        FakeFetcher next = new FakeFetcher();
+        monitor.getHeight(NETWORK, next, new RecordingHandler());
+        assertEquals(1, next.getFetchCount());
+        assertEquals(1, fetcher.getFetchCount());
+    }
+
+    @Test
+    public void testBlockHeightMonitorFailsEveryWaiter() {
+        RecordingHandler first = getHeight();
+        RecordingHandler second = getHeight();
+
+        QueryError error = new QueryNoDataError();
+        fetcher.fail(0, error);
+        assertSame(error, first.error);
+        assertSame(error, second.error);
+
+        // still polled; the next fetch may succeed
+        assertEquals(1, scheduler.getTaskCount());
+        scheduler.runNext();
+        fetcher.respond(1, 100);
+        assertEquals(UnsignedLong.valueOf(100), getHeight().height);
+    }
+
+    private RecordingHandler getHeight() {
+        RecordingHandler handler = new RecordingHandler();
+        monitor.getHeight(NETWORK, fetcher, handler);
+        return handler;
+    }
+
+    private static class FakeFetcher implements BlockHeightMonitor.Fetcher {
+
+        private final List<CompletionHandler<UnsignedLong, QueryError>> handlers = new ArrayList<>();
+
+        @Override
+        public void fetch(CompletionHandler<UnsignedLong, QueryError> handler) {
+            handlers.add(handler);
+        }
+
+        int getFetchCount() {
+            return handlers.size();
+        }
+
+        void respond(int index, long height) {
+            handlers.get(index).handleData(UnsignedLong.valueOf(height));
+        }
+
+        void fail(int index, QueryError error) {
+            handlers.get(index).handleError(error);
+        }
+    }
+
+    private static class RecordingHandler implements CompletionHandler<UnsignedLong, QueryError> {
+
+        UnsignedLong height;
+        QueryError error;
+
+        @Override
+        public void handleData(UnsignedLong data) {
+            height = data;
+        }
+
+        @Override
+        public void handleError(QueryError error) {
+            this.error = error;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import org.junit.Test;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.fail;
 
 public class CipherAIT {
 
@@ -105,4 +106,19 @@ public class CipherAIT {
         byte [] pigeonCipher = pigeon.encrypt(msg).get();
         assertArrayEquals(msg, pigeon.decrypt(pigeonCipher).get());
     }
+
+    @Test
+    public void testCipherClose() {
+        Cipher cipher = Cipher.createForAesEcb(new byte[16]);
+
+        cipher.close();
+        cipher.close();
+
+        try {
+            cipher.encrypt(new byte[16]);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
 }
@@ -12,6 +12,7 @@ import org.junit.Test;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
 
 public class CoderAIT {
 
@@ -56,4 +57,19 @@ public class CoderAIT {
         s = Coder.createForAlgorithm(com.breadwallet.crypto.Coder.Algorithm.BASE58CHECK).encode(d).get();
         assertArrayEquals(d, Coder.createForAlgorithm(com.breadwallet.crypto.Coder.Algorithm.BASE58CHECK).decode(s).get());
     }
+
+    @Test
+    public void testCoderClose() {
+        Coder coder = Coder.createForAlgorithm(com.breadwallet.crypto.Coder.Algorithm.HEX);
+
+        coder.close();
+        coder.close();
+
+        try {
+            coder.encode(new byte[] {0});
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
 }
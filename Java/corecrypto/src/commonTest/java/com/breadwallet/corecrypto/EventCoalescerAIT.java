@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corecrypto;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class EventCoalescerAIT {
+
+    private static final EventCoalescer.Merge<String> LATEST = (earlier, later) -> later;
+
+    private ManualScheduledExecutor scheduler;
+    private EventCoalescer coalescer;
+    private List<String> announced;
+
+    @Before
+    public void setup() {
+        scheduler = new ManualScheduledExecutor();
+        coalescer = new EventCoalescer(scheduler);
+        announced = new ArrayList<>();
+        coalescer.setWindow(100, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testEventCoalescerMergesWithinWindow() {
+        announce("manager", "balance", "balance 1");
+        announce("manager", "balance", "balance 2");
+        announce("manager", "balance", "balance 3");
+        assertTrue(announced.isEmpty());
+        assertEquals(1, scheduler.getTaskCount());
+        assertEquals(100, scheduler.getTask(0).getDelay(TimeUnit.MILLISECONDS));
+
+        scheduler.runAll();
+        assertEquals(Arrays.asList("balance 3"), announced);
+        assertEquals(2, coalescer.getCoalescedCount());
+    }
+
+    @Test
+    public void testEventCoalescerFlushesGroupBeforeUnmergeableEvent() {
+        announce("manager", "balance", "balance 1");
+        announce("manager", "progress", "progress 1");
+        announce("other", "balance", "other balance");
+        announce("manager", "balance", "balance 2");
+
+        coalescer.announce("manager", () -> announced.add("transfer created"));
+        assertEquals(Arrays.asList("balance 2", "progress 1", "transfer created"), announced);
+
+        // the flushed events' timers find nothing left to announce; the other group is untouched
+        scheduler.runAll();
+        assertEquals(Arrays.asList("balance 2", "progress 1", "transfer created", "other balance"), announced);
+    }
+
+    @Test
+    public void testEventCoalescerTimerOnlyAnnouncesItsOwnEvent() {
+        announce("manager", "balance", "balance 1");
+        coalescer.announce("manager", () -> announced.add("transfer created"));
+
+        // held afresh after the flush; the first timer must not cut its window short
+        announce("manager", "balance", "balance 2");
+        scheduler.runNext();
+        assertEquals(Arrays.asList("balance 1", "transfer created"), announced);
+
+        scheduler.runNext();
+        assertEquals(Arrays.asList("balance 1", "transfer created", "balance 2"), announced);
+    }
+
+    @Test
+    public void testEventCoalescerKeepsSubMillisecondWindow() {
+        coalescer.setWindow(500, TimeUnit.MICROSECONDS);
+        announce("manager", "balance", "balance 1");
+        announce("manager", "balance", "balance 2");
+        assertTrue(announced.isEmpty());
+        assertEquals(500, scheduler.getTask(0).getDelay(TimeUnit.MICROSECONDS));
+
+        scheduler.runAll();
+        assertEquals(Arrays.asList("balance 2"), announced);
+    }
+
+    @Test
+    public void testEventCoalescerZeroWindowAnnouncesHeldEvents() {
+        announce("manager", "balance", "balance 1");
+        coalescer.setWindow(0, TimeUnit.MILLISECONDS);
+        assertEquals(Arrays.asList("balance 1"), announced);
+
+        announce("manager", "balance", "balance 2");
+        assertEquals(Arrays.asList("balance 1", "balance 2"), announced);
+        assertEquals(1, scheduler.getTaskCount());
+    }
+
+    private void announce(Object group, Object key, String event) {
+        coalescer.announce(group, key, event, LATEST, announced::add);
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corecrypto;
+
+import com.google.common.base.Ticker;
+
+import java.util.concurrent.TimeUnit;
+
+/* package */
+class FakeTicker extends Ticker {
+
+    private long nanos = TimeUnit.DAYS.toNanos(1);
+
+    @Override
+    public synchronized long read() {
+        return nanos;
+    }
+
+    /* package */
+    synchronized void advance(long duration, TimeUnit unit) {
+        nanos += unit.toNanos(duration);
+    }
+}
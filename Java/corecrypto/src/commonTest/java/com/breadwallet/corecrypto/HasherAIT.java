@@ -12,6 +12,7 @@ import org.junit.Test;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.fail;
 
 public class HasherAIT {
 
@@ -170,4 +171,19 @@ public class HasherAIT {
         };
         assertArrayEquals(a, Hasher.createForAlgorithm(com.breadwallet.crypto.Hasher.Algorithm.MD5).hash(d).get());
     }
+
+    @Test
+    public void testHasherClose() {
+        Hasher hasher = Hasher.createForAlgorithm(com.breadwallet.crypto.Hasher.Algorithm.SHA256);
+
+        hasher.close();
+        hasher.close();
+
+        try {
+            hasher.hash(new byte[] {0});
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
 }
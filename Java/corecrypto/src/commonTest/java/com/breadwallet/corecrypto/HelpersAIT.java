@@ -7,12 +7,14 @@
  */
 package com.breadwallet.corecrypto;
 
+import com.breadwallet.crypto.AddressScheme;
 import com.breadwallet.crypto.CryptoApi;
 import com.breadwallet.crypto.Network;
 import com.breadwallet.crypto.System;
 import com.breadwallet.crypto.Transfer;
 import com.breadwallet.crypto.Wallet;
 import com.breadwallet.crypto.WalletManager;
+import com.breadwallet.crypto.WalletManagerMode;
 import com.breadwallet.crypto.blockchaindb.BlockchainDb;
 import com.breadwallet.crypto.events.network.NetworkEvent;
 import com.breadwallet.crypto.events.system.DefaultSystemListener;
@@ -128,6 +130,26 @@ class HelpersAIT {
         return system;
     }
 
+    /**
+     * Create a system, and a wallet manager for `currencyCode` on it, and give the manager time
+     * to sync its wallet's transfers.
+     */
+    /* package */
+    static Wallet createSyncedWallet(File dataDir, String currencyCode, WalletManagerMode mode, AddressScheme scheme) {
+        RecordingSystemListener recorder = HelpersAIT.createRecordingListener();
+        System system = HelpersAIT.createAndConfigureSystemWithListener(dataDir, recorder);
+
+        Network network = HelpersAIT.getNetworkByCurrencyCode(recorder.getAddedNetworks(), currencyCode).get();
+        system.createWalletManager(network, mode, scheme, Collections.emptySet());
+        Uninterruptibles.sleepUninterruptibly(5, TimeUnit.SECONDS);
+
+        WalletManager manager = HelpersAIT.getManagerByCode(recorder.getAddedManagers(), currencyCode).get();
+        manager.connect(null);
+        Uninterruptibles.sleepUninterruptibly(30, TimeUnit.SECONDS);
+
+        return manager.getPrimaryWallet();
+    }
+
     /* package */
     static Optional<Network> getNetworkByCurrencyCode(Collection<Network> networks, String code) {
         Network out = null;
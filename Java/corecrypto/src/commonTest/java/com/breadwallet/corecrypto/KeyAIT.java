@@ -148,4 +148,29 @@ public class KeyAIT {
         k = Key.createForBIP32BitID (s,2, "some uri", HelpersAIT.BIP39_WORDS_EN);
         assertFalse(k.isPresent());
     }
+
+    @Test
+    public void testKeyClose() {
+        Key key = Key.createFromSecret(new byte[] {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1}).get();
+        Key other = Key.createFromSecret(new byte[] {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1}).get();
+
+        key.close();
+        key.close();
+
+        try {
+            key.encodeAsPublic();
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        try {
+            other.publicKeyMatch(key);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        assertTrue(other.publicKeyMatch(other));
+    }
 }
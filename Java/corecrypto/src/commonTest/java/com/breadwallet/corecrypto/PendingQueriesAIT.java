@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corecrypto;
+
+import com.breadwallet.crypto.utility.Cancellable;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PendingQueriesAIT {
+
+    @Test
+    public void testPendingQueriesCancelAll() {
+        PendingQueries queries = new PendingQueries();
+        FakeQuery query = new FakeQuery();
+        queries.add().setQuery(query);
+
+        FakeQuery completed = new FakeQuery();
+        PendingQueries.Entry entry = queries.add();
+        entry.setQuery(completed);
+        entry.complete();
+
+        queries.cancelAll();
+        assertTrue(query.cancelled);
+        assertFalse(completed.cancelled);
+
+        // still open; a reconnected manager issues queries again
+        FakeQuery next = new FakeQuery();
+        queries.add().setQuery(next);
+        assertFalse(next.cancelled);
+    }
+
+    @Test
+    public void testPendingQueriesCancelsQueryIssuedWhileCancelling() {
+        PendingQueries queries = new PendingQueries();
+        PendingQueries.Entry entry = queries.add();
+        queries.cancelAll();
+
+        FakeQuery query = new FakeQuery();
+        entry.setQuery(query);
+        assertTrue(query.cancelled);
+    }
+
+    @Test
+    public void testPendingQueriesRefusesEntriesOnceClosed() {
+        PendingQueries queries = new PendingQueries();
+        FakeQuery query = new FakeQuery();
+        queries.add().setQuery(query);
+
+        queries.close();
+        assertTrue(query.cancelled);
+
+        FakeQuery late = new FakeQuery();
+        queries.add().setQuery(late);
+        assertTrue(late.cancelled);
+
+        FakeQuery unknown = new FakeQuery();
+        PendingQueries.CLOSED.add().setQuery(unknown);
+        assertTrue(unknown.cancelled);
+    }
+
+    private static class FakeQuery implements Cancellable {
+
+        boolean cancelled;
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -16,6 +16,7 @@ import java.nio.charset.StandardCharsets;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class SignerAIT {
 
@@ -118,4 +119,32 @@ public class SignerAIT {
             assertEquals(outputSigHex, signatures[i]);
         }
     }
+
+    @Test
+    public void testSignerClose() {
+        Key key = Key.createFromSecret(new byte[] {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1}).get();
+        byte[] digest = Hasher.createForAlgorithm(com.breadwallet.crypto.Hasher.Algorithm.SHA256).hash(new byte[] {0}).get();
+        Signer signer = Signer.createForAlgorithm(com.breadwallet.crypto.Signer.Algorithm.BASIC_DER);
+
+        signer.close();
+        signer.close();
+
+        try {
+            signer.sign(digest, key);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        // signing with a closed key also fails
+        signer = Signer.createForAlgorithm(com.breadwallet.crypto.Signer.Algorithm.BASIC_DER);
+        key.close();
+
+        try {
+            signer.sign(digest, key);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
 }
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corecrypto;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.UnsignedLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SubscriptionSyncAIT {
+
+    private static final String NETWORK = "bitcoin-mainnet";
+    private static final String STREAM = "transactions";
+    private static final List<String> ADDRESSES = Collections.singletonList("1address");
+
+    private FakeTicker ticker;
+    private SubscriptionSync sync;
+
+    @Before
+    public void setup() {
+        ticker = new FakeTicker();
+        sync = new SubscriptionSync(ticker);
+    }
+
+    @Test
+    public void testSubscriptionSyncFetchesWithoutSubscription() {
+        SubscriptionSync.Poll poll = poll(100);
+        assertFalse(poll.isSkipped());
+        assertTrue(poll.isAddressesChanged());
+        assertEquals(UnsignedLong.valueOf(100), poll.getBegBlockNumber());
+        sync.complete(poll, true);
+
+        poll = poll(101);
+        assertFalse(poll.isSkipped());
+        assertFalse(poll.isAddressesChanged());
+    }
+
+    @Test
+    public void testSubscriptionSyncSkipsWhileHealthyAndQuiet() {
+        subscribeAfterFirstFetch(100);
+
+        SubscriptionSync.Poll poll = poll(101);
+        assertTrue(poll.isSkipped());
+
+        // unbounded polls always fetch
+        poll = sync.poll(NETWORK, STREAM, ADDRESSES, null);
+        assertFalse(poll.isSkipped());
+        assertNull(poll.getBegBlockNumber());
+    }
+
+    @Test
+    public void testSubscriptionSyncFetchesForUncoveredAddresses() {
+        subscribeAfterFirstFetch(100);
+
+        SubscriptionSync.Poll poll = sync.poll(NETWORK, STREAM, Collections.singletonList("2address"), UnsignedLong.valueOf(101));
+        assertFalse(poll.isSkipped());
+        assertTrue(poll.isAddressesChanged());
+    }
+
+    @Test
+    public void testSubscriptionSyncFetchesOnceUnhealthy() {
+        subscribeAfterFirstFetch(100);
+        assertTrue(poll(101).isSkipped());
+
+        sync.setUnsubscribed();
+        SubscriptionSync.Poll poll = poll(102);
+        assertFalse(poll.isSkipped());
+        assertEquals(UnsignedLong.valueOf(101), poll.getBegBlockNumber());
+    }
+
+    @Test
+    public void testSubscriptionSyncFetchesOnceSubscriptionExpires() {
+        subscribeAfterFirstFetch(100);
+
+        for (int i = 0; i < 24 * 6; i++) {
+            ticker.advance(10, TimeUnit.MINUTES);
+            sync.complete(poll(101), true);
+        }
+
+        assertFalse(poll(101).isSkipped());
+    }
+
+    @Test
+    public void testSubscriptionSyncFetchesFromNotifiedBlock() {
+        subscribeAfterFirstFetch(100);
+        assertTrue(poll(100).isSkipped());
+        assertTrue(poll(101).isSkipped());
+
+        sync.announce(NETWORK, UnsignedLong.valueOf(102));
+        SubscriptionSync.Poll poll = poll(103);
+        assertFalse(poll.isSkipped());
+        assertEquals(UnsignedLong.valueOf(102), poll.getBegBlockNumber());
+
+        // a notification without a block reaches back over the whole skipped range
+        sync.complete(poll, true);
+        sync.announce(NETWORK, null);
+        poll = poll(104);
+        assertFalse(poll.isSkipped());
+        assertEquals(UnsignedLong.valueOf(100), poll.getBegBlockNumber());
+    }
+
+    @Test
+    public void testSubscriptionSyncRefetchesBlocksBelowNotifiedBlock() {
+        subscribeAfterFirstFetch(100);
+        assertTrue(poll(100).isSkipped());
+
+        // the notification for a transaction at 102 is lost; the one at 108 arrives
+        sync.announce(NETWORK, UnsignedLong.valueOf(108));
+        SubscriptionSync.Poll poll = poll(109);
+        assertEquals(UnsignedLong.valueOf(108), poll.getBegBlockNumber());
+        sync.complete(poll, true);
+
+        assertTrue(poll(109).isSkipped());
+
+        // the backstop reaches back to the start of the skipped range, not just the last poll
+        ticker.advance(10, TimeUnit.MINUTES);
+        poll = poll(109);
+        assertFalse(poll.isSkipped());
+        assertEquals(UnsignedLong.valueOf(100), poll.getBegBlockNumber());
+        sync.complete(poll, true);
+
+        // and once covered, the range is forgotten
+        assertTrue(poll(110).isSkipped());
+        ticker.advance(10, TimeUnit.MINUTES);
+        assertEquals(UnsignedLong.valueOf(110), poll(111).getBegBlockNumber());
+    }
+
+    @Test
+    public void testSubscriptionSyncKeepsRangeOnFailure() {
+        subscribeAfterFirstFetch(100);
+        assertTrue(poll(100).isSkipped());
+
+        ticker.advance(10, TimeUnit.MINUTES);
+        SubscriptionSync.Poll poll = poll(105);
+        assertEquals(UnsignedLong.valueOf(100), poll.getBegBlockNumber());
+        sync.complete(poll, false);
+
+        poll = poll(105);
+        assertFalse(poll.isSkipped());
+        assertEquals(UnsignedLong.valueOf(100), poll.getBegBlockNumber());
+    }
+
+    @Test
+    public void testSubscriptionSyncKeepsNotificationDuringFetch() {
+        subscribeAfterFirstFetch(100);
+        assertTrue(poll(100).isSkipped());
+
+        sync.announce(NETWORK, UnsignedLong.valueOf(102));
+        SubscriptionSync.Poll poll = poll(103);
+        sync.announce(NETWORK, UnsignedLong.valueOf(104));
+        sync.complete(poll, true);
+
+        poll = poll(105);
+        assertFalse(poll.isSkipped());
+        assertEquals(UnsignedLong.valueOf(102), poll.getBegBlockNumber());
+    }
+
+    private void subscribeAfterFirstFetch(long blockNumber) {
+        SubscriptionSync.Poll poll = poll(blockNumber);
+        assertFalse(poll.isSkipped());
+        sync.complete(poll, true);
+
+        sync.setSubscribed(ImmutableMap.of(NETWORK, ImmutableSet.copyOf(ADDRESSES)));
+    }
+
+    private SubscriptionSync.Poll poll(long blockNumber) {
+        return sync.poll(NETWORK, STREAM, ADDRESSES, UnsignedLong.valueOf(blockNumber));
+    }
+
+    private static class FakeTicker extends Ticker {
+
+        private long nanos = TimeUnit.DAYS.toNanos(1);
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long duration, TimeUnit unit) {
+            nanos += unit.toNanos(duration);
+        }
+    }
+}
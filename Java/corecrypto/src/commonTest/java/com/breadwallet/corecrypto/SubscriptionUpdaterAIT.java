@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corecrypto;
+
+import com.breadwallet.crypto.blockchaindb.BlockchainDb;
+import com.breadwallet.crypto.blockchaindb.DataTask;
+import com.breadwallet.crypto.blockchaindb.models.bdb.SubscriptionCurrency;
+import com.breadwallet.crypto.blockchaindb.models.bdb.SubscriptionEndpoint;
+import com.google.common.base.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+import static org.junit.Assert.*;
+
+public class SubscriptionUpdaterAIT {
+
+    private static final String DEVICE_ID = "device-1";
+
+    private static final String NO_SUBSCRIPTIONS = "{\"_embedded\":{\"subscriptions\":[]}}";
+
+    private FakeDataTask dataTask;
+    private SubscriptionSync subscriptionSync;
+    private SubscriptionUpdater updater;
+    private String token;
+
+    @Before
+    public void setup() {
+        OkHttpClient client = new OkHttpClient();
+        dataTask = new FakeDataTask(client);
+        subscriptionSync = new SubscriptionSync();
+        token = "token-1";
+
+        BlockchainDb query = new BlockchainDb(client, null, dataTask, null, null);
+        updater = new SubscriptionUpdater(query, DEVICE_ID, subscriptionSync, () -> null == token ?
+                Optional.absent() :
+                Optional.of(new SubscriptionUpdater.Contents(
+                        SubscriptionEndpoint.create("fcm", "development", token),
+                        Collections.<SubscriptionCurrency>emptyList(),
+                        new HashMap<>())));
+    }
+
+    @Test
+    public void testSubscriptionUpdaterReusesCreatedId() throws IOException {
+        updater.update();
+        dataTask.respond(0, "GET", "/subscriptions", NO_SUBSCRIPTIONS);
+        dataTask.respond(1, "POST", "/subscriptions", subscription("sub-1", DEVICE_ID));
+        assertEquals("sub-1", updater.getSubscriptionId().get());
+
+        token = "token-2";
+        updater.update();
+        dataTask.respond(2, "PUT", "/subscriptions/sub-1", subscription("sub-1", DEVICE_ID));
+
+        updater.update();
+        dataTask.respond(3, "PUT", "/subscriptions/sub-1", subscription("sub-1", DEVICE_ID));
+        assertEquals(4, dataTask.getRequestCount());
+    }
+
+    @Test
+    public void testSubscriptionUpdaterSendsOneRequestAtATime() throws IOException {
+        updater.update();
+        dataTask.respond(0, "GET", "/subscriptions", NO_SUBSCRIPTIONS);
+
+        // requested while the create is in flight, and sent once, after it
+        updater.update();
+        updater.update();
+        assertEquals(2, dataTask.getRequestCount());
+
+        token = "token-2";
+        dataTask.respond(1, "POST", "/subscriptions", subscription("sub-1", DEVICE_ID));
+        assertEquals(3, dataTask.getRequestCount());
+        assertTrue(dataTask.getBody(2).contains("token-2"));
+
+        dataTask.respond(2, "PUT", "/subscriptions/sub-1", subscription("sub-1", DEVICE_ID));
+        assertEquals(3, dataTask.getRequestCount());
+    }
+
+    @Test
+    public void testSubscriptionUpdaterFindsExistingSubscriptionByDevice() throws IOException {
+        updater.update();
+        dataTask.respond(0, "GET", "/subscriptions", "{\"_embedded\":{\"subscriptions\":["
+                + subscription("sub-0", "device-0") + ","
+                + subscription("sub-1", DEVICE_ID) + "]}}");
+        dataTask.respond(1, "PUT", "/subscriptions/sub-1", subscription("sub-1", DEVICE_ID));
+        assertEquals("sub-1", updater.getSubscriptionId().get());
+    }
+
+    @Test
+    public void testSubscriptionUpdaterDeletesById() throws IOException {
+        updater.update();
+        dataTask.respond(0, "GET", "/subscriptions", NO_SUBSCRIPTIONS);
+        dataTask.respond(1, "POST", "/subscriptions", subscription("sub-1", DEVICE_ID));
+
+        token = null;
+        updater.update();
+        dataTask.respond(2, "DELETE", "/subscriptions/sub-1", "");
+        assertFalse(updater.getSubscriptionId().isPresent());
+
+        // nothing left to delete
+        updater.update();
+        assertEquals(3, dataTask.getRequestCount());
+    }
+
+    private static String subscription(String id, String deviceId) {
+        return "{\"subscription_id\":\"" + id + "\",\"device_id\":\"" + deviceId + "\","
+                + "\"endpoint\":{\"kind\":\"fcm\",\"environment\":\"development\",\"value\":\"token\"},"
+                + "\"currencies\":[]}";
+    }
+
+    private static class FakeDataTask implements DataTask {
+
+        private static final MediaType MEDIA_TYPE_JSON = MediaType.get("application/json; charset=utf-8");
+
+        private final OkHttpClient client;
+        private final List<Request> requests = new ArrayList<>();
+        private final List<Callback> callbacks = new ArrayList<>();
+
+        FakeDataTask(OkHttpClient client) {
+            this.client = client;
+        }
+
+        @Override
+        public synchronized void execute(OkHttpClient client, Request request, Callback callback) {
+            requests.add(request);
+            callbacks.add(callback);
+        }
+
+        synchronized int getRequestCount() {
+            return requests.size();
+        }
+
+        String getBody(int index) throws IOException {
+            Buffer buffer = new Buffer();
+            requests.get(index).body().writeTo(buffer);
+            return buffer.readUtf8();
+        }
+
+        /**
+         * Check that request `index` is `method` on `path`, and answer it with a 200 and `body`.
+         */
+        void respond(int index, String method, String path, String body) throws IOException {
+            Request request;
+            Callback callback;
+            synchronized (this) {
+                request = requests.get(index);
+                callback = callbacks.get(index);
+            }
+            assertEquals(method, request.method());
+            assertTrue(request.url().encodedPath(), request.url().encodedPath().endsWith(path));
+
+            callback.onResponse(client.newCall(request), new Response.Builder()
+                    .request(request)
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(200)
+                    .message("")
+                    .body(ResponseBody.create(body, MEDIA_TYPE_JSON))
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corecrypto;
+
+import com.breadwallet.crypto.AddressScheme;
+import com.breadwallet.crypto.Transfer;
+import com.breadwallet.crypto.TransferConfirmation;
+import com.breadwallet.crypto.TransferSnapshot;
+import com.breadwallet.crypto.TransferState;
+import com.breadwallet.crypto.Wallet;
+import com.breadwallet.crypto.WalletManagerMode;
+import com.google.common.base.Optional;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TransferSnapshotAIT {
+
+    private File coreDataDir;
+
+    @Before
+    public void setup() {
+        HelpersAIT.registerCryptoApiProvider();
+
+        coreDataDir = HelpersAIT.generateCoreDataDir();
+        HelpersAIT.createOrOverwriteDirectory(coreDataDir);
+    }
+
+    @After
+    public void teardown() {
+        HelpersAIT.deleteFile(coreDataDir);
+    }
+
+    @Test
+    public void testTransferSnapshotMatchesGetters() {
+        Wallet wallet = HelpersAIT.createSyncedWallet(coreDataDir, "btc", WalletManagerMode.API_ONLY, AddressScheme.BTC_LEGACY);
+        List<? extends Transfer> transfers = wallet.getTransfers();
+        assertNotEquals(0, transfers.size());
+
+        for (Transfer transfer : transfers) {
+            assertSnapshotMatches(transfer, transfer.getSnapshot());
+        }
+    }
+
+    @Test
+    public void testWalletTransferSnapshotsMatchGetters() {
+        Wallet wallet = HelpersAIT.createSyncedWallet(coreDataDir, "btc", WalletManagerMode.API_ONLY, AddressScheme.BTC_LEGACY);
+        List<? extends Transfer> transfers = wallet.getTransfers();
+        List<? extends TransferSnapshot> snapshots = wallet.getTransferSnapshots();
+        assertNotEquals(0, transfers.size());
+
+        // both in the wallet's order
+        assertEquals(transfers.size(), snapshots.size());
+        for (int i = 0; i < transfers.size(); i++) {
+            assertSnapshotMatches(transfers.get(i), snapshots.get(i));
+        }
+    }
+
+    private static void assertSnapshotMatches(Transfer transfer, TransferSnapshot snapshot) {
+        assertEquals(transfer.getAmount(), snapshot.getAmount());
+        assertEquals(transfer.getAmountDirected(), snapshot.getAmountDirected());
+        assertEquals(transfer.getDirection(), snapshot.getDirection());
+
+        if (transfer.getConfirmedFeeBasis().isPresent() || transfer.getEstimatedFeeBasis().isPresent()) {
+            assertEquals(Optional.of(transfer.getFee()), snapshot.getFee());
+        } else {
+            assertFalse(snapshot.getFee().isPresent());
+        }
+
+        assertEquals(toString(transfer.getHash()), snapshot.getHash());
+        assertEquals(toString(transfer.getSource()), snapshot.getSource());
+        assertEquals(toString(transfer.getTarget()), snapshot.getTarget());
+
+        TransferState state = transfer.getState();
+        assertEquals(state.getType(), snapshot.getStateType());
+
+        Optional<TransferConfirmation> confirmation = state.getIncludedConfirmation();
+        assertEquals(confirmation.isPresent(), snapshot.getBlockNumber().isPresent());
+        if (confirmation.isPresent()) {
+            assertEquals(confirmation.get().getBlockNumber(), snapshot.getBlockNumber().get());
+            assertEquals(confirmation.get().getTransactionIndex(), snapshot.getTransactionIndex().get());
+            assertEquals(confirmation.get().getConfirmationTime(), snapshot.getConfirmationTime().get());
+        }
+    }
+
+    private static Optional<String> toString(Optional<?> value) {
+        return value.isPresent() ? Optional.of(value.get().toString()) : Optional.absent();
+    }
+}
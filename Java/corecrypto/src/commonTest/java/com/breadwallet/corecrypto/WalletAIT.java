@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corecrypto;
+
+import com.breadwallet.crypto.AddressScheme;
+import com.breadwallet.crypto.Transfer;
+import com.breadwallet.crypto.TransferConfirmation;
+import com.breadwallet.crypto.TransferHash;
+import com.breadwallet.crypto.Wallet;
+import com.breadwallet.crypto.WalletManagerMode;
+import com.google.common.base.Optional;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class WalletAIT {
+
+    private File coreDataDir;
+    private Wallet wallet;
+
+    @Before
+    public void setup() {
+        HelpersAIT.registerCryptoApiProvider();
+
+        coreDataDir = HelpersAIT.generateCoreDataDir();
+        HelpersAIT.createOrOverwriteDirectory(coreDataDir);
+
+        wallet = HelpersAIT.createSyncedWallet(coreDataDir, "btc", WalletManagerMode.API_ONLY, AddressScheme.BTC_LEGACY);
+        assertNotEquals(0, wallet.getTransferCount());
+    }
+
+    @After
+    public void teardown() {
+        HelpersAIT.deleteFile(coreDataDir);
+    }
+
+    @Test
+    public void testWalletTransfersPageOrder() {
+        int count = wallet.getTransferCount();
+        List<? extends Transfer> all = wallet.getTransfers(0, count);
+        assertEquals(count, all.size());
+
+        // included transfers first, oldest first; then those not yet included
+        TransferConfirmation previous = null;
+        boolean pending = false;
+        for (Transfer transfer : all) {
+            Optional<TransferConfirmation> confirmation = transfer.getConfirmation();
+            if (!confirmation.isPresent()) {
+                pending = true;
+                continue;
+            }
+
+            assertFalse(pending);
+            if (null != previous) {
+                assertTrue(compare(previous, confirmation.get()) <= 0);
+            }
+            previous = confirmation.get();
+        }
+
+        // pages, from the cached order, concatenate to the whole
+        List<Transfer> paged = new ArrayList<>();
+        for (int offset = 0; offset < count; offset += 2) {
+            paged.addAll(wallet.getTransfers(offset, 2));
+        }
+        assertEquals(all, paged);
+    }
+
+    @Test
+    public void testWalletTransfersPageBounds() {
+        int count = wallet.getTransferCount();
+
+        assertEquals(0, wallet.getTransfers(0, 0).size());
+        assertEquals(0, wallet.getTransfers(count, 10).size());
+        assertEquals(0, wallet.getTransfers(count + 10, 10).size());
+        assertEquals(1, wallet.getTransfers(count - 1, 10).size());
+        assertEquals(count, wallet.getTransfers(0, count + 10).size());
+        assertEquals(count, wallet.getTransfers(0, Integer.MAX_VALUE).size());
+
+        try {
+            wallet.getTransfers(-1, 10);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testWalletTransfersPageReusesWrappers() {
+        List<? extends Transfer> all = wallet.getTransfers();
+        List<? extends Transfer> page = wallet.getTransfers(0, all.size());
+
+        for (Transfer transfer : page) {
+            assertTrue(containsSame(all, transfer));
+        }
+        assertSame(page.get(0), wallet.getTransfers(0, 1).get(0));
+    }
+
+    @Test
+    public void testWalletTransferByHash() {
+        List<? extends Transfer> all = wallet.getTransfers();
+
+        // the first lookup builds the index; the rest are answered from it
+        for (int pass = 0; pass < 2; pass++) {
+            for (Transfer transfer : all) {
+                Optional<? extends TransferHash> hash = transfer.getHash();
+                assertTrue(hash.isPresent());
+
+                Optional<? extends Transfer> found = wallet.getTransferByHash(hash.get());
+                assertTrue(found.isPresent());
+                assertSame(transfer, found.get());
+            }
+        }
+    }
+
+    private static int compare(TransferConfirmation c1, TransferConfirmation c2) {
+        int result = c1.getConfirmationTime().compareTo(c2.getConfirmationTime());
+        if (0 == result) {
+            result = c1.getBlockNumber().compareTo(c2.getBlockNumber());
+        }
+        if (0 == result) {
+            result = c1.getTransactionIndex().compareTo(c2.getTransactionIndex());
+        }
+        return result;
+    }
+
+    private static boolean containsSame(List<? extends Transfer> transfers, Transfer transfer) {
+        for (Transfer candidate : transfers) {
+            if (candidate == transfer) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
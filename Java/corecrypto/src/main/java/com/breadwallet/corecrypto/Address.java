@@ -7,6 +7,7 @@
  */
 package com.breadwallet.corecrypto;
 
+import com.breadwallet.corenative.cleaner.Cleanable;
 import com.breadwallet.corenative.cleaner.ReferenceCleaner;
 import com.breadwallet.corenative.crypto.BRCryptoAddress;
 import com.google.common.base.Optional;
@@ -15,6 +16,8 @@ import com.google.common.base.Suppliers;
 
 import java.util.Objects;
 
+import static com.google.common.base.Preconditions.checkState;
+
 /* package */
 final class Address implements com.breadwallet.crypto.Address {
 
@@ -27,9 +30,15 @@ final class Address implements com.breadwallet.crypto.Address {
 
     /* package */
     static Address create(BRCryptoAddress core) {
-        Address address = new Address(core);
-        ReferenceCleaner.register(address, core::give);
-        return address;
+        return new Address(core, false);
+    }
+
+    /**
+     * Create an address that is handed out by another object, which closing has no effect on.
+     */
+    /* package */
+    static Address createShared(BRCryptoAddress core) {
+        return new Address(core, true);
     }
 
     /* package */
@@ -41,13 +50,27 @@ final class Address implements com.breadwallet.crypto.Address {
     }
 
     private final BRCryptoAddress core;
+    private final Cleanable cleaner;
+    private final boolean isShared;
+
+    private volatile boolean closed;
 
     private final Supplier<String> toStringSupplier;
 
-    private Address(BRCryptoAddress core) {
+    private Address(BRCryptoAddress core, boolean isShared) {
         this.core = core;
+        this.cleaner = ReferenceCleaner.register(this, core::give);
+        this.isShared = isShared;
 
-        this.toStringSupplier = Suppliers.memoize(core::toString);
+        this.toStringSupplier = Suppliers.memoize(() -> getCoreBRCryptoAddress().toString());
+    }
+
+    @Override
+    public void close() {
+        if (!isShared) {
+            closed = true;
+            cleaner.clean();
+        }
     }
 
     @Override
@@ -66,7 +89,7 @@ final class Address implements com.breadwallet.crypto.Address {
         }
 
         Address address = (Address) o;
-        return core.isIdentical(address.core);
+        return getCoreBRCryptoAddress().isIdentical(address.getCoreBRCryptoAddress());
     }
 
     @Override
@@ -76,6 +99,8 @@ final class Address implements com.breadwallet.crypto.Address {
 
     /* package */
     BRCryptoAddress getCoreBRCryptoAddress() {
+        // the native object is released on close
+        checkState(!closed);
         return core;
     }
 }
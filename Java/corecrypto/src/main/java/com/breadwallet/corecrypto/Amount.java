@@ -9,14 +9,15 @@ package com.breadwallet.corecrypto;
 
 import android.support.annotation.Nullable;
 
+import com.breadwallet.corenative.cleaner.Cleanable;
 import com.breadwallet.corenative.cleaner.ReferenceCleaner;
 import com.breadwallet.corenative.crypto.BRCryptoAmount;
 import com.breadwallet.crypto.CurrencyPair;
-import com.breadwallet.corenative.crypto.BRCryptoComparison;
 import com.google.common.base.Optional;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 
+import java.math.BigInteger;
 import java.math.RoundingMode;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
@@ -24,6 +25,7 @@ import java.text.NumberFormat;
 import java.util.Objects;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 
 /* package */
 final class Amount implements com.breadwallet.crypto.Amount {
@@ -51,9 +53,31 @@ final class Amount implements com.breadwallet.crypto.Amount {
 
     /* package */
     static Amount create(BRCryptoAmount core) {
-        Amount amount = new Amount(core);
-        ReferenceCleaner.register(amount, core::give);
-        return amount;
+        return new Amount(core, false);
+    }
+
+    /**
+     * Create an amount that is handed out by another object, which closing has no effect on.
+     */
+    /* package */
+    static Amount createShared(BRCryptoAmount core) {
+        return new Amount(core, true);
+    }
+
+    /**
+     * Create an amount from its value in the unit's base unit; its native amount is only created if needed.
+     */
+    /* package */
+    static Amount create(Unit unit, boolean isNegative, BigInteger magnitude) {
+        return new Amount(unit, isNegative, magnitude, false);
+    }
+
+    /**
+     * As above, for an amount that is handed out by another object, which closing has no effect on.
+     */
+    /* package */
+    static Amount createShared(Unit unit, boolean isNegative, BigInteger magnitude) {
+        return new Amount(unit, isNegative, magnitude, true);
     }
 
     /* package */
@@ -87,20 +111,72 @@ final class Amount implements com.breadwallet.crypto.Amount {
         return formatter;
     }
 
-    private final BRCryptoAmount core;
+    // values must be less than 2^256, as held by the native amount
+    private static final BigInteger VALUE_LIMIT = BigInteger.ONE.shiftLeft(256);
+
+    private final boolean isShared;
 
+    // set once the native amount exists
+    private volatile @Nullable Cleanable cleaner;
+    private volatile boolean closed;
+
+    private final Supplier<BRCryptoAmount> coreSupplier;
     private final Supplier<Unit> unitSupplier;
+    private final Supplier<Value> valueSupplier;
     private final Supplier<Currency> currencySupplier;
     private final Supplier<String> toStringSupplier;
 
-    private Amount(BRCryptoAmount core) {
-        this.core = core;
+    private Amount(BRCryptoAmount core, boolean isShared) {
+        this.isShared = isShared;
+        this.cleaner = ReferenceCleaner.register(this, core::give);
+
+        this.coreSupplier = Suppliers.ofInstance(core);
+        this.unitSupplier = Suppliers.memoize(() -> Unit.create(getCoreBRCryptoAmount().getUnit()));
+        this.valueSupplier = Suppliers.memoize(() -> {
+            // the core writes a zero value as an empty string
+            String magnitude = getCoreBRCryptoAmount().toStringWithBase(10, "");
+            return new Value(getCoreBRCryptoAmount().isNegative(), magnitude.isEmpty() ? BigInteger.ZERO : new BigInteger(magnitude));
+        });
+        this.currencySupplier = Suppliers.memoize(() -> getUnit().getCurrency());
+        this.toStringSupplier = Suppliers.memoize(() -> toStringAsUnit(getUnit()).or("<nan>"));
+    }
 
-        this.currencySupplier = Suppliers.memoize(() -> Currency.create(core.getCurrency()));
-        this.unitSupplier = Suppliers.memoize(() -> Unit.create(core.getUnit()));
+    private Amount(Unit unit, boolean isNegative, BigInteger magnitude, boolean isShared) {
+        this.isShared = isShared;
+
+        this.coreSupplier = Suppliers.memoize(() -> {
+            // an integer string is in the given unit, so parse in the base unit and then convert
+            Unit unitBase = unit.getBase();
+            Optional<BRCryptoAmount> coreBase = BRCryptoAmount.create(magnitude.toString(), isNegative, unitBase.getCoreBRCryptoUnit());
+            checkState(coreBase.isPresent());
+            try {
+                Optional<BRCryptoAmount> core = coreBase.get().convert(unit.getCoreBRCryptoUnit());
+                checkState(core.isPresent());
+                this.cleaner = ReferenceCleaner.register(this, core.get()::give);
+                return core.get();
+            } finally {
+                coreBase.get().give();
+            }
+        });
+        this.unitSupplier = Suppliers.ofInstance(unit);
+        this.valueSupplier = Suppliers.ofInstance(new Value(isNegative, magnitude));
+        this.currencySupplier = Suppliers.memoize(() -> getUnit().getCurrency());
         this.toStringSupplier = Suppliers.memoize(() -> toStringAsUnit(getUnit()).or("<nan>"));
     }
 
+    @Override
+    public void close() {
+        if (isShared) {
+            return;
+        }
+
+        closed = true;
+        Cleanable cleaner = this.cleaner;
+        if (null != cleaner) {
+            cleaner.clean();
+        }
+    }
+
     @Override
     public Currency getCurrency() {
         return currencySupplier.get();
@@ -113,46 +189,63 @@ final class Amount implements com.breadwallet.crypto.Amount {
 
     @Override
     public boolean hasCurrency(com.breadwallet.crypto.Currency currency) {
-        return core.hasCurrency(Currency.from(currency).getCoreBRCryptoCurrency());
+        return getUnit().hasCurrency(currency);
     }
 
     @Override
     public boolean isCompatible(com.breadwallet.crypto.Amount withAmount) {
-        return core.isCompatible(from(withAmount).core);
+        return isCompatible(from(withAmount).getUnit());
     }
 
     @Override
     public boolean isNegative() {
-        return core.isNegative();
+        return getValue().isNegative;
     }
 
     @Override
     public boolean isZero() {
-        return core.isZero();
+        return 0 == getValue().magnitude.signum();
     }
 
     @Override
     public Optional<Amount> add(com.breadwallet.crypto.Amount o) {
         checkArgument(isCompatible(o));
 
-        return core.add(from(o).core).transform(Amount::create);
+        // as cryptoAmountAdd(), including that the sum of two negatives is negative, even if zero
+        Value a = getValue();
+        Value b = from(o).getValue();
+        return a.isNegative && b.isNegative ?
+                create(true, a.magnitude.add(b.magnitude)) :
+                create(a.signed().add(b.signed()));
     }
 
     @Override
     public Optional<Amount> sub(com.breadwallet.crypto.Amount o) {
         checkArgument(isCompatible(o));
 
-        return core.sub(from(o).core).transform(Amount::create);
+        // as cryptoAmountSub(), including that a negative less a positive is negative, even if zero
+        Value a = getValue();
+        Value b = from(o).getValue();
+        return a.isNegative && !b.isNegative ?
+                create(true, a.magnitude.add(b.magnitude)) :
+                create(a.signed().subtract(b.signed()));
     }
 
     @Override
     public Amount negate() {
-        return Amount.create(core.negate());
+        Value value = getValue();
+        return create(getUnit(), !value.isNegative, value.magnitude);
     }
 
     @Override
     public Optional<Amount> convert(com.breadwallet.crypto.Unit toUnit) {
-        return core.convert(Unit.from(toUnit).getCoreBRCryptoUnit()).transform(Amount::create);
+        Unit unit = Unit.from(toUnit);
+        if (!isCompatible(unit)) {
+            return Optional.absent();
+        }
+
+        Value value = getValue();
+        return Optional.of(create(unit, value.isNegative, value.magnitude));
     }
 
     @Override
@@ -183,7 +276,7 @@ final class Amount implements com.breadwallet.crypto.Amount {
 
     @Override
     public String toStringWithBase(int base, String preface) {
-        return core.toStringWithBase(base, preface);
+        return getCoreBRCryptoAmount().toStringWithBase(base, preface);
     }
 
     @Override
@@ -193,12 +286,14 @@ final class Amount implements com.breadwallet.crypto.Amount {
 
     @Override
     public int compareTo(com.breadwallet.crypto.Amount o) {
-        switch (core.compare(from(o).core)) {
-            case CRYPTO_COMPARE_EQ: return 0;
-            case CRYPTO_COMPARE_LT: return -1;
-            case CRYPTO_COMPARE_GT: return 1;
-            default: throw new IllegalStateException("Invalid amount comparison");
+        // as cryptoAmountCompare(), by sign and then magnitude; a negative zero is less than zero
+        Value a = getValue();
+        Value b = from(o).getValue();
+        if (a.isNegative != b.isNegative) {
+            return a.isNegative ? -1 : 1;
         }
+        int comparison = a.magnitude.compareTo(b.magnitude);
+        return a.isNegative ? -comparison : comparison;
     }
 
     @Override
@@ -212,21 +307,59 @@ final class Amount implements com.breadwallet.crypto.Amount {
         }
 
         Amount amount = (Amount) o;
-        return BRCryptoComparison.CRYPTO_COMPARE_EQ == core.compare(amount.core);
+        return 0 == compareTo(amount);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(toString());
+        Value value = getValue();
+        return Objects.hash(value.isNegative, value.magnitude);
     }
 
     @Override
     public Optional<Double> doubleAmount(com.breadwallet.crypto.Unit asUnit) {
-        return core.getDouble(Unit.from(asUnit).getCoreBRCryptoUnit());
+        return getCoreBRCryptoAmount().getDouble(Unit.from(asUnit).getCoreBRCryptoUnit());
     }
 
     /* package */
     BRCryptoAmount getCoreBRCryptoAmount() {
-        return core;
+        // the native amount is released on close
+        checkState(!closed);
+        return coreSupplier.get();
+    }
+
+    private Value getValue() {
+        checkState(!closed);
+        return valueSupplier.get();
+    }
+
+    private boolean isCompatible(Unit unit) {
+        // as cryptoUnitIsCompatible(), which compares the units' currencies by uids
+        return getUnit().getCurrency().getUids().equals(unit.getCurrency().getUids());
+    }
+
+    private Optional<Amount> create(BigInteger signed) {
+        return create(signed.signum() < 0, signed.abs());
+    }
+
+    private Optional<Amount> create(boolean isNegative, BigInteger magnitude) {
+        return magnitude.compareTo(VALUE_LIMIT) < 0 ?
+                Optional.of(create(getUnit(), isNegative, magnitude)) :
+                Optional.absent();
+    }
+
+    private static final class Value {
+
+        final boolean isNegative;
+        final BigInteger magnitude;
+
+        Value(boolean isNegative, BigInteger magnitude) {
+            this.isNegative = isNegative;
+            this.magnitude = magnitude;
+        }
+
+        BigInteger signed() {
+            return isNegative ? magnitude.negate() : magnitude;
+        }
     }
 }
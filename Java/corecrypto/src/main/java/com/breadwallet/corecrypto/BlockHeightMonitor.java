@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corecrypto;
+
+import android.support.annotation.Nullable;
+
+import com.breadwallet.crypto.blockchaindb.errors.QueryError;
+import com.breadwallet.crypto.utility.CompletionHandler;
+import com.google.common.base.Ticker;
+import com.google.common.primitives.UnsignedLong;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the block height of each network once for the whole process, on behalf of every wallet
+ * manager syncing it.
+ *
+ * A network is polled at about half its observed block time for as long as some manager keeps
+ * asking for its height; managers are answered from the last polled height while it is fresh.
+ * Once a network goes idle its monitor, along with the fetcher it last used, is dropped.
+ */
+/* package */
+final class BlockHeightMonitor {
+
+    private static final long DEFAULT_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final long MIN_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    private static final long MAX_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    // polling stops once no manager has asked for the height for this long
+    private static final long IDLE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    // weight of the latest observation in the block time estimate
+    private static final double BLOCK_TIME_SMOOTHING = 0.2;
+
+    private static final BlockHeightMonitor INSTANCE = new BlockHeightMonitor(
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "BlockHeightMonitor");
+                thread.setDaemon(true);
+                return thread;
+            }),
+            Ticker.systemTicker());
+
+    /* package */
+    static BlockHeightMonitor getInstance() {
+        return INSTANCE;
+    }
+
+    /* package */
+    interface Fetcher {
+        void fetch(CompletionHandler<UnsignedLong, QueryError> handler);
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final Ticker ticker;
+
+    // guarded by this
+    private final Map<String, Monitor> monitors;
+
+    /* package */
+    BlockHeightMonitor(ScheduledExecutorService scheduler, Ticker ticker) {
+        this.scheduler = scheduler;
+        this.ticker = ticker;
+        this.monitors = new HashMap<>();
+    }
+
+    /**
+     * Get the height of `network`, fetching it with `fetcher` unless a fresh height is cached or
+     * a fetch is already in flight. The most recent `fetcher` is used for subsequent polls.
+     */
+    /* package */
+    void getHeight(Network network, Fetcher fetcher, CompletionHandler<UnsignedLong, QueryError> handler) {
+        getHeight(network.getUids(), network, fetcher, handler);
+    }
+
+    /**
+     * As above, for a network that is not told of height changes.
+     */
+    /* package */
+    void getHeight(String uids, Fetcher fetcher, CompletionHandler<UnsignedLong, QueryError> handler) {
+        getHeight(uids, null, fetcher, handler);
+    }
+
+    /* package */
+    synchronized boolean isMonitoring(String uids) {
+        return monitors.containsKey(uids);
+    }
+
+    private void getHeight(String uids,
+                           @Nullable Network network,
+                           Fetcher fetcher,
+                           CompletionHandler<UnsignedLong, QueryError> handler) {
+        long now = getMillis();
+        UnsignedLong cached = null;
+        boolean fetch = false;
+        Monitor monitor;
+
+        synchronized (this) {
+            monitor = monitors.get(uids);
+            if (null == monitor) {
+                monitor = new Monitor(uids);
+                monitors.put(uids, monitor);
+            }
+
+            monitor.fetcher = fetcher;
+            if (null != network) {
+                monitor.networks.add(network);
+            }
+            monitor.lastRequestMillis = now;
+
+            if (null != monitor.height && now - monitor.heightMillis <= 2 * monitor.getIntervalMillis()) {
+                cached = monitor.height;
+            } else {
+                monitor.waiters.add(handler);
+                if (!monitor.fetching) {
+                    monitor.fetching = true;
+                    fetch = true;
+                }
+            }
+        }
+
+        if (null != cached) {
+            handler.handleData(cached);
+        } else if (fetch) {
+            fetch(monitor);
+        }
+    }
+
+    private void fetch(Monitor monitor) {
+        Fetcher fetcher;
+        synchronized (this) {
+            fetcher = monitor.fetcher;
+        }
+
+        fetcher.fetch(new CompletionHandler<UnsignedLong, QueryError>() {
+            @Override
+            public void handleData(UnsignedLong height) {
+                complete(monitor, height, null);
+            }
+
+            @Override
+            public void handleError(QueryError error) {
+                complete(monitor, null, error);
+            }
+        });
+    }
+
+    private void complete(Monitor monitor, @Nullable UnsignedLong height, @Nullable QueryError error) {
+        long now = getMillis();
+        List<CompletionHandler<UnsignedLong, QueryError>> waiters;
+        List<Network> networks = Collections.emptyList();
+        UnsignedLong announced;
+        long delay = -1;
+
+        synchronized (this) {
+            monitor.fetching = false;
+
+            if (null != height && monitor.update(height, now)) {
+                networks = new ArrayList<>(monitor.networks);
+            }
+            announced = monitor.height;
+
+            waiters = new ArrayList<>(monitor.waiters);
+            monitor.waiters.clear();
+
+            if (!evictIfIdle(monitor, now) && !monitor.scheduled) {
+                monitor.scheduled = true;
+                delay = monitor.getIntervalMillis();
+            }
+        }
+
+        for (Network network : networks) {
+            network.setHeight(announced);
+        }
+
+        for (CompletionHandler<UnsignedLong, QueryError> waiter : waiters) {
+            if (null != height) {
+                waiter.handleData(announced);
+            } else {
+                waiter.handleError(error);
+            }
+        }
+
+        if (delay >= 0) {
+            scheduler.schedule(() -> poll(monitor), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void poll(Monitor monitor) {
+        long now = getMillis();
+        boolean fetch;
+
+        synchronized (this) {
+            monitor.scheduled = false;
+            fetch = !monitor.fetching && !evictIfIdle(monitor, now);
+            if (fetch) {
+                monitor.fetching = true;
+            }
+        }
+
+        if (fetch) {
+            fetch(monitor);
+        }
+    }
+
+    /**
+     * Drop `monitor` if no manager has asked for its height for a while, releasing the fetcher and
+     * so the system it was issued for. Requires the lock.
+     */
+    private boolean evictIfIdle(Monitor monitor, long now) {
+        if (now - monitor.lastRequestMillis <= IDLE_MILLIS) {
+            return false;
+        }
+
+        if (monitor == monitors.get(monitor.uids)) {
+            monitors.remove(monitor.uids);
+        }
+        monitor.fetcher = null;
+        return true;
+    }
+
+    private long getMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(ticker.read());
+    }
+
+    private static final class Monitor {
+
+        final String uids;
+        final Set<Network> networks = Collections.newSetFromMap(new WeakHashMap<>());
+        final List<CompletionHandler<UnsignedLong, QueryError>> waiters = new ArrayList<>();
+
+        @Nullable Fetcher fetcher;
+        boolean fetching;
+        boolean scheduled;
+        long lastRequestMillis;
+
+        @Nullable UnsignedLong height;
+        long heightMillis;
+
+        // when the height last advanced; unset until it first does, as monitoring starts mid-block
+        @Nullable UnsignedLong changedHeight;
+        long changedMillis;
+        double blockMillis;
+
+        Monitor(String uids) {
+            this.uids = uids;
+        }
+
+        /**
+         * Record a polled height, returning true if it advanced.
+         */
+        boolean update(UnsignedLong polled, long now) {
+            heightMillis = now;
+
+            if (null == height) {
+                height = polled;
+                return true;
+            }
+
+            if (polled.compareTo(height) <= 0) {
+                return false;
+            }
+
+            if (null != changedHeight) {
+                double observed = (double) (now - changedMillis) / polled.minus(changedHeight).longValue();
+                blockMillis = 0 == blockMillis ? observed : blockMillis + BLOCK_TIME_SMOOTHING * (observed - blockMillis);
+            }
+
+            changedHeight = polled;
+            changedMillis = now;
+            height = polled;
+            return true;
+        }
+
+        long getIntervalMillis() {
+            if (0 == blockMillis) {
+                return DEFAULT_INTERVAL_MILLIS;
+            }
+            return Math.max(MIN_INTERVAL_MILLIS, Math.min(MAX_INTERVAL_MILLIS, (long) (blockMillis / 2)));
+        }
+    }
+}
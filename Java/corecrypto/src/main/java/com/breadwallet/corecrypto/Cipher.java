@@ -7,11 +7,13 @@
  */
 package com.breadwallet.corecrypto;
 
+import com.breadwallet.corenative.cleaner.Cleanable;
 import com.breadwallet.corenative.cleaner.ReferenceCleaner;
 import com.breadwallet.corenative.crypto.BRCryptoCipher;
 import com.google.common.base.Optional;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 /* package */
 final class Cipher implements com.breadwallet.crypto.Cipher {
@@ -54,28 +56,42 @@ final class Cipher implements com.breadwallet.crypto.Cipher {
     }
 
     private static Cipher create(BRCryptoCipher core) {
-        Cipher cipher = new Cipher(core);
-        ReferenceCleaner.register(cipher, core::give);
-        return cipher;
+        return new Cipher(core);
     }
 
     private final BRCryptoCipher core;
+    private final Cleanable cleaner;
+
+    private volatile boolean closed;
 
     private Cipher(BRCryptoCipher core) {
         this.core = core;
+        this.cleaner = ReferenceCleaner.register(this, core::give);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        cleaner.clean();
     }
 
     @Override
     public Optional<byte[]> encrypt(byte[] data) {
-        return core.encrypt(data);
+        return getCore().encrypt(data);
     }
 
     @Override
     public Optional<byte[]> decrypt(byte[] data) {
-        return core.decrypt(data);
+        return getCore().decrypt(data);
     }
 
     private Optional<byte[]> migrateBRCoreKeyCiphertext(byte[] data) {
-        return core.migrateBRCoreKeyCiphertext(data);
+        return getCore().migrateBRCoreKeyCiphertext(data);
+    }
+
+    private BRCryptoCipher getCore() {
+        // the native object is released on close
+        checkState(!closed);
+        return core;
     }
 }
@@ -9,11 +9,13 @@ package com.breadwallet.corecrypto;
 
 import android.support.annotation.Nullable;
 
+import com.breadwallet.corenative.cleaner.Cleanable;
 import com.breadwallet.corenative.cleaner.ReferenceCleaner;
 import com.breadwallet.corenative.crypto.BRCryptoCoder;
 import com.google.common.base.Optional;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 /* package */
 final class Coder implements com.breadwallet.crypto.Coder {
@@ -48,24 +50,38 @@ final class Coder implements com.breadwallet.crypto.Coder {
     }
 
     private static Coder create(BRCryptoCoder core) {
-        Coder coder = new Coder(core);
-        ReferenceCleaner.register(coder, core::give);
-        return coder;
+        return new Coder(core);
     }
 
     private final BRCryptoCoder core;
+    private final Cleanable cleaner;
+
+    private volatile boolean closed;
 
     private Coder(BRCryptoCoder core) {
         this.core = core;
+        this.cleaner = ReferenceCleaner.register(this, core::give);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        cleaner.clean();
     }
 
     @Override
     public Optional<String> encode(byte[] source) {
-        return core.encode(source);
+        return getCore().encode(source);
     }
 
     @Override
     public Optional<byte[]> decode(String source) {
-        return core.decode(source);
+        return getCore().decode(source);
+    }
+
+    private BRCryptoCoder getCore() {
+        // the native object is released on close
+        checkState(!closed);
+        return core;
     }
 }
@@ -106,6 +106,26 @@ public final class CryptoApiProvider implements CryptoApi.Provider {
         public void wipeAll(String path, List<com.breadwallet.crypto.System> exemptSystems) {
             System.wipeAll(path, exemptSystems);
         }
+
+        @Override
+        public void setEventThreadCount(int count) {
+            System.setEventThreadCount(count);
+        }
+
+        @Override
+        public List<Integer> getEventQueueDepths() {
+            return System.getEventQueueDepths();
+        }
+
+        @Override
+        public void setClientThreadCount(int count) {
+            System.setClientThreadCount(count);
+        }
+
+        @Override
+        public List<Double> getClientQueueWaitMillis() {
+            return System.getClientQueueWaitMillis();
+        }
     };
 
     private static final CryptoApi.PaymentProvider paymentProvider = new CryptoApi.PaymentProvider() {
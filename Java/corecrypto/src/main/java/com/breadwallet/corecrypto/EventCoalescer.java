@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corecrypto;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Merges events that supersede one another before they are announced.
+ *
+ * A mergeable event is held for the coalescing window, absorbing any later events with the same
+ * key, and then announced. Events are grouped, by wallet manager, so that announcing any other
+ * event in a group first announces the group's held events; events are never reordered within a
+ * group, except among held events of different keys.
+ */
+/* package */
+final class EventCoalescer {
+
+    /* package */
+    interface Merge<E> {
+        E merge(E earlier, E later);
+    }
+
+    /* package */
+    interface Announcer<E> {
+        void announce(E event);
+    }
+
+    private final ScheduledExecutorService scheduler;
+
+    // guarded by this; held events by group, then key
+    private final Map<Object, Map<Object, Held<?>>> held;
+    private long windowNanos;
+    private long coalescedCount;
+
+    /* package */
+    EventCoalescer(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+        this.held = new HashMap<>();
+    }
+
+    /**
+     * Set the coalescing window; zero disables coalescing and announces any held events.
+     */
+    /* package */
+    synchronized void setWindow(long window, TimeUnit unit) {
+        checkArgument(window >= 0);
+        // kept in nanoseconds so that a sub-millisecond window does not round down to disabled
+        windowNanos = unit.toNanos(window);
+
+        if (0 == windowNanos) {
+            announceAll();
+        }
+    }
+
+    /**
+     * The number of events merged into a later one, and so never announced on their own.
+     */
+    /* package */
+    synchronized long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * Announce `event`, which supersedes earlier events with the same `key`.
+     */
+    /* package */
+    synchronized <E> void announce(Object group, Object key, E event, Merge<E> merge, Announcer<E> announcer) {
+        if (0 == windowNanos) {
+            announcer.announce(event);
+            return;
+        }
+
+        Map<Object, Held<?>> groupHeld = held.get(group);
+        if (null == groupHeld) {
+            groupHeld = new LinkedHashMap<>();
+            held.put(group, groupHeld);
+        }
+
+        @SuppressWarnings("unchecked")
+        Held<E> pending = (Held<E>) groupHeld.get(key);
+        if (null != pending) {
+            pending.event = merge.merge(pending.event, event);
+            coalescedCount += 1;
+            return;
+        }
+
+        Held<E> next = new Held<>(event, announcer);
+        groupHeld.put(key, next);
+        scheduler.schedule(() -> announceHeld(group, key, next), windowNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Announce an event that cannot be merged, after any held events in its `group`.
+     */
+    /* package */
+    synchronized void announce(Object group, Runnable announcer) {
+        Map<Object, Held<?>> groupHeld = held.remove(group);
+        if (null != groupHeld) {
+            for (Held<?> pending : groupHeld.values()) {
+                pending.announce();
+            }
+        }
+
+        announcer.run();
+    }
+
+    private synchronized void announceHeld(Object group, Object key, Held<?> pending) {
+        // already announced, ahead of a later event in its group or as the window closed
+        Map<Object, Held<?>> groupHeld = held.get(group);
+        if (null == groupHeld || pending != groupHeld.get(key)) {
+            return;
+        }
+
+        groupHeld.remove(key);
+        if (groupHeld.isEmpty()) {
+            held.remove(group);
+        }
+        pending.announce();
+    }
+
+    private void announceAll() {
+        for (Map<Object, Held<?>> groupHeld : held.values()) {
+            for (Held<?> pending : groupHeld.values()) {
+                pending.announce();
+            }
+        }
+        held.clear();
+    }
+
+    private static final class Held<E> {
+
+        final Announcer<E> announcer;
+        E event;
+
+        Held(E event, Announcer<E> announcer) {
+            this.event = event;
+            this.announcer = announcer;
+        }
+
+        void announce() {
+            announcer.announce(event);
+        }
+    }
+}
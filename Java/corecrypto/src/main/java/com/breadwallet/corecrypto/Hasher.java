@@ -9,11 +9,13 @@ package com.breadwallet.corecrypto;
 
 import android.support.annotation.Nullable;
 
+import com.breadwallet.corenative.cleaner.Cleanable;
 import com.breadwallet.corenative.cleaner.ReferenceCleaner;
 import com.breadwallet.corenative.crypto.BRCryptoHasher;
 import com.google.common.base.Optional;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 /* package */
 final class Hasher implements com.breadwallet.crypto.Hasher {
@@ -96,19 +98,33 @@ final class Hasher implements com.breadwallet.crypto.Hasher {
     }
 
     private static Hasher create(BRCryptoHasher core) {
-        Hasher hasher = new Hasher(core);
-        ReferenceCleaner.register(hasher, core::give);
-        return hasher;
+        return new Hasher(core);
     }
 
     private final BRCryptoHasher core;
+    private final Cleanable cleaner;
+
+    private volatile boolean closed;
 
     private Hasher(BRCryptoHasher core) {
         this.core = core;
+        this.cleaner = ReferenceCleaner.register(this, core::give);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        cleaner.clean();
     }
 
     @Override
     public Optional<byte[]> hash(byte[] data) {
-        return core.hash(data);
+        return getCore().hash(data);
+    }
+
+    private BRCryptoHasher getCore() {
+        // the native object is released on close
+        checkState(!closed);
+        return core;
     }
 }
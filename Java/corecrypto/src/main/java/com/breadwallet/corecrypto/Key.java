@@ -9,12 +9,15 @@ package com.breadwallet.corecrypto;
 
 import android.support.annotation.Nullable;
 
+import com.breadwallet.corenative.cleaner.Cleanable;
 import com.breadwallet.corenative.cleaner.ReferenceCleaner;
 import com.breadwallet.corenative.crypto.BRCryptoKey;
 import com.google.common.base.Optional;
 
 import java.util.List;
 
+import static com.google.common.base.Preconditions.checkState;
+
 /* package */
 final class Key implements com.breadwallet.crypto.Key {
 
@@ -70,7 +73,7 @@ final class Key implements com.breadwallet.crypto.Key {
 
     /* package */
     static Optional<Key> createForPigeon(com.breadwallet.crypto.Key key, byte[] nonce) {
-        Optional<BRCryptoKey> core = BRCryptoKey.createForPigeon(from(key).core, nonce);
+        Optional<BRCryptoKey> core = BRCryptoKey.createForPigeon(from(key).getBRCryptoKey(), nonce);
         return core.transform(Key::create);
     }
 
@@ -110,9 +113,7 @@ final class Key implements com.breadwallet.crypto.Key {
 
     /* package */
     static Key create(BRCryptoKey core) {
-        Key key = new Key(core);
-        ReferenceCleaner.register(key, core::give);
-        return key;
+        return new Key(core);
     }
 
     /* package */
@@ -129,44 +130,56 @@ final class Key implements com.breadwallet.crypto.Key {
     }
 
     private final BRCryptoKey core;
+    private final Cleanable cleaner;
+
+    private volatile boolean closed;
 
     private Key(BRCryptoKey core) {
         this.core = core;
+        this.cleaner = ReferenceCleaner.register(this, core::give);
         this.core.providePublicKey(0, 0);
     }
 
+    @Override
+    public void close() {
+        closed = true;
+        cleaner.clean();
+    }
+
     @Override
     public byte[] encodeAsPrivate() {
-        return core.encodeAsPrivate();
+        return getBRCryptoKey().encodeAsPrivate();
     }
 
     @Override
     public byte[] encodeAsPublic() {
-        return core.encodeAsPublic();
+        return getBRCryptoKey().encodeAsPublic();
     }
 
     @Override
     public boolean hasSecret() {
-        return core.hasSecret();
+        return getBRCryptoKey().hasSecret();
     }
 
     @Override
     public byte[] getSecret() {
-        return core.getSecret();
+        return getBRCryptoKey().getSecret();
     }
 
     @Override
     public boolean privateKeyMatch(com.breadwallet.crypto.Key other) {
-        return core.privateKeyMatch(from(other).core);
+        return getBRCryptoKey().privateKeyMatch(from(other).getBRCryptoKey());
     }
 
     @Override
     public boolean publicKeyMatch(com.breadwallet.crypto.Key other) {
-        return core.publicKeyMatch(from(other).core);
+        return getBRCryptoKey().publicKeyMatch(from(other).getBRCryptoKey());
     }
 
     /* package */
     BRCryptoKey getBRCryptoKey() {
+        // the native object is released on close
+        checkState(!closed);
         return core;
     }
 }
@@ -154,8 +154,8 @@ final class PaymentProtocolRequest implements com.breadwallet.crypto.PaymentProt
         this.memoSupplier = Suppliers.memoize(core::getMemo);
         this.paymentUrlSupplier = Suppliers.memoize(core::getPaymentUrl);
         this.commonNameSupplier = Suppliers.memoize(core::getCommonName);
-        this.amountSupplier = Suppliers.memoize(() -> core.getTotalAmount().transform(Amount::create));
-        this.addressSupplier = Suppliers.memoize(() -> core.getPrimaryTargetAddress().transform(Address::create));
+        this.amountSupplier = Suppliers.memoize(() -> core.getTotalAmount().transform(Amount::createShared));
+        this.addressSupplier = Suppliers.memoize(() -> core.getPrimaryTargetAddress().transform(Address::createShared));
         this.networkFeeSupplier = Suppliers.memoize(() -> core.getRequiredNetworkFee().transform(NetworkFee::create));
         this.validitySupplier = Suppliers.memoize(() -> Utilities.paymentProtocolErrorFromCrypto(core.isValid()));
     }
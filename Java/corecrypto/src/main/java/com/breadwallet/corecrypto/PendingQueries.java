@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corecrypto;
+
+import com.breadwallet.crypto.utility.Cancellable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The queries a wallet manager has issued on behalf of its sync, so that they can be
+ * cancelled when it disconnects or stops.
+ *
+ * Once closed, when its wallet manager is deleted, entries are no longer held: a query
+ * registered by a late callback is cancelled as soon as it is issued.
+ */
+/* package */
+final class PendingQueries {
+
+    /**
+     * The queries of a wallet manager that is unknown or has been deleted.
+     */
+    /* package */
+    static final PendingQueries CLOSED = createClosed();
+
+    private static PendingQueries createClosed() {
+        PendingQueries queries = new PendingQueries();
+        queries.close();
+        return queries;
+    }
+
+    // guarded by this
+    private final Set<Entry> entries = new HashSet<>();
+    private boolean closed;
+
+    /**
+     * Register a query before it is issued; its handler may complete the entry before the
+     * query handle is set.
+     */
+    /* package */
+    Entry add() {
+        Entry entry = new Entry();
+
+        synchronized (this) {
+            if (!closed) {
+                entries.add(entry);
+                return entry;
+            }
+        }
+
+        entry.cancel();
+        return entry;
+    }
+
+    /* package */
+    void cancelAll() {
+        cancelAll(false);
+    }
+
+    /* package */
+    void close() {
+        cancelAll(true);
+    }
+
+    private void cancelAll(boolean close) {
+        List<Entry> cancelled;
+
+        synchronized (this) {
+            closed |= close;
+            cancelled = new ArrayList<>(entries);
+            entries.clear();
+        }
+
+        for (Entry entry : cancelled) {
+            entry.cancel();
+        }
+    }
+
+    private synchronized void remove(Entry entry) {
+        entries.remove(entry);
+    }
+
+    /* package */
+    final class Entry {
+
+        // guarded by this
+        private Cancellable query;
+        private boolean completed;
+        private boolean cancelled;
+
+        /* package */
+        void setQuery(Cancellable query) {
+            synchronized (this) {
+                if (completed) {
+                    return;
+                }
+
+                this.query = query;
+                if (!cancelled) {
+                    return;
+                }
+            }
+
+            // cancelled while the query was being issued
+            query.cancel();
+        }
+
+        /* package */
+        void complete() {
+            synchronized (this) {
+                completed = true;
+                query = null;
+            }
+
+            remove(this);
+        }
+
+        private void cancel() {
+            Cancellable query;
+
+            synchronized (this) {
+                if (completed || cancelled) {
+                    return;
+                }
+
+                cancelled = true;
+                query = this.query;
+            }
+
+            if (null != query) {
+                query.cancel();
+            }
+        }
+    }
+}
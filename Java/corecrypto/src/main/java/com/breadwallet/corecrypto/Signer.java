@@ -9,11 +9,13 @@ package com.breadwallet.corecrypto;
 
 import android.support.annotation.Nullable;
 
+import com.breadwallet.corenative.cleaner.Cleanable;
 import com.breadwallet.corenative.cleaner.ReferenceCleaner;
 import com.breadwallet.corenative.crypto.BRCryptoSigner;
 import com.google.common.base.Optional;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 /* package */
 final class Signer implements com.breadwallet.crypto.Signer {
@@ -48,25 +50,39 @@ final class Signer implements com.breadwallet.crypto.Signer {
     }
 
     private static Signer create(BRCryptoSigner core) {
-        Signer signer = new Signer(core);
-        ReferenceCleaner.register(signer, core::give);
-        return signer;
+        return new Signer(core);
     }
 
     private final BRCryptoSigner core;
+    private final Cleanable cleaner;
+
+    private volatile boolean closed;
 
     private Signer(BRCryptoSigner core) {
         this.core = core;
+        this.cleaner = ReferenceCleaner.register(this, core::give);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        cleaner.clean();
     }
 
     @Override
     public Optional<byte[]> sign(byte[] digest, com.breadwallet.crypto.Key key) {
         Key cryptoKey = Key.from(key);
-        return core.sign(digest, cryptoKey.getBRCryptoKey());
+        return getCore().sign(digest, cryptoKey.getBRCryptoKey());
     }
 
     @Override
     public Optional<Key> recover(byte[] digest, byte[] signature) {
-        return core.recover(digest, signature).transform(Key::create);
+        return getCore().recover(digest, signature).transform(Key::create);
+    }
+
+    private BRCryptoSigner getCore() {
+        // the native object is released on close
+        checkState(!closed);
+        return core;
     }
 }
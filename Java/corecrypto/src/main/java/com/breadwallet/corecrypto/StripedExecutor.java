@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corecrypto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Runs tasks on a fixed set of single-threaded stripes, choosing the stripe by key. Tasks with
+ * equal keys run in submission order; tasks with different keys may run concurrently.
+ */
+/* package */
+final class StripedExecutor {
+
+    // weight of the latest task in each stripe's average queue wait
+    private static final double WAIT_SMOOTHING = 0.1;
+
+    private final List<Stripe> stripes;
+
+    /* package */
+    StripedExecutor(String name, int stripeCount) {
+        checkArgument(stripeCount > 0);
+
+        this.stripes = new ArrayList<>(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes.add(new Stripe(name + "-" + i));
+        }
+    }
+
+    /* package */
+    void execute(Object key, Runnable task) {
+        Stripe stripe = stripes.get(indexFor(key));
+        long enqueuedNanos = java.lang.System.nanoTime();
+        stripe.executor.execute(() -> {
+            stripe.recordWait(java.lang.System.nanoTime() - enqueuedNanos);
+            task.run();
+        });
+    }
+
+    /**
+     * The number of tasks waiting on each stripe, excluding those running.
+     */
+    /* package */
+    List<Integer> getQueueDepths() {
+        List<Integer> depths = new ArrayList<>(stripes.size());
+        for (Stripe stripe : stripes) {
+            depths.add(stripe.executor.getQueue().size());
+        }
+        return depths;
+    }
+
+    /**
+     * The recent average time, in milliseconds, that tasks on each stripe waited before running.
+     */
+    /* package */
+    List<Double> getQueueWaitMillis() {
+        List<Double> waits = new ArrayList<>(stripes.size());
+        for (Stripe stripe : stripes) {
+            waits.add(stripe.averageWaitNanos / TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return waits;
+    }
+
+    private int indexFor(Object key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return (hash & Integer.MAX_VALUE) % stripes.size();
+    }
+
+    private static final class Stripe {
+
+        final ThreadPoolExecutor executor;
+
+        // only written by the stripe's thread
+        volatile double averageWaitNanos;
+
+        Stripe(String threadName) {
+            this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    runnable -> new Thread(runnable, threadName));
+        }
+
+        void recordWait(long waitNanos) {
+            averageWaitNanos += WAIT_SMOOTHING * (waitNanos - averageWaitNanos);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corecrypto;
+
+import android.support.annotation.Nullable;
+
+import com.google.common.base.Ticker;
+import com.google.common.primitives.UnsignedLong;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which of the wallet managers' periodic sync queries need to reach Blockset while
+ * push notifications are being delivered.
+ *
+ * While the subscription is healthy and covers every address a network polls for, polls are
+ * answered locally and the skipped block range is remembered. A notification for the network
+ * makes the next poll fetch, reaching back to the notified block within the skipped range;
+ * without notifications, polls still fetch every {@link #MAX_QUIET_MILLIS}, reaching back to
+ * the start of the skipped range. The skipped range is only forgotten once a fetch has covered
+ * it from its start.
+ */
+/* package */
+final class SubscriptionSync {
+
+    // a registration is trusted for this long; the app re-subscribes as its push token rotates
+    private static final long HEALTHY_MILLIS = TimeUnit.HOURS.toMillis(24);
+    private static final long MAX_QUIET_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final Ticker ticker;
+
+    // guarded by this
+    private final Map<String, NetworkState> networks = new HashMap<>();
+    private boolean subscribed;
+    private long subscribedMillis;
+
+    /* package */
+    SubscriptionSync() {
+        this(Ticker.systemTicker());
+    }
+
+    /* package */
+    SubscriptionSync(Ticker ticker) {
+        this.ticker = ticker;
+    }
+
+    /* package */
+    synchronized void setSubscribed(Map<String, Set<String>> addressesByNetwork) {
+        subscribed = true;
+        subscribedMillis = getMillis();
+        for (Map.Entry<String, Set<String>> entry : addressesByNetwork.entrySet()) {
+            NetworkState network = getOrCreate(entry.getKey());
+            network.subscribedAddresses.clear();
+            network.subscribedAddresses.addAll(entry.getValue());
+        }
+    }
+
+    /* package */
+    synchronized void setUnsubscribed() {
+        subscribed = false;
+        for (NetworkState network : networks.values()) {
+            network.subscribedAddresses.clear();
+        }
+    }
+
+    /**
+     * The addresses each network has polled for, to be covered by the subscription.
+     */
+    /* package */
+    synchronized Map<String, Set<String>> getAddresses() {
+        Map<String, Set<String>> addresses = new HashMap<>();
+        for (Map.Entry<String, NetworkState> entry : networks.entrySet()) {
+            addresses.put(entry.getKey(), new HashSet<>(entry.getValue().addresses));
+        }
+        return addresses;
+    }
+
+    /**
+     * A notification arrived for `networkId`, optionally for a transaction at `blockHeight`.
+     */
+    /* package */
+    synchronized void announce(String networkId, @Nullable UnsignedLong blockHeight) {
+        NetworkState network = networks.get(networkId);
+        if (null == network) {
+            return;
+        }
+
+        for (Stream stream : network.streams.values()) {
+            stream.generation += 1;
+            stream.notified = true;
+
+            // within the skipped range, reach back only as far as the notified block
+            if (null != stream.quietSince) {
+                UnsignedLong from = null == blockHeight ? stream.quietSince : max(stream.quietSince, blockHeight);
+                stream.dirtySince = null == stream.dirtySince ? from : min(stream.dirtySince, from);
+            }
+        }
+    }
+
+    /**
+     * Decide whether a poll of `streamName` from `begBlockNumber` for `addresses` needs a query.
+     * Polls without a lower bound always query.
+     */
+    /* package */
+    synchronized Poll poll(String networkId,
+                           String streamName,
+                           Collection<String> addresses,
+                           @Nullable UnsignedLong begBlockNumber) {
+        NetworkState network = getOrCreate(networkId);
+        boolean addressesChanged = network.addresses.addAll(addresses);
+
+        Stream stream = network.streams.get(streamName);
+        if (null == stream) {
+            stream = new Stream();
+            network.streams.put(streamName, stream);
+        }
+
+        long now = getMillis();
+        boolean healthy = subscribed && now - subscribedMillis < HEALTHY_MILLIS
+                && network.subscribedAddresses.containsAll(network.addresses);
+        boolean quiet = stream.fetched && now - stream.lastFetchMillis < MAX_QUIET_MILLIS;
+
+        if (null == begBlockNumber) {
+            return new Poll(networkId, streamName, stream.generation, false, null, addressesChanged);
+        }
+
+        if (healthy && quiet && !stream.notified) {
+            stream.quietSince = null == stream.quietSince ? begBlockNumber : min(stream.quietSince, begBlockNumber);
+            return new Poll(networkId, streamName, stream.generation, true, begBlockNumber, addressesChanged);
+        }
+
+        UnsignedLong since = (healthy && quiet) ? stream.dirtySince : stream.quietSince;
+        UnsignedLong from = null == since ? begBlockNumber : min(since, begBlockNumber);
+        return new Poll(networkId, streamName, stream.generation, false, from, addressesChanged);
+    }
+
+    /* package */
+    synchronized void complete(Poll poll, boolean success) {
+        if (!success || poll.isSkipped()) {
+            return;
+        }
+
+        NetworkState network = networks.get(poll.networkId);
+        Stream stream = null == network ? null : network.streams.get(poll.streamName);
+        if (null == stream) {
+            return;
+        }
+
+        stream.fetched = true;
+        stream.lastFetchMillis = getMillis();
+
+        // a notification that arrived during the fetch is left for the next poll
+        if (stream.generation == poll.generation) {
+            stream.notified = false;
+            stream.dirtySince = null;
+
+            // a fetch from a notified block leaves the skipped blocks below it for the next full fetch
+            if (null == stream.quietSince || null == poll.begBlockNumber || poll.begBlockNumber.compareTo(stream.quietSince) <= 0) {
+                stream.quietSince = null;
+            }
+        }
+    }
+
+    private long getMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(ticker.read());
+    }
+
+    private NetworkState getOrCreate(String networkId) {
+        NetworkState network = networks.get(networkId);
+        if (null == network) {
+            network = new NetworkState();
+            networks.put(networkId, network);
+        }
+        return network;
+    }
+
+    private static UnsignedLong min(UnsignedLong a, UnsignedLong b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static UnsignedLong max(UnsignedLong a, UnsignedLong b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    /* package */
+    static final class Poll {
+
+        private final String networkId;
+        private final String streamName;
+        private final int generation;
+        private final boolean skipped;
+        private final @Nullable UnsignedLong begBlockNumber;
+        private final boolean addressesChanged;
+
+        private Poll(String networkId,
+                     String streamName,
+                     int generation,
+                     boolean skipped,
+                     @Nullable UnsignedLong begBlockNumber,
+                     boolean addressesChanged) {
+            this.networkId = networkId;
+            this.streamName = streamName;
+            this.generation = generation;
+            this.skipped = skipped;
+            this.begBlockNumber = begBlockNumber;
+            this.addressesChanged = addressesChanged;
+        }
+
+        /* package */
+        boolean isSkipped() {
+            return skipped;
+        }
+
+        /**
+         * The block to query from; earlier than the polled range when skipped blocks are refetched.
+         */
+        /* package */
+        @Nullable
+        UnsignedLong getBegBlockNumber() {
+            return begBlockNumber;
+        }
+
+        /**
+         * Whether the poll introduced addresses that the subscription does not cover yet.
+         */
+        /* package */
+        boolean isAddressesChanged() {
+            return addressesChanged;
+        }
+    }
+
+    private static final class NetworkState {
+        final Set<String> addresses = new HashSet<>();
+        final Set<String> subscribedAddresses = new HashSet<>();
+        final Map<String, Stream> streams = new HashMap<>();
+    }
+
+    private static final class Stream {
+        int generation;
+        boolean notified;
+        boolean fetched;
+        long lastFetchMillis;
+        @Nullable UnsignedLong quietSince;
+        @Nullable UnsignedLong dirtySince;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corecrypto;
+
+import android.support.annotation.Nullable;
+
+import com.breadwallet.crypto.blockchaindb.BlockchainDb;
+import com.breadwallet.crypto.blockchaindb.errors.QueryError;
+import com.breadwallet.crypto.blockchaindb.models.bdb.Subscription;
+import com.breadwallet.crypto.blockchaindb.models.bdb.SubscriptionCurrency;
+import com.breadwallet.crypto.blockchaindb.models.bdb.SubscriptionEndpoint;
+import com.breadwallet.crypto.utility.CompletionHandler;
+import com.google.common.base.Optional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps this device's Blockset subscription in step with the push token and the addresses
+ * being synced, one request at a time.
+ *
+ * The subscription id is assigned by Blockset; it is looked up by device on first use, or
+ * taken from the create response, and used for every later update and delete. An update
+ * requested while a request is in flight is sent, with the then current contents, once that
+ * request completes.
+ */
+/* package */
+final class SubscriptionUpdater {
+
+    private static final Logger Log = Logger.getLogger(SubscriptionUpdater.class.getName());
+
+    /* package */
+    interface Source {
+
+        /**
+         * The subscription as it should be now, or absent when the app has unsubscribed.
+         */
+        Optional<Contents> getContents();
+    }
+
+    /* package */
+    static final class Contents {
+
+        private final SubscriptionEndpoint endpoint;
+        private final List<SubscriptionCurrency> currencies;
+        private final Map<String, Set<String>> addressesByNetwork;
+
+        /* package */
+        Contents(SubscriptionEndpoint endpoint,
+                 List<SubscriptionCurrency> currencies,
+                 Map<String, Set<String>> addressesByNetwork) {
+            this.endpoint = endpoint;
+            this.currencies = currencies;
+            this.addressesByNetwork = addressesByNetwork;
+        }
+    }
+
+    private final BlockchainDb query;
+    private final String deviceId;
+    private final SubscriptionSync subscriptionSync;
+    private final Source source;
+
+    // guarded by this
+    private @Nullable String subscriptionId;
+    private boolean lookedUp;
+    private boolean inFlight;
+    private boolean stale;
+
+    /* package */
+    SubscriptionUpdater(BlockchainDb query,
+                        String deviceId,
+                        SubscriptionSync subscriptionSync,
+                        Source source) {
+        this.query = query;
+        this.deviceId = deviceId;
+        this.subscriptionSync = subscriptionSync;
+        this.source = source;
+    }
+
+    /* package */
+    void update() {
+        synchronized (this) {
+            if (inFlight) {
+                stale = true;
+                return;
+            }
+            inFlight = true;
+        }
+        send();
+    }
+
+    /* package */
+    synchronized Optional<String> getSubscriptionId() {
+        return Optional.fromNullable(subscriptionId);
+    }
+
+    private void send() {
+        boolean found;
+        String id;
+        synchronized (this) {
+            found = lookedUp;
+            id = subscriptionId;
+        }
+
+        if (!found) {
+            lookUp();
+            return;
+        }
+
+        Optional<Contents> contents = source.getContents();
+        if (!contents.isPresent()) {
+            if (null == id) {
+                complete();
+            } else {
+                delete(id);
+            }
+        } else if (null == id) {
+            create(contents.get());
+        } else {
+            update(id, contents.get());
+        }
+    }
+
+    private void complete() {
+        synchronized (this) {
+            if (!stale) {
+                inFlight = false;
+                return;
+            }
+            stale = false;
+        }
+        send();
+    }
+
+    private void lookUp() {
+        query.getSubscriptions(new CompletionHandler<List<Subscription>, QueryError>() {
+            @Override
+            public void handleData(List<Subscription> subscriptions) {
+                synchronized (SubscriptionUpdater.this) {
+                    lookedUp = true;
+                    for (Subscription subscription : subscriptions) {
+                        if (subscription.getDevice().equals(deviceId)) {
+                            subscriptionId = subscription.getId();
+                            break;
+                        }
+                    }
+                }
+                send();
+            }
+
+            @Override
+            public void handleError(QueryError error) {
+                Log.log(Level.SEVERE, "Subscription: lookup failed", error);
+                subscriptionSync.setUnsubscribed();
+                complete();
+            }
+        });
+    }
+
+    private void create(Contents contents) {
+        query.createSubscription(deviceId, contents.endpoint, contents.currencies, new CompletionHandler<Subscription, QueryError>() {
+            @Override
+            public void handleData(Subscription subscription) {
+                Log.log(Level.FINE, "Subscription: created");
+                synchronized (SubscriptionUpdater.this) {
+                    subscriptionId = subscription.getId();
+                }
+                subscriptionSync.setSubscribed(contents.addressesByNetwork);
+                complete();
+            }
+
+            @Override
+            public void handleError(QueryError error) {
+                Log.log(Level.SEVERE, "Subscription: create failed", error);
+                subscriptionSync.setUnsubscribed();
+                complete();
+            }
+        });
+    }
+
+    private void update(String id, Contents contents) {
+        Subscription subscription = Subscription.create(id, deviceId, contents.endpoint, contents.currencies);
+        query.updateSubscription(subscription, new CompletionHandler<Subscription, QueryError>() {
+            @Override
+            public void handleData(Subscription data) {
+                Log.log(Level.FINE, "Subscription: updated");
+                subscriptionSync.setSubscribed(contents.addressesByNetwork);
+                complete();
+            }
+
+            @Override
+            public void handleError(QueryError error) {
+                Log.log(Level.SEVERE, "Subscription: update failed", error);
+                subscriptionSync.setUnsubscribed();
+
+                // the subscription may have been removed; look it up again next time
+                synchronized (SubscriptionUpdater.this) {
+                    subscriptionId = null;
+                    lookedUp = false;
+                }
+                complete();
+            }
+        });
+    }
+
+    private void delete(String id) {
+        query.deleteSubscription(id, new CompletionHandler<Void, QueryError>() {
+            @Override
+            public void handleData(Void data) {
+                Log.log(Level.FINE, "Subscription: deleted");
+                synchronized (SubscriptionUpdater.this) {
+                    subscriptionId = null;
+                }
+                complete();
+            }
+
+            @Override
+            public void handleError(QueryError error) {
+                Log.log(Level.SEVERE, "Subscription: delete failed", error);
+                complete();
+            }
+        });
+    }
+}
@@ -34,8 +34,12 @@ import com.breadwallet.crypto.WalletManagerSyncStoppedReason;
 import com.breadwallet.crypto.WalletState;
 import com.breadwallet.crypto.blockchaindb.BlockchainDb;
 import com.breadwallet.crypto.blockchaindb.errors.QueryError;
+import com.breadwallet.crypto.blockchaindb.errors.QueryModelError;
 import com.breadwallet.crypto.blockchaindb.models.bdb.Blockchain;
 import com.breadwallet.crypto.blockchaindb.models.bdb.BlockchainFee;
+import com.breadwallet.crypto.blockchaindb.models.bdb.SubscriptionCurrency;
+import com.breadwallet.crypto.blockchaindb.models.bdb.SubscriptionEndpoint;
+import com.breadwallet.crypto.blockchaindb.models.bdb.SubscriptionEvent;
 import com.breadwallet.crypto.blockchaindb.models.bdb.Transaction;
 import com.breadwallet.crypto.blockchaindb.models.brd.EthLog;
 import com.breadwallet.crypto.blockchaindb.models.brd.EthToken;
@@ -88,14 +92,21 @@ import com.breadwallet.crypto.migration.BlockBlob;
 import com.breadwallet.crypto.migration.PeerBlob;
 import com.breadwallet.crypto.migration.TransactionBlob;
 import com.breadwallet.crypto.utility.CompletionHandler;
+import com.breadwallet.crypto.utility.PageHandler;
 import com.google.common.base.Optional;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.primitives.UnsignedInteger;
 import com.google.common.primitives.UnsignedLong;
+import com.google.common.primitives.UnsignedLongs;
+import com.sun.jna.Pointer;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -106,15 +117,14 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 
 /* package */
@@ -136,12 +146,40 @@ final class System implements com.breadwallet.crypto.System {
     /// If true, save removed system in the above array. Set to `false` for debugging 'release'.
     private static final boolean SYSTEMS_INACTIVE_RETAIN = true;
 
-    // Create a dedicated executor to pump CWM events as quickly as possible
-    private static final Executor EXECUTOR_LISTENER = Executors.newSingleThreadExecutor();
+    private static final List<SubscriptionEvent> SUBSCRIPTION_EVENTS = Arrays.asList(
+            SubscriptionEvent.create("submitted", Collections.emptyList()),
+            SubscriptionEvent.create("confirmed", Collections.singletonList(UnsignedInteger.ONE)));
 
-    // Create a dedicated executor to pump CWM callbacks. This is a separate executor
-    // than the one used to handle events as they *really* need to be pumped as fast as possible.
-    private static final Executor EXECUTOR_CLIENT = Executors.newSingleThreadExecutor();
+    private static final int EVENT_THREAD_COUNT_DEFAULT = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    // guarded by System.class
+    private static int eventThreadCount = EVENT_THREAD_COUNT_DEFAULT;
+    private static boolean eventThreadsStarted;
+
+    // Create dedicated executors to pump CWM events as quickly as possible. Events are striped by
+    // wallet manager so that each manager's events are delivered in order.
+    private static final Supplier<StripedExecutor> EXECUTOR_LISTENER = Suppliers.memoize(() -> {
+        synchronized (System.class) {
+            eventThreadsStarted = true;
+            return new StripedExecutor("CWM-Listener", eventThreadCount);
+        }
+    });
+
+    private static final int CLIENT_THREAD_COUNT_DEFAULT = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    // guarded by System.class
+    private static int clientThreadCount = CLIENT_THREAD_COUNT_DEFAULT;
+    private static boolean clientThreadsStarted;
+
+    // Create dedicated executors to pump CWM callbacks. These are separate from the ones used to
+    // handle events as they *really* need to be pumped as fast as possible. Callbacks are striped
+    // by wallet manager so that each manager's callbacks are handled in order.
+    private static final Supplier<StripedExecutor> EXECUTOR_CLIENT = Suppliers.memoize(() -> {
+        synchronized (System.class) {
+            clientThreadsStarted = true;
+            return new StripedExecutor("CWM-Client", clientThreadCount);
+        }
+    });
 
     //
     // Keep a static reference to the callbacks so that they are never GC'ed
@@ -226,6 +264,34 @@ final class System implements com.breadwallet.crypto.System {
         return system;
     }
 
+    /* package */
+    static void setEventThreadCount(int count) {
+        checkArgument(count > 0);
+        synchronized (System.class) {
+            checkState(!eventThreadsStarted, "Events are already being delivered");
+            eventThreadCount = count;
+        }
+    }
+
+    /* package */
+    static List<Integer> getEventQueueDepths() {
+        return EXECUTOR_LISTENER.get().getQueueDepths();
+    }
+
+    /* package */
+    static void setClientThreadCount(int count) {
+        checkArgument(count > 0);
+        synchronized (System.class) {
+            checkState(!clientThreadsStarted, "Callbacks are already being handled");
+            clientThreadCount = count;
+        }
+    }
+
+    /* package */
+    static List<Double> getClientQueueWaitMillis() {
+        return EXECUTOR_CLIENT.get().getQueueWaitMillis();
+    }
+
     /* package */
     static Optional<com.breadwallet.crypto.blockchaindb.models.bdb.Currency> asBDBCurrency(String uids,
                                                                                            String name,
@@ -357,6 +423,17 @@ final class System implements com.breadwallet.crypto.System {
     private final Set<Network> networks;
     private final Set<WalletManager> walletManagers;
 
+    // keyed by the core wallet manager, not held by a wrapper, so that the queries issued by any callback
+    // are the ones that WalletManager.disconnect() and stop() cancel; an entry exists from when the manager
+    // is added until it is deleted, and is never re-created by a late callback
+    private final Map<Pointer, PendingQueries> pendingQueries;
+
+    private final SubscriptionSync subscriptionSync;
+    private final SubscriptionUpdater subscriptionUpdater;
+    private volatile @Nullable String subscriptionToken;
+
+    private final EventCoalescer eventCoalescer;
+
     private boolean isNetworkReachable;
 
     private System(ScheduledExecutorService executor,
@@ -381,6 +458,12 @@ final class System implements com.breadwallet.crypto.System {
 
         this.networks = new CopyOnWriteArraySet<>();
         this.walletManagers = new CopyOnWriteArraySet<>();
+        this.pendingQueries = new ConcurrentHashMap<>();
+
+        this.subscriptionSync = new SubscriptionSync();
+        this.subscriptionUpdater = new SubscriptionUpdater(query, account.getUids(), subscriptionSync, this::getSubscriptionContents);
+
+        this.eventCoalescer = new EventCoalescer(executor);
 
         this.isNetworkReachable = DEFAULT_IS_NETWORK_REACHABLE;
 
@@ -438,6 +521,10 @@ final class System implements com.breadwallet.crypto.System {
 
         addWalletManager(walletManager);
         announceSystemEvent(new SystemManagerAddedEvent(walletManager));
+
+        if (null != subscriptionToken) {
+            updateSubscription();
+        }
         return true;
     }
 
@@ -473,7 +560,118 @@ final class System implements com.breadwallet.crypto.System {
 
     @Override
     public void subscribe(String subscriptionToken) {
-        // TODO(fix): Implement this!
+        if (subscriptionToken.isEmpty()) {
+            this.subscriptionToken = null;
+            subscriptionSync.setUnsubscribed();
+        } else {
+            this.subscriptionToken = subscriptionToken;
+        }
+        subscriptionUpdater.update();
+    }
+
+    @Override
+    public void announceSubscriptionEvent(String currencyId, @Nullable UnsignedLong blockHeight) {
+        for (WalletManager manager: getWalletManagers()) {
+            for (Wallet wallet: manager.getWallets()) {
+                if (wallet.getCurrency().getUids().equals(currencyId)) {
+                    subscriptionSync.announce(manager.getNetwork().getUids(), blockHeight);
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void setEventCoalescingWindow(long window, TimeUnit unit) {
+        eventCoalescer.setWindow(window, unit);
+    }
+
+    @Override
+    public long getCoalescedEventCount() {
+        return eventCoalescer.getCoalescedCount();
+    }
+
+    private void updateSubscription() {
+        subscriptionUpdater.update();
+    }
+
+    private Optional<SubscriptionUpdater.Contents> getSubscriptionContents() {
+        String token = subscriptionToken;
+        if (null == token) {
+            return Optional.absent();
+        }
+
+        // the addresses the managers have synced, along with those they have yet to sync
+        Map<String, Set<String>> addressesByNetwork = subscriptionSync.getAddresses();
+        List<SubscriptionCurrency> currencies = new ArrayList<>();
+        for (WalletManager manager: getWalletManagers()) {
+            String networkId = manager.getNetwork().getUids();
+
+            Set<String> addresses = addressesByNetwork.get(networkId);
+            if (null == addresses) {
+                addresses = new HashSet<>();
+                addressesByNetwork.put(networkId, addresses);
+            }
+            addresses.add(manager.getPrimaryWallet().getTarget().toString());
+
+            for (Wallet wallet: manager.getWallets()) {
+                currencies.add(SubscriptionCurrency.create(wallet.getCurrency().getUids(), new ArrayList<>(addresses), SUBSCRIPTION_EVENTS));
+            }
+        }
+
+        SubscriptionEndpoint endpoint = SubscriptionEndpoint.create("fcm", isMainnet ? "production" : "development", token);
+        return Optional.of(new SubscriptionUpdater.Contents(endpoint, currencies, addressesByNetwork));
+    }
+
+    private SubscriptionSync.Poll pollSubscriptionSync(WalletManager walletManager,
+                                                       String stream,
+                                                       Collection<String> addresses,
+                                                       @Nullable UnsignedLong begBlockNumber) {
+        SubscriptionSync.Poll poll = subscriptionSync.poll(walletManager.getNetwork().getUids(), stream, addresses, begBlockNumber);
+        if (poll.isAddressesChanged() && null != subscriptionToken) {
+            updateSubscription();
+        }
+        return poll;
+    }
+
+    private BlockHeightMonitor.Fetcher getBlockchainHeightFetcher(String blockchainId) {
+        return handler -> query.getBlockchain(blockchainId, new CompletionHandler<Blockchain, QueryError>() {
+            @Override
+            public void handleData(Blockchain blockchain) {
+                Optional<UnsignedLong> maybeBlockHeight = blockchain.getBlockHeight();
+                if (maybeBlockHeight.isPresent()) {
+                    handler.handleData(maybeBlockHeight.get());
+                } else {
+                    handler.handleError(new QueryModelError("Missing block height"));
+                }
+            }
+
+            @Override
+            public void handleError(QueryError error) {
+                handler.handleError(error);
+            }
+        });
+    }
+
+    private BlockHeightMonitor.Fetcher getEthBlockHeightFetcher(String networkName) {
+        return handler -> query.getBlockNumberAsEth(networkName, new CompletionHandler<String, QueryError>() {
+            @Override
+            public void handleData(String number) {
+                UnsignedLong blockHeight;
+                try {
+                    blockHeight = UnsignedLong.fromLongBits(UnsignedLongs.decode(number));
+                } catch (NumberFormatException e) {
+                    handler.handleError(new QueryModelError("Invalid block number: " + number));
+                    return;
+                }
+                handler.handleData(blockHeight);
+            }
+
+            @Override
+            public void handleError(QueryError error) {
+                handler.handleError(error);
+            }
+        });
     }
 
     @Override
@@ -571,6 +769,7 @@ final class System implements com.breadwallet.crypto.System {
     }
 
     private void addWalletManager(WalletManager walletManager) {
+        addPendingQueries(walletManager.getCoreBRCryptoWalletManager());
         walletManagers.add(walletManager);
     }
 
@@ -581,10 +780,31 @@ final class System implements com.breadwallet.crypto.System {
 
     private WalletManager createWalletManager(BRCryptoWalletManager coreWalletManager) {
         WalletManager walletManager = WalletManager.takeAndCreate(coreWalletManager, this, callbackCoordinator);
+        addPendingQueries(coreWalletManager);
         walletManagers.add(walletManager);
         return walletManager;
     }
 
+    /**
+     * The queries of `walletManager`, or {@link PendingQueries#CLOSED} once it has been deleted.
+     */
+    /* package */
+    PendingQueries getPendingQueries(WalletManager walletManager) {
+        PendingQueries queries = pendingQueries.get(walletManager.getCoreBRCryptoWalletManager().getPointer());
+        return null == queries ? PendingQueries.CLOSED : queries;
+    }
+
+    private void addPendingQueries(BRCryptoWalletManager coreWalletManager) {
+        pendingQueries.putIfAbsent(coreWalletManager.getPointer(), new PendingQueries());
+    }
+
+    private void removePendingQueries(BRCryptoWalletManager coreWalletManager) {
+        PendingQueries queries = pendingQueries.remove(coreWalletManager.getPointer());
+        if (null != queries) {
+            queries.close();
+        }
+    }
+
     // Miscellaneous
 
     @Override
@@ -682,15 +902,35 @@ final class System implements com.breadwallet.crypto.System {
     }
 
     private void announceWalletManagerEvent(WalletManager walletManager, WalletManagerEvent event) {
-        executor.submit(() -> listener.handleManagerEvent(this, walletManager, event));
+        eventCoalescer.announce(walletManager, () -> executor.submit(() -> listener.handleManagerEvent(this, walletManager, event)));
     }
 
     private void announceWalletEvent(WalletManager walletManager, Wallet wallet, WalletEvent event) {
-        executor.submit(() -> listener.handleWalletEvent(this, walletManager, wallet, event));
+        eventCoalescer.announce(walletManager, () -> executor.submit(() -> listener.handleWalletEvent(this, walletManager, wallet, event)));
     }
 
     private void announceTransferEvent(WalletManager walletManager, Wallet wallet, Transfer transfer, TranferEvent event) {
-        executor.submit(() -> listener.handleTransferEvent(this, walletManager, wallet, transfer, event));
+        eventCoalescer.announce(walletManager, () -> executor.submit(() -> listener.handleTransferEvent(this, walletManager, wallet, transfer, event)));
+    }
+
+    // Superseded by later events of the same kind, so these may be coalesced
+
+    private void announceWalletManagerSyncProgressEvent(WalletManager walletManager, WalletManagerSyncProgressEvent event) {
+        eventCoalescer.announce(walletManager, walletManager, event,
+                (earlier, later) -> later,
+                e -> executor.submit(() -> listener.handleManagerEvent(this, walletManager, e)));
+    }
+
+    private void announceWalletBalanceUpdatedEvent(WalletManager walletManager, Wallet wallet, WalletBalanceUpdatedEvent event) {
+        eventCoalescer.announce(walletManager, wallet, event,
+                (earlier, later) -> later,
+                e -> executor.submit(() -> listener.handleWalletEvent(this, walletManager, wallet, e)));
+    }
+
+    private void announceTransferChangedEvent(WalletManager walletManager, Wallet wallet, Transfer transfer, TransferChangedEvent event) {
+        eventCoalescer.announce(walletManager, transfer, event,
+                (earlier, later) -> new TransferChangedEvent(earlier.getOldState(), later.getNewState()),
+                e -> executor.submit(() -> listener.handleTransferEvent(this, walletManager, wallet, transfer, e)));
     }
 
     //
@@ -700,7 +940,7 @@ final class System implements com.breadwallet.crypto.System {
     private static void walletManagerEventCallback(Cookie context,
                                                    BRCryptoWalletManager coreWalletManager,
                                                    BRCryptoWalletManagerEvent event) {
-        EXECUTOR_LISTENER.execute(() -> {
+        EXECUTOR_LISTENER.get().execute(coreWalletManager, () -> {
             try {
                 Log.log(Level.FINE, "WalletManagerEventCallback");
 
@@ -802,6 +1042,8 @@ final class System implements com.breadwallet.crypto.System {
         if (optSystem.isPresent()) {
             System system = optSystem.get();
 
+            system.removePendingQueries(coreWalletManager);
+
             Optional<WalletManager> optWalletManager = system.getWalletManager(coreWalletManager);
             if (optWalletManager.isPresent()) {
                 WalletManager walletManager = optWalletManager.get();
@@ -955,7 +1197,7 @@ final class System implements com.breadwallet.crypto.System {
             Optional<WalletManager> optWalletManager = system.getWalletManager(coreWalletManager);
             if (optWalletManager.isPresent()) {
                 WalletManager walletManager = optWalletManager.get();
-                system.announceWalletManagerEvent(walletManager, new WalletManagerSyncProgressEvent(percent, timestamp));
+                system.announceWalletManagerSyncProgressEvent(walletManager, new WalletManagerSyncProgressEvent(percent, timestamp));
 
             } else {
                 Log.log(Level.SEVERE, "WalletManagerSyncProgress: missed wallet manager");
@@ -1041,7 +1283,7 @@ final class System implements com.breadwallet.crypto.System {
                                             BRCryptoWalletManager coreWalletManager,
                                             BRCryptoWallet coreWallet,
                                             BRCryptoWalletEvent event) {
-        EXECUTOR_LISTENER.execute(() -> {
+        EXECUTOR_LISTENER.get().execute(coreWalletManager, () -> {
             try {
                 Log.log(Level.FINE, "WalletEventCallback");
 
@@ -1349,7 +1591,7 @@ final class System implements com.breadwallet.crypto.System {
     private static void handleWalletBalanceUpdated(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoWallet coreWallet, BRCryptoWalletEvent event) {
         Log.log(Level.FINE, "WalletBalanceUpdated");
 
-        Amount amount = Amount.create(event.u.balanceUpdated.amount);
+        Amount amount = Amount.createShared(event.u.balanceUpdated.amount);
 
         Optional<System> optSystem = getSystem(context);
         if (optSystem.isPresent()) {
@@ -1364,7 +1606,7 @@ final class System implements com.breadwallet.crypto.System {
                     Wallet wallet = optWallet.get();
 
                     Log.log(Level.FINE, String.format("WalletBalanceUpdated: %s", amount));
-                    system.announceWalletEvent(walletManager, wallet, new WalletBalanceUpdatedEvent(amount));
+                    system.announceWalletBalanceUpdatedEvent(walletManager, wallet, new WalletBalanceUpdatedEvent(amount));
 
                 } else {
                     Log.log(Level.SEVERE, "WalletBalanceUpdated: missed wallet");
@@ -1448,7 +1690,7 @@ final class System implements com.breadwallet.crypto.System {
                                               BRCryptoWallet coreWallet,
                                               BRCryptoTransfer coreTransfer,
                                               BRCryptoTransferEvent event) {
-        EXECUTOR_LISTENER.execute(() -> {
+        EXECUTOR_LISTENER.get().execute(coreWalletManager, () -> {
             try {
                 Log.log(Level.FINE, "TransferEventCallback");
 
@@ -1528,7 +1770,7 @@ final class System implements com.breadwallet.crypto.System {
                     if (optTransfer.isPresent()) {
                         Transfer transfer = optTransfer.get();
 
-                        system.announceTransferEvent(walletManager, wallet, transfer, new TransferChangedEvent(oldState, newState));
+                        system.announceTransferChangedEvent(walletManager, wallet, transfer, new TransferChangedEvent(oldState, newState));
 
                     } else {
                         Log.log(Level.SEVERE, "TransferChanged: missed transfer");
@@ -1587,7 +1829,7 @@ final class System implements com.breadwallet.crypto.System {
     // BTC client
 
     private static void btcGetBlockNumber(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoCWMClientCallbackState callbackState) {
-        EXECUTOR_CLIENT.execute(() -> {
+        EXECUTOR_CLIENT.get().execute(coreWalletManager, () -> {
             try {
                 Log.log(Level.FINE, "BRCryptoCWMBtcGetBlockNumberCallback");
 
@@ -1599,18 +1841,12 @@ final class System implements com.breadwallet.crypto.System {
                     if (optWalletManager.isPresent()) {
                         WalletManager walletManager = optWalletManager.get();
 
-                        system.query.getBlockchain(walletManager.getNetwork().getUids(), new CompletionHandler<Blockchain, QueryError>() {
+                        Network network = walletManager.getNetwork();
+                        BlockHeightMonitor.getInstance().getHeight(network, system.getBlockchainHeightFetcher(network.getUids()), new CompletionHandler<UnsignedLong, QueryError>() {
                             @Override
-                            public void handleData(Blockchain blockchain) {
-                                Optional<UnsignedLong> maybeBlockHeight = blockchain.getBlockHeight();
-                                if (maybeBlockHeight.isPresent()) {
-                                    UnsignedLong blockchainHeight = maybeBlockHeight.get();
-                                    Log.log(Level.FINE, String.format("BRCryptoCWMBtcGetBlockNumberCallback: succeeded (%s)", blockchainHeight));
-                                    walletManager.getCoreBRCryptoWalletManager().announceGetBlockNumberSuccess(callbackState, blockchainHeight);
-                                } else {
-                                    Log.log(Level.SEVERE, "BRCryptoCWMBtcGetBlockNumberCallback: failed with missing block height");
-                                    walletManager.getCoreBRCryptoWalletManager().announceGetBlockNumberFailure(callbackState);
-                                }
+                            public void handleData(UnsignedLong blockchainHeight) {
+                                Log.log(Level.FINE, String.format("BRCryptoCWMBtcGetBlockNumberCallback: succeeded (%s)", blockchainHeight));
+                                walletManager.getCoreBRCryptoWalletManager().announceGetBlockNumberSuccess(callbackState, blockchainHeight);
                             }
 
                             @Override
@@ -1637,7 +1873,7 @@ final class System implements com.breadwallet.crypto.System {
 
     private static void btcGetTransactions(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoCWMClientCallbackState callbackState,
                                     List<String> addresses, long begBlockNumber, long endBlockNumber) {
-        EXECUTOR_CLIENT.execute(() -> {
+        EXECUTOR_CLIENT.get().execute(coreWalletManager, () -> {
             try {
                 UnsignedLong begBlockNumberUnsigned = UnsignedLong.fromLongBits(begBlockNumber);
                 UnsignedLong endBlockNumberUnsigned = UnsignedLong.fromLongBits(endBlockNumber);
@@ -1652,15 +1888,30 @@ final class System implements com.breadwallet.crypto.System {
                     if (optWalletManager.isPresent()) {
                         WalletManager walletManager = optWalletManager.get();
 
-                        system.query.getTransactions(walletManager.getNetwork().getUids(),
+                        SubscriptionSync.Poll poll = system.pollSubscriptionSync(walletManager, "transactions", addresses,
+                                begBlockNumberUnsigned.equals(BRConstants.BLOCK_HEIGHT_UNBOUND) ? null : begBlockNumberUnsigned);
+                        if (poll.isSkipped()) {
+                            Log.log(Level.FINE, "BRCryptoCWMBtcGetTransactionsCallback: skipped while subscribed");
+                            walletManager.getCoreBRCryptoWalletManager().announceGetTransactionsComplete(callbackState, true);
+                            return;
+                        }
+
+                        PendingQueries.Entry entry = system.getPendingQueries(walletManager).add();
+                        entry.setQuery(system.query.getTransactions(walletManager.getNetwork().getUids(),
                                 addresses,
-                                begBlockNumberUnsigned.equals(BRConstants.BLOCK_HEIGHT_UNBOUND) ? null : begBlockNumberUnsigned,
+                                poll.getBegBlockNumber(),
                                 endBlockNumberUnsigned.equals(BRConstants.BLOCK_HEIGHT_UNBOUND) ? null : endBlockNumberUnsigned,
                                 true,
                                 false,
-                                new CompletionHandler<List<Transaction>, QueryError>() {
+                                null,
+                                new PageHandler<List<Transaction>, QueryError>() {
+                                    // set once a failure has been announced; the rest of the query is ignored
+                                    private boolean completed;
+
                                     @Override
-                                    public void handleData(List<Transaction> transactions) {
+                                    public void handlePage(List<Transaction> transactions) {
+                                        if (completed) return;
+
                                         Log.log(Level.FINE, "BRCryptoCWMBtcGetTransactionsCallback received transactions");
 
                                         for (Transaction transaction : transactions) {
@@ -1668,6 +1919,7 @@ final class System implements com.breadwallet.crypto.System {
                                             if (!optRaw.isPresent()) {
                                                 Log.log(Level.SEVERE, "BRCryptoCWMBtcGetTransactionsCallback completing with missing raw bytes");
                                                 walletManager.getCoreBRCryptoWalletManager().announceGetTransactionsComplete(callbackState, false);
+                                                completed = true;
                                                 return;
                                             }
 
@@ -1690,20 +1942,31 @@ final class System implements com.breadwallet.crypto.System {
                                             else {
                                                 Log.log(Level.SEVERE, "BRCryptoCWMBtcGetTransactionsCallback received an unknown status, completing with failure");
                                                 walletManager.getCoreBRCryptoWalletManager().announceGetTransactionsComplete(callbackState, false);
-
+                                                completed = true;
+                                                return;
                                             }
                                         }
+                                    }
+
+                                    @Override
+                                    public void handleComplete() {
+                                        entry.complete();
+                                        if (completed) return;
 
                                         Log.log(Level.FINE, "BRCryptoCWMBtcGetTransactionsCallback: complete");
+                                        system.subscriptionSync.complete(poll, true);
                                         walletManager.getCoreBRCryptoWalletManager().announceGetTransactionsComplete(callbackState, true);
                                     }
 
                                     @Override
                                     public void handleError(QueryError error) {
+                                        entry.complete();
+                                        if (completed) return;
+
                                         Log.log(Level.SEVERE, "BRCryptoCWMBtcGetTransactionsCallback received an error, completing with failure", error);
                                         walletManager.getCoreBRCryptoWalletManager().announceGetTransactionsComplete(callbackState, false);
                                     }
-                                });
+                                }));
 
                     } else {
                         Log.log(Level.SEVERE, "BRCryptoCWMBtcGetTransactionsCallback: missing manager");
@@ -1722,7 +1985,7 @@ final class System implements com.breadwallet.crypto.System {
 
     private static void btcSubmitTransaction(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoCWMClientCallbackState callbackState,
                                              byte[] transaction, String hashAsHex) {
-        EXECUTOR_CLIENT.execute(() -> {
+        EXECUTOR_CLIENT.get().execute(coreWalletManager, () -> {
             try {
                 Log.log(Level.FINE, "BRCryptoCWMBtcSubmitTransactionCallback");
 
@@ -1767,7 +2030,7 @@ final class System implements com.breadwallet.crypto.System {
 
     private static void ethGetEtherBalance(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoCWMClientCallbackState callbackState,
                                     String networkName, String address) {
-        EXECUTOR_CLIENT.execute(() -> {
+        EXECUTOR_CLIENT.get().execute(coreWalletManager, () -> {
             try {
                 Log.log(Level.FINE, "BRCryptoCWMEthGetEtherBalanceCallback");
 
@@ -1810,7 +2073,7 @@ final class System implements com.breadwallet.crypto.System {
 
     private static void ethGetTokenBalance(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoCWMClientCallbackState callbackState,
                                     String networkName, String address, String tokenAddress) {
-        EXECUTOR_CLIENT.execute(() -> {
+        EXECUTOR_CLIENT.get().execute(coreWalletManager, () -> {
             try {
                 Log.log(Level.FINE, "BRCryptoCWMEthGetTokenBalanceCallback");
 
@@ -1853,7 +2116,7 @@ final class System implements com.breadwallet.crypto.System {
 
     private static void ethGetGasPrice(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoCWMClientCallbackState callbackState,
                                 String networkName) {
-        EXECUTOR_CLIENT.execute(() -> {
+        EXECUTOR_CLIENT.get().execute(coreWalletManager, () -> {
             try {
                 Log.log(Level.FINE, "BRCryptoCWMEthGetGasPriceCallback");
 
@@ -1896,7 +2159,7 @@ final class System implements com.breadwallet.crypto.System {
 
     private static void ethEstimateGas(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoCWMClientCallbackState callbackState,
                                 String networkName, String from, String to, String amount, String gasPrice, String data) {
-        EXECUTOR_CLIENT.execute(() -> {
+        EXECUTOR_CLIENT.get().execute(coreWalletManager, () -> {
             try {
                 Log.log(Level.FINE, "BRCryptoCWMEthEstimateGasCallback");
 
@@ -1945,7 +2208,7 @@ final class System implements com.breadwallet.crypto.System {
 
     private static void ethSubmitTransaction(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoCWMClientCallbackState callbackState,
                                       String networkName, String transaction) {
-        EXECUTOR_CLIENT.execute(() -> {
+        EXECUTOR_CLIENT.get().execute(coreWalletManager, () -> {
             try {
                 Log.log(Level.FINE, "BRCryptoCWMEthSubmitTransactionCallback");
 
@@ -1988,7 +2251,7 @@ final class System implements com.breadwallet.crypto.System {
 
     private static void ethGetTransactions(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoCWMClientCallbackState callbackState,
                                     String networkName, String address, long begBlockNumber, long endBlockNumber) {
-        EXECUTOR_CLIENT.execute(() -> {
+        EXECUTOR_CLIENT.get().execute(coreWalletManager, () -> {
             try {
                 Log.log(Level.FINE, String.format("BRCryptoCWMEthGetTransactionsCallback (%s -> %s)", begBlockNumber, endBlockNumber));
 
@@ -2000,10 +2263,20 @@ final class System implements com.breadwallet.crypto.System {
                     if (optWalletManager.isPresent()) {
                         WalletManager walletManager = optWalletManager.get();
 
-                        system.query.getTransactionsAsEth(networkName, address, UnsignedLong.fromLongBits(begBlockNumber),
+                        SubscriptionSync.Poll poll = system.pollSubscriptionSync(walletManager, "transactions", Collections.singletonList(address),
+                                UnsignedLong.fromLongBits(begBlockNumber));
+                        if (poll.isSkipped()) {
+                            Log.log(Level.FINE, "BRCryptoCWMEthGetTransactionsCallback: skipped while subscribed");
+                            walletManager.getCoreBRCryptoWalletManager().announceGetTransactionsComplete(callbackState, true);
+                            return;
+                        }
+
+                        PendingQueries.Entry entry = system.getPendingQueries(walletManager).add();
+                        entry.setQuery(system.query.getTransactionsAsEth(networkName, address, poll.getBegBlockNumber(),
                                 UnsignedLong.fromLongBits(endBlockNumber), new CompletionHandler<List<EthTransaction>, QueryError>() {
                                     @Override
                                     public void handleData(List<EthTransaction> transactions) {
+                                        entry.complete();
                                         Log.log(Level.FINE, "BRCryptoCWMEthGetTransactionsCallback: succeeded");
                                         for (EthTransaction tx : transactions) {
                                             walletManager.getCoreBRCryptoWalletManager().announceGetTransactionsItemEth(
@@ -2026,14 +2299,16 @@ final class System implements com.breadwallet.crypto.System {
                                                     tx.getIsError());
                                         }
                                         walletManager.getCoreBRCryptoWalletManager().announceGetTransactionsComplete(callbackState, true);
+                                        system.subscriptionSync.complete(poll, true);
                                     }
 
                                     @Override
                                     public void handleError(QueryError error) {
+                                        entry.complete();
                                         Log.log(Level.SEVERE, "BRCryptoCWMEthGetTransactionsCallback: failed", error);
                                         walletManager.getCoreBRCryptoWalletManager().announceGetTransactionsComplete(callbackState, false);
                                     }
-                                });
+                                }));
 
                     } else {
                         Log.log(Level.SEVERE, "BRCryptoCWMEthGetTransactionsCallback: missing manager");
@@ -2053,7 +2328,7 @@ final class System implements com.breadwallet.crypto.System {
     private static void ethGetLogs(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoCWMClientCallbackState callbackState,
                             String networkName, String contract, String address, String event, long begBlockNumber,
                             long endBlockNumber) {
-        EXECUTOR_CLIENT.execute(() -> {
+        EXECUTOR_CLIENT.get().execute(coreWalletManager, () -> {
             try {
                 Log.log(Level.FINE, String.format("BRCryptoCWMEthGetLogsCallback (%s -> %s)", begBlockNumber, endBlockNumber));
 
@@ -2065,10 +2340,20 @@ final class System implements com.breadwallet.crypto.System {
                     if (optWalletManager.isPresent()) {
                         WalletManager walletManager = optWalletManager.get();
 
-                        system.query.getLogsAsEth(networkName, contract, address, event, UnsignedLong.fromLongBits(begBlockNumber),
+                        SubscriptionSync.Poll poll = system.pollSubscriptionSync(walletManager, "logs " + contract + " " + event,
+                                Collections.singletonList(address), UnsignedLong.fromLongBits(begBlockNumber));
+                        if (poll.isSkipped()) {
+                            Log.log(Level.FINE, "BRCryptoCWMEthGetLogsCallback: skipped while subscribed");
+                            walletManager.getCoreBRCryptoWalletManager().announceGetLogsComplete(callbackState, true);
+                            return;
+                        }
+
+                        PendingQueries.Entry entry = system.getPendingQueries(walletManager).add();
+                        entry.setQuery(system.query.getLogsAsEth(networkName, contract, address, event, poll.getBegBlockNumber(),
                                 UnsignedLong.fromLongBits(endBlockNumber), new CompletionHandler<List<EthLog>, QueryError>() {
                                     @Override
                                     public void handleData(List<EthLog> logs) {
+                                        entry.complete();
                                         Log.log(Level.FINE, "BRCryptoCWMEthGetLogsCallback: succeeded");
                                         for (EthLog log : logs) {
                                             walletManager.getCoreBRCryptoWalletManager().announceGetLogsItem(
@@ -2085,14 +2370,16 @@ final class System implements com.breadwallet.crypto.System {
                                                     log.getBlockTimestamp());
                                         }
                                         walletManager.getCoreBRCryptoWalletManager().announceGetLogsComplete(callbackState, true);
+                                        system.subscriptionSync.complete(poll, true);
                                     }
 
                                     @Override
                                     public void handleError(QueryError error) {
+                                        entry.complete();
                                         Log.log(Level.SEVERE, "BRCryptoCWMEthGetLogsCallback: failed", error);
                                         walletManager.getCoreBRCryptoWalletManager().announceGetLogsComplete(callbackState, false);
                                     }
-                                });
+                                }));
 
                     } else {
                         Log.log(Level.SEVERE, "BRCryptoCWMEthGetLogsCallback: missing manager");
@@ -2112,7 +2399,7 @@ final class System implements com.breadwallet.crypto.System {
     private static void ethGetBlocks(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoCWMClientCallbackState callbackState,
                               String networkName, String address, int interests, long blockNumberStart,
                               long blockNumberStop) {
-        EXECUTOR_CLIENT.execute(() -> {
+        EXECUTOR_CLIENT.get().execute(coreWalletManager, () -> {
             try {
                 Log.log(Level.FINE, "BRCryptoCWMEthGetBlocksCallback");
 
@@ -2124,21 +2411,24 @@ final class System implements com.breadwallet.crypto.System {
                     if (optWalletManager.isPresent()) {
                         WalletManager walletManager = optWalletManager.get();
 
-                        system.query.getBlocksAsEth(networkName, address, UnsignedInteger.fromIntBits(interests),
+                        PendingQueries.Entry entry = system.getPendingQueries(walletManager).add();
+                        entry.setQuery(system.query.getBlocksAsEth(networkName, address, UnsignedInteger.fromIntBits(interests),
                                 UnsignedLong.fromLongBits(blockNumberStart), UnsignedLong.fromLongBits(blockNumberStop),
                                 new CompletionHandler<List<UnsignedLong>, QueryError>() {
                                     @Override
                                     public void handleData(List<UnsignedLong> blocks) {
+                                        entry.complete();
                                         Log.log(Level.FINE, "BRCryptoCWMEthGetBlocksCallback: succeeded");
                                         walletManager.getCoreBRCryptoWalletManager().announceGetBlocksSuccess(callbackState, blocks);
                                     }
 
                                     @Override
                                     public void handleError(QueryError error) {
+                                        entry.complete();
                                         Log.log(Level.SEVERE, "BRCryptoCWMEthGetBlocksCallback: failed", error);
                                         walletManager.getCoreBRCryptoWalletManager().announceGetBlocksFailure(callbackState);
                                     }
-                                });
+                                }));
 
                     } else {
                         Log.log(Level.SEVERE, "BRCryptoCWMEthGetBlocksCallback: missing manager");
@@ -2156,7 +2446,7 @@ final class System implements com.breadwallet.crypto.System {
     }
 
     private static void ethGetTokens(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoCWMClientCallbackState callbackState) {
-        EXECUTOR_CLIENT.execute(() -> {
+        EXECUTOR_CLIENT.get().execute(coreWalletManager, () -> {
             try {
                 Log.log(Level.FINE, "BREthereumClientHandlerGetTokens");
 
@@ -2210,7 +2500,7 @@ final class System implements com.breadwallet.crypto.System {
 
     private static void ethGetBlockNumber(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoCWMClientCallbackState callbackState,
                                    String networkName) {
-        EXECUTOR_CLIENT.execute(() -> {
+        EXECUTOR_CLIENT.get().execute(coreWalletManager, () -> {
             try {
                 Log.log(Level.FINE, "BRCryptoCWMEthGetBlockNumberCallback");
 
@@ -2222,11 +2512,11 @@ final class System implements com.breadwallet.crypto.System {
                     if (optWalletManager.isPresent()) {
                         WalletManager walletManager = optWalletManager.get();
 
-                        system.query.getBlockNumberAsEth(networkName, new CompletionHandler<String, QueryError>() {
+                        BlockHeightMonitor.getInstance().getHeight(walletManager.getNetwork(), system.getEthBlockHeightFetcher(networkName), new CompletionHandler<UnsignedLong, QueryError>() {
                             @Override
-                            public void handleData(String number) {
+                            public void handleData(UnsignedLong number) {
                                 Log.log(Level.FINE, "BRCryptoCWMEthGetBlockNumberCallback: succeeded");
-                                walletManager.getCoreBRCryptoWalletManager().announceGetBlockNumberSuccess(callbackState, number);
+                                walletManager.getCoreBRCryptoWalletManager().announceGetBlockNumberSuccess(callbackState, number.toString());
                             }
 
                             @Override
@@ -2253,7 +2543,7 @@ final class System implements com.breadwallet.crypto.System {
 
     private static void ethGetNonce(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoCWMClientCallbackState callbackState,
                              String networkName, String address) {
-        EXECUTOR_CLIENT.execute(() -> {
+        EXECUTOR_CLIENT.get().execute(coreWalletManager, () -> {
             try {
                 Log.log(Level.FINE, "BRCryptoCWMEthGetNonceCallback");
 
@@ -2297,7 +2587,7 @@ final class System implements com.breadwallet.crypto.System {
     // GEN client
 
     private static void genGetBlockNumber(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoCWMClientCallbackState callbackState) {
-        EXECUTOR_CLIENT.execute(() -> {
+        EXECUTOR_CLIENT.get().execute(coreWalletManager, () -> {
             try {
                 Log.log(Level.FINE, "BRCryptoCWMGenGetBlockNumberCallback");
 
@@ -2309,18 +2599,12 @@ final class System implements com.breadwallet.crypto.System {
                     if (optWalletManager.isPresent()) {
                         WalletManager walletManager = optWalletManager.get();
 
-                        system.query.getBlockchain(walletManager.getNetwork().getUids(), new CompletionHandler<Blockchain, QueryError>() {
+                        Network network = walletManager.getNetwork();
+                        BlockHeightMonitor.getInstance().getHeight(network, system.getBlockchainHeightFetcher(network.getUids()), new CompletionHandler<UnsignedLong, QueryError>() {
                             @Override
-                            public void handleData(Blockchain blockchain) {
-                                Optional<UnsignedLong> maybeBlockHeight = blockchain.getBlockHeight();
-                                if (maybeBlockHeight.isPresent()) {
-                                    UnsignedLong blockchainHeight = maybeBlockHeight.get();
-                                    Log.log(Level.FINE, String.format("BRCryptoCWMGenGetBlockNumberCallback: succeeded (%s)", blockchainHeight));
-                                    walletManager.getCoreBRCryptoWalletManager().announceGetBlockNumberSuccess(callbackState, blockchainHeight);
-                                } else {
-                                    Log.log(Level.SEVERE, "BRCryptoCWMGenGetBlockNumberCallback: failed with missing block height");
-                                    walletManager.getCoreBRCryptoWalletManager().announceGetBlockNumberFailure(callbackState);
-                                }
+                            public void handleData(UnsignedLong blockchainHeight) {
+                                Log.log(Level.FINE, String.format("BRCryptoCWMGenGetBlockNumberCallback: succeeded (%s)", blockchainHeight));
+                                walletManager.getCoreBRCryptoWalletManager().announceGetBlockNumberSuccess(callbackState, blockchainHeight);
                             }
 
                             @Override
@@ -2347,7 +2631,7 @@ final class System implements com.breadwallet.crypto.System {
 
     private static void genGetTransactions(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoCWMClientCallbackState callbackState,
                                            String address, long begBlockNumber, long endBlockNumber) {
-        EXECUTOR_CLIENT.execute(() -> {
+        EXECUTOR_CLIENT.get().execute(coreWalletManager, () -> {
             try {
                 UnsignedLong begBlockNumberUnsigned = UnsignedLong.fromLongBits(begBlockNumber);
                 UnsignedLong endBlockNumberUnsigned = UnsignedLong.fromLongBits(endBlockNumber);
@@ -2362,16 +2646,31 @@ final class System implements com.breadwallet.crypto.System {
                     if (optWalletManager.isPresent()) {
                         WalletManager walletManager = optWalletManager.get();
 
-                        system.query.getTransactions(
+                        SubscriptionSync.Poll poll = system.pollSubscriptionSync(walletManager, "transactions", Collections.singletonList(address),
+                                begBlockNumberUnsigned.equals(BRConstants.BLOCK_HEIGHT_UNBOUND) ? null : begBlockNumberUnsigned);
+                        if (poll.isSkipped()) {
+                            Log.log(Level.FINE, "BRCryptoCWMGenGetTransactionsCallback: skipped while subscribed");
+                            walletManager.getCoreBRCryptoWalletManager().announceGetTransactionsComplete(callbackState, true);
+                            return;
+                        }
+
+                        PendingQueries.Entry entry = system.getPendingQueries(walletManager).add();
+                        entry.setQuery(system.query.getTransactions(
                                 walletManager.getNetwork().getUids(),
                                 Collections.singletonList(address),
-                                begBlockNumberUnsigned.equals(BRConstants.BLOCK_HEIGHT_UNBOUND) ? null : begBlockNumberUnsigned,
+                                poll.getBegBlockNumber(),
                                 endBlockNumberUnsigned.equals(BRConstants.BLOCK_HEIGHT_UNBOUND) ? null : endBlockNumberUnsigned,
                                 true,
                                 false,
-                                new CompletionHandler<List<Transaction>, QueryError>() {
+                                null,
+                                new PageHandler<List<Transaction>, QueryError>() {
+                                    // set once a failure has been announced; the rest of the query is ignored
+                                    private boolean completed;
+
                                     @Override
-                                    public void handleData(List<Transaction> transactions) {
+                                    public void handlePage(List<Transaction> transactions) {
+                                        if (completed) return;
+
                                         Log.log(Level.FINE, "BRCryptoCWMGenGetTransactionsCallback  received transactions");
 
                                         for (Transaction transaction : transactions) {
@@ -2379,6 +2678,7 @@ final class System implements com.breadwallet.crypto.System {
                                             if (!optRaw.isPresent()) {
                                                 Log.log(Level.SEVERE, "BRCryptoCWMGenGetTransactionsCallback  completing with missing raw bytes");
                                                 walletManager.getCoreBRCryptoWalletManager().announceGetTransactionsComplete(callbackState, false);
+                                                completed = true;
                                                 return;
                                             }
 
@@ -2402,20 +2702,31 @@ final class System implements com.breadwallet.crypto.System {
                                             else {
                                                 Log.log(Level.SEVERE, "BRCryptoCWMGenGetTransactionsCallback received an unknown status, completing with failure");
                                                 walletManager.getCoreBRCryptoWalletManager().announceGetTransactionsComplete(callbackState, false);
-
+                                                completed = true;
+                                                return;
                                             }
                                         }
+                                    }
+
+                                    @Override
+                                    public void handleComplete() {
+                                        entry.complete();
+                                        if (completed) return;
 
                                         Log.log(Level.FINE, "BRCryptoCWMGenGetTransactionsCallback : complete");
+                                        system.subscriptionSync.complete(poll, true);
                                         walletManager.getCoreBRCryptoWalletManager().announceGetTransactionsComplete(callbackState, true);
                                     }
 
                                     @Override
                                     public void handleError(QueryError error) {
+                                        entry.complete();
+                                        if (completed) return;
+
                                         Log.log(Level.SEVERE, "BRCryptoCWMGenGetTransactionsCallback  received an error, completing with failure", error);
                                         walletManager.getCoreBRCryptoWalletManager().announceGetTransactionsComplete(callbackState, false);
                                     }
-                                });
+                                }));
 
                     } else {
                         Log.log(Level.SEVERE, "BRCryptoCWMGenGetTransactionsCallback : missing manager");
@@ -2434,7 +2745,7 @@ final class System implements com.breadwallet.crypto.System {
 
     private static void genGetTransfers(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoCWMClientCallbackState callbackState,
                                            String address, long begBlockNumber, long endBlockNumber) {
-        EXECUTOR_CLIENT.execute(() -> {
+        EXECUTOR_CLIENT.get().execute(coreWalletManager, () -> {
             try {
                 UnsignedLong begBlockNumberUnsigned = UnsignedLong.fromLongBits(begBlockNumber);
                 UnsignedLong endBlockNumberUnsigned = UnsignedLong.fromLongBits(endBlockNumber);
@@ -2449,11 +2760,20 @@ final class System implements com.breadwallet.crypto.System {
                     if (optWalletManager.isPresent()) {
                         WalletManager walletManager = optWalletManager.get();
 
-                        system.query.getTransactions(walletManager.getNetwork().getUids(), Collections.singletonList(address), begBlockNumberUnsigned,
+                        SubscriptionSync.Poll poll = system.pollSubscriptionSync(walletManager, "transfers", Collections.singletonList(address),
+                                begBlockNumberUnsigned);
+                        if (poll.isSkipped()) {
+                            Log.log(Level.FINE, "BRCryptoCWMGenGetTransfersCallback: skipped while subscribed");
+                            walletManager.getCoreBRCryptoWalletManager().announceGetTransfersComplete(callbackState, true);
+                            return;
+                        }
+
+                        PendingQueries.Entry entry = system.getPendingQueries(walletManager).add();
+                        entry.setQuery(system.query.getTransactions(walletManager.getNetwork().getUids(), Collections.singletonList(address), poll.getBegBlockNumber(),
                                 endBlockNumberUnsigned, false,
-                                false, new CompletionHandler<List<Transaction>, QueryError>() {
+                                false, null, new PageHandler<List<Transaction>, QueryError>() {
                                     @Override
-                                    public void handleData(List<Transaction> transactions) {
+                                    public void handlePage(List<Transaction> transactions) {
                                         Log.log(Level.FINE, "BRCryptoCWMGenGetTransfersCallback received transfers");
                                         List<ObjectPair<com.breadwallet.crypto.blockchaindb.models.bdb.Transfer, String>> merged;
 
@@ -2485,17 +2805,23 @@ final class System implements com.breadwallet.crypto.System {
                                                         o.o1.getMeta());
                                             }
                                         }
+                                    }
 
+                                    @Override
+                                    public void handleComplete() {
+                                        entry.complete();
                                         Log.log(Level.FINE, "BRCryptoCWMGenGetTransfersCallback : complete");
+                                        system.subscriptionSync.complete(poll, true);
                                         walletManager.getCoreBRCryptoWalletManager().announceGetTransfersComplete(callbackState, true);
                                     }
 
                                     @Override
                                     public void handleError(QueryError error) {
+                                        entry.complete();
                                         Log.log(Level.SEVERE, "BRCryptoCWMGenGetTransfersCallback  received an error, completing with failure", error);
                                         walletManager.getCoreBRCryptoWalletManager().announceGetTransfersComplete(callbackState, false);
                                     }
-                                });
+                                }));
 
                     } else {
                         Log.log(Level.SEVERE, "BRCryptoCWMGenGetTransfersCallback : missing manager");
@@ -2598,7 +2924,7 @@ final class System implements com.breadwallet.crypto.System {
 
     private static void genSubmitTransaction(Cookie context, BRCryptoWalletManager coreWalletManager, BRCryptoCWMClientCallbackState callbackState,
                                              byte[] transaction, String hashAsHex) {
-        EXECUTOR_CLIENT.execute(() -> {
+        EXECUTOR_CLIENT.get().execute(coreWalletManager, () -> {
             try {
                 Log.log(Level.FINE, "BRCryptoCWMGenSubmitTransactionCallback");
 
@@ -25,16 +25,34 @@ import static com.google.common.base.Preconditions.checkState;
 /* package */
 final class Transfer implements com.breadwallet.crypto.Transfer {
 
+    private static final WrapperCache<BRCryptoTransfer, Transfer> WRAPPERS = new WrapperCache<>();
+
     /* package */
     static Transfer takeAndCreate(BRCryptoTransfer core, Wallet wallet) {
-        return Transfer.create(core.take(), wallet);
+        Transfer transfer = WRAPPERS.get(core);
+        return null != transfer ? transfer : Transfer.create(core.take(), wallet);
+    }
+
+    /**
+     * Wrap a reference the caller owns, reusing the cached wrapper, and giving up the reference,
+     * if there is one.
+     */
+    /* package */
+    static Transfer giveOrCreate(BRCryptoTransfer core, Wallet wallet) {
+        Transfer transfer = WRAPPERS.get(core);
+        if (null == transfer) {
+            return Transfer.create(core, wallet);
+        }
+
+        core.give();
+        return transfer;
     }
 
     /* package */
     static Transfer create(BRCryptoTransfer core, Wallet wallet) {
         Transfer transfer = new Transfer(core, wallet);
         ReferenceCleaner.register(transfer, core::give);
-        return transfer;
+        return WRAPPERS.intern(core, transfer);
     }
 
     /* package */
@@ -62,6 +80,7 @@ final class Transfer implements com.breadwallet.crypto.Transfer {
     private final Supplier<Amount> directedSupplier;
     private final Supplier<TransferDirection> directionSupplier;
     private final Supplier<Set<TransferAttribute>> attributesSupplier;
+    private final Supplier<TransferSnapshot.Units> snapshotUnitsSupplier;
 
     private Transfer(BRCryptoTransfer core, Wallet wallet) {
         this.core = core;
@@ -71,11 +90,12 @@ final class Transfer implements com.breadwallet.crypto.Transfer {
         this.unitForFeeSupplier = Suppliers.memoize(() -> Unit.create(core.getUnitForFee()));
         this.estimatedFeeBasisSupplier = Suppliers.memoize(() -> core.getEstimatedFeeBasis().transform(TransferFeeBasis::create));
 
-        this.sourceSupplier = Suppliers.memoize(() -> core.getSourceAddress().transform(Address::create));
-        this.targetSupplier = Suppliers.memoize(() -> core.getTargetAddress().transform(Address::create));
-        this.amountSupplier = Suppliers.memoize(() -> Amount.create(core.getAmount()));
-        this.directedSupplier = Suppliers.memoize(() -> Amount.create(core.getAmountDirected()));
+        this.sourceSupplier = Suppliers.memoize(() -> core.getSourceAddress().transform(Address::createShared));
+        this.targetSupplier = Suppliers.memoize(() -> core.getTargetAddress().transform(Address::createShared));
+        this.amountSupplier = Suppliers.memoize(() -> Amount.createShared(core.getAmount()));
+        this.directedSupplier = Suppliers.memoize(() -> Amount.createShared(core.getAmountDirected()));
         this.directionSupplier = Suppliers.memoize(() -> Utilities.transferDirectionFromCrypto(core.getDirection()));
+        this.snapshotUnitsSupplier = Suppliers.memoize(() -> TransferSnapshot.Units.create(getUnit(), getUnitForFee()));
 
         attributesSupplier = Suppliers.memoize(() -> {
             Set<TransferAttribute> attributes = new HashSet<>();
@@ -148,12 +168,12 @@ final class Transfer implements com.breadwallet.crypto.Transfer {
     }
 
     @Override
-    public com.breadwallet.crypto.Unit getUnit() {
+    public Unit getUnit() {
         return unitSupplier.get();
     }
 
     @Override
-    public com.breadwallet.crypto.Unit getUnitForFee() {
+    public Unit getUnitForFee() {
         return unitForFeeSupplier.get();
     }
 
@@ -162,6 +182,11 @@ final class Transfer implements com.breadwallet.crypto.Transfer {
         return Utilities.transferStateFromCrypto(core.getState());
     }
 
+    @Override
+    public TransferSnapshot getSnapshot() {
+        return TransferSnapshot.create(core.getSnapshot(), snapshotUnitsSupplier.get());
+    }
+
     @Override
     public boolean equals(Object object) {
         if (this == object) {
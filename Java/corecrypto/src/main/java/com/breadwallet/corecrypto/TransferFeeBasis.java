@@ -55,12 +55,12 @@ class TransferFeeBasis implements com.breadwallet.crypto.TransferFeeBasis {
         this.unitSupplier = Suppliers.memoize(() -> Unit.create(core.getPricePerCostFactorUnit()));
         this.currencySupplier = Suppliers.memoize(() -> getUnit().getCurrency());
         this.costFactorSupplier = Suppliers.memoize(core::getCostFactor);
-        this.pricePerCostFactorSupplier = Suppliers.memoize(() -> Amount.create(core.getPricePerCostFactor()));
+        this.pricePerCostFactorSupplier = Suppliers.memoize(() -> Amount.createShared(core.getPricePerCostFactor()));
 
         this.feeSupplier = Suppliers.memoize(() -> {
             Optional<BRCryptoAmount> maybeAmount = core.getFee();
             checkState(maybeAmount.isPresent());
-            return Amount.create(maybeAmount.get());
+            return Amount.createShared(maybeAmount.get());
         });
     }
 
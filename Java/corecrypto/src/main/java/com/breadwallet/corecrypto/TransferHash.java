@@ -24,6 +24,19 @@ final class TransferHash implements com.breadwallet.crypto.TransferHash {
         return hash;
     }
 
+    /* package */
+    static TransferHash from(com.breadwallet.crypto.TransferHash hash) {
+        if (hash == null) {
+            return null;
+        }
+
+        if (hash instanceof TransferHash) {
+            return (TransferHash) hash;
+        }
+
+        throw new IllegalArgumentException("Unsupported hash instance");
+    }
+
     private final BRCryptoHash core;
 
     private final int value;
@@ -59,4 +72,9 @@ final class TransferHash implements com.breadwallet.crypto.TransferHash {
     public String toString() {
         return toStringSupplier.get();
     }
+
+    /* package */
+    BRCryptoHash getCoreBRCryptoHash() {
+        return core;
+    }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corecrypto;
+
+import com.breadwallet.corenative.crypto.BRCryptoTransferSnapshot;
+import com.breadwallet.corenative.crypto.BRCryptoTransferStateType;
+import com.breadwallet.crypto.TransferDirection;
+import com.breadwallet.crypto.TransferState;
+import com.google.common.base.Optional;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.primitives.UnsignedLong;
+
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/* package */
+final class TransferSnapshot implements com.breadwallet.crypto.TransferSnapshot {
+
+    /**
+     * The units that snapshot values are expressed in, resolved once for any number of snapshots.
+     */
+    /* package */
+    static final class Units {
+
+        /* package */
+        static Units create(Unit unit, Unit unitForFee) {
+            return new Units(unit, unitForFee);
+        }
+
+        private final Unit unit;
+        private final Unit unitForFee;
+
+        private Units(Unit unit, Unit unitForFee) {
+            this.unit = unit;
+            this.unitForFee = unitForFee;
+        }
+    }
+
+    /* package */
+    static TransferSnapshot create(BRCryptoTransferSnapshot core, Units units) {
+        return new TransferSnapshot(core, units);
+    }
+
+    private final Optional<String> hash;
+    private final Optional<String> source;
+    private final Optional<String> target;
+    private final TransferDirection direction;
+    private final TransferState.Type stateType;
+    private final boolean included;
+    private final UnsignedLong blockNumber;
+    private final UnsignedLong transactionIndex;
+    private final UnsignedLong timestamp;
+
+    private final Supplier<Amount> amountSupplier;
+    private final Supplier<Amount> directedSupplier;
+    private final Supplier<Optional<Amount>> feeSupplier;
+
+    private TransferSnapshot(BRCryptoTransferSnapshot core, Units units) {
+        this.hash = core.getHash();
+        this.source = core.getSourceAddress();
+        this.target = core.getTargetAddress();
+        this.direction = Utilities.transferDirectionFromCrypto(core.direction());
+        this.stateType = Utilities.transferStateTypeFromCrypto(core.state());
+        this.included = BRCryptoTransferStateType.CRYPTO_TRANSFER_STATE_INCLUDED == core.state();
+        this.blockNumber = core.getBlockNumber();
+        this.transactionIndex = core.getTransactionIndex();
+        this.timestamp = core.getTimestamp();
+
+        // amounts are only created when asked for
+        BigInteger amountValue = core.getAmount();
+        Optional<BigInteger> feeValue = core.getFee();
+
+        this.amountSupplier = Suppliers.memoize(() -> Amount.createShared(units.unit, false, amountValue));
+        this.directedSupplier = Suppliers.memoize(() -> {
+            switch (direction) {
+                case SENT: return Amount.createShared(units.unit, true, amountValue);
+                case RECEIVED: return getAmount();
+                default: return Amount.createShared(units.unit, false, BigInteger.ZERO);
+            }
+        });
+        this.feeSupplier = Suppliers.memoize(() -> feeValue.isPresent() ?
+                Optional.of(Amount.createShared(units.unitForFee, false, feeValue.get())) :
+                Optional.absent());
+    }
+
+    @Override
+    public Optional<String> getHash() {
+        return hash;
+    }
+
+    @Override
+    public Optional<String> getSource() {
+        return source;
+    }
+
+    @Override
+    public Optional<String> getTarget() {
+        return target;
+    }
+
+    @Override
+    public Amount getAmount() {
+        return amountSupplier.get();
+    }
+
+    @Override
+    public Amount getAmountDirected() {
+        return directedSupplier.get();
+    }
+
+    @Override
+    public Optional<Amount> getFee() {
+        return feeSupplier.get();
+    }
+
+    @Override
+    public TransferDirection getDirection() {
+        return direction;
+    }
+
+    @Override
+    public TransferState.Type getStateType() {
+        return stateType;
+    }
+
+    @Override
+    public Optional<UnsignedLong> getBlockNumber() {
+        return included ? Optional.of(blockNumber) : Optional.absent();
+    }
+
+    @Override
+    public Optional<UnsignedLong> getTransactionIndex() {
+        return included ? Optional.of(transactionIndex) : Optional.absent();
+    }
+
+    @Override
+    public Optional<Date> getConfirmationTime() {
+        return included ? Optional.of(new Date(TimeUnit.SECONDS.toMillis(timestamp.longValue()))) : Optional.absent();
+    }
+}
@@ -15,6 +15,7 @@ import com.breadwallet.corenative.crypto.BRCryptoStatus;
 import com.breadwallet.corenative.crypto.BRCryptoTransferAttributeValidationError;
 import com.breadwallet.corenative.crypto.BRCryptoTransferDirection;
 import com.breadwallet.corenative.crypto.BRCryptoTransferState;
+import com.breadwallet.corenative.crypto.BRCryptoTransferStateType;
 import com.breadwallet.corenative.crypto.BRCryptoWalletManagerState;
 import com.breadwallet.corenative.crypto.BRCryptoWalletState;
 import com.breadwallet.corenative.crypto.BRCryptoSyncDepth;
@@ -134,6 +135,19 @@ final class Utilities {
         }
     }
 
+    /* package */
+    static TransferState.Type transferStateTypeFromCrypto(BRCryptoTransferStateType type) {
+        switch (type) {
+            case CRYPTO_TRANSFER_STATE_CREATED: return TransferState.Type.CREATED;
+            case CRYPTO_TRANSFER_STATE_SIGNED: return TransferState.Type.SIGNED;
+            case CRYPTO_TRANSFER_STATE_SUBMITTED: return TransferState.Type.SUBMITTED;
+            case CRYPTO_TRANSFER_STATE_INCLUDED: return TransferState.Type.INCLUDED;
+            case CRYPTO_TRANSFER_STATE_ERRORED: return TransferState.Type.FAILED;
+            case CRYPTO_TRANSFER_STATE_DELETED: return TransferState.Type.DELETED;
+            default: throw new IllegalArgumentException("Unsupported state");
+        }
+    }
+
     /* package */
     static TransferState transferStateFromCrypto(BRCryptoTransferState state) {
         switch (state.type()) {
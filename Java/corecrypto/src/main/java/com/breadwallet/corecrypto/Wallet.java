@@ -11,10 +11,12 @@ import com.breadwallet.corenative.cleaner.ReferenceCleaner;
 import com.breadwallet.corenative.crypto.BRCryptoAddress;
 import com.breadwallet.corenative.crypto.BRCryptoAmount;
 import com.breadwallet.corenative.crypto.BRCryptoFeeBasis;
+import com.breadwallet.corenative.crypto.BRCryptoHash;
 import com.breadwallet.corenative.crypto.BRCryptoNetworkFee;
 import com.breadwallet.corenative.crypto.BRCryptoPaymentProtocolRequest;
 import com.breadwallet.corenative.crypto.BRCryptoTransfer;
 import com.breadwallet.corenative.crypto.BRCryptoTransferAttribute;
+import com.breadwallet.corenative.crypto.BRCryptoTransferSnapshot;
 import com.breadwallet.corenative.crypto.BRCryptoWallet;
 import com.breadwallet.corenative.crypto.BRCryptoWalletManager;
 import com.breadwallet.corenative.crypto.BRCryptoWalletSweeper;
@@ -28,6 +30,7 @@ import com.breadwallet.crypto.utility.CompletionHandler;
 import com.google.common.base.Optional;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.primitives.UnsignedInts;
 import com.google.common.primitives.UnsignedLong;
 
 import java.util.ArrayList;
@@ -38,21 +41,25 @@ import java.util.Set;
 
 import javax.annotation.Nullable;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 
 /* package */
 final class Wallet implements com.breadwallet.crypto.Wallet {
 
+    private static final WrapperCache<BRCryptoWallet, Wallet> WRAPPERS = new WrapperCache<>();
+
     /* package */
     static Wallet takeAndCreate(BRCryptoWallet core, WalletManager walletManager, SystemCallbackCoordinator callbackCoordinator) {
-        return Wallet.create(core.take(), walletManager, callbackCoordinator);
+        Wallet wallet = WRAPPERS.get(core);
+        return null != wallet ? wallet : Wallet.create(core.take(), walletManager, callbackCoordinator);
     }
 
     /* package */
     static Wallet create(BRCryptoWallet core, WalletManager walletManager, SystemCallbackCoordinator callbackCoordinator) {
         Wallet wallet = new Wallet(core, walletManager, callbackCoordinator);
         ReferenceCleaner.register(wallet, core::give);
-        return wallet;
+        return WRAPPERS.intern(core, wallet);
     }
 
     /* package */
@@ -75,6 +82,7 @@ final class Wallet implements com.breadwallet.crypto.Wallet {
     private final Supplier<Unit> unitSupplier;
     private final Supplier<Unit> unitForFeeSupplier;
     private final Supplier<Currency> defaultUnitCurrencySupplier;
+    private final Supplier<TransferSnapshot.Units> snapshotUnitsSupplier;
 
     private Wallet(BRCryptoWallet core, WalletManager walletManager, SystemCallbackCoordinator callbackCoordinator) {
         this.core = core;
@@ -84,6 +92,7 @@ final class Wallet implements com.breadwallet.crypto.Wallet {
         this.unitSupplier = Suppliers.memoize(() -> Unit.create(core.getUnit()));
         this.unitForFeeSupplier = Suppliers.memoize(() -> Unit.create(core.getUnitForFee()));
         this.defaultUnitCurrencySupplier = Suppliers.memoize(() -> Currency.create(core.getCurrency()));
+        this.snapshotUnitsSupplier = Suppliers.memoize(() -> TransferSnapshot.Units.create(getUnit(), getUnitForFee()));
     }
 
     @Override
@@ -348,16 +357,40 @@ final class Wallet implements com.breadwallet.crypto.Wallet {
     }
 
     @Override
-    public Optional<Transfer> getTransferByHash(com.breadwallet.crypto.TransferHash hash) {
-        List<Transfer> transfers = getTransfers();
+    public List<TransferSnapshot> getTransferSnapshots() {
+        List<TransferSnapshot> snapshots = new ArrayList<>();
 
-        for (Transfer transfer : transfers) {
-            Optional<TransferHash> optional = transfer.getHash();
-            if (optional.isPresent() && optional.get().equals(hash)) {
-                return Optional.of(transfer);
-            }
+        // a wallet's transfers share its units
+        TransferSnapshot.Units units = snapshotUnitsSupplier.get();
+        for (BRCryptoTransferSnapshot snapshot: core.getTransferSnapshots()) {
+            snapshots.add(TransferSnapshot.create(snapshot, units));
+        }
+
+        return snapshots;
+    }
+
+    @Override
+    public List<Transfer> getTransfers(int offset, int limit) {
+        checkArgument(offset >= 0 && limit >= 0);
+
+        List<Transfer> transfers = new ArrayList<>();
+
+        for (BRCryptoTransfer transfer: core.getTransfers(UnsignedLong.valueOf(offset), UnsignedLong.valueOf(limit))) {
+            transfers.add(Transfer.giveOrCreate(transfer, this));
         }
-        return Optional.absent();
+
+        return transfers;
+    }
+
+    @Override
+    public int getTransferCount() {
+        return UnsignedInts.checkedCast(core.getTransferCount().longValue());
+    }
+
+    @Override
+    public Optional<Transfer> getTransferByHash(com.breadwallet.crypto.TransferHash hash) {
+        BRCryptoHash coreHash = TransferHash.from(hash).getCoreBRCryptoHash();
+        return core.getTransferByHash(coreHash).transform(t -> Transfer.giveOrCreate(t, this));
     }
 
     @Override
@@ -61,16 +61,19 @@ final class WalletManager implements com.breadwallet.crypto.WalletManager {
         );
     }
 
+    private static final WrapperCache<BRCryptoWalletManager, WalletManager> WRAPPERS = new WrapperCache<>();
+
     /* package */
     static WalletManager takeAndCreate(BRCryptoWalletManager core, System system, SystemCallbackCoordinator callbackCoordinator) {
-        return WalletManager.create(core.take(), system, callbackCoordinator);
+        WalletManager manager = WRAPPERS.get(core);
+        return null != manager ? manager : WalletManager.create(core.take(), system, callbackCoordinator);
     }
 
     /* package */
     static WalletManager create(BRCryptoWalletManager core, System system, SystemCallbackCoordinator callbackCoordinator) {
         WalletManager manager = new WalletManager(core, system, callbackCoordinator);
         ReferenceCleaner.register(manager, core::give);
-        return manager;
+        return WRAPPERS.intern(core, manager);
     }
 
     private BRCryptoWalletManager core;
@@ -123,6 +126,7 @@ final class WalletManager implements com.breadwallet.crypto.WalletManager {
 
     @Override
     public void disconnect() {
+        system.getPendingQueries(this).cancelAll();
         core.disconnect();
     }
 
@@ -133,6 +137,7 @@ final class WalletManager implements com.breadwallet.crypto.WalletManager {
 
     @Override
     public void stop() {
+        system.getPendingQueries(this).cancelAll();
         core.stop();
     }
 
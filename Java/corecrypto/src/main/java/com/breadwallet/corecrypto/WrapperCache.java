@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corecrypto;
+
+import android.support.annotation.Nullable;
+
+import com.google.common.collect.MapMaker;
+
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The live wrapper of each native object, so that callbacks reuse a wrapper rather than taking
+ * a new reference to the object they are handed.
+ *
+ * Native objects compare by pointer. Wrappers are held weakly; once one is collected, the next
+ * lookup of its object misses and a new wrapper is created.
+ */
+/* package */
+final class WrapperCache<C, W> {
+
+    private final ConcurrentMap<C, W> wrappers = new MapMaker().weakValues().makeMap();
+
+    /* package */
+    @Nullable
+    W get(C core) {
+        return wrappers.get(core);
+    }
+
+    /**
+     * Cache `wrapper` for `core`, unless a wrapper is already cached; returns the cached wrapper.
+     */
+    /* package */
+    W intern(C core, W wrapper) {
+        W existing = wrappers.putIfAbsent(core, wrapper);
+        return null == existing ? wrapper : existing;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corenative;
+
+import com.breadwallet.corenative.utility.PointerArray;
+import com.breadwallet.corenative.utility.SizeT;
+import com.sun.jna.FunctionMapper;
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLibrary;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+import com.sun.jna.PointerType;
+import com.sun.jna.StringArray;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of calling cwmAnnounceGetTransferItemGEN and cryptoWalletCreateTransfer through
+ * a JNA interface proxy, as CryptoLibraryIndirect did, with the direct mapping CryptoLibraryDirect
+ * now uses, including the arrays each builds per call.
+ *
+ * Both bindings are bound to a native function that ignores its arguments, so only the binding is
+ * measured; the work the core does is the same either way, and needs a live wallet manager.
+ *
+ * Run with: ./gradlew :corenative-jre:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CryptoLibraryBindingBenchmark {
+
+    // ignores its arguments on every platform that the JRE library is built for
+    private static final FunctionMapper NO_OP = (library, method) -> "getpid";
+
+    private static final Map<String, Object> OPTIONS = Collections.singletonMap(Library.OPTION_FUNCTION_MAPPER, NO_OP);
+
+    public interface Indirect extends Library {
+
+        Pointer cryptoWalletCreateTransfer(Pointer wallet, Pointer target, Pointer amount, Pointer feeBasis,
+                                           SizeT attributesCount, Attribute[] attributes);
+
+        void cwmAnnounceGetTransferItemGEN(Pointer cwm, Pointer callbackState, int status,
+                                           String hash, String uids, String sourceAddr, String targetAddr,
+                                           String amount, String currency, String fee,
+                                           long timestamp, long blockHeight,
+                                           SizeT attributesCount, String[] attributeKeys, String[] attributeVals);
+    }
+
+    public static final class Direct {
+
+        public static native Pointer cryptoWalletCreateTransfer(Pointer wallet, Pointer target, Pointer amount, Pointer feeBasis,
+                                                                SizeT attributesCount, PointerArray attributes);
+
+        public static native void cwmAnnounceGetTransferItemGEN(Pointer cwm, Pointer callbackState, int status,
+                                                                String hash, String uids, String sourceAddr, String targetAddr,
+                                                                String amount, String currency, String fee,
+                                                                long timestamp, long blockHeight,
+                                                                SizeT attributesCount, StringArray attributeKeys, StringArray attributeVals);
+
+        static {
+            Native.register(Direct.class, NativeLibrary.getInstance(Platform.C_LIBRARY_NAME, OPTIONS));
+        }
+
+        private Direct() {}
+    }
+
+    public static final class Attribute extends PointerType {
+
+        public Attribute() {
+        }
+
+        public Attribute(Pointer address) {
+            super(address);
+        }
+    }
+
+    @Param({"0", "1", "4"})
+    public int attributesCount;
+
+    private Indirect indirect;
+
+    // never dereferenced
+    private final Pointer object = new Pointer(0x1000);
+
+    private List<Attribute> attributes;
+    private String[] keys;
+    private String[] values;
+
+    @Setup
+    public void setup() {
+        indirect = Native.load(Platform.C_LIBRARY_NAME, Indirect.class, OPTIONS);
+
+        attributes = new ArrayList<>();
+        keys = new String[attributesCount];
+        values = new String[attributesCount];
+        for (int i = 0; i < attributesCount; i++) {
+            attributes.add(new Attribute(object));
+            keys[i] = "DestinationTag";
+            values[i] = String.valueOf(i);
+        }
+
+        // bind the direct mapping outside of the measurement
+        Direct.cryptoWalletCreateTransfer(object, object, object, object, new SizeT(0), new PointerArray(attributes));
+    }
+
+    @Benchmark
+    public Pointer createTransferIndirect() {
+        Attribute[] array = attributes.toArray(new Attribute[0]);
+        return indirect.cryptoWalletCreateTransfer(object, object, object, object,
+                new SizeT(array.length), array.length == 0 ? null : array);
+    }
+
+    @Benchmark
+    public Pointer createTransferDirect() {
+        return Direct.cryptoWalletCreateTransfer(object, object, object, object,
+                new SizeT(attributes.size()), new PointerArray(attributes));
+    }
+
+    @Benchmark
+    public void announceTransferItemIndirect() {
+        indirect.cwmAnnounceGetTransferItemGEN(object, object, 0,
+                "0xa5f8c5b0a5f8c5b0a5f8c5b0a5f8c5b0a5f8c5b0a5f8c5b0a5f8c5b0a5f8c5b0", "uids",
+                "rSource", "rTarget", "1000000", "ripple-mainnet:__native__", "12",
+                1571000000L, 50000000L,
+                new SizeT(keys.length), keys.length == 0 ? null : keys, values.length == 0 ? null : values);
+    }
+
+    @Benchmark
+    public void announceTransferItemDirect() {
+        Direct.cwmAnnounceGetTransferItemGEN(object, object, 0,
+                "0xa5f8c5b0a5f8c5b0a5f8c5b0a5f8c5b0a5f8c5b0a5f8c5b0a5f8c5b0a5f8c5b0", "uids",
+                "rSource", "rTarget", "1000000", "ripple-mainnet:__native__", "12",
+                1571000000L, 50000000L,
+                new SizeT(keys.length), new StringArray(keys, "UTF-8"), new StringArray(values, "UTF-8"));
+    }
+}
@@ -18,6 +18,7 @@ import com.breadwallet.corenative.crypto.BRCryptoWalletManagerDisconnectReason;
 import com.breadwallet.corenative.crypto.BRCryptoSyncStoppedReason;
 import com.breadwallet.corenative.crypto.BRCryptoTransferSubmitError;
 import com.breadwallet.corenative.support.BRCryptoSecret;
+import com.breadwallet.corenative.utility.PointerArray;
 import com.breadwallet.corenative.utility.SizeT;
 import com.breadwallet.corenative.utility.SizeTByReference;
 import com.sun.jna.Native;
@@ -132,7 +133,7 @@ public final class CryptoLibraryDirect {
     public static native int cryptoNetworkHasCurrency(Pointer network, Pointer currency);
     public static native SizeT cryptoNetworkGetUnitCount(Pointer network, Pointer currency);
     public static native Pointer cryptoNetworkGetUnitAt(Pointer network, Pointer currency, SizeT index);
-    // public static native void cryptoNetworkSetNetworkFees(Pointer network, BRCryptoNetworkFee[] fees, SizeT count);
+    public static native void cryptoNetworkSetNetworkFees(Pointer network, PointerArray fees, SizeT count);
     public static native Pointer cryptoNetworkGetNetworkFees(Pointer network, SizeTByReference count);
     public static native Pointer cryptoNetworkTake(Pointer obj);
     public static native void cryptoNetworkGive(Pointer obj);
@@ -239,6 +240,7 @@ public final class CryptoLibraryDirect {
     public static native Pointer cryptoTransferGetUnitForFee (Pointer transfer);
     public static native Pointer cryptoTransferGetEstimatedFeeBasis (Pointer transfer);
     public static native Pointer cryptoTransferGetConfirmedFeeBasis (Pointer transfer);
+    public static native void cryptoTransferGetSnapshot(Pointer transfer, Pointer snapshot);
 
     public static native SizeT cryptoTransferGetAttributeCount(Pointer transfer);
     public static native Pointer cryptoTransferGetAttributeAt(Pointer transfer, SizeT index);
@@ -275,6 +277,10 @@ public final class CryptoLibraryDirect {
     public static native Pointer cryptoWalletGetBalanceMaximum(Pointer wallet);
     public static native Pointer cryptoWalletGetBalanceMinimum(Pointer wallet);
     public static native Pointer cryptoWalletGetTransfers(Pointer wallet, SizeTByReference count);
+    public static native SizeT cryptoWalletGetTransferCount(Pointer wallet);
+    public static native Pointer cryptoWalletGetTransfersPage(Pointer wallet, SizeT offset, SizeT limit, SizeTByReference count);
+    public static native Pointer cryptoWalletGetTransferByHash(Pointer wallet, Pointer hash);
+    public static native SizeT cryptoWalletGetTransferSnapshots(Pointer wallet, Pointer snapshots, SizeT count);
     public static native int cryptoWalletHasTransfer(Pointer wallet, Pointer transfer);
     public static native Pointer cryptoWalletGetAddress(Pointer wallet, int addressScheme);
     public static native int cryptoWalletHasAddress(Pointer wallet, Pointer address);
@@ -282,14 +288,14 @@ public final class CryptoLibraryDirect {
     public static native Pointer cryptoWalletGetUnitForFee(Pointer wallet);
     public static native Pointer cryptoWalletGetCurrency(Pointer wallet);
     public static native Pointer cryptoWalletCreateFeeBasis(Pointer wallet, Pointer pricePerCostFactor, double costFactor);
-    // INDIRECT: public static native Pointer cryptoWalletCreateTransfer(Pointer wallet, Pointer target, Pointer amount, Pointer feeBasis, SizeT attributesCount, Pointer arrayOfAttributes);
+    public static native Pointer cryptoWalletCreateTransfer(Pointer wallet, Pointer target, Pointer amount, Pointer feeBasis, SizeT attributesCount, PointerArray attributes);
     public static native Pointer cryptoWalletCreateTransferForWalletSweep(Pointer wallet, Pointer sweeper, Pointer feeBasis);
     public static native Pointer cryptoWalletCreateTransferForPaymentProtocolRequest(Pointer wallet, Pointer request, Pointer feeBasis);
 
     public static native SizeT cryptoWalletGetTransferAttributeCount(Pointer wallet, Pointer target);
     public static native Pointer cryptoWalletGetTransferAttributeAt(Pointer wallet, Pointer target, SizeT index);
     public static native int cryptoWalletValidateTransferAttribute(Pointer wallet, Pointer attribute, IntByReference validates);
-    // INDIRECT: public static native int cryptoWalletValidateTransferAttributes(Pointer wallet, SizeT countOfAttributes, Pointer arrayOfAttributes, IntByReference validates);
+    public static native int cryptoWalletValidateTransferAttributes(Pointer wallet, SizeT countOfAttributes, PointerArray attributes, IntByReference validates);
 
 
     public static native Pointer cryptoWalletTake(Pointer wallet);
@@ -373,11 +379,11 @@ public final class CryptoLibraryDirect {
                                            int status,
                                            byte[] transaction, SizeT transactionLength, long timestamp, long blockHeight);
     public static native void cwmAnnounceGetTransactionsComplete(Pointer cwm, Pointer callbackState, int success);
-//  INDIRECT:   public static native void cwmAnnounceGetTransferItemGEN(Pointer cwm, Pointer callbackState, int status,
-//                                                            String hash, String uids, String sourceAddr, String targetAddr,
-//                                                            String amount, String currency, String fee,
-//                                                            long timestamp, long blockHeight,
-//                                                            int attributesCount, Pointer arrayOfAttributeKeys, Pointer arrayOfAttributeVals);
+    public static native void cwmAnnounceGetTransferItemGEN(Pointer cwm, Pointer callbackState, int status,
+                                           String hash, String uids, String sourceAddr, String targetAddr,
+                                           String amount, String currency, String fee,
+                                           long timestamp, long blockHeight,
+                                           SizeT attributesCount, StringArray attributeKeys, StringArray attributeVals);
     public static native void cwmAnnounceGetTransfersComplete(Pointer cwm, Pointer callbackState, int success);
     public static native void cwmAnnounceSubmitTransferSuccess(Pointer cwm, Pointer callbackState);
     public static native void cwmAnnounceSubmitTransferSuccessForHash(Pointer cwm, Pointer callbackState, String hash);
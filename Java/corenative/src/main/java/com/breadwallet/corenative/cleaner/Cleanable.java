@@ -0,0 +1,16 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corenative.cleaner;
+
+public interface Cleanable {
+
+    /**
+     * Run the registered runnable now, if it has not run already; it will not run again once
+     * the referent is collected.
+     */
+    void clean();
+}
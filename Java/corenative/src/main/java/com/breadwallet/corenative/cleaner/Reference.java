@@ -9,30 +9,32 @@ package com.breadwallet.corenative.cleaner;
 
 import java.lang.ref.PhantomReference;
 import java.lang.ref.ReferenceQueue;
-import java.util.Collections;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 /* package */
-final class Reference extends PhantomReference<Object> implements Runnable {
+final class Reference extends PhantomReference<Object> implements Cleanable {
 
     /* package */
-    static void create(ReferenceQueue<Object> queue, Object referent, Runnable runnable) {
-        REFS.add(new Reference(queue, referent, runnable));
+    static Reference create(ReferenceQueue<Object> queue, Set<Reference> refs, Object referent, Runnable runnable) {
+        Reference ref = new Reference(queue, refs, referent, runnable);
+        refs.add(ref);
+        return ref;
     }
 
-    private static final Set<Reference> REFS = Collections.newSetFromMap(new ConcurrentHashMap<>());
-
+    // the live references, holding each one until it has been cleaned
+    private final Set<Reference> refs;
     private final Runnable runnable;
 
-    private Reference(ReferenceQueue<Object> queue, Object referent, Runnable runnable) {
+    private Reference(ReferenceQueue<Object> queue, Set<Reference> refs, Object referent, Runnable runnable) {
         super(referent, queue);
+        this.refs = refs;
         this.runnable = runnable;
     }
 
     @Override
-    public void run() {
-        if (REFS.remove(this)) {
+    public void clean() {
+        if (refs.remove(this)) {
+            clear();
             runnable.run();
         }
     }
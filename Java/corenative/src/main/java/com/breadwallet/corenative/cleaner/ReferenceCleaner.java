@@ -8,6 +8,13 @@
 package com.breadwallet.corenative.cleaner;
 
 import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -15,40 +22,96 @@ public final class ReferenceCleaner {
 
     private static final Logger Log = Logger.getLogger(ReferenceCleaner.class.getName());
 
+    private static final int STRIPE_COUNT = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
     /**
      * Register a runnable to be executed once all references to `referent`
      * have been dropped.
      *
      * This method provides an alternative to the `finalize` method, which
      * is deprecated as of JDK9.
+     *
+     * @return a handle with which to run the runnable sooner, such as when the referent is closed
+     */
+    public static Cleanable register(Object referent, Runnable runnable) {
+        return INSTANCE.registerRunnable(referent, runnable);
+    }
+
+    /**
+     * Get the number of registered runnables that have yet to run.
      */
-    public static void register(Object referent, Runnable runnable) {
-        INSTANCE.registerRunnable(referent, runnable);
+    public static int getPendingCount() {
+        return INSTANCE.pendingCount();
+    }
+
+    /**
+     * Get how long, in milliseconds, the cleaner has been working through collected referents
+     * without catching up; zero if it is keeping up.
+     */
+    public static long getCleanupLagMillis() {
+        return INSTANCE.cleanupLagMillis();
     }
 
     private static final ReferenceCleaner INSTANCE = new ReferenceCleaner();
 
-    private final ReferenceQueue<Object> queue;
-    private final Thread thread;
+    private final List<Stripe> stripes;
+    private final AtomicInteger nextStripe;
 
     private ReferenceCleaner() {
-        this.queue = new ReferenceQueue<>();
-        this.thread = new Thread(new ReferenceCleanerRunnable(queue));
-        this.thread.setDaemon(true);
-        this.thread.setName(getClass().getName());
-        this.thread.start();
+        this.stripes = new ArrayList<>(STRIPE_COUNT);
+        this.nextStripe = new AtomicInteger();
+
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            Stripe stripe = new Stripe();
+            stripes.add(stripe);
+
+            Thread thread = new Thread(new ReferenceCleanerRunnable(stripe));
+            thread.setDaemon(true);
+            thread.setName(getClass().getName() + "-" + i);
+            thread.start();
+        }
+    }
+
+    private Cleanable registerRunnable(Object referent, Runnable runnable) {
+        Stripe stripe = stripes.get((nextStripe.getAndIncrement() & Integer.MAX_VALUE) % stripes.size());
+        return Reference.create(stripe.queue, stripe.refs, referent, runnable);
+    }
+
+    private int pendingCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            count += stripe.refs.size();
+        }
+        return count;
     }
 
-    private void registerRunnable(Object referent, Runnable runnable) {
-        Reference.create(queue, referent, runnable);
+    private long cleanupLagMillis() {
+        long now = System.nanoTime();
+        long lag = 0;
+        for (Stripe stripe : stripes) {
+            if (stripe.busy) {
+                lag = Math.max(lag, now - stripe.busySinceNanos);
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMillis(lag);
+    }
+
+    private static class Stripe {
+
+        final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+        final Set<Reference> refs = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+        // written by the stripe's thread; busy from when it found its queue non-empty
+        volatile boolean busy;
+        volatile long busySinceNanos;
     }
 
     private static class ReferenceCleanerRunnable implements Runnable {
 
-        final ReferenceQueue<Object> queue;
+        final Stripe stripe;
 
-        ReferenceCleanerRunnable(ReferenceQueue<Object> queue) {
-            this.queue = queue;
+        ReferenceCleanerRunnable(Stripe stripe) {
+            this.stripe = stripe;
         }
 
         @Override
@@ -57,14 +120,20 @@ public final class ReferenceCleaner {
                 Reference ref;
 
                 try {
-                    ref = (Reference) queue.remove();
+                    ref = (Reference) stripe.queue.poll();
+                    if (null == ref) {
+                        stripe.busy = false;
+                        ref = (Reference) stripe.queue.remove();
+                        stripe.busySinceNanos = System.nanoTime();
+                        stripe.busy = true;
+                    }
                 } catch (ClassCastException | InterruptedException e) {
                     Log.log(Level.SEVERE, "Error pumping queue", e);
                     continue;
                 }
 
                 try {
-                    ref.run();
+                    ref.clean();
                 } catch (Throwable t) {
                     Log.log(Level.SEVERE, "Error cleaning up", t);
                 }
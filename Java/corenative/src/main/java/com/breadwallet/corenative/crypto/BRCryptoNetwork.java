@@ -7,8 +7,8 @@
  */
 package com.breadwallet.corenative.crypto;
 
-import com.breadwallet.corenative.CryptoLibraryIndirect;
 import com.breadwallet.corenative.CryptoLibraryDirect;
+import com.breadwallet.corenative.utility.PointerArray;
 import com.breadwallet.corenative.utility.SizeT;
 import com.breadwallet.corenative.utility.SizeTByReference;
 import com.google.common.base.Optional;
@@ -130,10 +130,7 @@ public class BRCryptoNetwork extends PointerType {
     public void setFees(List<BRCryptoNetworkFee> fees) {
         Pointer thisPtr = this.getPointer();
 
-        BRCryptoNetworkFee[] cryptoFees = new BRCryptoNetworkFee[fees.size()];
-        for (int i = 0; i < fees.size(); i++) cryptoFees[i] = fees.get(i);
-
-        CryptoLibraryIndirect.cryptoNetworkSetNetworkFees(thisPtr, cryptoFees, new SizeT(cryptoFees.length));
+        CryptoLibraryDirect.cryptoNetworkSetNetworkFees(thisPtr, new PointerArray(fees), new SizeT(fees.size()));
     }
 
     public String getUids() {
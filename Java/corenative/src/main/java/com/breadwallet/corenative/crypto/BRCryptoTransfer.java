@@ -98,6 +98,15 @@ public class BRCryptoTransfer extends PointerType {
         ).transform(BRCryptoFeeBasis::new);
     }
 
+    public BRCryptoTransferSnapshot getSnapshot() {
+        Pointer thisPtr = this.getPointer();
+
+        BRCryptoTransferSnapshot snapshot = new BRCryptoTransferSnapshot();
+        CryptoLibraryDirect.cryptoTransferGetSnapshot(thisPtr, snapshot.getPointer());
+        snapshot.read();
+        return snapshot;
+    }
+
     public UnsignedLong getAttributeCount() {
         Pointer thisPtr = this.getPointer();
 
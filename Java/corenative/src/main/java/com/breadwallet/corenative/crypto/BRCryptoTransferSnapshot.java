@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corenative.crypto;
+
+import com.google.common.base.Optional;
+import com.google.common.primitives.UnsignedLong;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import com.sun.jna.Structure;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+public class BRCryptoTransferSnapshot extends Structure {
+
+    // these values must be in sync with the defines in BRCryptoTransfer.h
+    private static final int VALUE_BYTES = 32;
+    private static final int HASH_LENGTH = 128;
+    private static final int ADDRESS_LENGTH = 128;
+
+    public int stateEnum;
+    public int directionEnum;
+    public long blockNumber;
+    public long transactionIndex;
+    public long timestamp;
+    public byte[] amount = new byte[VALUE_BYTES];
+    public int hasFee;
+    public byte[] fee = new byte[VALUE_BYTES];
+    public byte[] hash = new byte[HASH_LENGTH];
+    public byte[] sourceAddress = new byte[ADDRESS_LENGTH];
+    public byte[] targetAddress = new byte[ADDRESS_LENGTH];
+
+    public BRCryptoTransferSnapshot() {
+        super();
+    }
+
+    public BRCryptoTransferSnapshot(Pointer peer) {
+        super(peer);
+    }
+
+    protected List<String> getFieldOrder() {
+        return Arrays.asList("stateEnum", "directionEnum", "blockNumber", "transactionIndex", "timestamp",
+                "amount", "hasFee", "fee", "hash", "sourceAddress", "targetAddress");
+    }
+
+    public BRCryptoTransferStateType state() {
+        return BRCryptoTransferStateType.fromCore(stateEnum);
+    }
+
+    public BRCryptoTransferDirection direction() {
+        return BRCryptoTransferDirection.fromCore(directionEnum);
+    }
+
+    public UnsignedLong getBlockNumber() {
+        return UnsignedLong.fromLongBits(blockNumber);
+    }
+
+    public UnsignedLong getTransactionIndex() {
+        return UnsignedLong.fromLongBits(transactionIndex);
+    }
+
+    public UnsignedLong getTimestamp() {
+        return UnsignedLong.fromLongBits(timestamp);
+    }
+
+    /**
+     * The amount, in the base unit of the transfer's unit.
+     */
+    public BigInteger getAmount() {
+        return new BigInteger(1, amount);
+    }
+
+    /**
+     * The fee, in the base unit of the transfer's unit for fee.
+     */
+    public Optional<BigInteger> getFee() {
+        return BRCryptoBoolean.CRYPTO_TRUE == hasFee ? Optional.of(new BigInteger(1, fee)) : Optional.absent();
+    }
+
+    public Optional<String> getHash() {
+        return toString(hash);
+    }
+
+    public Optional<String> getSourceAddress() {
+        return toString(sourceAddress);
+    }
+
+    public Optional<String> getTargetAddress() {
+        return toString(targetAddress);
+    }
+
+    private static Optional<String> toString(byte[] chars) {
+        String string = Native.toString(chars, "UTF-8");
+        return string.isEmpty() ? Optional.absent() : Optional.of(string);
+    }
+
+    public static class ByReference extends BRCryptoTransferSnapshot implements Structure.ByReference {
+
+    }
+
+    public static class ByValue extends BRCryptoTransferSnapshot implements Structure.ByValue {
+
+    }
+}
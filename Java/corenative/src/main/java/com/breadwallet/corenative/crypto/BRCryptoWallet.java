@@ -8,7 +8,7 @@
 package com.breadwallet.corenative.crypto;
 
 import com.breadwallet.corenative.CryptoLibraryDirect;
-import com.breadwallet.corenative.CryptoLibraryIndirect;
+import com.breadwallet.corenative.utility.PointerArray;
 import com.breadwallet.corenative.utility.SizeT;
 import com.breadwallet.corenative.utility.SizeTByReference;
 import com.google.common.base.Optional;
@@ -76,6 +76,77 @@ public class BRCryptoWallet extends PointerType {
         return transfers;
     }
 
+    public UnsignedLong getTransferCount() {
+        Pointer thisPtr = this.getPointer();
+
+        return UnsignedLong.fromLongBits(CryptoLibraryDirect.cryptoWalletGetTransferCount(thisPtr).longValue());
+    }
+
+    public List<BRCryptoTransfer> getTransfers(UnsignedLong offset, UnsignedLong limit) {
+        Pointer thisPtr = this.getPointer();
+
+        List<BRCryptoTransfer> transfers = new ArrayList<>();
+        SizeTByReference count = new SizeTByReference();
+        Pointer transfersPtr = CryptoLibraryDirect.cryptoWalletGetTransfersPage(
+                thisPtr,
+                new SizeT(offset.longValue()),
+                new SizeT(limit.longValue()),
+                count);
+        if (null != transfersPtr) {
+            try {
+                int transfersSize = UnsignedInts.checkedCast(count.getValue().longValue());
+                for (Pointer transferPtr: transfersPtr.getPointerArray(0, transfersSize)) {
+                    transfers.add(new BRCryptoTransfer(transferPtr));
+                }
+
+            } finally {
+                Native.free(Pointer.nativeValue(transfersPtr));
+            }
+        }
+        return transfers;
+    }
+
+    public Optional<BRCryptoTransfer> getTransferByHash(BRCryptoHash hash) {
+        Pointer thisPtr = this.getPointer();
+
+        return Optional.fromNullable(
+                CryptoLibraryDirect.cryptoWalletGetTransferByHash(
+                        thisPtr,
+                        hash.getPointer()
+                )
+        ).transform(BRCryptoTransfer::new);
+    }
+
+    public List<BRCryptoTransferSnapshot> getTransferSnapshots() {
+        Pointer thisPtr = this.getPointer();
+
+        // size the array from a first call, growing it if transfers are added in between
+        int capacity = 0;
+        while (true) {
+            BRCryptoTransferSnapshot[] snapshots = 0 == capacity ? null :
+                    (BRCryptoTransferSnapshot[]) new BRCryptoTransferSnapshot().toArray(capacity);
+
+            int count = UnsignedInts.checkedCast(
+                    CryptoLibraryDirect.cryptoWalletGetTransferSnapshots(
+                            thisPtr,
+                            null == snapshots ? null : snapshots[0].getPointer(),
+                            new SizeT(capacity)
+                    ).longValue()
+            );
+
+            if (count <= capacity || 0 == count) {
+                List<BRCryptoTransferSnapshot> result = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    snapshots[i].read();
+                    result.add(snapshots[i]);
+                }
+                return result;
+            }
+
+            capacity = count;
+        }
+    }
+
 
     public boolean containsTransfer(BRCryptoTransfer transfer) {
         Pointer thisPtr = this.getPointer();
@@ -130,15 +201,11 @@ public class BRCryptoWallet extends PointerType {
 
         IntByReference validates = new IntByReference(BRCryptoBoolean.CRYPTO_FALSE);
 
-        int attributesCount  = attributes.size();
-        BRCryptoTransferAttribute[] attributeRefs = new BRCryptoTransferAttribute[attributesCount];
-        for (int i = 0; i < attributesCount; i++) attributeRefs[i] = attributes.get(i);
-
         BRCryptoTransferAttributeValidationError error = BRCryptoTransferAttributeValidationError.fromCore(
-                CryptoLibraryIndirect.cryptoWalletValidateTransferAttributes(
+                CryptoLibraryDirect.cryptoWalletValidateTransferAttributes(
                         thisPtr,
                         new SizeT(attributes.size()),
-                        attributeRefs,
+                        new PointerArray(attributes),
                         validates
                 ));
 
@@ -201,18 +268,14 @@ public class BRCryptoWallet extends PointerType {
                                                      List<BRCryptoTransferAttribute> attributes) {
         Pointer thisPtr = this.getPointer();
 
-        int attributesCount  = attributes.size();
-        BRCryptoTransferAttribute[] attributeRefs = new BRCryptoTransferAttribute[attributesCount];
-        for (int i = 0; i < attributesCount; i++) attributeRefs[i] = attributes.get(i);
-
         return Optional.fromNullable(
-                CryptoLibraryIndirect.cryptoWalletCreateTransfer(
+                CryptoLibraryDirect.cryptoWalletCreateTransfer(
                         thisPtr,
                         target.getPointer(),
                         amount.getPointer(),
                         estimatedFeeBasis.getPointer(),
-                        new SizeT(attributesCount),
-                        attributeRefs
+                        new SizeT(attributes.size()),
+                        new PointerArray(attributes)
                 )
         ).transform(BRCryptoTransfer::new);
     }
@@ -8,7 +8,6 @@
 package com.breadwallet.corenative.crypto;
 
 import com.breadwallet.corenative.CryptoLibraryDirect;
-import com.breadwallet.corenative.CryptoLibraryIndirect;
 import com.breadwallet.corenative.utility.Cookie;
 import com.breadwallet.corenative.utility.SizeT;
 import com.breadwallet.corenative.utility.SizeTByReference;
@@ -393,7 +392,7 @@ public class BRCryptoWalletManager extends PointerType {
         String[] metaKeys = meta.keySet().toArray(new String[metaCount]);
         String[] metaVals = meta.values().toArray(new String[metaCount]);
 
-        CryptoLibraryIndirect.cwmAnnounceGetTransferItemGEN(
+        CryptoLibraryDirect.cwmAnnounceGetTransferItemGEN(
                 thisPtr,
                 callbackState.getPointer(),
                 status.toCore(),
@@ -407,8 +406,8 @@ public class BRCryptoWalletManager extends PointerType {
                 timestamp.longValue(),
                 blockHeight.longValue(),
                 new SizeT(metaCount),
-                metaKeys,
-                metaVals);
+                new StringArray(metaKeys, "UTF-8"),
+                new StringArray(metaVals, "UTF-8"));
     }
 
     public void announceGetTransfersComplete(BRCryptoCWMClientCallbackState callbackState, boolean success) {
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.corenative.utility;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.PointerType;
+
+import java.util.List;
+
+/**
+ * A native array of the pointers held by core objects, for passing to direct mapped functions, which do not
+ * map arrays of pointers themselves (see: com.sun.jna.StringArray).
+ *
+ * The array is NULL terminated, so that it is never zero length.
+ */
+public class PointerArray extends Memory {
+
+    // keep the objects, and so their native memory, reachable for as long as the array is
+    private final List<? extends PointerType> values;
+
+    public PointerArray(List<? extends PointerType> values) {
+        super((values.size() + 1) * Native.POINTER_SIZE);
+        this.values = values;
+
+        for (int i = 0; i < values.size(); i++) {
+            setPointer(i * Native.POINTER_SIZE, values.get(i).getPointer());
+        }
+        setPointer(values.size() * Native.POINTER_SIZE, null);
+    }
+}
@@ -11,7 +11,7 @@ package com.breadwallet.crypto;
 
 import com.google.common.base.Optional;
 
-public interface Address {
+public interface Address extends AutoCloseable {
 
     /**
      * Create an Address from `string` and `network`.
@@ -36,4 +36,14 @@ public interface Address {
     boolean equals(Object o);
 
     int hashCode();
+
+    /**
+     * Release the native address now, rather than once this is collected. Using the address
+     * afterwards throws {@link IllegalStateException}.
+     *
+     * Addresses handed out by transfers and payment requests are shared, and closing them has no
+     * effect.
+     */
+    @Override
+    void close();
 }
@@ -14,7 +14,7 @@ import com.google.common.base.Optional;
 import java.lang.Double;
 import java.text.NumberFormat;
 
-public interface Amount extends Comparable<Amount> {
+public interface Amount extends Comparable<Amount>, AutoCloseable {
 
     static Amount create(double value, Unit unit) {
         return CryptoApi.getProvider().amountProvider().create(value, unit);
@@ -144,4 +144,14 @@ public interface Amount extends Comparable<Amount> {
      * In the snippet above, the final three digits of '678' are rounded to '680'.
      */
     Optional<Double> doubleAmount(Unit asUnit);
+
+    /**
+     * Release the native amount now, rather than once this is collected. Using the amount
+     * afterwards throws {@link IllegalStateException}.
+     *
+     * Amounts handed out by transfers, fee bases, payment requests and events are shared, and
+     * closing them has no effect.
+     */
+    @Override
+    void close();
 }
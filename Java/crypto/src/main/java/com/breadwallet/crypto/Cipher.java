@@ -9,7 +9,7 @@ package com.breadwallet.crypto;
 
 import com.google.common.base.Optional;
 
-public interface Cipher {
+public interface Cipher extends AutoCloseable {
 
     static Cipher createForAesEcb(byte[] key) {
         return CryptoApi.getProvider().cipherProvider().createCipherForAesEcb(key);
@@ -26,4 +26,11 @@ public interface Cipher {
     Optional<byte[]> encrypt(byte[] data);
 
     Optional<byte[]> decrypt(byte[] data);
+
+    /**
+     * Release the native cipher now, rather than once this is collected. Using the cipher
+     * afterwards throws {@link IllegalStateException}.
+     */
+    @Override
+    void close();
 }
@@ -9,7 +9,7 @@ package com.breadwallet.crypto;
 
 import com.google.common.base.Optional;
 
-public interface Coder {
+public interface Coder extends AutoCloseable {
 
     enum Algorithm {
         HEX,
@@ -24,4 +24,11 @@ public interface Coder {
     Optional<String> encode(byte[] source);
 
     Optional<byte[]> decode(String source);
+
+    /**
+     * Release the native coder now, rather than once this is collected. Using the coder
+     * afterwards throws {@link IllegalStateException}.
+     */
+    @Override
+    void close();
 }
@@ -44,6 +44,10 @@ public final class CryptoApi {
         Optional<byte[]> migrateBRCoreKeyCiphertext(Key key, byte[] nonce12, byte[] authenticatedData, byte[] ciphertext);
         void wipe(System system);
         void wipeAll(String path, List<System> exemptSystems);
+        void setEventThreadCount(int count);
+        List<Integer> getEventQueueDepths();
+        void setClientThreadCount(int count);
+        List<Double> getClientQueueWaitMillis();
     }
 
     public interface PaymentProvider {
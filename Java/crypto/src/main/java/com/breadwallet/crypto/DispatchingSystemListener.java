@@ -8,22 +8,32 @@
 package com.breadwallet.crypto;
 
 import com.breadwallet.crypto.events.network.NetworkEvent;
-import com.breadwallet.crypto.events.system.DefaultSystemListener;
 import com.breadwallet.crypto.events.system.SystemEvent;
 import com.breadwallet.crypto.events.system.SystemListener;
 import com.breadwallet.crypto.events.transfer.TranferEvent;
 import com.breadwallet.crypto.events.wallet.WalletEvent;
 import com.breadwallet.crypto.events.walletmanager.WalletManagerEvent;
 
-import java.util.Objects;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 
 public final class DispatchingSystemListener implements SystemListener {
 
     private final CopyOnWriteArraySet<SystemListener> listeners;
 
+    private final RoutingTable<WalletManager> managerListeners;
+    private final RoutingTable<Wallet> walletListeners;
+    private final RoutingTable<Transfer> transferListeners;
+
     public DispatchingSystemListener() {
         this.listeners = new CopyOnWriteArraySet<>();
+        this.managerListeners = new RoutingTable<>();
+        this.walletListeners = new RoutingTable<>();
+        this.transferListeners = new RoutingTable<>();
     }
 
     @Override
@@ -45,6 +55,10 @@ public final class DispatchingSystemListener implements SystemListener {
         for (SystemListener listener: listeners) {
             listener.handleManagerEvent(system, manager, event);
         }
+
+        for (SystemListener listener: managerListeners.get(manager)) {
+            listener.handleManagerEvent(system, manager, event);
+        }
     }
 
     @Override
@@ -52,6 +66,14 @@ public final class DispatchingSystemListener implements SystemListener {
         for (SystemListener listener: listeners) {
             listener.handleWalletEvent(system, manager, wallet, event);
         }
+
+        for (SystemListener listener: managerListeners.get(manager)) {
+            listener.handleWalletEvent(system, manager, wallet, event);
+        }
+
+        for (SystemListener listener: walletListeners.get(wallet)) {
+            listener.handleWalletEvent(system, manager, wallet, event);
+        }
     }
 
     @Override
@@ -59,6 +81,18 @@ public final class DispatchingSystemListener implements SystemListener {
         for (SystemListener listener: listeners) {
             listener.handleTransferEvent(system, manager, wallet, transfer, event);
         }
+
+        for (SystemListener listener: managerListeners.get(manager)) {
+            listener.handleTransferEvent(system, manager, wallet, transfer, event);
+        }
+
+        for (SystemListener listener: walletListeners.get(wallet)) {
+            listener.handleTransferEvent(system, manager, wallet, transfer, event);
+        }
+
+        for (SystemListener listener: transferListeners.get(transfer)) {
+            listener.handleTransferEvent(system, manager, wallet, transfer, event);
+        }
     }
 
     // SystemListener registration
@@ -85,14 +119,14 @@ public final class DispatchingSystemListener implements SystemListener {
      * This includes {@link WalletManagerEvent}, {@link WalletEvent} and {@link TranferEvent} events.
      */
     public void addWalletManagerListener(WalletManager manager, SystemListener listener) {
-        listeners.add(new ScopedWalletManagerListener(manager, listener));
+        managerListeners.add(manager, listener);
     }
 
     /**
      * Remove a listener for events scoped to a {@link WalletManager}.
      */
     public void removeWalletManagerListener(WalletManager manager, SystemListener listener) {
-        listeners.remove(new ScopedWalletManagerListener(manager, listener));
+        managerListeners.remove(manager, listener);
     }
 
     // WalletListener registration
@@ -103,14 +137,14 @@ public final class DispatchingSystemListener implements SystemListener {
      * This includes {@link WalletEvent} and {@link TranferEvent} events.
      */
     public void addWalletListener(Wallet wallet, SystemListener listener) {
-        listeners.add(new ScopedWalletListener(wallet, listener));
+        walletListeners.add(wallet, listener);
     }
 
     /**
      * Remove a listener for events scoped to a {@link Wallet}.
      */
     public void removeWalletListener(Wallet wallet, SystemListener listener) {
-        listeners.remove(new ScopedWalletListener(wallet, listener));
+        walletListeners.remove(wallet, listener);
     }
 
     // TransferListener registration
@@ -121,148 +155,48 @@ public final class DispatchingSystemListener implements SystemListener {
      * This includes {@link TranferEvent} events.
      */
     public void addTransferListener(Transfer transfer, SystemListener listener) {
-        listeners.add(new ScopedTransferListener(transfer, listener));
+        transferListeners.add(transfer, listener);
     }
 
     /**
      * Remove a listener for events scoped to a {@link Transfer}.
      */
     public void removeTransferListener(Transfer transfer, SystemListener listener) {
-        listeners.remove(new ScopedTransferListener(transfer, listener));
+        transferListeners.remove(transfer, listener);
     }
 
-    private static class ScopedWalletManagerListener implements DefaultSystemListener {
-
-        private final WalletManager manager;
-        private final SystemListener listener;
-
-        ScopedWalletManagerListener(WalletManager manager, SystemListener listener) {
-            this.manager = manager;
-            this.listener = listener;
-        }
-
-        @Override
-        public void handleManagerEvent(System system, WalletManager manager, WalletManagerEvent event) {
-            if (this.manager.equals(manager)) {
-                listener.handleManagerEvent(system, manager, event);
-            }
-        }
-
-        @Override
-        public void handleWalletEvent(System system, WalletManager manager, Wallet wallet, WalletEvent event) {
-            if (this.manager.equals(manager)) {
-                listener.handleWalletEvent(system, manager, wallet, event);
-            }
-        }
-
-        @Override
-        public void handleTransferEvent(System system, WalletManager manager, Wallet wallet, Transfer transfer, TranferEvent event) {
-            if (this.manager.equals(manager)) {
-                listener.handleTransferEvent(system, manager, wallet, transfer, event);
-            }
-        }
-
-        @Override
-        public boolean equals(Object object) {
-            if (this == object) {
-                return true;
-            }
-
-            if (!(object instanceof ScopedWalletManagerListener)) {
-                return false;
-            }
-
-            ScopedWalletManagerListener that = (ScopedWalletManagerListener) object;
-            return manager.equals(that.manager) &&
-                    listener.equals(that.listener);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(manager, listener);
-        }
-    }
-
-    private static class ScopedWalletListener implements DefaultSystemListener {
-
-        private final Wallet wallet;
-        private final SystemListener listener;
-
-        ScopedWalletListener(Wallet wallet, SystemListener listener) {
-            this.wallet = wallet;
-            this.listener = listener;
-        }
-
-        @Override
-        public void handleWalletEvent(System system, WalletManager manager, Wallet wallet, WalletEvent event) {
-            if (this.wallet.equals(wallet)) {
-                listener.handleWalletEvent(system, manager, wallet, event);
-            }
-        }
-
-        @Override
-        public void handleTransferEvent(System system, WalletManager manager, Wallet wallet, Transfer transfer, TranferEvent event) {
-            if (this.wallet.equals(wallet)) {
-                listener.handleTransferEvent(system, manager, wallet, transfer, event);
-            }
-        }
-
-        @Override
-        public boolean equals(Object object) {
-            if (this == object) {
-                return true;
-            }
-
-            if (!(object instanceof ScopedWalletListener)) {
-                return false;
-            }
-
-            ScopedWalletListener that = (ScopedWalletListener) object;
-            return wallet.equals(that.wallet) &&
-                    listener.equals(that.listener);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(wallet, listener);
-        }
-    }
-
-    private static class ScopedTransferListener implements DefaultSystemListener {
+    /**
+     * Listeners by the object their events are scoped to. Each scope's listeners are copied on
+     * write, so registration costs only as much as the listeners already in that scope.
+     */
+    private static final class RoutingTable<K> {
 
-        private final Transfer transfer;
-        private final SystemListener listener;
+        // sets are never modified once published; writes are guarded by this
+        private final ConcurrentMap<K, Set<SystemListener>> routes = new ConcurrentHashMap<>();
 
-        ScopedTransferListener(Transfer transfer, SystemListener listener) {
-            this.transfer = transfer;
-            this.listener = listener;
+        Set<SystemListener> get(K scope) {
+            Set<SystemListener> listeners = routes.get(scope);
+            return null == listeners ? Collections.emptySet() : listeners;
         }
 
-        @Override
-        public void handleTransferEvent(System system, WalletManager manager, Wallet wallet, Transfer transfer, TranferEvent event) {
-            if (this.transfer.equals(transfer)) {
-                listener.handleTransferEvent(system, manager, wallet, transfer, event);
+        synchronized void add(K scope, SystemListener listener) {
+            Set<SystemListener> listeners = new LinkedHashSet<>(get(scope));
+            if (listeners.add(listener)) {
+                routes.put(scope, Collections.unmodifiableSet(listeners));
             }
         }
 
-        @Override
-        public boolean equals(Object object) {
-            if (this == object) {
-                return true;
+        synchronized void remove(K scope, SystemListener listener) {
+            Set<SystemListener> listeners = new LinkedHashSet<>(get(scope));
+            if (!listeners.remove(listener)) {
+                return;
             }
 
-            if (!(object instanceof ScopedTransferListener)) {
-                return false;
+            if (listeners.isEmpty()) {
+                routes.remove(scope);
+            } else {
+                routes.put(scope, Collections.unmodifiableSet(listeners));
             }
-
-            ScopedTransferListener that = (ScopedTransferListener) object;
-            return transfer.equals(that.transfer) &&
-                    listener.equals(that.listener);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(transfer, listener);
         }
     }
 }
@@ -9,7 +9,7 @@ package com.breadwallet.crypto;
 
 import com.google.common.base.Optional;
 
-public interface Hasher {
+public interface Hasher extends AutoCloseable {
 
     enum Algorithm {
         SHA1,
@@ -30,4 +30,11 @@ public interface Hasher {
     }
 
     Optional<byte[]> hash(byte[] data);
+
+    /**
+     * Release the native hasher now, rather than once this is collected. Using the hasher
+     * afterwards throws {@link IllegalStateException}.
+     */
+    @Override
+    void close();
 }
@@ -11,7 +11,7 @@ import com.google.common.base.Optional;
 
 import java.util.List;
 
-public interface Key {
+public interface Key extends AutoCloseable {
 
     static void setDefaultWordList(List<String> wordList) {
         CryptoApi.getProvider().keyProvider().setDefaultWordList(wordList);
@@ -64,4 +64,11 @@ public interface Key {
     boolean privateKeyMatch(Key other);
 
     boolean publicKeyMatch(Key other);
+
+    /**
+     * Release the native key, and with it any secret, now rather than once this is collected. The
+     * key must not be used afterwards; doing so throws {@link IllegalStateException}.
+     */
+    @Override
+    void close();
 }
@@ -9,7 +9,7 @@ package com.breadwallet.crypto;
 
 import com.google.common.base.Optional;
 
-public interface Signer {
+public interface Signer extends AutoCloseable {
 
     enum Algorithm {
         BASIC_DER,
@@ -24,4 +24,11 @@ public interface Signer {
     Optional<byte[]> sign(byte[] digest, Key key);
 
     Optional<? extends Key> recover(byte[] digest, byte[] signature);
+
+    /**
+     * Release the native signer now, rather than once this is collected. Using the signer
+     * afterwards throws {@link IllegalStateException}.
+     */
+    @Override
+    void close();
 }
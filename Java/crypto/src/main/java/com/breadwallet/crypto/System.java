@@ -21,10 +21,12 @@ import com.breadwallet.crypto.migration.TransactionBlob;
 import com.breadwallet.crypto.utility.CompletionHandler;
 import com.google.common.base.Optional;
 import com.google.common.primitives.UnsignedInteger;
+import com.google.common.primitives.UnsignedLong;
 
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public interface System {
 
@@ -114,6 +116,41 @@ public interface System {
         CryptoApi.getProvider().systemProvider().wipeAll(storagePath, exemptSystems);;
     }
 
+    /**
+     * Set the number of threads delivering wallet manager, wallet and transfer events, shared by
+     * all systems. Events for any one wallet manager are always delivered in order.
+     *
+     * Note: This must be called before any system is created.
+     */
+    static void setEventThreadCount(int count) {
+        CryptoApi.getProvider().systemProvider().setEventThreadCount(count);
+    }
+
+    /**
+     * Get the number of events waiting to be delivered on each event thread.
+     */
+    static List<Integer> getEventQueueDepths() {
+        return CryptoApi.getProvider().systemProvider().getEventQueueDepths();
+    }
+
+    /**
+     * Set the number of threads handling wallet managers' sync requests, such as for block numbers
+     * and transactions, shared by all systems. Requests for any one wallet manager are always
+     * handled in order.
+     *
+     * Note: This must be called before any system is created.
+     */
+    static void setClientThreadCount(int count) {
+        CryptoApi.getProvider().systemProvider().setClientThreadCount(count);
+    }
+
+    /**
+     * Get the recent average time, in milliseconds, that sync requests waited for each thread.
+     */
+    static List<Double> getClientQueueWaitMillis() {
+        return CryptoApi.getProvider().systemProvider().getClientQueueWaitMillis();
+    }
+
     /**
      * Configure the system.  This will query various BRD services, notably the BlockChainDB, to
      * establish the available networks (aka blockchains) and their currencies.  For each
@@ -169,8 +206,33 @@ public interface System {
      */
     void disconnectAll();
 
+    /**
+     * Subscribe to Blockset notifications for the addresses of every wallet manager, delivered
+     * to the FCM registration `subscriptionToken`; an empty token unsubscribes.
+     *
+     * While the subscription is in place, wallet managers poll Blockset far less often and rely
+     * on {@link #announceSubscriptionEvent(String, UnsignedLong)} to learn of new transactions.
+     */
     void subscribe(String subscriptionToken);
 
+    /**
+     * Announce the receipt of a Blockset notification for `currencyId`. The affected wallet
+     * manager fetches its transactions on its next sync, from `blockHeight` if provided.
+     */
+    void announceSubscriptionEvent(String currencyId, @Nullable UnsignedLong blockHeight);
+
+    /**
+     * Coalesce wallet manager sync progress, wallet balance and transfer state change events
+     * announced within `window` of one another, announcing only the latest state. A zero window,
+     * the default, announces every event.
+     */
+    void setEventCoalescingWindow(long window, TimeUnit unit);
+
+    /**
+     * Get the number of events that were merged into a later event rather than announced.
+     */
+    long getCoalescedEventCount();
+
     /**
      * Update the NetworkFees for all known networks.  This will query the `BlockChainDB` to
      * acquire the fee information and then update each of system's networks with the new fee
@@ -84,5 +84,10 @@ public interface Transfer {
 
     TransferState getState();
 
+    /**
+     * Get the transfer's commonly displayed values in a single call to the core.
+     */
+    TransferSnapshot getSnapshot();
+
     Set<? extends TransferAttribute> getAttributes ();
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto;
+
+import com.breadwallet.crypto.events.transfer.TransferChangedEvent;
+import com.google.common.base.Optional;
+import com.google.common.primitives.UnsignedLong;
+
+import java.util.Date;
+
+/**
+ * The commonly displayed values of a transfer, read from the core in a single call.
+ *
+ * A snapshot does not change with its transfer; take a new one in response to
+ * {@link TransferChangedEvent} events.
+ */
+public interface TransferSnapshot {
+
+    Optional<String> getHash();
+
+    Optional<String> getSource();
+
+    Optional<String> getTarget();
+
+    Amount getAmount();
+
+    Amount getAmountDirected();
+
+    /**
+     * The confirmed fee, if included, otherwise the estimated fee.
+     */
+    Optional<? extends Amount> getFee();
+
+    TransferDirection getDirection();
+
+    TransferState.Type getStateType();
+
+    /**
+     * The block number, transaction index and time are present if the state is
+     * {@link TransferState.Type#INCLUDED}.
+     */
+    Optional<UnsignedLong> getBlockNumber();
+
+    Optional<UnsignedLong> getTransactionIndex();
+
+    Optional<Date> getConfirmationTime();
+}
@@ -102,8 +102,23 @@ public interface Wallet {
 
     List<? extends Transfer> getTransfers();
 
+    /**
+     * Get up to <code>limit</code> transfers, starting at <code>offset</code>.
+     *
+     * Transfers are ordered as included transfers, by timestamp, block number and transaction index, followed by
+     * those not yet included. Only the returned transfers are created.
+     */
+    List<? extends Transfer> getTransfers(int offset, int limit);
+
+    int getTransferCount();
+
     Optional<? extends Transfer> getTransferByHash(TransferHash hash);
 
+    /**
+     * Get a snapshot of each transfer, in the order of {@link #getTransfers()}, in a single call to the core.
+     */
+    List<? extends TransferSnapshot> getTransferSnapshots();
+
     Set<? extends TransferAttribute> getTransferAttributesFor (@Nullable Address address);
 
     default Set<? extends TransferAttribute> getTransferAttributes () {
@@ -13,6 +13,7 @@ import com.breadwallet.crypto.blockchaindb.apis.bdb.BlockApi;
 import com.breadwallet.crypto.blockchaindb.apis.bdb.BlockchainApi;
 import com.breadwallet.crypto.blockchaindb.apis.bdb.CurrencyApi;
 import com.breadwallet.crypto.blockchaindb.apis.bdb.BdbApiClient;
+import com.breadwallet.crypto.blockchaindb.apis.bdb.HeightRangeSharding;
 import com.breadwallet.crypto.blockchaindb.apis.bdb.SubscriptionApi;
 import com.breadwallet.crypto.blockchaindb.apis.bdb.TransactionApi;
 import com.breadwallet.crypto.blockchaindb.apis.bdb.TransferApi;
@@ -34,13 +35,15 @@ import com.breadwallet.crypto.blockchaindb.models.bdb.Transfer;
 import com.breadwallet.crypto.blockchaindb.models.brd.EthLog;
 import com.breadwallet.crypto.blockchaindb.models.brd.EthToken;
 import com.breadwallet.crypto.blockchaindb.models.brd.EthTransaction;
+import com.breadwallet.crypto.utility.Cancellable;
 import com.breadwallet.crypto.utility.CompletionHandler;
+import com.breadwallet.crypto.utility.PageHandler;
 import com.google.common.primitives.UnsignedInteger;
 import com.google.common.primitives.UnsignedLong;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import okhttp3.OkHttpClient;
@@ -52,7 +55,14 @@ public class BlockchainDb {
     private static final String DEFAULT_API_BASE_URL = "https://api.breadwallet.com";
     private static final DataTask DEFAULT_DATA_TASK = (cli, request, callback) -> cli.newCall(request).enqueue(callback);
 
+    private final OkHttpClient client;
     private final AtomicInteger ridGenerator;
+    private final RequestCoalescer coalescer;
+    private final ResponseCache cache;
+    private final BdbApiClient bdbClient;
+    private final BrdApiClient brdClient;
+    private final ConcurrencyLimitedDataTask bdbRequestLimiter;
+    private final ExecutorService pagingExecutor;
 
     private final BlockApi blockApi;
     private final BlockchainApi blockchainApi;
@@ -80,26 +90,48 @@ public class BlockchainDb {
                         @Nullable DataTask bdbDataTask,
                         @Nullable String apiBaseURL,
                         @Nullable DataTask apiDataTask) {
+        this(client, bdbBaseURL, bdbDataTask, apiBaseURL, apiDataTask, null);
+    }
+
+    public BlockchainDb(OkHttpClient client,
+                        @Nullable String bdbBaseURL,
+                        @Nullable DataTask bdbDataTask,
+                        @Nullable String apiBaseURL,
+                        @Nullable DataTask apiDataTask,
+                        @Nullable ExecutorService pagingExecutor) {
         bdbBaseURL = bdbBaseURL == null ? DEFAULT_BDB_BASE_URL : bdbBaseURL;
         apiBaseURL = apiBaseURL == null ? DEFAULT_API_BASE_URL : apiBaseURL;
 
         bdbDataTask = bdbDataTask == null ? DEFAULT_DATA_TASK : bdbDataTask;
         apiDataTask = apiDataTask == null ? DEFAULT_DATA_TASK : apiDataTask;
 
-        ObjectCoder coder = ObjectCoder.createObjectCoderWithFailOnUnknownProperties();
-        BdbApiClient bdbClient = new BdbApiClient(client, bdbBaseURL, bdbDataTask, coder);
-        BrdApiClient brdClient = new BrdApiClient(client, apiBaseURL, apiDataTask, coder);
+        pagingExecutor = pagingExecutor == null ? PagingExecutor.getDefault() : pagingExecutor;
 
-        ExecutorService executorService = Executors.newCachedThreadPool();
+        // hundreds of address chunks may page at once; bound what is in flight to Blockset to what the
+        // client's dispatcher runs per host, so that requests queue here, where they are counted
+        ConcurrencyLimitedDataTask bdbRequestLimiter = new ConcurrencyLimitedDataTask(bdbDataTask,
+                client.dispatcher().getMaxRequestsPerHost());
 
-        this.ridGenerator = new AtomicInteger(0);
+        ObjectCoder coder = ObjectCoder.createObjectCoderWithFailOnUnknownProperties();
+        ResponseCache cache = new ResponseCache();
+        BdbApiClient bdbClient = new BdbApiClient(client, bdbBaseURL, bdbRequestLimiter, coder, cache);
+        BrdApiClient brdClient = new BrdApiClient(client, apiBaseURL, apiDataTask, coder, cache);
 
-        this.blockApi = new BlockApi(bdbClient, executorService);
+        this.client = client;
+        this.ridGenerator = new AtomicInteger(0);
+        this.coalescer = new RequestCoalescer();
+        this.cache = cache;
+        this.bdbClient = bdbClient;
+        this.brdClient = brdClient;
+        this.bdbRequestLimiter = bdbRequestLimiter;
+        this.pagingExecutor = pagingExecutor;
+
+        this.blockApi = new BlockApi(bdbClient, pagingExecutor);
         this.blockchainApi = new BlockchainApi(bdbClient);
         this.currencyApi = new CurrencyApi(bdbClient);
         this.subscriptionApi = new SubscriptionApi(bdbClient);
-        this.transferApi = new TransferApi(bdbClient, executorService);
-        this.transactionApi = new TransactionApi(bdbClient, executorService);
+        this.transferApi = new TransferApi(bdbClient, pagingExecutor);
+        this.transactionApi = new TransactionApi(bdbClient, pagingExecutor);
 
         this.ethBalanceApi = new EthBalanceApi(brdClient);
         this.ethBlockApi = new EthBlockApi(brdClient);
@@ -126,115 +158,205 @@ public class BlockchainDb {
         return new BlockchainDb (client, bdbBaseURL, brdDataTask, apiBaseURL, null);
     }
 
+    // Configuration
+
+    /**
+     * Split block, transfer and transaction queries over a height range into concurrently
+     * fetched sub-ranges. Results are still delivered in block order. Disabled by default.
+     */
+    public void setHeightRangeSharding(HeightRangeSharding sharding) {
+        blockApi.setHeightRangeSharding(sharding);
+        transferApi.setHeightRangeSharding(sharding);
+        transactionApi.setHeightRangeSharding(sharding);
+    }
+
+    /**
+     * Cap how many address chunks of a single transactions query are fetched at once. Chunk
+     * sizes adapt to observed latency and are split further to use the cap on small wallets.
+     *
+     * With height range sharding the cap covers the chunks of all shards and the lower of it and
+     * the sharding's parallelism applies. Unset, the sharding's parallelism is used, or four
+     * without sharding.
+     */
+    public void setMaxConcurrentTransactionChunks(int maxConcurrentChunks) {
+        transactionApi.setMaxConcurrentChunks(maxConcurrentChunks);
+    }
+
+    /**
+     * Set how long `eth_getBalance`, `eth_call` and `eth_getTransactionCount` calls wait to be
+     * sent together in a single JSON-RPC batch. A value of zero disables batching.
+     */
+    public void setJsonRpcBatchWindow(long duration, TimeUnit unit) {
+        brdClient.setBatchWindow(duration, unit);
+    }
+
+    /**
+     * Report latency, response size, decode time, paging and errors of every request to
+     * `listener`, such as a {@link QueryMetrics}. Pass `null` to stop reporting.
+     */
+    public void setQueryMetricsListener(@Nullable QueryMetricsListener listener) {
+        bdbClient.setMetricsListener(listener);
+        brdClient.setMetricsListener(listener);
+    }
+
+    public ExecutorService getPagingExecutor() {
+        return pagingExecutor;
+    }
+
+    /**
+     * The number of Blockset requests waiting for one of the per-host slots.
+     */
+    public int getRequestQueueDepth() {
+        return bdbRequestLimiter.getQueueDepth();
+    }
+
+    public RequestCoalescer getRequestCoalescer() {
+        return coalescer;
+    }
+
+    public ResponseCache getResponseCache() {
+        return cache;
+    }
+
+    private CancellableQuery newQuery() {
+        return new CancellableQuery(client);
+    }
+
     // Blockchain
 
-    public void getBlockchains(CompletionHandler<List<Blockchain>, QueryError> handler) {
+    public Cancellable getBlockchains(CompletionHandler<List<Blockchain>, QueryError> handler) {
+        CancellableQuery query = newQuery();
         blockchainApi.getBlockchains(
                 true,
+                query,
                 handler
         );
+        return query;
     }
 
-    public void getBlockchains(boolean isMainnet,
-                               CompletionHandler<List<Blockchain>, QueryError> handler) {
-        blockchainApi.getBlockchains(
+    public Cancellable getBlockchains(boolean isMainnet,
+                                      CompletionHandler<List<Blockchain>, QueryError> handler) {
+        return coalescer.execute(RequestCoalescer.Endpoint.BLOCKCHAINS, newQuery(), handler, (q, h) -> blockchainApi.getBlockchains(
                 isMainnet,
-                handler
-        );
+                q,
+                h
+        ), isMainnet);
     }
 
-    public void getBlockchain(String id,
-                              CompletionHandler<Blockchain, QueryError> handler) {
-        blockchainApi.getBlockchain(
+    public Cancellable getBlockchain(String id,
+                                     CompletionHandler<Blockchain, QueryError> handler) {
+        return coalescer.execute(RequestCoalescer.Endpoint.BLOCKCHAIN, newQuery(), handler, (q, h) -> blockchainApi.getBlockchain(
                 id,
-                handler
-        );
+                q,
+                h
+        ), id);
     }
 
     // Currency
 
-    public void getCurrencies(CompletionHandler<List<Currency>, QueryError> handler) {
-        currencyApi.getCurrencies(
+    public Cancellable getCurrencies(CompletionHandler<List<Currency>, QueryError> handler) {
+        return getCurrencies(
+                null,
                 handler
         );
     }
 
-    public void getCurrencies(@Nullable String id,
-                              CompletionHandler<List<Currency>, QueryError> handler) {
-        currencyApi.getCurrencies(
+    public Cancellable getCurrencies(@Nullable String id,
+                                     CompletionHandler<List<Currency>, QueryError> handler) {
+        return coalescer.execute(RequestCoalescer.Endpoint.CURRENCIES, newQuery(), handler, (q, h) -> currencyApi.getCurrencies(
                 id,
-                handler
-        );
+                q,
+                h
+        ), id);
     }
 
-    public void getCurrency(String id,
-                            CompletionHandler<Currency, QueryError> handler) {
-        currencyApi.getCurrency(
+    public Cancellable getCurrency(String id,
+                                   CompletionHandler<Currency, QueryError> handler) {
+        return coalescer.execute(RequestCoalescer.Endpoint.CURRENCY, newQuery(), handler, (q, h) -> currencyApi.getCurrency(
                 id,
-                handler
-        );
+                q,
+                h
+        ), id);
     }
 
     // Subscription
 
-    public void getOrCreateSubscription(Subscription subscription,
-                                        CompletionHandler<Subscription, QueryError> handler) {
+    public Cancellable getOrCreateSubscription(Subscription subscription,
+                                               CompletionHandler<Subscription, QueryError> handler) {
+        CancellableQuery query = newQuery();
         subscriptionApi.getOrCreateSubscription(
                 subscription,
+                query,
                 handler
         );
+        return query;
     }
 
-    public void getSubscription(String id,
-                                CompletionHandler<Subscription, QueryError> handler) {
+    public Cancellable getSubscription(String id,
+                                       CompletionHandler<Subscription, QueryError> handler) {
+        CancellableQuery query = newQuery();
         subscriptionApi.getSubscription(
                 id,
+                query,
                 handler
         );
+        return query;
     }
 
-    public void getSubscriptions(CompletionHandler<List<Subscription>, QueryError> handler) {
+    public Cancellable getSubscriptions(CompletionHandler<List<Subscription>, QueryError> handler) {
+        CancellableQuery query = newQuery();
         subscriptionApi.getSubscriptions(
+                query,
                 handler
         );
+        return query;
     }
 
-    public void createSubscription(String deviceId,
-                                   SubscriptionEndpoint endpoint,
-                                   List<SubscriptionCurrency> currencies,
-                                   CompletionHandler<Subscription, QueryError> handler) {
+    public Cancellable createSubscription(String deviceId,
+                                          SubscriptionEndpoint endpoint,
+                                          List<SubscriptionCurrency> currencies,
+                                          CompletionHandler<Subscription, QueryError> handler) {
+        CancellableQuery query = newQuery();
         subscriptionApi.createSubscription(
                 deviceId,
                 endpoint,
                 currencies,
+                query,
                 handler
         );
+        return query;
     }
 
-    public void updateSubscription(Subscription subscription,
-                                   CompletionHandler<Subscription, QueryError> handler) {
+    public Cancellable updateSubscription(Subscription subscription,
+                                          CompletionHandler<Subscription, QueryError> handler) {
+        CancellableQuery query = newQuery();
         subscriptionApi.updateSubscription(
                 subscription,
+                query,
                 handler
         );
+        return query;
     }
 
-    public void deleteSubscription(String id,
-                                   CompletionHandler<Void, QueryError> handler) {
+    public Cancellable deleteSubscription(String id,
+                                          CompletionHandler<Void, QueryError> handler) {
+        CancellableQuery query = newQuery();
         subscriptionApi.deleteSubscription(
                 id,
+                query,
                 handler
         );
+        return query;
     }
 
     // Transfer
 
-    public void getTransfers(String id,
-                             List<String> addresses,
-                             UnsignedLong beginBlockNumber,
-                             UnsignedLong endBlockNumber,
-                             CompletionHandler<List<Transfer>, QueryError> handler) {
-        getTransfers(
+    public Cancellable getTransfers(String id,
+                                    List<String> addresses,
+                                    UnsignedLong beginBlockNumber,
+                                    UnsignedLong endBlockNumber,
+                                    CompletionHandler<List<Transfer>, QueryError> handler) {
+        return getTransfers(
                 id,
                 addresses,
                 beginBlockNumber,
@@ -244,40 +366,65 @@ public class BlockchainDb {
         );
     }
 
-    public void getTransfers(String id,
-                             List<String> addresses,
-                             UnsignedLong beginBlockNumber,
-                             UnsignedLong endBlockNumber,
-                             @Nullable Integer maxPageSize,
-                             CompletionHandler<List<Transfer>, QueryError> handler) {
+    public Cancellable getTransfers(String id,
+                                    List<String> addresses,
+                                    UnsignedLong beginBlockNumber,
+                                    UnsignedLong endBlockNumber,
+                                    @Nullable Integer maxPageSize,
+                                    CompletionHandler<List<Transfer>, QueryError> handler) {
+        CancellableQuery query = newQuery();
+        transferApi.getTransfers(
+                id,
+                addresses,
+                beginBlockNumber,
+                endBlockNumber,
+                maxPageSize,
+                query,
+                handler
+        );
+        return query;
+    }
+
+    public Cancellable getTransfers(String id,
+                                    List<String> addresses,
+                                    UnsignedLong beginBlockNumber,
+                                    UnsignedLong endBlockNumber,
+                                    @Nullable Integer maxPageSize,
+                                    PageHandler<List<Transfer>, QueryError> handler) {
+        CancellableQuery query = newQuery();
         transferApi.getTransfers(
                 id,
                 addresses,
                 beginBlockNumber,
                 endBlockNumber,
                 maxPageSize,
+                query,
                 handler
         );
+        return query;
     }
 
-    public void getTransfer(String id,
-                            CompletionHandler<Transfer, QueryError> handler) {
+    public Cancellable getTransfer(String id,
+                                   CompletionHandler<Transfer, QueryError> handler) {
+        CancellableQuery query = newQuery();
         transferApi.getTransfer(
                 id,
+                query,
                 handler
         );
+        return query;
     }
 
     // Transactions
 
-    public void getTransactions(String id,
-                                List<String> addresses,
-                                @Nullable UnsignedLong beginBlockNumber,
-                                @Nullable UnsignedLong endBlockNumber,
-                                boolean includeRaw,
-                                boolean includeProof,
-                                CompletionHandler<List<Transaction>, QueryError> handler) {
-        getTransactions(
+    public Cancellable getTransactions(String id,
+                                       List<String> addresses,
+                                       @Nullable UnsignedLong beginBlockNumber,
+                                       @Nullable UnsignedLong endBlockNumber,
+                                       boolean includeRaw,
+                                       boolean includeProof,
+                                       CompletionHandler<List<Transaction>, QueryError> handler) {
+        return getTransactions(
                 id,
                 addresses,
                 beginBlockNumber,
@@ -289,14 +436,38 @@ public class BlockchainDb {
         );
     }
 
-    public void getTransactions(String id,
-                                List<String> addresses,
-                                @Nullable UnsignedLong beginBlockNumber,
-                                @Nullable UnsignedLong endBlockNumber,
-                                boolean includeRaw,
-                                boolean includeProof,
-                                @Nullable Integer maxPageSize,
-                                CompletionHandler<List<Transaction>, QueryError> handler) {
+    public Cancellable getTransactions(String id,
+                                       List<String> addresses,
+                                       @Nullable UnsignedLong beginBlockNumber,
+                                       @Nullable UnsignedLong endBlockNumber,
+                                       boolean includeRaw,
+                                       boolean includeProof,
+                                       @Nullable Integer maxPageSize,
+                                       CompletionHandler<List<Transaction>, QueryError> handler) {
+        CancellableQuery query = newQuery();
+        transactionApi.getTransactions(
+                id,
+                addresses,
+                beginBlockNumber,
+                endBlockNumber,
+                includeRaw,
+                includeProof,
+                maxPageSize,
+                query,
+                handler
+        );
+        return query;
+    }
+
+    public Cancellable getTransactions(String id,
+                                       List<String> addresses,
+                                       @Nullable UnsignedLong beginBlockNumber,
+                                       @Nullable UnsignedLong endBlockNumber,
+                                       boolean includeRaw,
+                                       boolean includeProof,
+                                       @Nullable Integer maxPageSize,
+                                       PageHandler<List<Transaction>, QueryError> handler) {
+        CancellableQuery query = newQuery();
         transactionApi.getTransactions(
                 id,
                 addresses,
@@ -305,44 +476,52 @@ public class BlockchainDb {
                 includeRaw,
                 includeProof,
                 maxPageSize,
+                query,
                 handler
         );
+        return query;
     }
 
-    public void getTransaction(String id,
-                               boolean includeRaw,
-                               boolean includeProof,
-                               CompletionHandler<Transaction, QueryError> handler) {
+    public Cancellable getTransaction(String id,
+                                      boolean includeRaw,
+                                      boolean includeProof,
+                                      CompletionHandler<Transaction, QueryError> handler) {
+        CancellableQuery query = newQuery();
         transactionApi.getTransaction(
                 id,
                 includeRaw,
                 includeProof,
+                query,
                 handler
         );
+        return query;
     }
 
-    public void createTransaction(String id,
-                                  String hashAsHex,
-                                  byte[] tx,
-                                  CompletionHandler<Void, QueryError> handler) {
+    public Cancellable createTransaction(String id,
+                                         String hashAsHex,
+                                         byte[] tx,
+                                         CompletionHandler<Void, QueryError> handler) {
+        CancellableQuery query = newQuery();
         transactionApi.createTransaction(
                 id,
                 hashAsHex,
                 tx,
+                query,
                 handler
         );
+        return query;
     }
 
     // Blocks
 
-    public void getBlocks(String id,
-                          UnsignedLong beginBlockNumber,
-                          UnsignedLong endBlockNumber,
-                          boolean includeTx,
-                          boolean includeTxRaw,
-                          boolean includeTxProof,
-                          CompletionHandler<List<Block>, QueryError> handler) {
-        getBlocks(
+    public Cancellable getBlocks(String id,
+                                 UnsignedLong beginBlockNumber,
+                                 UnsignedLong endBlockNumber,
+                                 boolean includeTx,
+                                 boolean includeTxRaw,
+                                 boolean includeTxProof,
+                                 CompletionHandler<List<Block>, QueryError> handler) {
+        return getBlocks(
                 id,
                 beginBlockNumber,
                 endBlockNumber,
@@ -354,14 +533,15 @@ public class BlockchainDb {
         ;
     }
 
-    public void getBlocks(String id,
-                          UnsignedLong beginBlockNumber,
-                          UnsignedLong endBlockNumber,
-                          boolean includeTx,
-                          boolean includeTxRaw,
-                          boolean includeTxProof,
-                          @Nullable Integer maxPageSize,
-                          CompletionHandler<List<Block>, QueryError> handler) {
+    public Cancellable getBlocks(String id,
+                                 UnsignedLong beginBlockNumber,
+                                 UnsignedLong endBlockNumber,
+                                 boolean includeTx,
+                                 boolean includeTxRaw,
+                                 boolean includeTxProof,
+                                 @Nullable Integer maxPageSize,
+                                 CompletionHandler<List<Block>, QueryError> handler) {
+        CancellableQuery query = newQuery();
         blockApi.getBlocks(
                 id,
                 beginBlockNumber,
@@ -371,14 +551,40 @@ public class BlockchainDb {
                 includeTxRaw,
                 includeTxProof,
                 maxPageSize,
+                query,
                 handler);
+        return query;
     }
 
-    public void getBlocksWithRaw(String id,
+    public Cancellable getBlocks(String id,
                                  UnsignedLong beginBlockNumber,
                                  UnsignedLong endBlockNumber,
+                                 boolean includeTx,
+                                 boolean includeTxRaw,
+                                 boolean includeTxProof,
                                  @Nullable Integer maxPageSize,
-                                 CompletionHandler<List<Block>, QueryError> handler) {
+                                 PageHandler<List<Block>, QueryError> handler) {
+        CancellableQuery query = newQuery();
+        blockApi.getBlocks(
+                id,
+                beginBlockNumber,
+                endBlockNumber,
+                false,
+                includeTx,
+                includeTxRaw,
+                includeTxProof,
+                maxPageSize,
+                query,
+                handler);
+        return query;
+    }
+
+    public Cancellable getBlocksWithRaw(String id,
+                                        UnsignedLong beginBlockNumber,
+                                        UnsignedLong endBlockNumber,
+                                        @Nullable Integer maxPageSize,
+                                        CompletionHandler<List<Block>, QueryError> handler) {
+        CancellableQuery query = newQuery();
         blockApi.getBlocks(
                 id,
                 beginBlockNumber,
@@ -388,80 +594,96 @@ public class BlockchainDb {
                 false,
                 false,
                 maxPageSize,
+                query,
                 handler
         );
+        return query;
     }
 
-    public void getBlock(String id,
-                         boolean includeTx,
-                         boolean includeTxRaw,
-                         boolean includeTxProof,
-                         CompletionHandler<Block, QueryError> handler) {
+    public Cancellable getBlock(String id,
+                                boolean includeTx,
+                                boolean includeTxRaw,
+                                boolean includeTxProof,
+                                CompletionHandler<Block, QueryError> handler) {
+        CancellableQuery query = newQuery();
         blockApi.getBlock(
                 id,
                 false,
                 includeTx,
                 includeTxRaw,
                 includeTxProof,
+                query,
                 handler
         );
+        return query;
     }
 
-    public void getBlockWithRaw(String id,
-                                CompletionHandler<Block, QueryError> handler) {
+    public Cancellable getBlockWithRaw(String id,
+                                       CompletionHandler<Block, QueryError> handler) {
+        CancellableQuery query = newQuery();
         blockApi.getBlock(
                 id,
                 true,
                 false,
                 false,
                 false,
+                query,
                 handler
         );
+        return query;
     }
 
     // ETH Balance
 
-    public void getBalanceAsEth(String networkName,
-                                String address,
-                                CompletionHandler<String, QueryError> handler) {
+    public Cancellable getBalanceAsEth(String networkName,
+                                       String address,
+                                       CompletionHandler<String, QueryError> handler) {
+        CancellableQuery query = newQuery();
         ethBalanceApi.getBalanceAsEth(
                 networkName,
                 address,
                 ridGenerator.getAndIncrement(),
+                query,
                 handler
         );
+        return query;
     }
 
-    public void getBalanceAsTok(String networkName,
-                                String address,
-                                String tokenAddress,
-                                CompletionHandler<String, QueryError> handler) {
+    public Cancellable getBalanceAsTok(String networkName,
+                                       String address,
+                                       String tokenAddress,
+                                       CompletionHandler<String, QueryError> handler) {
+        CancellableQuery query = newQuery();
         ethBalanceApi.getBalanceAsTok(
                 networkName,
                 address,
                 tokenAddress,
                 ridGenerator.getAndIncrement(),
+                query,
                 handler
         );
+        return query;
     }
 
     // ETH Gas
 
-    public void getGasPriceAsEth(String networkName,
-                                 CompletionHandler<String, QueryError> handler) {
-        ethGasApi.getGasPriceAsEth(
+    public Cancellable getGasPriceAsEth(String networkName,
+                                        CompletionHandler<String, QueryError> handler) {
+        return coalescer.execute(RequestCoalescer.Endpoint.GAS_PRICE_AS_ETH, newQuery(), handler, (q, h) -> ethGasApi.getGasPriceAsEth(
                 networkName,
                 ridGenerator.getAndIncrement(),
-                handler
-        );
-    }
-
-    public void getGasEstimateAsEth(String networkName,
-                                    String from,
-                                    String to,
-                                    String amount,
-                                    String data,
-                                    CompletionHandler<String, QueryError> handler) {
+                q,
+                h
+        ), networkName);
+    }
+
+    public Cancellable getGasEstimateAsEth(String networkName,
+                                           String from,
+                                           String to,
+                                           String amount,
+                                           String data,
+                                           CompletionHandler<String, QueryError> handler) {
+        CancellableQuery query = newQuery();
         ethGasApi.getGasEstimateAsEth(
                 networkName,
                 from,
@@ -469,76 +691,90 @@ public class BlockchainDb {
                 amount,
                 data,
                 ridGenerator.getAndIncrement(),
+                query,
                 handler
         );
+        return query;
     }
 
     // ETH Token
 
-    public void getTokensAsEth(CompletionHandler<List<EthToken>, QueryError> handler) {
-        ethTokenApi.getTokensAsEth(
+    public Cancellable getTokensAsEth(CompletionHandler<List<EthToken>, QueryError> handler) {
+        return coalescer.execute(RequestCoalescer.Endpoint.TOKENS_AS_ETH, newQuery(), handler, (q, h) -> ethTokenApi.getTokensAsEth(
                 ridGenerator.getAndIncrement(),
-                handler
-        );
+                q,
+                h
+        ));
     }
 
     // ETH Block
 
-    public void getBlockNumberAsEth(String networkName,
-                                    CompletionHandler<String, QueryError> handler) {
-        ethBlockApi.getBlockNumberAsEth(
+    public Cancellable getBlockNumberAsEth(String networkName,
+                                           CompletionHandler<String, QueryError> handler) {
+        return coalescer.execute(RequestCoalescer.Endpoint.BLOCK_NUMBER_AS_ETH, newQuery(), handler, (q, h) -> ethBlockApi.getBlockNumberAsEth(
                 networkName,
                 ridGenerator.getAndIncrement(),
-                handler
-        );
+                q,
+                h
+        ), networkName);
     }
 
     // ETH Transfer
 
-    public void submitTransactionAsEth(String networkName,
-                                       String transaction,
-                                       CompletionHandler<String, QueryError> handler) {
+    public Cancellable submitTransactionAsEth(String networkName,
+                                              String transaction,
+                                              CompletionHandler<String, QueryError> handler) {
+        CancellableQuery query = newQuery();
         ethTransferApi.submitTransactionAsEth(
                 networkName,
                 transaction,
                 ridGenerator.getAndIncrement(),
+                query,
                 handler
         );
+        return query;
     }
 
-    public void getTransactionsAsEth(String networkName,
-                                     String address,
-                                     UnsignedLong begBlockNumber,
-                                     UnsignedLong endBlockNumber,
-                                     CompletionHandler<List<EthTransaction>, QueryError> handler) {
+    public Cancellable getTransactionsAsEth(String networkName,
+                                            String address,
+                                            UnsignedLong begBlockNumber,
+                                            UnsignedLong endBlockNumber,
+                                            CompletionHandler<List<EthTransaction>, QueryError> handler) {
+        CancellableQuery query = newQuery();
         ethTransferApi.getTransactionsAsEth(
                 networkName,
                 address,
                 begBlockNumber,
                 endBlockNumber,
                 ridGenerator.getAndIncrement(),
+                query,
                 handler
         );
+        return query;
     }
 
-    public void getNonceAsEth(String networkName,
-                              String address,
-                              CompletionHandler<String, QueryError> handler) {
+    public Cancellable getNonceAsEth(String networkName,
+                                     String address,
+                                     CompletionHandler<String, QueryError> handler) {
+        CancellableQuery query = newQuery();
         ethTransferApi.getNonceAsEth(
                 networkName,
                 address,
                 ridGenerator.getAndIncrement(),
+                query,
                 handler
         );
+        return query;
     }
 
-    public void getLogsAsEth(String networkName,
-                             @Nullable String contract,
-                             String address,
-                             String event,
-                             UnsignedLong begBlockNumber,
-                             UnsignedLong endBlockNumber,
-                             CompletionHandler<List<EthLog>, QueryError> handler) {
+    public Cancellable getLogsAsEth(String networkName,
+                                    @Nullable String contract,
+                                    String address,
+                                    String event,
+                                    UnsignedLong begBlockNumber,
+                                    UnsignedLong endBlockNumber,
+                                    CompletionHandler<List<EthLog>, QueryError> handler) {
+        CancellableQuery query = newQuery();
         ethTransferApi.getLogsAsEth(
                 networkName,
                 contract,
@@ -547,16 +783,19 @@ public class BlockchainDb {
                 begBlockNumber,
                 endBlockNumber,
                 ridGenerator.getAndIncrement(),
+                query,
                 handler
         );
+        return query;
     }
 
-    public void getBlocksAsEth(String networkName,
-                               String address,
-                               UnsignedInteger interests,
-                               UnsignedLong blockStart,
-                               UnsignedLong blockEnd,
-                               CompletionHandler<List<UnsignedLong>, QueryError> handler) {
+    public Cancellable getBlocksAsEth(String networkName,
+                                      String address,
+                                      UnsignedInteger interests,
+                                      UnsignedLong blockStart,
+                                      UnsignedLong blockEnd,
+                                      CompletionHandler<List<UnsignedLong>, QueryError> handler) {
+        CancellableQuery query = newQuery();
         ethTransferApi.getBlocksAsEth(
                 networkName,
                 address,
@@ -564,7 +803,9 @@ public class BlockchainDb {
                 blockStart,
                 blockEnd,
                 ridGenerator.getAndIncrement(),
+                query,
                 handler
         );
+        return query;
     }
 }
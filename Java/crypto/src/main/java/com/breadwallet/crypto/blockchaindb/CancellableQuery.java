@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import com.breadwallet.crypto.utility.Cancellable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Call;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+/**
+ * The handle of a {@link BlockchainDb} query, shared by every request the query makes.
+ *
+ * Requests are tagged with their query; cancelling it cancels the tagged calls queued in or
+ * running on the client's dispatcher, and any later request of the query, such as the next
+ * page, fails without being sent. The query's handler receives a
+ * {@link com.breadwallet.crypto.blockchaindb.errors.QueryCancelledError} unless it has
+ * already completed.
+ */
+public final class CancellableQuery implements Cancellable {
+
+    private final OkHttpClient client;
+    private final AtomicBoolean cancelled;
+
+    public CancellableQuery(OkHttpClient client) {
+        this.client = client;
+        this.cancelled = new AtomicBoolean(false);
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    @Override
+    public void cancel() {
+        if (!cancelled.compareAndSet(false, true)) {
+            return;
+        }
+
+        Dispatcher dispatcher = client.dispatcher();
+        for (Call call : dispatcher.queuedCalls()) {
+            cancelIfTagged(call);
+        }
+        for (Call call : dispatcher.runningCalls()) {
+            cancelIfTagged(call);
+        }
+    }
+
+    public Request.Builder tag(Request.Builder builder) {
+        return builder.tag(CancellableQuery.class, this);
+    }
+
+    private void cancelIfTagged(Call call) {
+        if (this == call.request().tag(CancellableQuery.class)) {
+            call.cancel();
+        }
+    }
+}
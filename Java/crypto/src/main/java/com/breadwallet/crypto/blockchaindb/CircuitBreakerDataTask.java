@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import com.google.common.base.Ticker;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A {@link DataTask} decorator that stops sending requests to a host that keeps failing.
+ *
+ * After `failureThreshold` consecutive failures (I/O errors, `429` or `5xx`) the circuit for that
+ * host opens and requests fail immediately with an {@link IOException}. Once `openDuration` has
+ * elapsed a single trial request is let through; its outcome closes or re-opens the circuit.
+ */
+public final class CircuitBreakerDataTask implements DataTask {
+
+    private static final Logger Log = Logger.getLogger(CircuitBreakerDataTask.class.getName());
+
+    private final DataTask delegate;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final Ticker ticker;
+
+    private final AtomicLong shortCircuits;
+
+    // guarded by this
+    private final Map<String, Circuit> circuits;
+
+    public CircuitBreakerDataTask(DataTask delegate,
+                                  int failureThreshold,
+                                  long openDuration,
+                                  TimeUnit unit) {
+        this(delegate, failureThreshold, openDuration, unit, Ticker.systemTicker());
+    }
+
+    /* package */
+    CircuitBreakerDataTask(DataTask delegate,
+                           int failureThreshold,
+                           long openDuration,
+                           TimeUnit unit,
+                           Ticker ticker) {
+        checkArgument(failureThreshold > 0);
+        checkArgument(openDuration > 0);
+        this.delegate = delegate;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = unit.toNanos(openDuration);
+        this.ticker = ticker;
+        this.shortCircuits = new AtomicLong();
+        this.circuits = new HashMap<>();
+    }
+
+    /**
+     * The number of requests failed without being sent.
+     */
+    public long getShortCircuitCount() {
+        return shortCircuits.get();
+    }
+
+    public boolean isOpen(String host) {
+        return getCircuit(host).isOpen(ticker.read());
+    }
+
+    @Override
+    public void execute(OkHttpClient client, Request request, Callback callback) {
+        String host = request.url().host();
+        Circuit circuit = getCircuit(host);
+
+        if (!circuit.tryAcquire(ticker.read())) {
+            shortCircuits.incrementAndGet();
+            callback.onFailure(client.newCall(request), new IOException("Circuit open for " + host));
+            return;
+        }
+
+        delegate.execute(client, request, new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                int code = response.code();
+                if (code == 429 || code >= 500) {
+                    circuit.recordFailure(ticker.read());
+                } else {
+                    circuit.recordSuccess();
+                }
+                callback.onResponse(call, response);
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                if (call.isCanceled()) {
+                    circuit.recordCancel();
+                } else {
+                    circuit.recordFailure(ticker.read());
+                }
+                callback.onFailure(call, e);
+            }
+        });
+    }
+
+    private synchronized Circuit getCircuit(String host) {
+        Circuit circuit = circuits.get(host);
+        if (null == circuit) {
+            circuit = new Circuit(host);
+            circuits.put(host, circuit);
+        }
+        return circuit;
+    }
+
+    private final class Circuit {
+
+        private final String host;
+
+        private int consecutiveFailures;
+        private boolean open;
+        private long openedAt;
+        private boolean trialInFlight;
+
+        Circuit(String host) {
+            this.host = host;
+        }
+
+        synchronized boolean isOpen(long now) {
+            return open && (now - openedAt) < openDurationNanos;
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            if (!open) {
+                return true;
+            }
+
+            // half-open; let a single trial request through
+            if ((now - openedAt) >= openDurationNanos && !trialInFlight) {
+                trialInFlight = true;
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void recordSuccess() {
+            if (open) {
+                Log.log(Level.INFO, "circuit closed for " + host);
+            }
+
+            consecutiveFailures = 0;
+            open = false;
+            trialInFlight = false;
+        }
+
+        synchronized void recordFailure(long now) {
+            consecutiveFailures += 1;
+            if (trialInFlight || consecutiveFailures >= failureThreshold) {
+                if (!open) {
+                    Log.log(Level.WARNING, "circuit opened for " + host);
+                }
+
+                open = true;
+                openedAt = now;
+                trialInFlight = false;
+            }
+        }
+
+        synchronized void recordCancel() {
+            trialInFlight = false;
+        }
+    }
+}
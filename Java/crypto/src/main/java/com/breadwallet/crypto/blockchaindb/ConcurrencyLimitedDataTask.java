@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A {@link DataTask} decorator that caps the number of requests in flight to each host.
+ *
+ * Requests beyond the cap are queued in arrival order and sent as earlier ones complete, so
+ * that hundreds of concurrently paging chunks hold a bounded number of connections and
+ * responses at any one time.
+ */
+public final class ConcurrencyLimitedDataTask implements DataTask {
+
+    private final DataTask delegate;
+    private final int maxRequestsPerHost;
+
+    // guarded by this
+    private final Map<String, Host> hosts;
+    private int queueDepth;
+
+    public ConcurrencyLimitedDataTask(DataTask delegate, int maxRequestsPerHost) {
+        checkArgument(maxRequestsPerHost > 0);
+        this.delegate = delegate;
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        this.hosts = new HashMap<>();
+    }
+
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    /**
+     * The number of requests waiting for a slot, across all hosts.
+     */
+    public synchronized int getQueueDepth() {
+        return queueDepth;
+    }
+
+    @Override
+    public void execute(OkHttpClient client, Request request, Callback callback) {
+        String hostName = request.url().host();
+        PendingRequest pending = new PendingRequest(client, request, callback);
+
+        synchronized (this) {
+            Host host = hosts.get(hostName);
+            if (null == host) {
+                host = new Host();
+                hosts.put(hostName, host);
+            }
+
+            if (host.inFlight >= maxRequestsPerHost) {
+                host.waiting.add(pending);
+                queueDepth += 1;
+                return;
+            }
+            host.inFlight += 1;
+        }
+
+        send(hostName, pending);
+    }
+
+    private void send(String hostName, PendingRequest pending) {
+        try {
+            sendToDelegate(hostName, pending);
+        } catch (RuntimeException e) {
+            // the request never went out; hand its slot on before the caller sees the failure
+            release(hostName);
+            throw e;
+        }
+    }
+
+    private void sendToDelegate(String hostName, PendingRequest pending) {
+        delegate.execute(pending.client, pending.request, new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                // the response body is the caller's to consume; the slot is freed once delivered
+                try {
+                    pending.callback.onResponse(call, response);
+                } finally {
+                    release(hostName);
+                }
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                try {
+                    pending.callback.onFailure(call, e);
+                } finally {
+                    release(hostName);
+                }
+            }
+        });
+    }
+
+    private void release(String hostName) {
+        while (true) {
+            PendingRequest next;
+
+            synchronized (this) {
+                Host host = hosts.get(hostName);
+                next = host.waiting.poll();
+                if (null == next) {
+                    host.inFlight -= 1;
+                    if (0 == host.inFlight) hosts.remove(hostName);
+                    return;
+                }
+                queueDepth -= 1;
+            }
+
+            // a request cancelled while queued is failed without being sent, and its slot reused
+            CancellableQuery query = next.request.tag(CancellableQuery.class);
+            if (null == query || !query.isCancelled()) {
+                try {
+                    send(hostName, next);
+                } catch (RuntimeException e) {
+                    // its caller has long returned; report the failure through its callback instead
+                    next.callback.onFailure(next.client.newCall(next.request), new IOException(e));
+                }
+                return;
+            }
+
+            next.callback.onFailure(next.client.newCall(next.request), new IOException("Canceled"));
+        }
+    }
+
+    private static final class Host {
+        int inFlight;
+        final Queue<PendingRequest> waiting = new ArrayDeque<>();
+    }
+
+    private static final class PendingRequest {
+
+        final OkHttpClient client;
+        final Request request;
+        final Callback callback;
+
+        PendingRequest(OkHttpClient client, Request request, Callback callback) {
+            this.client = client;
+            this.request = request;
+            this.callback = callback;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.breadwallet.crypto.blockchaindb;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
@@ -7,6 +8,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.fasterxml.jackson.datatype.guava.GuavaModule;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,7 +17,7 @@ public final class ObjectCoder {
 
     public static final class ObjectCoderException extends Exception {
 
-        ObjectCoderException(Throwable e) {
+        public ObjectCoderException(Throwable e) {
             super(e);
         }
     }
@@ -54,6 +57,30 @@ public final class ObjectCoder {
         }
     }
 
+    public <X> X deserializeJson(Class<X> clazz, InputStream json) throws ObjectCoderException {
+        try {
+            return mapper.readValue(json, clazz);
+        } catch (IOException e) {
+            throw new ObjectCoderException(e);
+        }
+    }
+
+    public <X> X deserializeJson(Class<X> clazz, JsonParser parser) throws ObjectCoderException {
+        try {
+            return mapper.readValue(parser, clazz);
+        } catch (IOException e) {
+            throw new ObjectCoderException(e);
+        }
+    }
+
+    public JsonParser createJsonParser(InputStream json) throws ObjectCoderException {
+        try {
+            return mapper.getFactory().createParser(json);
+        } catch (IOException e) {
+            throw new ObjectCoderException(e);
+        }
+    }
+
     public <X> List<X> deserializeObjectList(Class<X> clazz, Object object) throws ObjectCoderException {
         TypeFactory typeFactory = mapper.getTypeFactory();
         JavaType type = typeFactory.constructCollectionLikeType(ArrayList.class, clazz);
@@ -74,6 +101,16 @@ public final class ObjectCoder {
         }
     }
 
+    public <X> List<X> deserializeJsonList(Class<X> clazz, InputStream json) throws ObjectCoderException {
+        TypeFactory typeFactory = mapper.getTypeFactory();
+        JavaType type = typeFactory.constructCollectionLikeType(ArrayList.class, clazz);
+        try {
+            return mapper.readValue(json, type);
+        } catch (IOException e) {
+            throw new ObjectCoderException(e);
+        }
+    }
+
     public <X> X deserializeObject(Class<X> clazz, Object object) throws ObjectCoderException {
         try {
             return mapper.convertValue(object, clazz);
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A fixed-size pool for following `next` links of paged queries.
+ *
+ * Paging tasks only issue the next request, so a handful of threads is enough regardless of
+ * how many queries are paging; excess tasks wait in the queue, whose depth is exposed. Idle
+ * threads time out.
+ */
+public final class PagingExecutor extends ThreadPoolExecutor {
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final class DefaultHolder {
+        static final PagingExecutor INSTANCE = create(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+    }
+
+    /**
+     * The executor shared by every {@link BlockchainDb} that was not given one explicitly.
+     */
+    public static PagingExecutor getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    public static PagingExecutor create(int threads) {
+        checkArgument(threads > 0);
+        return new PagingExecutor(threads);
+    }
+
+    private PagingExecutor(int threads) {
+        super(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("blockchaindb-paging-%d").setDaemon(true).build());
+        allowCoreThreadTimeOut(true);
+    }
+
+    public int getQueueDepth() {
+        return getQueue().size();
+    }
+}
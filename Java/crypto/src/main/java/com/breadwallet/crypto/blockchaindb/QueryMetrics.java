@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import com.breadwallet.crypto.blockchaindb.errors.QueryError;
+import com.breadwallet.crypto.blockchaindb.errors.QueryResponseError;
+import com.google.common.base.Optional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A {@link QueryMetricsListener} that aggregates measurements per endpoint and resource.
+ *
+ * Recording is lock-free; the aggregates can be read at any time while queries are running.
+ */
+public final class QueryMetrics implements QueryMetricsListener {
+
+    private final ConcurrentMap<String, ResourceMetrics> metrics = new ConcurrentHashMap<>();
+
+    public Optional<ResourceMetrics> get(String endpoint, String resource) {
+        return Optional.fromNullable(metrics.get(getKey(endpoint, resource)));
+    }
+
+    public List<ResourceMetrics> getAll() {
+        return new ArrayList<>(metrics.values());
+    }
+
+    public void clear() {
+        metrics.clear();
+    }
+
+    @Override
+    public void handleResponse(String endpoint, String resource, long latencyNanos, long responseBytes, long decodeNanos) {
+        ResourceMetrics resourceMetrics = getOrCreate(endpoint, resource);
+        resourceMetrics.latency.record(latencyNanos);
+        resourceMetrics.responseBytes.record(responseBytes);
+        resourceMetrics.decodeTime.record(decodeNanos);
+    }
+
+    @Override
+    public void handleError(String endpoint, String resource, long latencyNanos, QueryError error) {
+        ResourceMetrics resourceMetrics = getOrCreate(endpoint, resource);
+        resourceMetrics.latency.record(latencyNanos);
+        resourceMetrics.recordError(error);
+    }
+
+    @Override
+    public void handlePageFollowed(String endpoint, String resource) {
+        getOrCreate(endpoint, resource).pagesFollowed.incrementAndGet();
+    }
+
+    private ResourceMetrics getOrCreate(String endpoint, String resource) {
+        String key = getKey(endpoint, resource);
+
+        ResourceMetrics resourceMetrics = metrics.get(key);
+        if (null == resourceMetrics) {
+            ResourceMetrics created = new ResourceMetrics(endpoint, resource);
+            resourceMetrics = metrics.putIfAbsent(key, created);
+            if (null == resourceMetrics) resourceMetrics = created;
+        }
+        return resourceMetrics;
+    }
+
+    private static String getKey(String endpoint, String resource) {
+        return endpoint + " " + resource;
+    }
+
+    public static final class ResourceMetrics {
+
+        private final String endpoint;
+        private final String resource;
+
+        private final Histogram latency = new Histogram();
+        private final Histogram responseBytes = new Histogram();
+        private final Histogram decodeTime = new Histogram();
+        private final AtomicLong pagesFollowed = new AtomicLong();
+        private final ConcurrentMap<String, AtomicLong> errors = new ConcurrentHashMap<>();
+
+        private ResourceMetrics(String endpoint, String resource) {
+            this.endpoint = endpoint;
+            this.resource = resource;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public String getResource() {
+            return resource;
+        }
+
+        /**
+         * Request latency in nanoseconds, for successful and failed requests alike.
+         */
+        public Histogram getLatency() {
+            return latency;
+        }
+
+        public Histogram getResponseBytes() {
+            return responseBytes;
+        }
+
+        /**
+         * Time spent reading and decoding response bodies, in nanoseconds.
+         */
+        public Histogram getDecodeTime() {
+            return decodeTime;
+        }
+
+        public long getPagesFollowed() {
+            return pagesFollowed.get();
+        }
+
+        /**
+         * Error counts keyed by error class; response errors are further keyed by status code.
+         */
+        public Map<String, Long> getErrorCounts() {
+            Map<String, Long> counts = new HashMap<>();
+            for (Map.Entry<String, AtomicLong> entry : errors.entrySet()) {
+                counts.put(entry.getKey(), entry.getValue().get());
+            }
+            return counts;
+        }
+
+        private void recordError(QueryError error) {
+            String key = error.getClass().getSimpleName();
+            if (error instanceof QueryResponseError) {
+                key += "(" + ((QueryResponseError) error).getStatusCode() + ")";
+            }
+
+            AtomicLong count = errors.get(key);
+            if (null == count) {
+                AtomicLong created = new AtomicLong();
+                count = errors.putIfAbsent(key, created);
+                if (null == count) count = created;
+            }
+            count.incrementAndGet();
+        }
+    }
+
+    /**
+     * A lock-free histogram of non-negative values with log-linear buckets, in the style of
+     * HdrHistogram: each power of two is split into 16 buckets, bounding the relative error of
+     * reported percentiles to about 6%.
+     */
+    public static final class Histogram {
+
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        private Histogram() {
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public double getMean() {
+            long n = count.get();
+            return 0 == n ? 0 : (double) sum.get() / n;
+        }
+
+        /**
+         * The value below which `percentile` percent of the recorded values fall, rounded up to
+         * the end of its bucket.
+         */
+        public long getValueAtPercentile(double percentile) {
+            checkArgument(percentile >= 0 && percentile <= 100);
+
+            long total = count.get();
+            if (0 == total) {
+                return 0;
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return Math.min(getUpperBound(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        private void record(long value) {
+            value = Math.max(0, value);
+
+            counts.incrementAndGet(getIndex(value));
+            count.incrementAndGet();
+            sum.addAndGet(value);
+
+            long current = max.get();
+            while (value > current && !max.compareAndSet(current, value)) {
+                current = max.get();
+            }
+        }
+
+        private static int getIndex(long value) {
+            if (value < SUB_BUCKET_COUNT) {
+                return (int) value;
+            }
+
+            int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+            return (shift + 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        }
+
+        private static long getUpperBound(int index) {
+            if (index < SUB_BUCKET_COUNT) {
+                return index;
+            }
+
+            int shift = index / SUB_BUCKET_COUNT - 1;
+            long lower = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+            return lower + (1L << shift) - 1;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import com.breadwallet.crypto.blockchaindb.errors.QueryError;
+
+/**
+ * Receives per-request measurements from the Blockset and BRD API clients.
+ *
+ * The `endpoint` is the host a request was sent to and the `resource` is the queried resource,
+ * such as `transactions` or `ethq/proxy`. Calls are made on the HTTP callback threads and must
+ * not block.
+ */
+public interface QueryMetricsListener {
+
+    /**
+     * A request succeeded; `latencyNanos` runs from submission until the response headers
+     * arrived and `decodeNanos` covers reading and decoding the body.
+     */
+    void handleResponse(String endpoint, String resource, long latencyNanos, long responseBytes, long decodeNanos);
+
+    void handleError(String endpoint, String resource, long latencyNanos, QueryError error);
+
+    /**
+     * A paged query followed a `next` link.
+     */
+    void handlePageFollowed(String endpoint, String resource);
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import com.google.common.base.Ticker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A {@link DataTask} decorator that limits the request rate to each host with a token bucket.
+ *
+ * Requests over the limit are not rejected; they are deferred until a token becomes available,
+ * without blocking the calling thread.
+ */
+public final class RateLimitedDataTask implements DataTask {
+
+    private final DataTask delegate;
+    private final ScheduledExecutorService scheduler;
+    private final double permitsPerNano;
+    private final int burst;
+    private final Ticker ticker;
+
+    private final AtomicLong throttles;
+    private final AtomicLong throttleWaitNanos;
+
+    // guarded by this
+    private final Map<String, Bucket> buckets;
+
+    public RateLimitedDataTask(DataTask delegate,
+                               ScheduledExecutorService scheduler,
+                               double permitsPerSecond,
+                               int burst) {
+        this(delegate, scheduler, permitsPerSecond, burst, Ticker.systemTicker());
+    }
+
+    /* package */
+    RateLimitedDataTask(DataTask delegate,
+                        ScheduledExecutorService scheduler,
+                        double permitsPerSecond,
+                        int burst,
+                        Ticker ticker) {
+        checkArgument(permitsPerSecond > 0);
+        checkArgument(burst > 0);
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.ticker = ticker;
+        this.throttles = new AtomicLong();
+        this.throttleWaitNanos = new AtomicLong();
+        this.buckets = new HashMap<>();
+    }
+
+    /**
+     * The number of requests that had to wait for a token.
+     */
+    public long getThrottleCount() {
+        return throttles.get();
+    }
+
+    public long getThrottleWait(TimeUnit unit) {
+        return unit.convert(throttleWaitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void execute(OkHttpClient client, Request request, Callback callback) {
+        long waitNanos = getBucket(request.url().host()).reserve(ticker.read());
+        if (0 == waitNanos) {
+            delegate.execute(client, request, callback);
+            return;
+        }
+
+        throttles.incrementAndGet();
+        throttleWaitNanos.addAndGet(waitNanos);
+        scheduler.schedule(() -> delegate.execute(client, request, callback), waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized Bucket getBucket(String host) {
+        Bucket bucket = buckets.get(host);
+        if (null == bucket) {
+            bucket = new Bucket(ticker.read());
+            buckets.put(host, bucket);
+        }
+        return bucket;
+    }
+
+    private final class Bucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(long now) {
+            this.tokens = burst;
+            this.refilledAt = now;
+        }
+
+        /**
+         * Take a token, going into debt if none is left, and return how long the caller must
+         * wait for the token to have been earned.
+         */
+        synchronized long reserve(long now) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * permitsPerNano);
+            refilledAt = now;
+
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / permitsPerNano);
+        }
+    }
+}
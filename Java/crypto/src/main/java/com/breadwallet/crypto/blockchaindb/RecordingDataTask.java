@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import java.io.IOException;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * A {@link DataTask} decorator that captures every response, whatever its status and with its
+ * headers, into a {@link RequestArchive}. Failed requests are not recorded.
+ *
+ * Responses are buffered in full before being passed on. For a reproducible archive, disable
+ * JSON-RPC batching as batches are formed by timing.
+ */
+public final class RecordingDataTask implements DataTask {
+
+    private final DataTask delegate;
+    private final RequestArchive archive;
+
+    public RecordingDataTask(DataTask delegate, RequestArchive archive) {
+        this.delegate = delegate;
+        this.archive = archive;
+    }
+
+    public RequestArchive getArchive() {
+        return archive;
+    }
+
+    @Override
+    public void execute(OkHttpClient client, Request request, Callback callback) {
+        delegate.execute(client, request, new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                byte[] body;
+                MediaType contentType;
+                try (ResponseBody responseBody = response.body()) {
+                    body = null == responseBody ? new byte[0] : responseBody.bytes();
+                    contentType = null == responseBody ? null : responseBody.contentType();
+                } catch (IOException e) {
+                    callback.onFailure(call, e);
+                    return;
+                }
+
+                RequestArchive.Exchange exchange = new RequestArchive.Exchange(response.code(), response.message(),
+                        response.headers(), null == contentType ? null : contentType.toString(), body);
+                archive.add(RequestArchive.getKey(request), exchange);
+
+                callback.onResponse(call, response.newBuilder()
+                        .body(ResponseBody.create(body, contentType))
+                        .build());
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                callback.onFailure(call, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A {@link DataTask} that answers requests from a {@link RequestArchive} without touching the
+ * network, for reproducible offline syncs.
+ *
+ * Each response is delivered after a fixed latency plus its transfer time at the configured
+ * bandwidth. Requests missing from the archive fail with an {@link IOException}.
+ */
+public final class ReplayDataTask implements DataTask {
+
+    private final RequestArchive archive;
+    private final ScheduledExecutorService scheduler;
+    private final long latencyNanos;
+    private final long bytesPerSecond;
+
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+
+    // guarded by this
+    private final Map<String, Integer> replayed;
+
+    /**
+     * @param bytesPerSecond the simulated bandwidth; zero for unlimited
+     */
+    public ReplayDataTask(RequestArchive archive,
+                          ScheduledExecutorService scheduler,
+                          long latency,
+                          TimeUnit unit,
+                          long bytesPerSecond) {
+        checkArgument(latency >= 0);
+        checkArgument(bytesPerSecond >= 0);
+        this.archive = archive;
+        this.scheduler = scheduler;
+        this.latencyNanos = unit.toNanos(latency);
+        this.bytesPerSecond = bytesPerSecond;
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.replayed = new HashMap<>();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * The number of requests that were not found in the archive.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public void execute(OkHttpClient client, Request request, Callback callback) {
+        Call call = client.newCall(request);
+
+        RequestArchive.Exchange exchange;
+        try {
+            String key = RequestArchive.getKey(request);
+            exchange = archive.get(key, nextIndex(key));
+        } catch (IOException e) {
+            callback.onFailure(call, e);
+            return;
+        }
+
+        if (null == exchange) {
+            misses.incrementAndGet();
+            scheduler.execute(() -> callback.onFailure(call, new IOException("No recorded response for " + request.url())));
+            return;
+        }
+
+        hits.incrementAndGet();
+        long transferNanos = 0 == bytesPerSecond ? 0 : TimeUnit.SECONDS.toNanos(exchange.body.length) / bytesPerSecond;
+        scheduler.schedule(() -> deliver(call, request, exchange, callback), latencyNanos + transferNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void deliver(Call call, Request request, RequestArchive.Exchange exchange, Callback callback) {
+        CancellableQuery query = request.tag(CancellableQuery.class);
+        if (null != query && query.isCancelled()) {
+            callback.onFailure(call, new IOException("Canceled"));
+            return;
+        }
+
+        try {
+            callback.onResponse(call, exchange.toResponse(request));
+        } catch (IOException e) {
+            callback.onFailure(call, e);
+        }
+    }
+
+    private synchronized int nextIndex(String key) {
+        Integer index = replayed.get(key);
+        index = null == index ? 0 : index + 1;
+        replayed.put(key, index);
+        return index;
+    }
+}
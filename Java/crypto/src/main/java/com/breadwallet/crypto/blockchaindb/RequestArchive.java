@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import android.support.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+/**
+ * Request and response pairs captured by a {@link RecordingDataTask}, to be served back by a
+ * {@link ReplayDataTask}.
+ *
+ * Requests are keyed by method, URL and body, with JSON-RPC ids zeroed as they depend on the
+ * order in which queries were issued. Repeated requests keep each of their responses, in order,
+ * along with their headers so that `ETag` revalidation and `Retry-After` are replayed as well.
+ * Archives are stored as a single gzipped file.
+ */
+public final class RequestArchive {
+
+    private static final int MAGIC = 0x42524441; // "BRDA"
+    private static final int VERSION = 2;
+    // version 1 stored strings with writeUTF, which is limited to 64KB, and no headers
+    private static final int VERSION_WITHOUT_HEADERS = 1;
+
+    private static final Pattern JSON_RPC_ID = Pattern.compile("\"id\"\\s*:\\s*(\"?)[0-9]+\\1");
+
+    public static RequestArchive read(File file) throws IOException {
+        RequestArchive archive = new RequestArchive();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file))))) {
+            int magic = in.readInt();
+            int version = in.readInt();
+            if (MAGIC != magic || (VERSION != version && VERSION_WITHOUT_HEADERS != version)) {
+                throw new IOException("not a request archive: " + file);
+            }
+
+            boolean legacy = VERSION_WITHOUT_HEADERS == version;
+            int keyCount = in.readInt();
+            for (int i = 0; i < keyCount; i++) {
+                String key = legacy ? in.readUTF() : readString(in);
+
+                int exchangeCount = in.readInt();
+                for (int j = 0; j < exchangeCount; j++) {
+                    int code = in.readInt();
+                    String message = legacy ? in.readUTF() : readString(in);
+                    String contentType = in.readBoolean() ? (legacy ? in.readUTF() : readString(in)) : null;
+
+                    Headers.Builder headers = new Headers.Builder();
+                    int headerCount = legacy ? 0 : in.readInt();
+                    for (int k = 0; k < headerCount; k++) {
+                        headers.addUnsafeNonAscii(readString(in), readString(in));
+                    }
+
+                    byte[] body = readBytes(in);
+                    archive.add(key, new Exchange(code, message, headers.build(), contentType, body));
+                }
+            }
+        }
+
+        return archive;
+    }
+
+    // guarded by this
+    private final Map<String, List<Exchange>> exchanges;
+
+    public RequestArchive() {
+        this.exchanges = new LinkedHashMap<>();
+    }
+
+    public synchronized void write(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            out.writeInt(exchanges.size());
+            for (Map.Entry<String, List<Exchange>> entry : exchanges.entrySet()) {
+                writeString(out, entry.getKey());
+
+                out.writeInt(entry.getValue().size());
+                for (Exchange exchange : entry.getValue()) {
+                    out.writeInt(exchange.code);
+                    writeString(out, exchange.message);
+                    out.writeBoolean(null != exchange.contentType);
+                    if (null != exchange.contentType) writeString(out, exchange.contentType);
+
+                    out.writeInt(exchange.headers.size());
+                    for (int i = 0; i < exchange.headers.size(); i++) {
+                        writeString(out, exchange.headers.name(i));
+                        writeString(out, exchange.headers.value(i));
+                    }
+
+                    out.writeInt(exchange.body.length);
+                    out.write(exchange.body);
+                }
+            }
+        }
+    }
+
+    /**
+     * The number of distinct requests in the archive.
+     */
+    public synchronized int size() {
+        return exchanges.size();
+    }
+
+    public synchronized void clear() {
+        exchanges.clear();
+    }
+
+    /* package */
+    synchronized void add(String key, Exchange exchange) {
+        List<Exchange> list = exchanges.get(key);
+        if (null == list) {
+            list = new ArrayList<>();
+            exchanges.put(key, list);
+        }
+        list.add(exchange);
+    }
+
+    /**
+     * The `index`th response recorded for `key`; once exhausted, the last one is repeated.
+     */
+    /* package */
+    @Nullable
+    synchronized Exchange get(String key, int index) {
+        List<Exchange> list = exchanges.get(key);
+        return null == list ? null : list.get(Math.min(index, list.size() - 1));
+    }
+
+    /* package */
+    static String getKey(Request request) throws IOException {
+        StringBuilder key = new StringBuilder()
+                .append(request.method())
+                .append(' ')
+                .append(request.url());
+
+        RequestBody requestBody = request.body();
+        if (null != requestBody) {
+            Buffer buffer = new Buffer();
+            requestBody.writeTo(buffer);
+            key.append(' ').append(JSON_RPC_ID.matcher(buffer.readUtf8()).replaceAll("\"id\":0"));
+        }
+
+        return key.toString();
+    }
+
+    // keys hold whole request bodies, such as a JSON-RPC batch, and easily exceed writeUTF's 64KB
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("corrupt request archive");
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /* package */
+    static final class Exchange {
+
+        final int code;
+        final String message;
+        final Headers headers;
+        final @Nullable String contentType;
+        final byte[] body;
+
+        Exchange(int code, String message, Headers headers, @Nullable String contentType, byte[] body) {
+            this.code = code;
+            this.message = message;
+            this.headers = headers;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        Response toResponse(Request request) {
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(code)
+                    .message(message)
+                    .headers(headers)
+                    .body(ResponseBody.create(body, null == contentType ? null : MediaType.parse(contentType)))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import com.breadwallet.crypto.blockchaindb.errors.QueryCancelledError;
+import com.breadwallet.crypto.blockchaindb.errors.QueryError;
+import com.breadwallet.crypto.blockchaindb.errors.QuerySubmissionError;
+import com.breadwallet.crypto.utility.Cancellable;
+import com.breadwallet.crypto.utility.CompletionHandler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collapses identical, concurrently issued queries into a single network request.
+ *
+ * Requests are keyed by endpoint and parameters. While a request is in flight, further calls
+ * with the same key are attached to it and receive the same result (the same instance, which
+ * must therefore be treated as read-only). Once the result is delivered, the next call issues
+ * a fresh request; nothing is cached.
+ */
+public final class RequestCoalescer {
+
+    public enum Endpoint {
+        BLOCKCHAIN,
+        BLOCKCHAINS,
+        CURRENCY,
+        CURRENCIES,
+        BLOCK_NUMBER_AS_ETH,
+        GAS_PRICE_AS_ETH,
+        TOKENS_AS_ETH
+    }
+
+    /* package */
+    interface Request<T> {
+        void send(CancellableQuery query, CompletionHandler<T, QueryError> handler);
+    }
+
+    private final Set<Endpoint> enabled;
+    private final Map<Endpoint, AtomicLong> hits;
+    private final Map<Endpoint, AtomicLong> misses;
+
+    // guarded by this
+    private final Map<List<Object>, Group> inFlight;
+
+    /* package */
+    RequestCoalescer() {
+        this.enabled = Collections.synchronizedSet(EnumSet.allOf(Endpoint.class));
+        this.hits = new EnumMap<>(Endpoint.class);
+        this.misses = new EnumMap<>(Endpoint.class);
+        this.inFlight = new HashMap<>();
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            hits.put(endpoint, new AtomicLong());
+            misses.put(endpoint, new AtomicLong());
+        }
+    }
+
+    public void setEnabled(Endpoint endpoint, boolean enabled) {
+        if (enabled) {
+            this.enabled.add(endpoint);
+        } else {
+            this.enabled.remove(endpoint);
+        }
+    }
+
+    public boolean isEnabled(Endpoint endpoint) {
+        return enabled.contains(endpoint);
+    }
+
+    /**
+     * The number of calls that were attached to a request already in flight.
+     */
+    public long getHitCount(Endpoint endpoint) {
+        return hits.get(endpoint).get();
+    }
+
+    /**
+     * The number of calls that resulted in a network request while coalescing was enabled.
+     */
+    public long getMissCount(Endpoint endpoint) {
+        return misses.get(endpoint).get();
+    }
+
+    public long getHitCount() {
+        long count = 0;
+        for (AtomicLong value : hits.values()) count += value.get();
+        return count;
+    }
+
+    public long getMissCount() {
+        long count = 0;
+        for (AtomicLong value : misses.values()) count += value.get();
+        return count;
+    }
+
+    /**
+     * Send `request`, or attach `handler` to an identical request in flight.
+     *
+     * Cancelling the returned handle detaches `handler`, which receives a
+     * {@link QueryCancelledError}; the shared request is only cancelled once every handler
+     * attached to it has been detached.
+     */
+    /* package */
+    <T> Cancellable execute(Endpoint endpoint,
+                            CancellableQuery query,
+                            CompletionHandler<T, QueryError> handler,
+                            Request<T> request,
+                            Object... params) {
+        if (!isEnabled(endpoint)) {
+            request.send(query, handler);
+            return query;
+        }
+
+        List<Object> key = new ArrayList<>(params.length + 1);
+        key.add(endpoint);
+        key.addAll(Arrays.asList(params));
+
+        Group group;
+        Waiter waiter;
+        synchronized (this) {
+            group = inFlight.get(key);
+            if (null != group) {
+                waiter = new Waiter(key, group, handler);
+                group.waiters.add(waiter);
+                hits.get(endpoint).incrementAndGet();
+                return waiter;
+            }
+
+            group = new Group(query);
+            waiter = new Waiter(key, group, handler);
+            group.waiters.add(waiter);
+            inFlight.put(key, group);
+        }
+
+        Group sent = group;
+        misses.get(endpoint).incrementAndGet();
+        try {
+            send(key, sent, query, request);
+        } catch (RuntimeException e) {
+            // fail the calls attached in the meantime; this call sees the exception, as it would uncoalesced
+            for (CompletionHandler<T, QueryError> waiting : RequestCoalescer.this.<T>complete(key, sent)) {
+                if (waiting != handler) {
+                    waiting.handleError(new QuerySubmissionError(e.getMessage()));
+                }
+            }
+            throw e;
+        }
+        return waiter;
+    }
+
+    private <T> void send(List<Object> key, Group sent, CancellableQuery query, Request<T> request) {
+        request.send(query, new CompletionHandler<T, QueryError>() {
+            @Override
+            public void handleData(T data) {
+                for (CompletionHandler<T, QueryError> waiting : RequestCoalescer.this.<T>complete(key, sent)) {
+                    waiting.handleData(data);
+                }
+            }
+
+            @Override
+            public void handleError(QueryError error) {
+                for (CompletionHandler<T, QueryError> waiting : RequestCoalescer.this.<T>complete(key, sent)) {
+                    waiting.handleError(error);
+                }
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized <T> List<CompletionHandler<T, QueryError>> complete(List<Object> key, Group group) {
+        // the key may have been reissued after every handler of this request was detached
+        if (group == inFlight.get(key)) {
+            inFlight.remove(key);
+        }
+
+        List<CompletionHandler<T, QueryError>> waiting = new ArrayList<>();
+        for (Waiter waiter : group.waiters) {
+            waiting.add((CompletionHandler<T, QueryError>) waiter.handler);
+        }
+        group.waiters.clear();
+        return waiting;
+    }
+
+    private void detach(Waiter waiter) {
+        boolean last;
+
+        synchronized (this) {
+            Group group = waiter.group;
+            if (!group.waiters.remove(waiter)) {
+                return;
+            }
+
+            last = group.waiters.isEmpty();
+            if (last && group == inFlight.get(waiter.key)) {
+                inFlight.remove(waiter.key);
+            }
+        }
+
+        waiter.handler.handleError(new QueryCancelledError());
+        if (last) {
+            waiter.group.query.cancel();
+        }
+    }
+
+    private static final class Group {
+
+        final CancellableQuery query;
+        final List<Waiter> waiters = new ArrayList<>();
+
+        Group(CancellableQuery query) {
+            this.query = query;
+        }
+    }
+
+    private final class Waiter implements Cancellable {
+
+        final List<Object> key;
+        final Group group;
+        final CompletionHandler<?, QueryError> handler;
+
+        Waiter(List<Object> key, Group group, CompletionHandler<?, QueryError> handler) {
+            this.key = key;
+            this.group = group;
+            this.handler = handler;
+        }
+
+        @Override
+        public void cancel() {
+            detach(this);
+        }
+    }
+}
@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import android.support.annotation.Nullable;
+
+import com.google.common.hash.Hashing;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A response cache for reference data that rarely changes (blockchains, currencies, tokens).
+ *
+ * Successful GET responses are held in an in-memory LRU and, if a directory has been provided,
+ * on disk. A response younger than its endpoint's time-to-live is served without touching the
+ * network; an older one is revalidated with `If-None-Match` when the server supplied an ETag, and
+ * a `304 Not Modified` is answered from the cache.
+ *
+ * Like a network response, a cached one is delivered on the client's dispatcher and never on
+ * the thread that issued the request.
+ */
+public final class ResponseCache {
+
+    private static final Logger Log = Logger.getLogger(ResponseCache.class.getName());
+
+    private static final MediaType MEDIA_TYPE_JSON = MediaType.parse("application/json; charset=utf-8");
+
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_NOT_MODIFIED = 304;
+
+    private static final int DEFAULT_MAX_MEMORY_BYTES = 4 * 1024 * 1024;
+
+    public enum Endpoint {
+        BLOCKCHAINS(TimeUnit.MINUTES.toMillis(1)),
+        CURRENCIES(TimeUnit.HOURS.toMillis(1)),
+        TOKENS_AS_ETH(TimeUnit.HOURS.toMillis(1));
+
+        private final long defaultTimeToLiveMillis;
+
+        Endpoint(long defaultTimeToLiveMillis) {
+            this.defaultTimeToLiveMillis = defaultTimeToLiveMillis;
+        }
+    }
+
+    private final Set<Endpoint> enabled;
+    private final Map<Endpoint, Long> timeToLiveMillis;
+    private final int maxMemoryBytes;
+    private final @Nullable Executor executor;
+
+    private final AtomicLong hits;
+    private final AtomicLong revalidations;
+    private final AtomicLong misses;
+
+    // guarded by this
+    private final LinkedHashMap<String, Entry> memory;
+    private long memoryBytes;
+    private @Nullable File directory;
+
+    /* package */
+    ResponseCache() {
+        this(DEFAULT_MAX_MEMORY_BYTES, null);
+    }
+
+    /**
+     * Cache up to `maxMemoryBytes` of response bodies in memory and deliver hits on `executor`,
+     * or on the client's dispatcher if `null`.
+     */
+    /* package */
+    ResponseCache(int maxMemoryBytes, @Nullable Executor executor) {
+        checkArgument(maxMemoryBytes > 0);
+        this.enabled = Collections.synchronizedSet(EnumSet.allOf(Endpoint.class));
+        this.timeToLiveMillis = Collections.synchronizedMap(new EnumMap<>(Endpoint.class));
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.executor = executor;
+        this.hits = new AtomicLong();
+        this.revalidations = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.memory = new LinkedHashMap<>(16, 0.75f, true);
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            timeToLiveMillis.put(endpoint, endpoint.defaultTimeToLiveMillis);
+        }
+    }
+
+    // configuration
+
+    public void setEnabled(Endpoint endpoint, boolean enabled) {
+        if (enabled) {
+            this.enabled.add(endpoint);
+        } else {
+            this.enabled.remove(endpoint);
+        }
+    }
+
+    public boolean isEnabled(Endpoint endpoint) {
+        return enabled.contains(endpoint);
+    }
+
+    /**
+     * Set how long a response is served without revalidation. A value of zero revalidates on
+     * every request.
+     */
+    public void setTimeToLive(Endpoint endpoint, long duration, TimeUnit unit) {
+        checkArgument(duration >= 0);
+        timeToLiveMillis.put(endpoint, unit.toMillis(duration));
+    }
+
+    public long getTimeToLive(Endpoint endpoint, TimeUnit unit) {
+        return unit.convert(timeToLiveMillis.get(endpoint), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Persist responses under `directory`, or only keep them in memory if `null`.
+     *
+     * The cache belongs to the BlockchainDb, which may be shared by several systems, so
+     * `directory` should be owned by whoever created the BlockchainDb and not be inside any
+     * system's storage path (which {@code System.wipe} deletes).
+     */
+    public synchronized void setDiskStore(@Nullable File directory) {
+        this.directory = directory;
+    }
+
+    public synchronized void clear() {
+        memory.clear();
+        memoryBytes = 0;
+
+        File[] files = null == directory ? null : directory.listFiles();
+        if (null != files) {
+            for (File file : files) {
+                if (!file.delete()) {
+                    Log.log(Level.WARNING, "failed to delete " + file);
+                }
+            }
+        }
+    }
+
+    // metrics
+
+    /**
+     * The number of requests answered without a network round trip.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * The number of requests answered from the cache after a `304 Not Modified`.
+     */
+    public long getRevalidationCount() {
+        return revalidations.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    // data task
+
+    /**
+     * Decorate `dataTask` so that GET requests for `endpoint` go through this cache.
+     */
+    public DataTask decorate(Endpoint endpoint, DataTask dataTask) {
+        return (client, request, callback) -> execute(endpoint, dataTask, client, request, callback);
+    }
+
+    private void execute(Endpoint endpoint,
+                         DataTask dataTask,
+                         OkHttpClient client,
+                         Request request,
+                         Callback callback) {
+        if (!isEnabled(endpoint) || !"GET".equals(request.method())) {
+            dataTask.execute(client, request, callback);
+            return;
+        }
+
+        String key = request.url().toString();
+        Entry entry = get(key);
+
+        if (null != entry && entry.isFresh(timeToLiveMillis.get(endpoint))) {
+            hits.incrementAndGet();
+            Call call = client.newCall(request);
+            Runnable delivery = () -> {
+                try {
+                    callback.onResponse(call, entry.toResponse(request));
+                } catch (IOException e) {
+                    callback.onFailure(call, e);
+                }
+            };
+
+            try {
+                (null == executor ? client.dispatcher().executorService() : executor).execute(delivery);
+            } catch (RejectedExecutionException e) {
+                callback.onFailure(call, new IOException("Response delivery rejected", e));
+            }
+            return;
+        }
+
+        Request conditionalRequest = (null == entry || null == entry.etag) ?
+                request :
+                request.newBuilder().header("If-None-Match", entry.etag).build();
+
+        dataTask.execute(client, conditionalRequest, new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                if (response.code() == HTTP_NOT_MODIFIED && null != entry) {
+                    ResponseBody responseBody = response.body();
+                    if (null != responseBody) responseBody.close();
+                    revalidations.incrementAndGet();
+                    callback.onResponse(call, put(key, entry.body, entry.etag).toResponse(request));
+
+                } else if (response.code() == HTTP_OK && null != response.body()) {
+                    byte[] body;
+                    try (ResponseBody responseBody = response.body()) {
+                        body = responseBody.bytes();
+                    } catch (IOException e) {
+                        callback.onFailure(call, e);
+                        return;
+                    }
+
+                    misses.incrementAndGet();
+                    callback.onResponse(call, put(key, body, response.header("ETag")).toResponse(request));
+
+                } else {
+                    callback.onResponse(call, response);
+                }
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                callback.onFailure(call, e);
+            }
+        });
+    }
+
+    // storage
+
+    @Nullable
+    private Entry get(String key) {
+        File file;
+
+        synchronized (this) {
+            Entry entry = memory.get(key);
+            if (null != entry || null == directory) {
+                return entry;
+            }
+            file = fileFor(directory, key);
+        }
+
+        Entry entry = read(file, key);
+        if (null != entry) {
+            synchronized (this) {
+                putInMemory(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    private Entry put(String key, byte[] body, @Nullable String etag) {
+        Entry entry = new Entry(body, etag, System.currentTimeMillis());
+        File file;
+
+        synchronized (this) {
+            putInMemory(key, entry);
+            file = null == directory ? null : fileFor(directory, key);
+        }
+
+        if (null != file) {
+            write(file, key, entry);
+        }
+        return entry;
+    }
+
+    private void putInMemory(String key, Entry entry) {
+        Entry previous = memory.put(key, entry);
+        memoryBytes += entry.body.length - (null == previous ? 0 : previous.body.length);
+
+        Iterator<Entry> iterator = memory.values().iterator();
+        while (memoryBytes > maxMemoryBytes && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            if (eldest == entry) break;
+
+            memoryBytes -= eldest.body.length;
+            iterator.remove();
+        }
+    }
+
+    private static File fileFor(File directory, String key) {
+        return new File(directory, Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString());
+    }
+
+    @Nullable
+    private static Entry read(File file, String key) {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (!key.equals(in.readUTF())) {
+                return null;
+            }
+
+            long timestamp = in.readLong();
+            String etag = in.readBoolean() ? in.readUTF() : null;
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            return new Entry(body, etag, timestamp);
+
+        } catch (IOException e) {
+            Log.log(Level.WARNING, "failed to read cached response " + file, e);
+            return null;
+        }
+    }
+
+    private static void write(File file, String key, Entry entry) {
+        File directory = file.getParentFile();
+        if (!directory.exists() && !directory.mkdirs()) {
+            Log.log(Level.WARNING, "failed to create cache directory " + directory);
+            return;
+        }
+
+        // write to the side and rename so that a concurrent reader never sees a partial entry
+        File temp = new File(directory, file.getName() + ".tmp" + Thread.currentThread().getId());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeUTF(key);
+            out.writeLong(entry.timestamp);
+            out.writeBoolean(null != entry.etag);
+            if (null != entry.etag) out.writeUTF(entry.etag);
+            out.writeInt(entry.body.length);
+            out.write(entry.body);
+
+        } catch (IOException e) {
+            Log.log(Level.WARNING, "failed to write cached response " + file, e);
+            temp.delete();
+            return;
+        }
+
+        if (!temp.renameTo(file)) {
+            Log.log(Level.WARNING, "failed to store cached response " + file);
+            temp.delete();
+        }
+    }
+
+    private static final class Entry {
+
+        final byte[] body;
+        final @Nullable String etag;
+        final long timestamp;
+
+        Entry(byte[] body, @Nullable String etag, long timestamp) {
+            this.body = body;
+            this.etag = etag;
+            this.timestamp = timestamp;
+        }
+
+        boolean isFresh(long timeToLiveMillis) {
+            long age = System.currentTimeMillis() - timestamp;
+            return age >= 0 && age < timeToLiveMillis;
+        }
+
+        Response toResponse(Request request) {
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(HTTP_OK)
+                    .message("OK")
+                    .body(ResponseBody.create(body, MEDIA_TYPE_JSON))
+                    .build();
+        }
+    }
+}
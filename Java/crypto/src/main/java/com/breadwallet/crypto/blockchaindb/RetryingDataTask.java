@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import android.support.annotation.Nullable;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A {@link DataTask} decorator that retries transient failures with exponential backoff and
+ * full jitter, honouring `Retry-After` when the server provides one.
+ *
+ * `429` is retried for any method, as the server turned the request away without processing it.
+ * `502`, `503`, `504` and I/O failures are only retried for GET, where repeating is harmless; a
+ * POST answered with one of those may have been applied before the error was generated.
+ */
+public final class RetryingDataTask implements DataTask {
+
+    private static final Logger Log = Logger.getLogger(RetryingDataTask.class.getName());
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final Set<Integer> TRANSIENT_CODES = ImmutableSet.of(502, 503, 504);
+
+    private final DataTask delegate;
+    private final ScheduledExecutorService scheduler;
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    private final AtomicLong retries;
+
+    public RetryingDataTask(DataTask delegate,
+                            ScheduledExecutorService scheduler,
+                            int maxRetries,
+                            long baseDelay,
+                            long maxDelay,
+                            TimeUnit unit) {
+        checkArgument(maxRetries >= 0);
+        checkArgument(baseDelay > 0 && maxDelay >= baseDelay);
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = unit.toMillis(baseDelay);
+        this.maxDelayMillis = unit.toMillis(maxDelay);
+        this.retries = new AtomicLong();
+    }
+
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    @Override
+    public void execute(OkHttpClient client, Request request, Callback callback) {
+        attempt(client, request, callback, 0);
+    }
+
+    private void attempt(OkHttpClient client, Request request, Callback callback, int attempt) {
+        delegate.execute(client, request, new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                int code = response.code();
+                boolean retryable = code == HTTP_TOO_MANY_REQUESTS ||
+                        (TRANSIENT_CODES.contains(code) && isIdempotent(request));
+
+                if (retryable && attempt < maxRetries) {
+                    Long delayMillis = getRetryDelayMillis(response, attempt);
+                    if (null != delayMillis) {
+                        ResponseBody responseBody = response.body();
+                        if (null != responseBody) responseBody.close();
+
+                        Log.log(Level.FINE, String.format("retrying %s after status %s in %sms", request.url(), code, delayMillis));
+                        retry(client, request, callback, attempt, delayMillis);
+                        return;
+                    }
+                }
+
+                callback.onResponse(call, response);
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                if (isIdempotent(request) && !call.isCanceled() && attempt < maxRetries) {
+                    long delayMillis = getBackoffMillis(attempt);
+
+                    Log.log(Level.FINE, String.format("retrying %s after failure in %sms", request.url(), delayMillis), e);
+                    retry(client, request, callback, attempt, delayMillis);
+                    return;
+                }
+
+                callback.onFailure(call, e);
+            }
+        });
+    }
+
+    private void retry(OkHttpClient client, Request request, Callback callback, int attempt, long delayMillis) {
+        retries.incrementAndGet();
+        scheduler.schedule(() -> attempt(client, request, callback, attempt + 1), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The delay before the next attempt, or `null` if the server asked for a longer pause than
+     * this task is willing to wait.
+     */
+    @Nullable
+    private Long getRetryDelayMillis(Response response, int attempt) {
+        String retryAfter = response.header("Retry-After");
+        if (null == retryAfter) {
+            return getBackoffMillis(attempt);
+        }
+
+        long delayMillis;
+        try {
+            delayMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            Date date = response.headers().getDate("Retry-After");
+            if (null == date) {
+                return getBackoffMillis(attempt);
+            }
+            delayMillis = date.getTime() - System.currentTimeMillis();
+        }
+
+        return delayMillis > maxDelayMillis ? null : Math.max(0, delayMillis);
+    }
+
+    private long getBackoffMillis(int attempt) {
+        long ceiling = baseDelayMillis << Math.min(attempt, 30);
+        return ThreadLocalRandom.current().nextLong(Math.min(ceiling, maxDelayMillis) + 1);
+    }
+
+    private static boolean isIdempotent(Request request) {
+        return "GET".equals(request.method());
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb.apis.bdb;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Splits the addresses of a query into chunks sized from the observed cost of earlier chunks.
+ *
+ * The cost of a chunk, from its first request until its last page, is tracked per address as
+ * both the time taken and the response bytes received; chunks are sized to complete in about
+ * {@link #TARGET_CHUNK_NANOS} and to return about {@link #TARGET_CHUNK_BYTES}, so that heavy
+ * wallets get smaller chunks and light ones fewer requests. Chunks are also kept within the URL
+ * length that the backend accepts, and small queries are split so they can use every in-flight
+ * slot.
+ */
+/* package */
+final class AddressChunker {
+
+    // request lines much beyond 8KB are rejected by the load balancers
+    private static final int MAX_ADDRESSES_URL_LENGTH = 8000 - 512;
+    private static final String ADDRESS_PARAM = "&address=";
+
+    private static final int INITIAL_ADDRESS_COUNT = 50;
+    private static final int MIN_ADDRESS_COUNT = 5;
+    private static final int MAX_ADDRESS_COUNT = 250;
+
+    private static final long TARGET_CHUNK_NANOS = TimeUnit.SECONDS.toNanos(2);
+    // a chunk's results are held until its last page, so its size bounds the memory per in-flight chunk
+    private static final long TARGET_CHUNK_BYTES = 2 * 1024 * 1024;
+    private static final double SMOOTHING = 0.2;
+
+    // guarded by this
+    private double nanosPerAddress = (double) TARGET_CHUNK_NANOS / INITIAL_ADDRESS_COUNT;
+    private double bytesPerAddress = (double) TARGET_CHUNK_BYTES / INITIAL_ADDRESS_COUNT;
+
+    /* package */
+    List<List<String>> partition(List<String> addresses, int maxConcurrentChunks) {
+        checkArgument(maxConcurrentChunks > 0);
+
+        int chunkSize = Math.min(getChunkSize(), (addresses.size() + maxConcurrentChunks - 1) / maxConcurrentChunks);
+        chunkSize = Math.max(1, chunkSize);
+
+        List<List<String>> chunks = new ArrayList<>();
+        List<String> chunk = new ArrayList<>();
+        int urlLength = 0;
+        for (String address : addresses) {
+            int length = getEncodedLength(address);
+            if (!chunk.isEmpty() && (chunk.size() == chunkSize || urlLength + length > MAX_ADDRESSES_URL_LENGTH)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                urlLength = 0;
+            }
+
+            chunk.add(address);
+            urlLength += length;
+        }
+
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * Record that a chunk of `addressCount` addresses took `durationNanos` to fetch in full and
+     * returned `responseBytes` over all of its pages.
+     */
+    /* package */
+    synchronized void record(int addressCount, long durationNanos, long responseBytes) {
+        // chunks cut down to spread a small query are dominated by per-request overhead
+        if (addressCount < MIN_ADDRESS_COUNT) {
+            return;
+        }
+
+        double observedNanos = (double) durationNanos / addressCount;
+        nanosPerAddress += SMOOTHING * (observedNanos - nanosPerAddress);
+
+        double observedBytes = (double) responseBytes / addressCount;
+        bytesPerAddress += SMOOTHING * (observedBytes - bytesPerAddress);
+    }
+
+    /* package */
+    synchronized int getChunkSize() {
+        long size = Math.min(
+                Math.round(TARGET_CHUNK_NANOS / nanosPerAddress),
+                Math.round(TARGET_CHUNK_BYTES / Math.max(1.0, bytesPerAddress)));
+        return (int) Math.max(MIN_ADDRESS_COUNT, Math.min(MAX_ADDRESS_COUNT, size));
+    }
+
+    private static int getEncodedLength(String address) {
+        int length = ADDRESS_PARAM.length() + address.length();
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9'))) {
+                // percent-encoded, conservatively
+                length += 2;
+            }
+        }
+        return length;
+    }
+}
@@ -9,11 +9,15 @@ package com.breadwallet.crypto.blockchaindb.apis.bdb;
 
 import android.support.annotation.Nullable;
 
+import com.breadwallet.crypto.blockchaindb.CancellableQuery;
 import com.breadwallet.crypto.blockchaindb.DataTask;
 import com.breadwallet.crypto.blockchaindb.ObjectCoder;
 import com.breadwallet.crypto.blockchaindb.ObjectCoder.ObjectCoderException;
+import com.breadwallet.crypto.blockchaindb.QueryMetricsListener;
+import com.breadwallet.crypto.blockchaindb.ResponseCache;
 import com.breadwallet.crypto.blockchaindb.apis.HttpStatusCodes;
 import com.breadwallet.crypto.blockchaindb.apis.PagedCompletionHandler;
+import com.breadwallet.crypto.blockchaindb.errors.QueryCancelledError;
 import com.breadwallet.crypto.blockchaindb.errors.QueryError;
 import com.breadwallet.crypto.blockchaindb.errors.QueryJsonParseError;
 import com.breadwallet.crypto.blockchaindb.errors.QueryModelError;
@@ -24,12 +28,15 @@ import com.breadwallet.crypto.blockchaindb.errors.QueryUrlError;
 import com.breadwallet.crypto.utility.CompletionHandler;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.collect.Multimap;
+import com.google.common.io.CountingInputStream;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -53,12 +60,24 @@ public class BdbApiClient {
     private final String baseUrl;
     private final DataTask dataTask;
     private final ObjectCoder coder;
+    private final @Nullable ResponseCache cache;
+
+    private volatile @Nullable QueryMetricsListener metricsListener;
 
     public BdbApiClient(OkHttpClient client, String baseUrl, DataTask dataTask, ObjectCoder coder) {
+        this(client, baseUrl, dataTask, coder, null);
+    }
+
+    public BdbApiClient(OkHttpClient client, String baseUrl, DataTask dataTask, ObjectCoder coder, @Nullable ResponseCache cache) {
         this.client = client;
         this.baseUrl = baseUrl;
         this.dataTask = dataTask;
         this.coder = coder;
+        this.cache = cache;
+    }
+
+    public void setMetricsListener(@Nullable QueryMetricsListener listener) {
+        this.metricsListener = listener;
     }
 
     // Create (Crud)
@@ -66,12 +85,14 @@ public class BdbApiClient {
     void sendPost(String resource,
                   Multimap<String, String> params,
                   Object body,
+                  CancellableQuery query,
                   CompletionHandler<Void, QueryError> handler) {
         makeAndSendRequest(
                 Collections.singletonList(resource),
                 params,
                 body,
                 "POST",
+                query,
                 new EmptyResponseHandler(handler));
     }
 
@@ -79,12 +100,14 @@ public class BdbApiClient {
                       Multimap<String, String> params,
                       Object body,
                       Class<T> clazz,
+                      CancellableQuery query,
                       CompletionHandler<T, QueryError> handler) {
         makeAndSendRequest(
                 Collections.singletonList(resource),
                 params,
                 body,
                 "POST",
+                query,
                 new RootObjectResponseHandler<>(coder, clazz, handler));
     }
 
@@ -94,12 +117,14 @@ public class BdbApiClient {
     <T> void sendGet(String resource,
                      Multimap<String, String> params,
                      Class<T> clazz,
+                     CancellableQuery query,
                      CompletionHandler<T, QueryError> handler) {
         makeAndSendRequest(
                 Collections.singletonList(resource),
                 params,
                 null,
                 "GET",
+                query,
                 new RootObjectResponseHandler<>(coder, clazz, handler));
     }
 
@@ -107,12 +132,31 @@ public class BdbApiClient {
     <T> void sendGetForArray(String resource,
                              Multimap<String, String> params,
                              Class<T> clazz,
+                             CancellableQuery query,
                              CompletionHandler<List<T>, QueryError> handler) {
         makeAndSendRequest(
                 Collections.singletonList(resource),
                 params,
                 null,
                 "GET",
+                query,
+                new EmbeddedArrayResponseHandler<>(resource, coder, clazz, handler));
+    }
+
+    /* package */
+    <T> void sendGetForArray(String resource,
+                             Multimap<String, String> params,
+                             Class<T> clazz,
+                             ResponseCache.Endpoint cacheEndpoint,
+                             CancellableQuery query,
+                             CompletionHandler<List<T>, QueryError> handler) {
+        makeAndSendRequest(
+                Collections.singletonList(resource),
+                params,
+                null,
+                "GET",
+                null == cache ? dataTask : cache.decorate(cacheEndpoint, dataTask),
+                query,
                 new EmbeddedArrayResponseHandler<>(resource, coder, clazz, handler));
     }
 
@@ -120,24 +164,55 @@ public class BdbApiClient {
     <T> void sendGetForArrayWithPaging(String resource,
                                        Multimap<String, String> params,
                                        Class<T> clazz,
+                                       CancellableQuery query,
+                                       PagedCompletionHandler<List<T>, QueryError> handler) {
+        sendGetForArrayWithPaging(resource, params, clazz, query, null, handler);
+    }
+
+    /**
+     * As above, adding the size of each page's response to `responseBytes`, if provided.
+     */
+    /* package */
+    <T> void sendGetForArrayWithPaging(String resource,
+                                       Multimap<String, String> params,
+                                       Class<T> clazz,
+                                       CancellableQuery query,
+                                       @Nullable AtomicLong responseBytes,
                                        PagedCompletionHandler<List<T>, QueryError> handler) {
         makeAndSendRequest(
                 Collections.singletonList(resource),
                 params,
                 null,
                 "GET",
-                new EmbeddedPagedArrayResponseHandler<>(resource, coder, clazz, handler));
+                query,
+                new EmbeddedPagedArrayResponseHandler<>(resource, coder, clazz, responseBytes, handler));
+    }
+
+    /* package */
+    <T> void sendGetForArrayWithPaging(String resource,
+                                       String url,
+                                       Class<T> clazz,
+                                       CancellableQuery query,
+                                       PagedCompletionHandler<List<T>, QueryError> handler) {
+        sendGetForArrayWithPaging(resource, url, clazz, query, null, handler);
     }
 
+    /**
+     * As above, adding the size of each page's response to `responseBytes`, if provided.
+     */
     /* package */
     <T> void sendGetForArrayWithPaging(String resource,
                                        String url,
                                        Class<T> clazz,
+                                       CancellableQuery query,
+                                       @Nullable AtomicLong responseBytes,
                                        PagedCompletionHandler<List<T>, QueryError> handler) {
         makeAndSendRequest(
+                resource,
                 url,
                 "GET",
-                new EmbeddedPagedArrayResponseHandler<>(resource, coder, clazz, handler));
+                query,
+                new EmbeddedPagedArrayResponseHandler<>(resource, coder, clazz, responseBytes, handler));
     }
 
     /* package */
@@ -145,12 +220,14 @@ public class BdbApiClient {
                            String id,
                            Multimap<String, String> params,
                            Class<T> clazz,
+                           CancellableQuery query,
                            CompletionHandler<T, QueryError> handler) {
         makeAndSendRequest(
                 Arrays.asList(resource, id),
                 params,
                 null,
                 "GET",
+                query,
                 new RootObjectResponseHandler<>(coder, clazz, handler));
     }
 
@@ -160,12 +237,14 @@ public class BdbApiClient {
                      Multimap<String, String> params,
                      Object body,
                      Class<T> clazz,
+                     CancellableQuery query,
                      CompletionHandler<T, QueryError> handler) {
         makeAndSendRequest(
                 Collections.singletonList(resource),
                 params,
                 body,
                 "PUT",
+                query,
                 new RootObjectResponseHandler<>(coder, clazz, handler));
     }
 
@@ -174,12 +253,14 @@ public class BdbApiClient {
                            Multimap<String, String> params,
                            Object json,
                            Class<T> clazz,
+                           CancellableQuery query,
                            CompletionHandler<T, QueryError> handler) {
         makeAndSendRequest(
                 Arrays.asList(resource, id),
                 params,
                 json,
                 "PUT",
+                query,
                 new RootObjectResponseHandler<>(coder, clazz, handler));
     }
 
@@ -189,24 +270,32 @@ public class BdbApiClient {
     void sendDeleteWithId(String resource,
                           String id,
                           Multimap<String, String> params,
+                          CancellableQuery query,
                           CompletionHandler<Void, QueryError> handler) {
         makeAndSendRequest(
                 Arrays.asList(resource, id),
                 params,
                 null,
                 "DELETE",
+                query,
                 new EmptyResponseHandler(handler));
     }
 
-    private <T> void makeAndSendRequest(String fullUrl,
+    private <D> void makeAndSendRequest(String resource,
+                                        String fullUrl,
                                         String httpMethod,
-                                        ResponseHandler handler) {
+                                        CancellableQuery query,
+                                        ResponseHandler<D> handler) {
         HttpUrl url = HttpUrl.parse(fullUrl);
         if (null == url) {
             handler.handleError(new QueryUrlError("Invalid base URL " + fullUrl));
             return;
         }
 
+        // full URLs are only ever the `next` links of paged queries
+        QueryMetricsListener listener = metricsListener;
+        if (null != listener) listener.handlePageFollowed(url.host(), resource);
+
         HttpUrl.Builder urlBuilder = url.newBuilder();
         HttpUrl httpUrl = urlBuilder.build();
         Log.log(Level.FINE, String.format("Request: %s: Method: %s", httpUrl, httpMethod));
@@ -215,15 +304,27 @@ public class BdbApiClient {
         requestBuilder.url(httpUrl);
         requestBuilder.header("Accept", "application/json");
         requestBuilder.method(httpMethod, null);
+        query.tag(requestBuilder);
 
-        sendRequest(requestBuilder.build(), dataTask, handler);
+        sendRequest(requestBuilder.build(), resource, dataTask, query, handler);
     }
 
-    private <T> void makeAndSendRequest(List<String> pathSegments,
+    private <D> void makeAndSendRequest(List<String> pathSegments,
                                         Multimap<String, String> params,
                                         @Nullable Object json,
                                         String httpMethod,
-                                        ResponseHandler handler) {
+                                        CancellableQuery query,
+                                        ResponseHandler<D> handler) {
+        makeAndSendRequest(pathSegments, params, json, httpMethod, dataTask, query, handler);
+    }
+
+    private <D> void makeAndSendRequest(List<String> pathSegments,
+                                        Multimap<String, String> params,
+                                        @Nullable Object json,
+                                        String httpMethod,
+                                        DataTask dataTask,
+                                        CancellableQuery query,
+                                        ResponseHandler<D> handler) {
         RequestBody httpBody;
         if (json == null) {
             httpBody = null;
@@ -260,49 +361,97 @@ public class BdbApiClient {
         requestBuilder.url(httpUrl);
         requestBuilder.header("Accept", "application/json");
         requestBuilder.method(httpMethod, httpBody);
+        query.tag(requestBuilder);
 
-        sendRequest(requestBuilder.build(), dataTask, handler);
+        sendRequest(requestBuilder.build(), pathSegments.get(0), dataTask, query, handler);
     }
 
-    private <T> void sendRequest(Request request, DataTask dataTask, ResponseHandler handler) {
+    private <D> void sendRequest(Request request, String resource, DataTask dataTask, CancellableQuery query, ResponseHandler<D> handler) {
+        // a cancelled query stops here, including the `next` pages of a paged one
+        if (query.isCancelled()) {
+            handler.handleError(new QueryCancelledError());
+            return;
+        }
+
+        long startTime = System.nanoTime();
         dataTask.execute(client, request, new Callback() {
             @Override
             public void onResponse(Call call, Response response) throws IOException {
+                long latency = System.nanoTime() - startTime;
+
                 int responseCode = response.code();
-                if (HttpStatusCodes.responseSuccess(request.method()).contains(responseCode)) {
+                if (query.isCancelled()) {
+                    ResponseBody responseBody = response.body();
+                    if (null != responseBody) responseBody.close();
+                    handleError(new QueryCancelledError());
+
+                } else if (HttpStatusCodes.responseSuccess(request.method()).contains(responseCode)) {
                     try (ResponseBody responseBody = response.body()) {
                         if (responseBody == null) {
                             Log.log(Level.SEVERE, "response failed with null body");
-                            handler.handleError(new QueryNoDataError());
+                            handleError(new QueryNoDataError());
                         } else {
+                            CountingInputStream stream = new CountingInputStream(responseBody.byteStream());
+                            D data;
                             try {
-                                handler.handleResponse(responseBody.string());
+                                long decodeStartTime = System.nanoTime();
+                                data = handler.decode(stream);
+                                handler.handleResponseBytes(stream.getCount());
+                                recordResponse(latency, stream.getCount(), System.nanoTime() - decodeStartTime);
                             } catch (ObjectCoderException e) {
                                 Log.log(Level.SEVERE, "response failed parsing json", e);
-                                handler.handleError(new QueryJsonParseError(e.getMessage()));
+                                handleError(new QueryJsonParseError(e.getMessage()));
+                                return;
                             }
+                            handler.handleData(data);
                         }
                     }
                 } else {
                     Log.log(Level.SEVERE, "response failed with status " + responseCode);
-                    handler.handleError(new QueryResponseError(responseCode));
+                    handleError(new QueryResponseError(responseCode));
                 }
             }
 
             @Override
             public void onFailure(Call call, IOException e) {
+                if (query.isCancelled()) {
+                    handleError(new QueryCancelledError());
+                    return;
+                }
+
                 Log.log(Level.SEVERE, "send request failed", e);
-                handler.handleError(new QuerySubmissionError(e.getMessage()));
+                handleError(new QuerySubmissionError(e.getMessage()));
+            }
+
+            private void recordResponse(long latency, long responseBytes, long decodeTime) {
+                QueryMetricsListener listener = metricsListener;
+                if (null != listener) {
+                    listener.handleResponse(request.url().host(), resource, latency, responseBytes, decodeTime);
+                }
+            }
+
+            private void handleError(QueryError error) {
+                QueryMetricsListener listener = metricsListener;
+                if (null != listener) {
+                    listener.handleError(request.url().host(), resource, System.nanoTime() - startTime, error);
+                }
+                handler.handleError(error);
             }
         });
     }
 
-    private interface ResponseHandler {
-        void handleResponse(String response) throws ObjectCoderException;
+    /**
+     * Decoding is kept apart from delivery so that the time spent in the {@link ObjectCoder}
+     * can be measured on its own.
+     */
+    private interface ResponseHandler<D> {
+        D decode(InputStream responseData) throws ObjectCoderException;
+        default void handleResponseBytes(long responseBytes) {}
+        void handleData(D data);
         void handleError(QueryError error);
     }
 
-    private static class EmptyResponseHandler implements ResponseHandler {
+    private static class EmptyResponseHandler implements ResponseHandler<Void> {
 
         private final CompletionHandler<Void, QueryError> handler;
 
@@ -311,7 +460,12 @@ public class BdbApiClient {
         }
 
         @Override
-        public void handleResponse(String response) {
+        public Void decode(InputStream responseData) {
+            return null;
+        }
+
+        @Override
+        public void handleData(Void data) {
             handler.handleData(null);
         }
 
@@ -321,7 +475,7 @@ public class BdbApiClient {
         }
     }
 
-    private static class RootObjectResponseHandler<T> implements ResponseHandler {
+    private static class RootObjectResponseHandler<T> implements ResponseHandler<T> {
 
         private final ObjectCoder coder;
         private final Class<T> clazz;
@@ -336,9 +490,12 @@ public class BdbApiClient {
         }
 
         @Override
-        public void handleResponse(String responseData) throws ObjectCoderException {
-            T resp = coder.deserializeJson(clazz, responseData);
+        public T decode(InputStream responseData) throws ObjectCoderException {
+            return coder.deserializeJson(clazz, responseData);
+        }
 
+        @Override
+        public void handleData(T resp) {
             if (resp == null) {
                 QueryError e = new QueryModelError("Transform error");
                 Log.log(Level.SEVERE, "parsing error", e);
@@ -355,7 +512,7 @@ public class BdbApiClient {
         }
     }
 
-    private static class EmbeddedArrayResponseHandler<T> implements ResponseHandler {
+    private static class EmbeddedArrayResponseHandler<T> implements ResponseHandler<BdbEmbeddedPage<T>> {
 
         private final String path;
         private final ObjectCoder coder;
@@ -373,19 +530,13 @@ public class BdbApiClient {
         }
 
         @Override
-        public void handleResponse(String responseData) throws ObjectCoderException {
-            BdbEmbeddedResponse resp = coder.deserializeJson(BdbEmbeddedResponse.class, responseData);
-            List<T> data = (resp == null || !resp.containsEmbedded(path)) ?
-                    Collections.emptyList() :
-                    coder.deserializeObjectList(clazz, resp.getEmbedded(path).get());
-            if (data == null) {
-                QueryError e = new QueryModelError("Transform error");
-                Log.log(Level.SEVERE, "parsing error", e);
-                handler.handleError(e);
-                return;
-            }
+        public BdbEmbeddedPage<T> decode(InputStream responseData) throws ObjectCoderException {
+            return BdbEmbeddedPage.decode(coder, path, clazz, responseData);
+        }
 
-            handler.handleData(data);
+        @Override
+        public void handleData(BdbEmbeddedPage<T> page) {
+            handler.handleData(page.getData());
         }
 
         @Override
@@ -394,43 +545,42 @@ public class BdbApiClient {
         }
     }
 
-    private static class EmbeddedPagedArrayResponseHandler<T> implements ResponseHandler {
+    private static class EmbeddedPagedArrayResponseHandler<T> implements ResponseHandler<BdbEmbeddedPage<T>> {
 
         private final String path;
         private final ObjectCoder coder;
         private final Class<T> clazz;
+        private final @Nullable AtomicLong responseBytes;
         private final PagedCompletionHandler<List<T>, QueryError> handler;
 
-
         EmbeddedPagedArrayResponseHandler(String path,
                                           ObjectCoder coder,
                                           Class<T> clazz,
+                                          @Nullable AtomicLong responseBytes,
                                           PagedCompletionHandler<List<T>, QueryError> handler) {
             this.path = path;
             this.coder = coder;
             this.clazz = clazz;
+            this.responseBytes = responseBytes;
             this.handler = handler;
         }
 
         @Override
-        public void handleResponse(String responseData) throws ObjectCoderException {
-            BdbEmbeddedResponse resp = coder.deserializeJson(BdbEmbeddedResponse.class, responseData);
-            List<T> data = (resp == null || !resp.containsEmbedded(path)) ?
-                    Collections.emptyList() :
-                    coder.deserializeObjectList(clazz, resp.getEmbedded(path).get());
-            if (data == null) {
-                QueryError e = new QueryModelError("Transform error");
-                Log.log(Level.SEVERE, "parsing error", e);
-                handler.handleError(e);
-                return;
-            }
-
-            String prevUrl = resp == null ? null : resp.getPreviousUrl().orNull();
-            String nextUrl = resp == null ? null : resp.getNextUrl().orNull();
-            handler.handleData(data, prevUrl, nextUrl);
+        public BdbEmbeddedPage<T> decode(InputStream responseData) throws ObjectCoderException {
+            return BdbEmbeddedPage.decode(coder, path, clazz, responseData);
         }
 
+        @Override
+        public void handleResponseBytes(long count) {
+            if (null != responseBytes) {
+                responseBytes.addAndGet(count);
+            }
+        }
 
+        @Override
+        public void handleData(BdbEmbeddedPage<T> page) {
+            handler.handleData(page.getData(), page.getPreviousUrl().orNull(), page.getNextUrl().orNull());
+        }
 
         @Override
         public void handleError(QueryError error) {
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb.apis.bdb;
+
+import android.support.annotation.Nullable;
+
+import com.breadwallet.crypto.blockchaindb.ObjectCoder;
+import com.breadwallet.crypto.blockchaindb.ObjectCoder.ObjectCoderException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.base.Optional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single page of a BDB embedded array response, decoded directly from the response stream.
+ *
+ * Unlike {@link BdbEmbeddedResponse}, the `_embedded` array is never materialized as a generic
+ * tree; each element is bound to its model as the parser reaches it and `_links` is captured
+ * on the way past.
+ */
+/* package */
+final class BdbEmbeddedPage<T> {
+
+    /* package */
+    static <T> BdbEmbeddedPage<T> decode(ObjectCoder coder,
+                                         String path,
+                                         Class<T> clazz,
+                                         InputStream json) throws ObjectCoderException {
+        try (JsonParser parser = coder.createJsonParser(json)) {
+            List<T> data = null;
+            BdbEmbeddedResponse.Links links = null;
+
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ObjectCoderException(new IOException("Expected an object at the root"));
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+
+                if ("_embedded".equals(field) && token == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String embeddedField = parser.getCurrentName();
+                        JsonToken embeddedToken = parser.nextToken();
+
+                        if (path.equals(embeddedField) && embeddedToken == JsonToken.START_ARRAY) {
+                            data = new ArrayList<>();
+                            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                                data.add(coder.deserializeJson(clazz, parser));
+                            }
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+
+                } else if ("_links".equals(field) && token == JsonToken.START_OBJECT) {
+                    links = coder.deserializeJson(BdbEmbeddedResponse.Links.class, parser);
+
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            return new BdbEmbeddedPage<>(data == null ? Collections.emptyList() : data, links);
+
+        } catch (IOException e) {
+            throw new ObjectCoderException(e);
+        }
+    }
+
+    private final List<T> data;
+    private final @Nullable BdbEmbeddedResponse.Links links;
+
+    private BdbEmbeddedPage(List<T> data, @Nullable BdbEmbeddedResponse.Links links) {
+        this.data = data;
+        this.links = links;
+    }
+
+    /* package */
+    List<T> getData() {
+        return data;
+    }
+
+    /* package */
+    Optional<String> getNextUrl() {
+        if (null != links && null != links.next) {
+            return Optional.fromNullable(links.next.href);
+        }
+
+        return Optional.absent();
+    }
+
+    /* package */
+    Optional<String> getPreviousUrl() {
+        if (null != links && null != links.prev) {
+            return Optional.fromNullable(links.prev.href);
+        }
+
+        return Optional.absent();
+    }
+}
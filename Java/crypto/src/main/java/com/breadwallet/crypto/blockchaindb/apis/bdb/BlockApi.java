@@ -10,9 +10,12 @@ package com.breadwallet.crypto.blockchaindb.apis.bdb;
 import android.support.annotation.Nullable;
 
 import com.breadwallet.crypto.blockchaindb.apis.PagedCompletionHandler;
+import com.breadwallet.crypto.blockchaindb.apis.bdb.HeightRangeSharding.HeightRange;
+import com.breadwallet.crypto.blockchaindb.CancellableQuery;
 import com.breadwallet.crypto.blockchaindb.errors.QueryError;
 import com.breadwallet.crypto.blockchaindb.models.bdb.Block;
 import com.breadwallet.crypto.utility.CompletionHandler;
+import com.breadwallet.crypto.utility.PageHandler;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Multimap;
@@ -27,12 +30,18 @@ public class BlockApi {
     private final BdbApiClient jsonClient;
     private final ExecutorService executorService;
 
+    private volatile HeightRangeSharding sharding = HeightRangeSharding.DISABLED;
+
     public BlockApi(BdbApiClient jsonClient,
                     ExecutorService executorService) {
         this.jsonClient = jsonClient;
         this.executorService = executorService;
     }
 
+    public void setHeightRangeSharding(HeightRangeSharding sharding) {
+        this.sharding = sharding;
+    }
+
     public void getBlocks(String id,
                           UnsignedLong beginBlockNumber,
                           UnsignedLong endBlockNumber,
@@ -41,20 +50,38 @@ public class BlockApi {
                           boolean includeTxRaw,
                           boolean includeTxProof,
                           @Nullable Integer maxPageSize,
+                          CancellableQuery query,
                           CompletionHandler<List<Block>, QueryError> handler) {
-        ImmutableListMultimap.Builder<String, String> paramsBuilder = ImmutableListMultimap.builder();
-        paramsBuilder.put("blockchain_id", id);
-        paramsBuilder.put("include_raw", String.valueOf(includeRaw));
-        paramsBuilder.put("include_tx", String.valueOf(includeTx));
-        paramsBuilder.put("include_tx_raw", String.valueOf(includeTxRaw));
-        paramsBuilder.put("include_tx_proof", String.valueOf(includeTxProof));
-        paramsBuilder.put("start_height", beginBlockNumber.toString());
-        paramsBuilder.put("end_height", endBlockNumber.toString());
-        if (null != maxPageSize) paramsBuilder.put("max_page_size", maxPageSize.toString());
-        ImmutableMultimap<String, String> params = paramsBuilder.build();
+        HeightRangeSharding sharding = this.sharding;
+        List<HeightRange> ranges = sharding.shard(beginBlockNumber, endBlockNumber);
+
+        GetChunkedCoordinator<HeightRange, Block> coordinator = new GetChunkedCoordinator<>(ranges, sharding.getMaxConcurrentChunks(), query, handler);
+        coordinator.start(range -> {
+            ImmutableMultimap<String, String> params = createParams(id, range, includeRaw, includeTx, includeTxRaw, includeTxProof, maxPageSize);
+            PagedCompletionHandler<List<Block>, QueryError> pagedHandler = createPagedResultsHandler(coordinator, range, query);
+            jsonClient.sendGetForArrayWithPaging("blocks", params, Block.class, query, pagedHandler);
+        });
+    }
 
-        PagedCompletionHandler<List<Block>, QueryError> pagedHandler = createPagedResultsHandler(handler);
-        jsonClient.sendGetForArrayWithPaging("blocks", params, Block.class, pagedHandler);
+    public void getBlocks(String id,
+                          UnsignedLong beginBlockNumber,
+                          UnsignedLong endBlockNumber,
+                          boolean includeRaw,
+                          boolean includeTx,
+                          boolean includeTxRaw,
+                          boolean includeTxProof,
+                          @Nullable Integer maxPageSize,
+                          CancellableQuery query,
+                          PageHandler<List<Block>, QueryError> handler) {
+        HeightRangeSharding sharding = this.sharding;
+        List<HeightRange> ranges = sharding.shard(beginBlockNumber, endBlockNumber);
+
+        GetChunkedPageCoordinator<HeightRange, Block> coordinator = new GetChunkedPageCoordinator<>(ranges, sharding.getMaxConcurrentChunks(), query, handler);
+        coordinator.start(range -> {
+            ImmutableMultimap<String, String> params = createParams(id, range, includeRaw, includeTx, includeTxRaw, includeTxProof, maxPageSize);
+            PagedCompletionHandler<List<Block>, QueryError> pagedHandler = createPagedResultsHandler(coordinator, range, query);
+            jsonClient.sendGetForArrayWithPaging("blocks", params, Block.class, query, pagedHandler);
+        });
     }
 
     public void getBlock(String id,
@@ -62,6 +89,7 @@ public class BlockApi {
                          boolean includeTx,
                          boolean includeTxRaw,
                          boolean includeTxProof,
+                         CancellableQuery query,
                          CompletionHandler<Block, QueryError> handler) {
         Multimap<String, String> params = ImmutableListMultimap.of(
                 "include_raw", String.valueOf(includeRaw),
@@ -69,18 +97,39 @@ public class BlockApi {
                 "include_tx_raw", String.valueOf(includeTxRaw),
                 "include_tx_proof", String.valueOf(includeTxProof));
 
-        jsonClient.sendGetWithId("blocks", id, params, Block.class, handler);
+        jsonClient.sendGetWithId("blocks", id, params, Block.class, query, handler);
     }
 
-    private void submitGetNextBlocks(String nextUrl, PagedCompletionHandler<List<Block>, QueryError> handler) {
-        executorService.submit(() -> getNextBlocks(nextUrl, handler));
+    private static ImmutableMultimap<String, String> createParams(String id,
+                                                                  HeightRange range,
+                                                                  boolean includeRaw,
+                                                                  boolean includeTx,
+                                                                  boolean includeTxRaw,
+                                                                  boolean includeTxProof,
+                                                                  @Nullable Integer maxPageSize) {
+        ImmutableListMultimap.Builder<String, String> paramsBuilder = ImmutableListMultimap.builder();
+        paramsBuilder.put("blockchain_id", id);
+        paramsBuilder.put("include_raw", String.valueOf(includeRaw));
+        paramsBuilder.put("include_tx", String.valueOf(includeTx));
+        paramsBuilder.put("include_tx_raw", String.valueOf(includeTxRaw));
+        paramsBuilder.put("include_tx_proof", String.valueOf(includeTxProof));
+        paramsBuilder.put("start_height", range.beginBlockNumber.toString());
+        paramsBuilder.put("end_height", range.endBlockNumber.toString());
+        if (null != maxPageSize) paramsBuilder.put("max_page_size", maxPageSize.toString());
+        return paramsBuilder.build();
     }
 
-    private void getNextBlocks(String nextUrl, PagedCompletionHandler<List<Block>, QueryError> handler) {
-        jsonClient.sendGetForArrayWithPaging("blocks", nextUrl, Block.class, handler);
+    private void submitGetNextBlocks(String nextUrl, CancellableQuery query, PagedCompletionHandler<List<Block>, QueryError> handler) {
+        executorService.submit(() -> getNextBlocks(nextUrl, query, handler));
     }
 
-    private PagedCompletionHandler<List<Block>, QueryError> createPagedResultsHandler(CompletionHandler<List<Block>, QueryError> handler) {
+    private void getNextBlocks(String nextUrl, CancellableQuery query, PagedCompletionHandler<List<Block>, QueryError> handler) {
+        jsonClient.sendGetForArrayWithPaging("blocks", nextUrl, Block.class, query, handler);
+    }
+
+    private PagedCompletionHandler<List<Block>, QueryError> createPagedResultsHandler(GetChunkedCoordinator<HeightRange, Block> coordinator,
+                                                                                      HeightRange range,
+                                                                                      CancellableQuery query) {
         List<Block> allResults = new ArrayList<>();
         return new PagedCompletionHandler<List<Block>, QueryError>() {
             @Override
@@ -88,16 +137,37 @@ public class BlockApi {
                 allResults.addAll(results);
 
                 if (nextUrl != null) {
-                    submitGetNextBlocks(nextUrl, this);
+                    submitGetNextBlocks(nextUrl, query, this);
 
                 } else {
-                    handler.handleData(allResults);
+                    coordinator.handleChunkData(range, allResults);
+                }
+            }
+
+            @Override
+            public void handleError(QueryError error) {
+                coordinator.handleError(error);
+            }
+        };
+    }
+
+    private PagedCompletionHandler<List<Block>, QueryError> createPagedResultsHandler(GetChunkedPageCoordinator<HeightRange, Block> coordinator,
+                                                                                      HeightRange range,
+                                                                                      CancellableQuery query) {
+        return new PagedCompletionHandler<List<Block>, QueryError>() {
+            @Override
+            public void handleData(List<Block> results, String prevUrl, String nextUrl) {
+                // the next page is requested once this one is queued, keeping pages in order
+                coordinator.handleChunkPage(range, results, nextUrl == null ? null : () -> submitGetNextBlocks(nextUrl, query, this));
+
+                if (nextUrl == null) {
+                    coordinator.handleChunkComplete(range);
                 }
             }
 
             @Override
             public void handleError(QueryError error) {
-                handler.handleError(error);
+                coordinator.handleError(error);
             }
         };
     }
@@ -7,6 +7,8 @@
  */
 package com.breadwallet.crypto.blockchaindb.apis.bdb;
 
+import com.breadwallet.crypto.blockchaindb.ResponseCache;
+import com.breadwallet.crypto.blockchaindb.CancellableQuery;
 import com.breadwallet.crypto.blockchaindb.errors.QueryError;
 import com.breadwallet.crypto.blockchaindb.models.bdb.Blockchain;
 import com.breadwallet.crypto.utility.CompletionHandler;
@@ -25,13 +27,15 @@ public class BlockchainApi {
     }
 
     public void getBlockchains(boolean isMainnet,
+                               CancellableQuery query,
                                CompletionHandler<List<Blockchain>, QueryError> handler) {
         Multimap<String, String> params = ImmutableListMultimap.of("testnet", Boolean.valueOf(!isMainnet).toString());
-        jsonClient.sendGetForArray("blockchains", params, Blockchain.class, handler);
+        jsonClient.sendGetForArray("blockchains", params, Blockchain.class, ResponseCache.Endpoint.BLOCKCHAINS, query, handler);
     }
 
     public void getBlockchain(String id,
+                              CancellableQuery query,
                               CompletionHandler<Blockchain, QueryError> handler) {
-        jsonClient.sendGetWithId("blockchains", id, ImmutableMultimap.of(), Blockchain.class, handler);
+        jsonClient.sendGetWithId("blockchains", id, ImmutableMultimap.of(), Blockchain.class, query, handler);
     }
 }
@@ -9,6 +9,8 @@ package com.breadwallet.crypto.blockchaindb.apis.bdb;
 
 import android.support.annotation.Nullable;
 
+import com.breadwallet.crypto.blockchaindb.ResponseCache;
+import com.breadwallet.crypto.blockchaindb.CancellableQuery;
 import com.breadwallet.crypto.blockchaindb.errors.QueryError;
 import com.breadwallet.crypto.blockchaindb.models.bdb.Currency;
 import com.breadwallet.crypto.utility.CompletionHandler;
@@ -26,20 +28,23 @@ public class CurrencyApi {
         this.jsonClient = jsonClient;
     }
 
-    public void getCurrencies(CompletionHandler<List<Currency>, QueryError> handler) {
-        getCurrencies(null, handler);
+    public void getCurrencies(CancellableQuery query,
+                              CompletionHandler<List<Currency>, QueryError> handler) {
+        getCurrencies(null, query, handler);
     }
 
     public void getCurrencies(@Nullable String id,
+                              CancellableQuery query,
                               CompletionHandler<List<Currency>, QueryError> handler) {
         Multimap<String, String> params = id == null ? ImmutableMultimap.of() : ImmutableListMultimap.of(
                 "blockchain_id", id);
-        jsonClient.sendGetForArray("currencies", params, Currency.class, handler);
+        jsonClient.sendGetForArray("currencies", params, Currency.class, ResponseCache.Endpoint.CURRENCIES, query, handler);
     }
 
     public void getCurrency(String id,
+                            CancellableQuery query,
                             CompletionHandler<Currency, QueryError> handler) {
-        jsonClient.sendGetWithId("currencies", id, ImmutableMultimap.of(), Currency.class, handler);
+        jsonClient.sendGetWithId("currencies", id, ImmutableMultimap.of(), Currency.class, query, handler);
     }
 
 }
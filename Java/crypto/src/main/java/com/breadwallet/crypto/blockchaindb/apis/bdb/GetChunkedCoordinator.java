@@ -8,43 +8,100 @@
 package com.breadwallet.crypto.blockchaindb.apis.bdb;
 
 import com.breadwallet.crypto.blockchaindb.errors.QueryError;
+import com.breadwallet.crypto.utility.Cancellable;
 import com.breadwallet.crypto.utility.CompletionHandler;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 
 /* package */
 class GetChunkedCoordinator<ChunkType, ResultType> {
 
-    private final List<List<ChunkType>> chunks;
-    private final List<ResultType> transactions;
+    /* package */
+    interface ChunkFetcher<ChunkType> {
+        void fetch(ChunkType chunk);
+    }
+
+    private final List<ChunkType> chunks;
+    private final Map<ChunkType, List<ResultType>> results;
+    private final Deque<ChunkType> pending;
+    private final int maxConcurrentChunks;
+    private final Cancellable query;
     private final CompletionHandler<List<ResultType>, QueryError> handler;
 
+    private ChunkFetcher<ChunkType> fetcher;
     private QueryError error;
 
+    /**
+     * On the first error `query`, shared by the requests of every chunk, is cancelled so that
+     * the other chunks stop fetching results that would be discarded.
+     */
     /* package */
-    GetChunkedCoordinator(List<List<ChunkType>> chunks, CompletionHandler<List<ResultType>, QueryError> handler) {
+    GetChunkedCoordinator(List<ChunkType> chunks,
+                          int maxConcurrentChunks,
+                          Cancellable query,
+                          CompletionHandler<List<ResultType>, QueryError> handler) {
+        checkArgument(maxConcurrentChunks > 0);
         this.chunks = new ArrayList<>(chunks);
-        this.transactions = new ArrayList<>();
+        this.results = new HashMap<>();
+        this.pending = new ArrayDeque<>(chunks);
+        this.maxConcurrentChunks = maxConcurrentChunks;
+        this.query = query;
         this.handler = handler;
     }
 
     /* package */
-    void handleChunkData(List<ChunkType> chunk, List<ResultType> data) {
+    void start(ChunkFetcher<ChunkType> fetcher) {
+        List<ChunkType> launched = new ArrayList<>();
+        boolean transitionToSuccess;
+
+        synchronized (this) {
+            checkState(null == this.fetcher);
+            this.fetcher = fetcher;
+
+            while (!pending.isEmpty() && launched.size() < maxConcurrentChunks) {
+                launched.add(pending.poll());
+            }
+
+            transitionToSuccess = isInSuccessState();
+        }
+
+        if (transitionToSuccess) {
+            handleSuccess();
+            return;
+        }
+
+        for (ChunkType chunk : launched) {
+            fetcher.fetch(chunk);
+        }
+    }
+
+    /* package */
+    void handleChunkData(ChunkType chunk, List<ResultType> data) {
         boolean transitionToSuccess = false;
+        ChunkType next = null;
 
         synchronized (this) {
             checkState(!isInSuccessState());
 
             if (!isInErrorState()) {
-                chunks.remove(chunk);
-                transactions.addAll(data);
+                results.put(chunk, data);
                 transitionToSuccess = isInSuccessState();
+                next = pending.poll();
             }
         }
 
+        if (next != null) {
+            fetcher.fetch(next);
+        }
+
         if (transitionToSuccess) {
             handleSuccess();
         }
@@ -59,11 +116,13 @@ class GetChunkedCoordinator<ChunkType, ResultType> {
 
             if (!isInErrorState()) {
                 this.error = error;
+                this.pending.clear();
                 transitionToError = isInErrorState();
             }
         }
 
         if (transitionToError) {
+            query.cancel();
             handleFailure();
         }
     }
@@ -73,11 +132,16 @@ class GetChunkedCoordinator<ChunkType, ResultType> {
     }
 
     private boolean isInSuccessState() {
-        return chunks.isEmpty();
+        return results.size() == chunks.size();
     }
 
     private void handleSuccess() {
-        handler.handleData(transactions);
+        // merge in chunk order, regardless of the order in which the chunks completed
+        List<ResultType> merged = new ArrayList<>();
+        for (ChunkType chunk : chunks) {
+            merged.addAll(results.get(chunk));
+        }
+        handler.handleData(merged);
     }
 
     private void handleFailure() {
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb.apis.bdb;
+
+import android.support.annotation.Nullable;
+
+import com.breadwallet.crypto.blockchaindb.apis.bdb.GetChunkedCoordinator.ChunkFetcher;
+import com.breadwallet.crypto.blockchaindb.errors.QueryError;
+import com.breadwallet.crypto.utility.Cancellable;
+import com.breadwallet.crypto.utility.PageHandler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Streaming counterpart of {@link GetChunkedCoordinator}; pages are forwarded as soon as they
+ * arrive instead of being buffered until every chunk has completed.
+ *
+ * Pages of different chunks may interleave. Pages are queued under the lock and handed to the
+ * handler outside of it by one thread at a time, so a slow handler never blocks the threads
+ * fetching other chunks. As with {@link GetChunkedCoordinator}, `query` is cancelled on the first
+ * error.
+ */
+/* package */
+class GetChunkedPageCoordinator<ChunkType, ResultType> {
+
+    private final Set<ChunkType> incomplete;
+    private final Deque<ChunkType> pending;
+    private final int maxConcurrentChunks;
+    private final Cancellable query;
+    private final PageHandler<List<ResultType>, QueryError> handler;
+    private final Deque<Runnable> deliveries;
+
+    private ChunkFetcher<ChunkType> fetcher;
+    private boolean done;
+    private boolean delivering;
+
+    /* package */
+    GetChunkedPageCoordinator(List<ChunkType> chunks,
+                              int maxConcurrentChunks,
+                              Cancellable query,
+                              PageHandler<List<ResultType>, QueryError> handler) {
+        checkArgument(maxConcurrentChunks > 0);
+        this.incomplete = new HashSet<>(chunks);
+        this.pending = new ArrayDeque<>(chunks);
+        this.maxConcurrentChunks = maxConcurrentChunks;
+        this.query = query;
+        this.handler = handler;
+        this.deliveries = new ArrayDeque<>();
+    }
+
+    /* package */
+    void start(ChunkFetcher<ChunkType> fetcher) {
+        List<ChunkType> launched = new ArrayList<>();
+        boolean deliver = false;
+
+        synchronized (this) {
+            checkState(null == this.fetcher);
+            this.fetcher = fetcher;
+
+            if (incomplete.isEmpty()) {
+                done = true;
+                deliver = enqueue(handler::handleComplete);
+            }
+
+            while (!pending.isEmpty() && launched.size() < maxConcurrentChunks) {
+                launched.add(pending.poll());
+            }
+        }
+
+        if (deliver) {
+            deliver();
+        }
+
+        for (ChunkType chunk : launched) {
+            fetcher.fetch(chunk);
+        }
+    }
+
+    /**
+     * Queue a page of `chunk` for delivery. `fetchNext`, if any, is run once the page is queued
+     * and before it is delivered, so the chunk's next page is requested without waiting on the
+     * handler and without a page having to wait for its predecessor.
+     */
+    /* package */
+    void handleChunkPage(ChunkType chunk, List<ResultType> data, @Nullable Runnable fetchNext) {
+        boolean deliver;
+
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+
+            checkState(incomplete.contains(chunk));
+            deliver = enqueue(() -> handler.handlePage(data));
+        }
+
+        if (fetchNext != null) {
+            fetchNext.run();
+        }
+
+        if (deliver) {
+            deliver();
+        }
+    }
+
+    /* package */
+    void handleChunkComplete(ChunkType chunk) {
+        ChunkType next = null;
+        boolean deliver = false;
+
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+
+            checkState(incomplete.remove(chunk));
+            if (incomplete.isEmpty()) {
+                done = true;
+                deliver = enqueue(handler::handleComplete);
+            } else {
+                next = pending.poll();
+            }
+        }
+
+        if (deliver) {
+            deliver();
+        }
+
+        if (next != null) {
+            fetcher.fetch(next);
+        }
+    }
+
+    /* package */
+    void handleError(QueryError error) {
+        boolean deliver;
+
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+
+            done = true;
+            pending.clear();
+            deliver = enqueue(() -> handler.handleError(error));
+        }
+
+        // stop the other chunks
+        query.cancel();
+
+        if (deliver) {
+            deliver();
+        }
+    }
+
+    /**
+     * Queue a call to the handler; returns true if the caller has become the deliverer and must
+     * call {@link #deliver()} once it has released the lock.
+     */
+    private boolean enqueue(Runnable delivery) {
+        deliveries.add(delivery);
+        if (delivering) {
+            return false;
+        }
+
+        delivering = true;
+        return true;
+    }
+
+    private void deliver() {
+        boolean drained = false;
+        try {
+            while (true) {
+                Runnable delivery;
+                synchronized (this) {
+                    delivery = deliveries.poll();
+                    if (delivery == null) {
+                        delivering = false;
+                        drained = true;
+                        return;
+                    }
+                }
+
+                delivery.run();
+            }
+        } finally {
+            if (!drained) {
+                synchronized (this) {
+                    delivering = false;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb.apis.bdb;
+
+import android.support.annotation.Nullable;
+
+import com.google.common.primitives.UnsignedLong;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Splits a `[start_height, end_height)` query into contiguous sub-ranges that are fetched
+ * concurrently and merged back in block order.
+ */
+public final class HeightRangeSharding {
+
+    public static final HeightRangeSharding DISABLED = new HeightRangeSharding(0, 0);
+
+    public static HeightRangeSharding create(int maxParallelism, long minBlocksPerShard) {
+        checkArgument(maxParallelism > 0);
+        checkArgument(minBlocksPerShard > 0);
+        return new HeightRangeSharding(maxParallelism, minBlocksPerShard);
+    }
+
+    private final int maxParallelism;
+    private final long minBlocksPerShard;
+
+    private HeightRangeSharding(int maxParallelism, long minBlocksPerShard) {
+        this.maxParallelism = maxParallelism;
+        this.minBlocksPerShard = minBlocksPerShard;
+    }
+
+    public boolean isEnabled() {
+        return maxParallelism > 0;
+    }
+
+    public int getMaxParallelism() {
+        return maxParallelism;
+    }
+
+    public long getMinBlocksPerShard() {
+        return minBlocksPerShard;
+    }
+
+    /* package */
+    int getMaxConcurrentChunks() {
+        return isEnabled() ? maxParallelism : Integer.MAX_VALUE;
+    }
+
+    /* package */
+    List<HeightRange> shard(@Nullable UnsignedLong beginBlockNumber, @Nullable UnsignedLong endBlockNumber) {
+        HeightRange whole = new HeightRange(beginBlockNumber, endBlockNumber);
+        if (!isEnabled() || null == beginBlockNumber || null == endBlockNumber || beginBlockNumber.compareTo(endBlockNumber) >= 0) {
+            return Collections.singletonList(whole);
+        }
+
+        UnsignedLong span = endBlockNumber.minus(beginBlockNumber);
+        UnsignedLong minShard = UnsignedLong.fromLongBits(minBlocksPerShard);
+        UnsignedLong count = span.dividedBy(minShard);
+        if (count.compareTo(UnsignedLong.valueOf(maxParallelism)) > 0) count = UnsignedLong.valueOf(maxParallelism);
+        if (count.compareTo(UnsignedLong.ONE) <= 0) {
+            return Collections.singletonList(whole);
+        }
+
+        // spread the remainder over the leading shards so that sizes differ by at most one block
+        UnsignedLong size = span.dividedBy(count);
+        long remainder = span.mod(count).longValue();
+
+        List<HeightRange> ranges = new ArrayList<>();
+        UnsignedLong start = beginBlockNumber;
+        for (long i = 0; i < count.longValue(); i++) {
+            UnsignedLong end = start.plus(size).plus(i < remainder ? UnsignedLong.ONE : UnsignedLong.ZERO);
+            ranges.add(new HeightRange(start, end));
+            start = end;
+        }
+        return ranges;
+    }
+
+    /* package */
+    static final class HeightRange {
+
+        final @Nullable UnsignedLong beginBlockNumber;
+        final @Nullable UnsignedLong endBlockNumber;
+
+        HeightRange(@Nullable UnsignedLong beginBlockNumber, @Nullable UnsignedLong endBlockNumber) {
+            this.beginBlockNumber = beginBlockNumber;
+            this.endBlockNumber = endBlockNumber;
+        }
+    }
+}
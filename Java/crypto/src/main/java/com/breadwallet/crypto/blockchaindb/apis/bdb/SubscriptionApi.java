@@ -7,6 +7,7 @@
  */
 package com.breadwallet.crypto.blockchaindb.apis.bdb;
 
+import com.breadwallet.crypto.blockchaindb.CancellableQuery;
 import com.breadwallet.crypto.blockchaindb.errors.QueryError;
 import com.breadwallet.crypto.blockchaindb.models.bdb.NewSubscription;
 import com.breadwallet.crypto.blockchaindb.models.bdb.Subscription;
@@ -26,8 +27,9 @@ public class SubscriptionApi {
     }
 
     public void getOrCreateSubscription(Subscription subscription,
+                                        CancellableQuery query,
                                         CompletionHandler<Subscription, QueryError> handler) {
-        getSubscription(subscription.getId(), new CompletionHandler<Subscription, QueryError>() {
+        getSubscription(subscription.getId(), query, new CompletionHandler<Subscription, QueryError>() {
             @Override
             public void handleData(Subscription data) {
                 handler.handleData(data);
@@ -35,7 +37,7 @@ public class SubscriptionApi {
 
             @Override
             public void handleError(QueryError error) {
-                createSubscription(subscription.getDevice(), subscription.getEndpoint(), subscription.getCurrencies(), handler);
+                createSubscription(subscription.getDevice(), subscription.getEndpoint(), subscription.getCurrencies(), query, handler);
             }
         });
     }
@@ -43,28 +45,33 @@ public class SubscriptionApi {
     public void createSubscription(String deviceId,
                                    SubscriptionEndpoint endpoint,
                                    List<SubscriptionCurrency> currencies,
+                                   CancellableQuery query,
                                    CompletionHandler<Subscription, QueryError> handler) {
         jsonClient.sendPost("subscriptions", ImmutableMultimap.of(), NewSubscription.create(deviceId, endpoint, currencies),
-                Subscription.class, handler);
+                Subscription.class, query, handler);
     }
 
     public void getSubscription(String id,
+                                CancellableQuery query,
                                 CompletionHandler<Subscription, QueryError> handler) {
-        jsonClient.sendGetWithId("subscriptions", id, ImmutableMultimap.of(), Subscription.class, handler);
+        jsonClient.sendGetWithId("subscriptions", id, ImmutableMultimap.of(), Subscription.class, query, handler);
     }
 
-    public void getSubscriptions(CompletionHandler<List<Subscription>, QueryError> handler) {
-        jsonClient.sendGetForArray("subscriptions", ImmutableMultimap.of(), Subscription.class, handler);
+    public void getSubscriptions(CancellableQuery query,
+                                 CompletionHandler<List<Subscription>, QueryError> handler) {
+        jsonClient.sendGetForArray("subscriptions", ImmutableMultimap.of(), Subscription.class, query, handler);
     }
 
     public void updateSubscription(Subscription subscription,
+                                   CancellableQuery query,
                                    CompletionHandler<Subscription, QueryError> handler) {
         jsonClient.sendPutWithId("subscriptions", subscription.getId(), ImmutableMultimap.of(),
-                subscription, Subscription.class, handler);
+                subscription, Subscription.class, query, handler);
     }
 
     public void deleteSubscription(String id,
+                                   CancellableQuery query,
                                    CompletionHandler<Void, QueryError> handler) {
-        jsonClient.sendDeleteWithId("subscriptions", id, ImmutableMultimap.of(), handler);
+        jsonClient.sendDeleteWithId("subscriptions", id, ImmutableMultimap.of(), query, handler);
     }
 }
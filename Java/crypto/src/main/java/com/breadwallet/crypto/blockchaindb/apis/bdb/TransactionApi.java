@@ -10,13 +10,15 @@ package com.breadwallet.crypto.blockchaindb.apis.bdb;
 import android.support.annotation.Nullable;
 
 import com.breadwallet.crypto.blockchaindb.apis.PagedCompletionHandler;
+import com.breadwallet.crypto.blockchaindb.apis.bdb.HeightRangeSharding.HeightRange;
+import com.breadwallet.crypto.blockchaindb.CancellableQuery;
 import com.breadwallet.crypto.blockchaindb.errors.QueryError;
 import com.breadwallet.crypto.blockchaindb.models.bdb.Transaction;
 import com.breadwallet.crypto.utility.CompletionHandler;
+import com.breadwallet.crypto.utility.PageHandler;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.io.BaseEncoding;
 import com.google.common.primitives.UnsignedLong;
@@ -25,20 +27,43 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 
 public class TransactionApi {
 
-    private static final int ADDRESS_COUNT = 50;
+    private static final int DEFAULT_MAX_CONCURRENT_CHUNKS = 4;
 
     private final BdbApiClient jsonClient;
     private final ExecutorService executorService;
+    private final AddressChunker chunker;
+
+    private volatile HeightRangeSharding sharding = HeightRangeSharding.DISABLED;
+    // zero until set; see getMaxConcurrentChunks()
+    private volatile int maxConcurrentChunks = 0;
 
     public TransactionApi(BdbApiClient jsonClient,
                           ExecutorService executorService) {
         this.jsonClient = jsonClient;
         this.executorService = executorService;
+        this.chunker = new AddressChunker();
+    }
+
+    public void setHeightRangeSharding(HeightRangeSharding sharding) {
+        this.sharding = sharding;
+    }
+
+    /**
+     * Cap the chunks of one query in flight at once. With height range sharding enabled the
+     * cap applies to the chunks of all shards together, and the lower of it and the sharding's
+     * parallelism wins; when not set, the sharding's parallelism is used, or
+     * {@link #DEFAULT_MAX_CONCURRENT_CHUNKS} without sharding.
+     */
+    public void setMaxConcurrentChunks(int maxConcurrentChunks) {
+        checkArgument(maxConcurrentChunks > 0);
+        this.maxConcurrentChunks = maxConcurrentChunks;
     }
 
     public void getTransactions(String id,
@@ -48,64 +73,153 @@ public class TransactionApi {
                                 boolean includeRaw,
                                 boolean includeProof,
                                 @Nullable Integer maxPageSize,
+                                CancellableQuery query,
                                 CompletionHandler<List<Transaction>, QueryError> handler) {
-        List<List<String>> chunkedAddressesList = Lists.partition(addresses, ADDRESS_COUNT);
-        GetChunkedCoordinator<String, Transaction> coordinator = new GetChunkedCoordinator<>(chunkedAddressesList, handler);
-
-        for (int i = 0; i < chunkedAddressesList.size(); i++) {
-            List<String> chunkedAddresses = chunkedAddressesList.get(i);
-
-            ImmutableListMultimap.Builder<String, String> paramsBuilder = ImmutableListMultimap.builder();
-            paramsBuilder.put("blockchain_id", id);
-            paramsBuilder.put("include_proof", String.valueOf(includeProof));
-            paramsBuilder.put("include_raw", String.valueOf(includeRaw));
-            if (beginBlockNumber != null) paramsBuilder.put("start_height", beginBlockNumber.toString());
-            if (endBlockNumber != null) paramsBuilder.put("end_height", endBlockNumber.toString());
-            if (maxPageSize != null) paramsBuilder.put("max_page_size", maxPageSize.toString());
-            for (String address : chunkedAddresses) paramsBuilder.put("address", address);
-            ImmutableMultimap<String, String> params = paramsBuilder.build();
-
-            PagedCompletionHandler<List<Transaction>, QueryError> pagedHandler = createPagedResultsHandler(coordinator, chunkedAddresses);
-            jsonClient.sendGetForArrayWithPaging("transactions", params, Transaction.class, pagedHandler);
-        }
+        HeightRangeSharding sharding = this.sharding;
+        int maxConcurrentChunks = getMaxConcurrentChunks(sharding);
+        List<Chunk> chunks = createChunks(sharding, maxConcurrentChunks, addresses, beginBlockNumber, endBlockNumber);
+
+        GetChunkedCoordinator<Chunk, Transaction> coordinator = new GetChunkedCoordinator<>(chunks, maxConcurrentChunks, query, handler);
+        coordinator.start(chunk -> {
+            chunk.startTime = System.nanoTime();
+            ImmutableMultimap<String, String> params = createParams(id, chunk, includeRaw, includeProof, maxPageSize);
+            PagedCompletionHandler<List<Transaction>, QueryError> pagedHandler = createPagedResultsHandler(coordinator, chunk, query);
+            jsonClient.sendGetForArrayWithPaging("transactions", params, Transaction.class, query, chunk.responseBytes, pagedHandler);
+        });
+    }
+
+    public void getTransactions(String id,
+                                List<String> addresses,
+                                @Nullable UnsignedLong beginBlockNumber,
+                                @Nullable UnsignedLong endBlockNumber,
+                                boolean includeRaw,
+                                boolean includeProof,
+                                @Nullable Integer maxPageSize,
+                                CancellableQuery query,
+                                PageHandler<List<Transaction>, QueryError> handler) {
+        HeightRangeSharding sharding = this.sharding;
+        int maxConcurrentChunks = getMaxConcurrentChunks(sharding);
+        List<Chunk> chunks = createChunks(sharding, maxConcurrentChunks, addresses, beginBlockNumber, endBlockNumber);
+
+        GetChunkedPageCoordinator<Chunk, Transaction> coordinator = new GetChunkedPageCoordinator<>(chunks, maxConcurrentChunks, query, handler);
+        coordinator.start(chunk -> {
+            chunk.startTime = System.nanoTime();
+            ImmutableMultimap<String, String> params = createParams(id, chunk, includeRaw, includeProof, maxPageSize);
+            PagedCompletionHandler<List<Transaction>, QueryError> pagedHandler = createPagedResultsHandler(coordinator, chunk, query);
+            jsonClient.sendGetForArrayWithPaging("transactions", params, Transaction.class, query, chunk.responseBytes, pagedHandler);
+        });
     }
 
     public void getTransaction(String id,
                                boolean includeRaw,
                                boolean includeProof,
+                               CancellableQuery query,
                                CompletionHandler<Transaction, QueryError> handler) {
         Multimap<String, String> params = ImmutableListMultimap.of(
                 "include_proof", String.valueOf(includeProof),
                 "include_raw", String.valueOf(includeRaw));
 
-        jsonClient.sendGetWithId("transactions", id, params, Transaction.class, handler);
+        jsonClient.sendGetWithId("transactions", id, params, Transaction.class, query, handler);
     }
 
     public void createTransaction(String id,
                                   String hashAsHex,
                                   byte[] tx,
+                                  CancellableQuery query,
                                   CompletionHandler<Void, QueryError> handler) {
         Map json = ImmutableMap.of(
                 "blockchain_id", id,
                 "transaction_id", hashAsHex,
                 "data", BaseEncoding.base64().encode(tx));
 
-        jsonClient.sendPost("transactions", ImmutableMultimap.of(), json, handler);
+        jsonClient.sendPost("transactions", ImmutableMultimap.of(), json, query, handler);
+    }
+
+    private int getMaxConcurrentChunks(HeightRangeSharding sharding) {
+        int maxConcurrentChunks = this.maxConcurrentChunks;
+        if (0 == maxConcurrentChunks) {
+            return sharding.isEnabled() ? sharding.getMaxParallelism() : DEFAULT_MAX_CONCURRENT_CHUNKS;
+        }
+        return Math.min(maxConcurrentChunks, sharding.getMaxConcurrentChunks());
+    }
+
+    private List<Chunk> createChunks(HeightRangeSharding sharding,
+                                     int maxConcurrentChunks,
+                                     List<String> addresses,
+                                     @Nullable UnsignedLong beginBlockNumber,
+                                     @Nullable UnsignedLong endBlockNumber) {
+        List<HeightRange> ranges = sharding.shard(beginBlockNumber, endBlockNumber);
+        List<List<String>> chunkedAddressesList = chunker.partition(addresses, Math.max(1, maxConcurrentChunks / ranges.size()));
+
+        // range-major so that the coordinator merges the results in block order
+        List<Chunk> chunks = new ArrayList<>();
+        for (HeightRange range : ranges) {
+            for (List<String> chunkedAddresses : chunkedAddressesList) {
+                chunks.add(new Chunk(chunkedAddresses, range));
+            }
+        }
+        return chunks;
+    }
+
+    private static ImmutableMultimap<String, String> createParams(String id,
+                                                                  Chunk chunk,
+                                                                  boolean includeRaw,
+                                                                  boolean includeProof,
+                                                                  @Nullable Integer maxPageSize) {
+        ImmutableListMultimap.Builder<String, String> paramsBuilder = ImmutableListMultimap.builder();
+        paramsBuilder.put("blockchain_id", id);
+        paramsBuilder.put("include_proof", String.valueOf(includeProof));
+        paramsBuilder.put("include_raw", String.valueOf(includeRaw));
+        if (chunk.range.beginBlockNumber != null) paramsBuilder.put("start_height", chunk.range.beginBlockNumber.toString());
+        if (chunk.range.endBlockNumber != null) paramsBuilder.put("end_height", chunk.range.endBlockNumber.toString());
+        if (maxPageSize != null) paramsBuilder.put("max_page_size", maxPageSize.toString());
+        for (String address : chunk.addresses) paramsBuilder.put("address", address);
+        return paramsBuilder.build();
     }
 
-    private PagedCompletionHandler<List<Transaction>, QueryError> createPagedResultsHandler(GetChunkedCoordinator<String, Transaction> coordinator,
-                                                                                            List<String> chunkedAddresses) {
+    private PagedCompletionHandler<List<Transaction>, QueryError> createPagedResultsHandler(GetChunkedCoordinator<Chunk, Transaction> coordinator,
+                                                                                            Chunk chunk,
+                                                                                            CancellableQuery query) {
         List<Transaction> allResults = new ArrayList<>();
         return new PagedCompletionHandler<List<Transaction>, QueryError>() {
             @Override
             public void handleData(List<Transaction> results, String prevUrl, String nextUrl) {
+                if (nextUrl == null) {
+                    recordChunkCost(chunk);
+                }
+
                 allResults.addAll(results);
 
                 if (nextUrl != null) {
-                    submitGetNextTransactions(nextUrl, this);
+                    submitGetNextTransactions(nextUrl, query, chunk, this);
 
                 } else {
-                    coordinator.handleChunkData(chunkedAddresses, allResults);
+                    coordinator.handleChunkData(chunk, allResults);
+                }
+            }
+
+            @Override
+            public void handleError(QueryError error) {
+                coordinator.handleError(error);
+            }
+        };
+    }
+
+    private PagedCompletionHandler<List<Transaction>, QueryError> createPagedResultsHandler(GetChunkedPageCoordinator<Chunk, Transaction> coordinator,
+                                                                                            Chunk chunk,
+                                                                                            CancellableQuery query) {
+        return new PagedCompletionHandler<List<Transaction>, QueryError>() {
+            @Override
+            public void handleData(List<Transaction> results, String prevUrl, String nextUrl) {
+                if (nextUrl == null) {
+                    recordChunkCost(chunk);
+                }
+
+                // the next page is requested once this one is queued, keeping pages in order
+                coordinator.handleChunkPage(chunk, results, nextUrl == null ? null : () -> submitGetNextTransactions(nextUrl, query, chunk, this));
+
+                if (nextUrl == null) {
+                    coordinator.handleChunkComplete(chunk);
                 }
             }
 
@@ -116,13 +230,39 @@ public class TransactionApi {
         };
     }
 
+    /**
+     * Record the cost of `chunk` once its last page has been read and decoded, and before any of
+     * its results are handed on, so that a slow consumer does not shrink later chunks.
+     */
+    private void recordChunkCost(Chunk chunk) {
+        chunker.record(chunk.addresses.size(), System.nanoTime() - chunk.startTime, chunk.responseBytes.get());
+    }
+
     private void submitGetNextTransactions(String nextUrl,
+                                           CancellableQuery query,
+                                           Chunk chunk,
                                            PagedCompletionHandler<List<Transaction>, QueryError> handler) {
-        executorService.submit(() -> getNextTransactions(nextUrl, handler));
+        executorService.submit(() -> getNextTransactions(nextUrl, query, chunk, handler));
     }
 
     private void getNextTransactions(String nextUrl,
+                                     CancellableQuery query,
+                                     Chunk chunk,
                                      PagedCompletionHandler<List<Transaction>, QueryError> handler) {
-        jsonClient.sendGetForArrayWithPaging("transactions", nextUrl, Transaction.class, handler);
+        jsonClient.sendGetForArrayWithPaging("transactions", nextUrl, Transaction.class, query, chunk.responseBytes, handler);
+    }
+
+    private static final class Chunk {
+
+        final List<String> addresses;
+        final HeightRange range;
+        final AtomicLong responseBytes = new AtomicLong();
+
+        volatile long startTime;
+
+        Chunk(List<String> addresses, HeightRange range) {
+            this.addresses = addresses;
+            this.range = range;
+        }
     }
 }
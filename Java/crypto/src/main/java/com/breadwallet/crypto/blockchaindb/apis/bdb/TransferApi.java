@@ -10,9 +10,12 @@ package com.breadwallet.crypto.blockchaindb.apis.bdb;
 import android.support.annotation.Nullable;
 
 import com.breadwallet.crypto.blockchaindb.apis.PagedCompletionHandler;
+import com.breadwallet.crypto.blockchaindb.apis.bdb.HeightRangeSharding.HeightRange;
+import com.breadwallet.crypto.blockchaindb.CancellableQuery;
 import com.breadwallet.crypto.blockchaindb.errors.QueryError;
 import com.breadwallet.crypto.blockchaindb.models.bdb.Transfer;
 import com.breadwallet.crypto.utility.CompletionHandler;
+import com.breadwallet.crypto.utility.PageHandler;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Lists;
@@ -31,54 +34,103 @@ public class TransferApi {
     private final BdbApiClient jsonClient;
     private final ExecutorService executorService;
 
+    private volatile HeightRangeSharding sharding = HeightRangeSharding.DISABLED;
+
     public TransferApi(BdbApiClient jsonClient,
                        ExecutorService executorService) {
         this.jsonClient = jsonClient;
         this.executorService = executorService;
     }
 
+    public void setHeightRangeSharding(HeightRangeSharding sharding) {
+        this.sharding = sharding;
+    }
+
     public void getTransfers(String id,
                              List<String> addresses,
                              UnsignedLong beginBlockNumber,
                              UnsignedLong endBlockNumber,
                              @Nullable Integer maxPageSize,
+                             CancellableQuery query,
                              CompletionHandler<List<Transfer>, QueryError> handler) {
-        List<List<String>> chunkedAddressesList = Lists.partition(addresses, ADDRESS_COUNT);
-        GetChunkedCoordinator<String, Transfer> coordinator = new GetChunkedCoordinator<>(chunkedAddressesList, handler);
+        HeightRangeSharding sharding = this.sharding;
+        List<Chunk> chunks = createChunks(sharding, addresses, beginBlockNumber, endBlockNumber);
+
+        GetChunkedCoordinator<Chunk, Transfer> coordinator = new GetChunkedCoordinator<>(chunks, sharding.getMaxConcurrentChunks(), query, handler);
+        coordinator.start(chunk -> {
+            ImmutableMultimap<String, String> params = createParams(id, chunk, maxPageSize);
+            PagedCompletionHandler<List<Transfer>, QueryError> pagedHandler = createPagedResultsHandler(coordinator, chunk, query);
+            jsonClient.sendGetForArrayWithPaging("transfers", params, Transfer.class, query, pagedHandler);
+        });
+    }
 
-        for (int i = 0; i < chunkedAddressesList.size(); i++) {
-            List<String> chunkedAddresses = chunkedAddressesList.get(i);
+    public void getTransfers(String id,
+                             List<String> addresses,
+                             UnsignedLong beginBlockNumber,
+                             UnsignedLong endBlockNumber,
+                             @Nullable Integer maxPageSize,
+                             CancellableQuery query,
+                             PageHandler<List<Transfer>, QueryError> handler) {
+        HeightRangeSharding sharding = this.sharding;
+        List<Chunk> chunks = createChunks(sharding, addresses, beginBlockNumber, endBlockNumber);
+
+        GetChunkedPageCoordinator<Chunk, Transfer> coordinator = new GetChunkedPageCoordinator<>(chunks, sharding.getMaxConcurrentChunks(), query, handler);
+        coordinator.start(chunk -> {
+            ImmutableMultimap<String, String> params = createParams(id, chunk, maxPageSize);
+            PagedCompletionHandler<List<Transfer>, QueryError> pagedHandler = createPagedResultsHandler(coordinator, chunk, query);
+            jsonClient.sendGetForArrayWithPaging("transfers", params, Transfer.class, query, pagedHandler);
+        });
+    }
 
-            ImmutableListMultimap.Builder<String, String> paramsBuilder = ImmutableListMultimap.builder();
-            paramsBuilder.put("blockchain_id", id);
-            paramsBuilder.put("start_height", beginBlockNumber.toString());
-            paramsBuilder.put("end_height", endBlockNumber.toString());
-            if (null != maxPageSize) paramsBuilder.put("max_page_size", maxPageSize.toString());
-            for (String address : chunkedAddresses) paramsBuilder.put("address", address);
-            ImmutableMultimap<String, String> params = paramsBuilder.build();
+    public void getTransfer(String id,
+                            CancellableQuery query,
+                            CompletionHandler<Transfer, QueryError> handler) {
+        jsonClient.sendGetWithId("transfers", id, ImmutableMultimap.of(), Transfer.class, query, handler);
+    }
 
-            PagedCompletionHandler<List<Transfer>, QueryError> pagedHandler = createPagedResultsHandler(coordinator, chunkedAddresses);
-            jsonClient.sendGetForArrayWithPaging("transfers", params, Transfer.class, pagedHandler);
+    private static List<Chunk> createChunks(HeightRangeSharding sharding,
+                                            List<String> addresses,
+                                            UnsignedLong beginBlockNumber,
+                                            UnsignedLong endBlockNumber) {
+        List<List<String>> chunkedAddressesList = Lists.partition(addresses, ADDRESS_COUNT);
+
+        // range-major so that the coordinator merges the results in block order
+        List<Chunk> chunks = new ArrayList<>();
+        for (HeightRange range : sharding.shard(beginBlockNumber, endBlockNumber)) {
+            for (List<String> chunkedAddresses : chunkedAddressesList) {
+                chunks.add(new Chunk(chunkedAddresses, range));
+            }
         }
+        return chunks;
     }
 
-    public void getTransfer(String id,
-                            CompletionHandler<Transfer, QueryError> handler) {
-        jsonClient.sendGetWithId("transfers", id, ImmutableMultimap.of(), Transfer.class, handler);
+    private static ImmutableMultimap<String, String> createParams(String id,
+                                                                  Chunk chunk,
+                                                                  @Nullable Integer maxPageSize) {
+        ImmutableListMultimap.Builder<String, String> paramsBuilder = ImmutableListMultimap.builder();
+        paramsBuilder.put("blockchain_id", id);
+        paramsBuilder.put("start_height", chunk.range.beginBlockNumber.toString());
+        paramsBuilder.put("end_height", chunk.range.endBlockNumber.toString());
+        if (null != maxPageSize) paramsBuilder.put("max_page_size", maxPageSize.toString());
+        for (String address : chunk.addresses) paramsBuilder.put("address", address);
+        return paramsBuilder.build();
     }
 
     private void submitGetNextTransfers(String nextUrl,
+                                        CancellableQuery query,
                                         PagedCompletionHandler<List<Transfer>, QueryError> handler) {
-        executorService.submit(() -> getNextTransfers(nextUrl, handler));
+        executorService.submit(() -> getNextTransfers(nextUrl, query, handler));
     }
 
     private void getNextTransfers(String nextUrl,
+                                  CancellableQuery query,
                                   PagedCompletionHandler<List<Transfer>, QueryError> handler) {
-        jsonClient.sendGetForArrayWithPaging("transfers", nextUrl, Transfer.class, handler);
+        jsonClient.sendGetForArrayWithPaging("transfers", nextUrl, Transfer.class, query, handler);
     }
 
-    private PagedCompletionHandler<List<Transfer>, QueryError> createPagedResultsHandler(GetChunkedCoordinator<String, Transfer> coordinator,
-                                                                                         List<String> chunkedAddresses) {
+    private PagedCompletionHandler<List<Transfer>, QueryError> createPagedResultsHandler(GetChunkedCoordinator<Chunk, Transfer> coordinator,
+                                                                                         Chunk chunk,
+                                                                                         CancellableQuery query) {
         List<Transfer> allResults = new ArrayList<>();
         return new PagedCompletionHandler<List<Transfer>, QueryError>() {
             @Override
@@ -86,10 +138,10 @@ public class TransferApi {
                 allResults.addAll(results);
 
                 if (nextUrl != null) {
-                    submitGetNextTransfers(nextUrl, this);
+                    submitGetNextTransfers(nextUrl, query, this);
 
                 } else {
-                    coordinator.handleChunkData(chunkedAddresses, allResults);
+                    coordinator.handleChunkData(chunk, allResults);
                 }
             }
 
@@ -99,4 +151,36 @@ public class TransferApi {
             }
         };
     }
+
+    private PagedCompletionHandler<List<Transfer>, QueryError> createPagedResultsHandler(GetChunkedPageCoordinator<Chunk, Transfer> coordinator,
+                                                                                         Chunk chunk,
+                                                                                         CancellableQuery query) {
+        return new PagedCompletionHandler<List<Transfer>, QueryError>() {
+            @Override
+            public void handleData(List<Transfer> results, String prevUrl, String nextUrl) {
+                // the next page is requested once this one is queued, keeping pages in order
+                coordinator.handleChunkPage(chunk, results, nextUrl == null ? null : () -> submitGetNextTransfers(nextUrl, query, this));
+
+                if (nextUrl == null) {
+                    coordinator.handleChunkComplete(chunk);
+                }
+            }
+
+            @Override
+            public void handleError(QueryError error) {
+                coordinator.handleError(error);
+            }
+        };
+    }
+
+    private static final class Chunk {
+
+        final List<String> addresses;
+        final HeightRange range;
+
+        Chunk(List<String> addresses, HeightRange range) {
+            this.addresses = addresses;
+            this.range = range;
+        }
+    }
 }
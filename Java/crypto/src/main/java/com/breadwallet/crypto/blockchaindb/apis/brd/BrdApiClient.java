@@ -9,10 +9,14 @@ package com.breadwallet.crypto.blockchaindb.apis.brd;
 
 import android.support.annotation.Nullable;
 
+import com.breadwallet.crypto.blockchaindb.CancellableQuery;
 import com.breadwallet.crypto.blockchaindb.DataTask;
 import com.breadwallet.crypto.blockchaindb.ObjectCoder;
 import com.breadwallet.crypto.blockchaindb.ObjectCoder.ObjectCoderException;
+import com.breadwallet.crypto.blockchaindb.QueryMetricsListener;
+import com.breadwallet.crypto.blockchaindb.ResponseCache;
 import com.breadwallet.crypto.blockchaindb.apis.HttpStatusCodes;
+import com.breadwallet.crypto.blockchaindb.errors.QueryCancelledError;
 import com.breadwallet.crypto.blockchaindb.errors.QueryError;
 import com.breadwallet.crypto.blockchaindb.errors.QueryJsonParseError;
 import com.breadwallet.crypto.blockchaindb.errors.QueryModelError;
@@ -25,11 +29,14 @@ import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Multimap;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -42,6 +49,9 @@ import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+import static com.google.common.base.Preconditions.checkArgument;
 
 public class BrdApiClient {
 
@@ -49,36 +59,91 @@ public class BrdApiClient {
 
     private static final MediaType MEDIA_TYPE_JSON = MediaType.parse("application/json; charset=utf-8");
 
+    private static final long DEFAULT_BATCH_WINDOW_MILLIS = 10;
+    private static final int DEFAULT_BATCH_SIZE = 50;
+
+    private static final String RESOURCE_PROXY = "ethq/proxy";
+    private static final String RESOURCE_QUERY = "ethq/query";
+    private static final String RESOURCE_CURRENCIES = "currencies";
+
     private final OkHttpClient client;
     private final String baseUrl;
     private final DataTask dataTask;
     private final ObjectCoder coder;
+    private final @Nullable ResponseCache cache;
+    private final BrdJsonRpcBatcher batcher;
+
+    private volatile @Nullable QueryMetricsListener metricsListener;
 
     public BrdApiClient(OkHttpClient client,
                         String baseUrl,
                         DataTask dataTask,
                         ObjectCoder coder) {
+        this(client, baseUrl, dataTask, coder, null);
+    }
+
+    public BrdApiClient(OkHttpClient client,
+                        String baseUrl,
+                        DataTask dataTask,
+                        ObjectCoder coder,
+                        @Nullable ResponseCache cache) {
         this.client = client;
         this.baseUrl = baseUrl;
         this.dataTask = dataTask;
         this.coder = coder;
+        this.cache = cache;
+        this.batcher = new BrdJsonRpcBatcher(this::sendJsonRequests, DEFAULT_BATCH_WINDOW_MILLIS, DEFAULT_BATCH_SIZE);
+    }
+
+    public void setMetricsListener(@Nullable QueryMetricsListener listener) {
+        this.metricsListener = listener;
+    }
+
+    /**
+     * Set how long read-only JSON-RPC calls wait to be grouped with others for the same
+     * network. A value of zero sends every call on its own.
+     */
+    public void setBatchWindow(long duration, TimeUnit unit) {
+        batcher.setWindow(duration, unit);
     }
 
     /* package */
     void sendJsonRequest(String networkName,
                          Map json,
+                         CancellableQuery query,
                          CompletionHandler<String, QueryError> handler) {
-        makeAndSendRequest(Arrays.asList("ethq", getNetworkName(networkName), "proxy"), ImmutableMultimap.of(), json, "POST",
-                new BrdResponseHandler<>(coder, String.class, handler));
+        // a batch is shared, so cancelling one of its calls only cancels the delivery to that call
+        if (batcher.enqueue(networkName, json, new CancellableHandler<>(query, handler))) {
+            return;
+        }
+
+        makeAndSendRequest(RESOURCE_PROXY, Arrays.asList("ethq", getNetworkName(networkName), "proxy"), ImmutableMultimap.of(), json, "POST",
+                query, new BrdResponseHandler<>(coder, String.class, handler));
+    }
+
+    /* package */
+    void sendJsonRequests(String networkName,
+                          List<Map> jsons,
+                          List<CompletionHandler<String, QueryError>> handlers) {
+        checkArgument(jsons.size() == handlers.size());
+        if (jsons.size() == 1) {
+            makeAndSendRequest(RESOURCE_PROXY, Arrays.asList("ethq", getNetworkName(networkName), "proxy"), ImmutableMultimap.of(), jsons.get(0), "POST",
+                    new CancellableQuery(client), new BrdResponseHandler<>(coder, String.class, handlers.get(0)));
+            return;
+        }
+
+        makeAndSendRequest(RESOURCE_PROXY, Arrays.asList("ethq", getNetworkName(networkName), "proxy"), ImmutableMultimap.of(), jsons, "POST",
+                new CancellableQuery(client), new BrdBatchResponseHandler<>(coder, String.class, jsons, handlers));
     }
 
     /* package */
     void sendQueryRequest(String networkName,
                           Multimap<String, String> params,
                           Map json,
+                          CancellableQuery query,
                           CompletionHandler<String, QueryError> handler) {
-        makeAndSendRequest(Arrays.asList("ethq", getNetworkName(networkName), "query"), params, json, "POST",
-                new BrdResponseHandler<>(coder, String.class, handler));
+        makeAndSendRequest(RESOURCE_QUERY, Arrays.asList("ethq", getNetworkName(networkName), "query"), params, json, "POST",
+                query, new BrdResponseHandler<>(coder, String.class, handler));
     }
 
     /* package */
@@ -86,16 +151,19 @@ public class BrdApiClient {
                                       Multimap<String, String> params,
                                       Map json,
                                       Class<T> clazz,
+                                      CancellableQuery query,
                                       CompletionHandler<List<T>, QueryError> handler) {
-        makeAndSendRequest(Arrays.asList("ethq", getNetworkName(networkName), "query"), params, json, "POST",
-                new BrdResponseWithStatusHandler<>(coder, clazz, handler));
+        makeAndSendRequest(RESOURCE_QUERY, Arrays.asList("ethq", getNetworkName(networkName), "query"), params, json, "POST",
+                query, new BrdResponseWithStatusHandler<>(coder, clazz, handler));
     }
 
     /* package */
     <T> void sendTokenRequest(Class<T> clazz,
+                              CancellableQuery query,
                               CompletionHandler<List<T>, QueryError> handler) {
-        makeAndSendRequest(Collections.singletonList("currencies"), ImmutableMultimap.of("type", "erc20"), null, "GET",
-                new ListResponseHandler<>(coder, clazz, handler));
+        makeAndSendRequest(RESOURCE_CURRENCIES, Collections.singletonList("currencies"), ImmutableMultimap.of("type", "erc20"), null, "GET",
+                null == cache ? dataTask : cache.decorate(ResponseCache.Endpoint.TOKENS_AS_ETH, dataTask),
+                query, new ListResponseHandler<>(coder, clazz, handler));
     }
 
     private String getNetworkName(String networkName) {
@@ -103,11 +171,24 @@ public class BrdApiClient {
         return networkName.equals("testnet") ? "ropsten" : networkName;
     }
 
-    private <T> void makeAndSendRequest(List<String> pathSegments,
+    private <D> void makeAndSendRequest(String resource,
+                                        List<String> pathSegments,
+                                        Multimap<String, String> params,
+                                        @Nullable Object json,
+                                        String httpMethod,
+                                        CancellableQuery query,
+                                        ResponseHandler<D> handler) {
+        makeAndSendRequest(resource, pathSegments, params, json, httpMethod, dataTask, query, handler);
+    }
+
+    private <D> void makeAndSendRequest(String resource,
+                                        List<String> pathSegments,
                                         Multimap<String, String> params,
-                                        @Nullable Map json,
+                                        @Nullable Object json,
                                         String httpMethod,
-                                        ResponseHandler handler) {
+                                        DataTask dataTask,
+                                        CancellableQuery query,
+                                        ResponseHandler<D> handler) {
         RequestBody httpBody;
         if (json == null) {
             httpBody = null;
@@ -144,49 +225,125 @@ public class BrdApiClient {
         requestBuilder.url(httpUrl);
         requestBuilder.header("Accept", "application/json");
         requestBuilder.method(httpMethod, httpBody);
+        query.tag(requestBuilder);
 
-        sendRequest(requestBuilder.build(), dataTask, handler);
+        sendRequest(requestBuilder.build(), resource, dataTask, query, handler);
     }
 
-    private <T> void sendRequest(Request request, DataTask dataTask, ResponseHandler handler) {
+    private <D> void sendRequest(Request request, String resource, DataTask dataTask, CancellableQuery query, ResponseHandler<D> handler) {
+        if (query.isCancelled()) {
+            handler.handleError(new QueryCancelledError());
+            return;
+        }
+
+        long startTime = System.nanoTime();
         dataTask.execute(client, request, new Callback() {
             @Override
             public void onResponse(Call call, Response response) throws IOException {
+                long latency = System.nanoTime() - startTime;
+
                 int responseCode = response.code();
-                if (HttpStatusCodes.responseSuccess(request.method()).contains(responseCode)) {
+                if (query.isCancelled()) {
+                    ResponseBody responseBody = response.body();
+                    if (null != responseBody) responseBody.close();
+                    handleError(new QueryCancelledError());
+
+                } else if (HttpStatusCodes.responseSuccess(request.method()).contains(responseCode)) {
                     try (ResponseBody responseBody = response.body()) {
                         if (responseBody == null) {
                             Log.log(Level.SEVERE, "response failed with null body");
-                            handler.handleError(new QueryNoDataError());
+                            handleError(new QueryNoDataError());
                         } else {
+                            // as for Blockset, decode time includes reading the body off the wire
+                            long decodeStartTime = System.nanoTime();
+                            BufferedSource source = responseBody.source();
+                            source.request(Long.MAX_VALUE);
+                            long responseBytes = source.getBuffer().size();
+                            String responseData = responseBody.string();
+
+                            D data;
                             try {
-                                handler.handleResponse(responseBody.string());
+                                data = handler.decode(responseData);
+                                recordResponse(latency, responseBytes, System.nanoTime() - decodeStartTime);
                             } catch (ObjectCoderException e) {
                                 Log.log(Level.SEVERE, "response failed parsing json", e);
-                                handler.handleError(new QueryJsonParseError(e.getMessage()));
+                                handleError(new QueryJsonParseError(e.getMessage()));
+                                return;
                             }
+                            handler.handleData(data);
                         }
                     }
                 } else {
                     Log.log(Level.SEVERE, "response failed with status " + responseCode);
-                    handler.handleError(new QueryResponseError(responseCode));
+                    handleError(new QueryResponseError(responseCode));
                 }
             }
 
             @Override
             public void onFailure(Call call, IOException e) {
+                if (query.isCancelled()) {
+                    handleError(new QueryCancelledError());
+                    return;
+                }
+
                 Log.log(Level.SEVERE, "send request failed", e);
-                handler.handleError(new QuerySubmissionError(e.getMessage()));
+                handleError(new QuerySubmissionError(e.getMessage()));
+            }
+
+            private void recordResponse(long latency, long responseBytes, long decodeTime) {
+                QueryMetricsListener listener = metricsListener;
+                if (null != listener) {
+                    listener.handleResponse(request.url().host(), resource, latency, responseBytes, decodeTime);
+                }
+            }
+
+            private void handleError(QueryError error) {
+                QueryMetricsListener listener = metricsListener;
+                if (null != listener) {
+                    listener.handleError(request.url().host(), resource, System.nanoTime() - startTime, error);
+                }
+                handler.handleError(error);
             }
         });
     }
 
-    private interface ResponseHandler {
-        void handleResponse(String responseData) throws ObjectCoderException;
+    /**
+     * Decoding is kept apart from delivery so that the time spent in the {@link ObjectCoder}
+     * can be measured on its own.
+     */
+    private interface ResponseHandler<D> {
+        D decode(String responseData) throws ObjectCoderException;
+        void handleData(D data);
         void handleError(QueryError error);
     }
 
-    private static class BrdResponseHandler<T> implements ResponseHandler {
+    private static class CancellableHandler<T> implements CompletionHandler<T, QueryError> {
+
+        final CancellableQuery query;
+        final CompletionHandler<T, QueryError> handler;
+
+        CancellableHandler(CancellableQuery query, CompletionHandler<T, QueryError> handler) {
+            this.query = query;
+            this.handler = handler;
+        }
+
+        @Override
+        public void handleData(T data) {
+            if (query.isCancelled()) {
+                handler.handleError(new QueryCancelledError());
+                return;
+            }
+
+            handler.handleData(data);
+        }
+
+        @Override
+        public void handleError(QueryError error) {
+            handler.handleError(query.isCancelled() ? new QueryCancelledError() : error);
+        }
+    }
+
+    private static class BrdResponseHandler<T> implements ResponseHandler<T> {
 
         final ObjectCoder coder;
         final Class<T> clazz;
@@ -199,11 +356,15 @@ public class BrdApiClient {
         }
 
         @Override
-        public void handleResponse(String responseData) throws ObjectCoderException {
+        public T decode(String responseData) throws ObjectCoderException {
             BrdJsonRpcResponse resp = coder.deserializeJson(BrdJsonRpcResponse.class, responseData);
-            T data = (resp == null || resp.getResult() == null) ?
+            return (resp == null || resp.getResult() == null) ?
                     null :
                     coder.deserializeObject(clazz, resp.getResult());
+        }
+
+        @Override
+        public void handleData(T data) {
             if (data == null) {
                 QueryError e = new QueryModelError("Transform error");
                 Log.log(Level.SEVERE, "parsing error", e);
@@ -220,7 +381,69 @@ public class BrdApiClient {
         }
     }
 
-    private static class BrdResponseWithStatusHandler<T> implements ResponseHandler {
+    private static class BrdBatchResponseHandler<T> implements ResponseHandler<List<T>> {
+
+        final ObjectCoder coder;
+        final Class<T> clazz;
+        final List<Map> requests;
+        final List<CompletionHandler<T, QueryError>> handlers;
+
+        BrdBatchResponseHandler(ObjectCoder coder, Class<T> clazz, List<Map> requests, List<CompletionHandler<T, QueryError>> handlers) {
+            this.coder = coder;
+            this.clazz = clazz;
+            this.requests = requests;
+            this.handlers = handlers;
+        }
+
+        /**
+         * Decode the results in request order, with `null` for a request that has none.
+         */
+        @Override
+        public List<T> decode(String responseData) throws ObjectCoderException {
+            List<BrdJsonRpcResponse> resps = coder.deserializeJsonList(BrdJsonRpcResponse.class, responseData);
+
+            // batch responses may come back in any order; correlate them by id
+            Map<String, BrdJsonRpcResponse> respsById = new HashMap<>();
+            if (null != resps) {
+                for (BrdJsonRpcResponse resp : resps) {
+                    if (null != resp && null != resp.getId()) respsById.put(resp.getId(), resp);
+                }
+            }
+
+            List<T> results = new ArrayList<>(requests.size());
+            for (Map request : requests) {
+                BrdJsonRpcResponse resp = respsById.get(String.valueOf(request.get("id")));
+                results.add((resp == null || resp.getResult() == null) ?
+                        null :
+                        coder.deserializeObject(clazz, resp.getResult()));
+            }
+            return results;
+        }
+
+        @Override
+        public void handleData(List<T> results) {
+            for (int i = 0; i < requests.size(); i++) {
+                T data = results.get(i);
+                if (data == null) {
+                    QueryError e = new QueryModelError("Transform error");
+                    Log.log(Level.SEVERE, "parsing error", e);
+                    handlers.get(i).handleError(e);
+                    continue;
+                }
+
+                handlers.get(i).handleData(data);
+            }
+        }
+
+        @Override
+        public void handleError(QueryError error) {
+            for (CompletionHandler<T, QueryError> handler : handlers) {
+                handler.handleError(error);
+            }
+        }
+    }
+
+    private static class BrdResponseWithStatusHandler<T> implements ResponseHandler<List<T>> {
 
         final ObjectCoder coder;
         final Class<T> clazz;
@@ -233,12 +456,15 @@ public class BrdApiClient {
         }
 
         @Override
-        public void handleResponse(String responseData) throws ObjectCoderException {
+        public List<T> decode(String responseData) throws ObjectCoderException {
             BrdJsonRpcResponse resp = coder.deserializeJson(BrdJsonRpcResponse.class, responseData);
-            List<T> data = (resp == null || resp.getResult() == null) ?
+            return (resp == null || resp.getResult() == null) ?
                     Collections.emptyList() :
                     coder.deserializeObjectList(clazz, resp.getResult());
+        }
 
+        @Override
+        public void handleData(List<T> data) {
             if (data == null) {
                 QueryError e = new QueryModelError("Transform error");
                 Log.log(Level.SEVERE, "parsing error", e);
@@ -255,7 +481,7 @@ public class BrdApiClient {
         }
     }
 
-    private static class ListResponseHandler<T> implements ResponseHandler {
+    private static class ListResponseHandler<T> implements ResponseHandler<List<T>> {
 
         final ObjectCoder coder;
         final Class<T> clazz;
@@ -268,9 +494,12 @@ public class BrdApiClient {
         }
 
         @Override
-        public void handleResponse(String responseData) throws ObjectCoderException {
-            List<T> data = coder.deserializeJsonList(clazz, responseData);
+        public List<T> decode(String responseData) throws ObjectCoderException {
+            return coder.deserializeJsonList(clazz, responseData);
+        }
 
+        @Override
+        public void handleData(List<T> data) {
             if (null == data) {
                 QueryError e = new QueryModelError("Transform error");
                 Log.log(Level.SEVERE, "parsing error", e);
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb.apis.brd;
+
+import com.breadwallet.crypto.blockchaindb.errors.QueryError;
+import com.breadwallet.crypto.utility.CompletionHandler;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Groups read-only JSON-RPC calls for the same network that are issued within a short window
+ * into a single batch request.
+ */
+/* package */
+final class BrdJsonRpcBatcher {
+
+    /* package */
+    interface Sender {
+        void send(String networkName, List<Map> requests, List<CompletionHandler<String, QueryError>> handlers);
+    }
+
+    private static final Set<String> BATCHABLE_METHODS = ImmutableSet.of(
+            "eth_getBalance",
+            "eth_call",
+            "eth_getTransactionCount"
+    );
+
+    private final Sender sender;
+    private final int maxBatchSize;
+
+    private volatile long windowMillis;
+
+    // guarded by this
+    private final Map<String, Batch> batches;
+    private ScheduledExecutorService scheduler;
+
+    /* package */
+    BrdJsonRpcBatcher(Sender sender, long windowMillis, int maxBatchSize) {
+        checkArgument(windowMillis >= 0);
+        checkArgument(maxBatchSize > 0);
+        this.sender = sender;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.batches = new HashMap<>();
+    }
+
+    /* package */
+    void setWindow(long duration, TimeUnit unit) {
+        checkArgument(duration >= 0);
+        windowMillis = unit.toMillis(duration);
+    }
+
+    /**
+     * Add `json` to the pending batch for `networkName`, or return `false` if the request
+     * should be sent on its own.
+     */
+    /* package */
+    boolean enqueue(String networkName, Map json, CompletionHandler<String, QueryError> handler) {
+        long windowMillis = this.windowMillis;
+        if (0 == windowMillis || !BATCHABLE_METHODS.contains(json.get("method"))) {
+            return false;
+        }
+
+        Batch full = null;
+
+        synchronized (this) {
+            Batch batch = batches.get(networkName);
+            if (null == batch) {
+                batch = new Batch(networkName);
+                batches.put(networkName, batch);
+
+                Batch scheduled = batch;
+                getScheduler().schedule(() -> flush(scheduled), windowMillis, TimeUnit.MILLISECONDS);
+            }
+
+            batch.requests.add(json);
+            batch.handlers.add(handler);
+
+            if (batch.requests.size() >= maxBatchSize) {
+                batches.remove(networkName);
+                full = batch;
+            }
+        }
+
+        if (null != full) {
+            sender.send(full.networkName, full.requests, full.handlers);
+        }
+        return true;
+    }
+
+    private void flush(Batch batch) {
+        synchronized (this) {
+            // already sent for being full
+            if (batches.get(batch.networkName) != batch) {
+                return;
+            }
+            batches.remove(batch.networkName);
+        }
+
+        sender.send(batch.networkName, batch.requests, batch.handlers);
+    }
+
+    private ScheduledExecutorService getScheduler() {
+        if (null == scheduler) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("brd-json-rpc-batcher-%d")
+                    .setDaemon(true)
+                    .build());
+        }
+        return scheduler;
+    }
+
+    private static final class Batch {
+
+        final String networkName;
+        final List<Map> requests = new ArrayList<>();
+        final List<CompletionHandler<String, QueryError>> handlers = new ArrayList<>();
+
+        Batch(String networkName) {
+            this.networkName = networkName;
+        }
+    }
+}
@@ -29,6 +29,9 @@ public class BrdJsonRpcResponse {
     @JsonProperty("result")
     private Object result;
 
+    @JsonProperty("error")
+    private Object error;
+
     // getters
 
     @JsonIgnore
@@ -55,4 +58,9 @@ public class BrdJsonRpcResponse {
     public Object getResult() {
         return result;
     }
+
+    @JsonIgnore
+    public Object getError() {
+        return error;
+    }
 }
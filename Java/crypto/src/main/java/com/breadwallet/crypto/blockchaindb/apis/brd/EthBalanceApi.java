@@ -7,17 +7,19 @@
  */
 package com.breadwallet.crypto.blockchaindb.apis.brd;
 
+import com.breadwallet.crypto.blockchaindb.CancellableQuery;
 import com.breadwallet.crypto.blockchaindb.errors.QueryError;
 import com.breadwallet.crypto.utility.CompletionHandler;
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMultimap;
 
 import java.util.Map;
 
 public class EthBalanceApi {
 
+    private static final String BALANCE_OF_SELECTOR = "0x70a08231";
+
     private final BrdApiClient client;
 
     public EthBalanceApi(BrdApiClient client) {
@@ -27,6 +29,7 @@ public class EthBalanceApi {
     public void getBalanceAsEth(String networkName,
                                 String address,
                                 int rid,
+                                CancellableQuery query,
                                 CompletionHandler<String, QueryError> handler) {
         Map json = ImmutableMap.of(
                 "jsonrpc", "2.0",
@@ -35,25 +38,40 @@ public class EthBalanceApi {
                 "id", rid
         );
 
-        client.sendJsonRequest(networkName, json, handler);
+        client.sendJsonRequest(networkName, json, query, handler);
     }
 
     public void getBalanceAsTok(String networkName,
                                 String address,
                                 String tokenAddress,
                                 int rid,
+                                CancellableQuery query,
                                 CompletionHandler<String, QueryError> handler) {
+        // balanceOf(address) as a JSON-RPC call, so that it can be batched with the other balances
+        String data = BALANCE_OF_SELECTOR + Strings.padStart(stripHexPrefix(address), 64, '0');
+
         Map json = ImmutableMap.of(
+                "jsonrpc", "2.0",
+                "method", "eth_call",
+                "params", ImmutableList.of(ImmutableMap.of("to", tokenAddress, "data", data), "latest"),
                 "id", rid
         );
 
-        ImmutableMultimap<String, String> params = ImmutableListMultimap.of(
-                "module", "account",
-                "action", "tokenbalance",
-                "address", address,
-                "contractaddress", tokenAddress
-        );
+        client.sendJsonRequest(networkName, json, query, new CompletionHandler<String, QueryError>() {
+            @Override
+            public void handleData(String balance) {
+                // a call to an address without code yields an empty result
+                handler.handleData("0x".equals(balance) ? "0x0" : balance);
+            }
+
+            @Override
+            public void handleError(QueryError error) {
+                handler.handleError(error);
+            }
+        });
+    }
 
-        client.sendQueryRequest(networkName, params, json, handler);
+    private static String stripHexPrefix(String value) {
+        return value.startsWith("0x") || value.startsWith("0X") ? value.substring(2) : value;
     }
 }
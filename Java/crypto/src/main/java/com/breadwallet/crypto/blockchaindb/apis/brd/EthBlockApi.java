@@ -7,6 +7,7 @@
  */
 package com.breadwallet.crypto.blockchaindb.apis.brd;
 
+import com.breadwallet.crypto.blockchaindb.CancellableQuery;
 import com.breadwallet.crypto.blockchaindb.errors.QueryError;
 import com.breadwallet.crypto.blockchaindb.errors.QueryNoDataError;
 import com.breadwallet.crypto.utility.CompletionHandler;
@@ -25,6 +26,7 @@ public class EthBlockApi {
 
     public void getBlockNumberAsEth(String networkName,
                                     int rid,
+                                    CancellableQuery query,
                                     CompletionHandler<String, QueryError> handler) {
         Map json = ImmutableMap.of(
                 "jsonrpc", "2.0",
@@ -33,7 +35,7 @@ public class EthBlockApi {
                 "id", rid
         );
 
-        client.sendJsonRequest(networkName, json, new CompletionHandler<String, QueryError>() {
+        client.sendJsonRequest(networkName, json, query, new CompletionHandler<String, QueryError>() {
             @Override
             public void handleData(String data) {
                 // If we get a successful response, but the provided blocknumber is "0" then
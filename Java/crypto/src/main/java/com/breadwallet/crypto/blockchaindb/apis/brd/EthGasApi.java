@@ -7,6 +7,7 @@
  */
 package com.breadwallet.crypto.blockchaindb.apis.brd;
 
+import com.breadwallet.crypto.blockchaindb.CancellableQuery;
 import com.breadwallet.crypto.blockchaindb.errors.QueryError;
 import com.breadwallet.crypto.utility.CompletionHandler;
 import com.google.common.collect.ImmutableList;
@@ -24,6 +25,7 @@ public class EthGasApi {
 
     public void getGasPriceAsEth(String networkName,
                                  int rid,
+                                 CancellableQuery query,
                                  CompletionHandler<String, QueryError> handler) {
         Map json = ImmutableMap.of(
                 "jsonrpc", "2.0",
@@ -32,7 +34,7 @@ public class EthGasApi {
                 "id", rid
         );
 
-        client.sendJsonRequest(networkName, json, handler);
+        client.sendJsonRequest(networkName, json, query, handler);
     }
 
     public void getGasEstimateAsEth(String networkName,
@@ -41,6 +43,7 @@ public class EthGasApi {
                                     String amount,
                                     String data,
                                     int rid,
+                                    CancellableQuery query,
                                     CompletionHandler<String, QueryError> handler) {
         ImmutableMap.Builder<String, String> paramsBuilder = new ImmutableMap.Builder<>();
         paramsBuilder.put("from", from);
@@ -55,6 +58,6 @@ public class EthGasApi {
                 "id", rid
         );
 
-        client.sendJsonRequest(networkName, json, handler);
+        client.sendJsonRequest(networkName, json, query, handler);
     }
 }
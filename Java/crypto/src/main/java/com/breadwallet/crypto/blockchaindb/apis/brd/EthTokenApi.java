@@ -7,6 +7,7 @@
  */
 package com.breadwallet.crypto.blockchaindb.apis.brd;
 
+import com.breadwallet.crypto.blockchaindb.CancellableQuery;
 import com.breadwallet.crypto.blockchaindb.errors.QueryError;
 import com.breadwallet.crypto.blockchaindb.models.brd.EthToken;
 import com.breadwallet.crypto.utility.CompletionHandler;
@@ -22,7 +23,8 @@ public class EthTokenApi {
     }
 
     public void getTokensAsEth(int rid,
+                               CancellableQuery query,
                                CompletionHandler<List<EthToken>, QueryError> handler) {
-        client.sendTokenRequest(EthToken.class, handler);
+        client.sendTokenRequest(EthToken.class, query, handler);
     }
 }
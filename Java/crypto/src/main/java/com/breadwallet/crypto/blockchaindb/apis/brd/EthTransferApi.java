@@ -9,6 +9,7 @@ package com.breadwallet.crypto.blockchaindb.apis.brd;
 
 import android.support.annotation.Nullable;
 
+import com.breadwallet.crypto.blockchaindb.CancellableQuery;
 import com.breadwallet.crypto.blockchaindb.errors.QueryError;
 import com.breadwallet.crypto.blockchaindb.errors.QueryModelError;
 import com.breadwallet.crypto.blockchaindb.models.brd.EthLog;
@@ -41,6 +42,7 @@ public class EthTransferApi {
     public void submitTransactionAsEth(String networkName,
                                        String transaction,
                                        int rid,
+                                       CancellableQuery query,
                                        CompletionHandler<String, QueryError> handler) {
         Map json = ImmutableMap.of(
                 "jsonrpc", "2.0",
@@ -49,7 +51,7 @@ public class EthTransferApi {
                 "id", rid
         );
 
-        client.sendJsonRequest(networkName, json, handler);
+        client.sendJsonRequest(networkName, json, query, handler);
     }
 
     public void getTransactionsAsEth(String networkName,
@@ -57,6 +59,7 @@ public class EthTransferApi {
                                      UnsignedLong begBlockNumber,
                                      UnsignedLong endBlockNumber,
                                      int rid,
+                                     CancellableQuery query,
                                      CompletionHandler<List<EthTransaction>, QueryError> handler) {
         Map json = ImmutableMap.of(
                 "id", rid,
@@ -71,12 +74,13 @@ public class EthTransferApi {
                 "endBlock", String.valueOf(endBlockNumber)
         );
 
-        client.sendQueryForArrayRequest(networkName, params, json, EthTransaction.class, handler);
+        client.sendQueryForArrayRequest(networkName, params, json, EthTransaction.class, query, handler);
     }
 
     public void getNonceAsEth(String networkName,
                               String address,
                               int rid,
+                              CancellableQuery query,
                               CompletionHandler<String, QueryError> handler) {
         Map json = ImmutableMap.of(
                 "jsonrpc", "2.0",
@@ -85,7 +89,7 @@ public class EthTransferApi {
                 "id", rid
         );
 
-        client.sendJsonRequest(networkName, json, handler);
+        client.sendJsonRequest(networkName, json, query, handler);
     }
 
     public void getLogsAsEth(String networkName,
@@ -95,6 +99,7 @@ public class EthTransferApi {
                              UnsignedLong begBlockNumber,
                              UnsignedLong endBlockNumber,
                              int rid,
+                             CancellableQuery query,
                              CompletionHandler<List<EthLog>, QueryError> handler) {
         Map json = ImmutableMap.of(
                 "id", rid
@@ -114,7 +119,7 @@ public class EthTransferApi {
             paramsBuilders.put("address", contract);
         }
 
-        client.sendQueryForArrayRequest(networkName, paramsBuilders.build(), json, EthLog.class, handler);
+        client.sendQueryForArrayRequest(networkName, paramsBuilders.build(), json, EthLog.class, query, handler);
     }
 
     public void getBlocksAsEth(String networkName,
@@ -123,26 +128,29 @@ public class EthTransferApi {
                                UnsignedLong blockStart,
                                UnsignedLong blockEnd,
                                int rid,
+                               CancellableQuery query,
                                CompletionHandler<List<UnsignedLong>, QueryError> handler) {
-        GetBlocksCoordinator coordinator = new GetBlocksCoordinator(address, interests, handler);
+        GetBlocksCoordinator coordinator = new GetBlocksCoordinator(address, interests, query, handler);
 
-        getTransactionsAsEth(networkName, address, blockStart, blockEnd, rid, coordinator.createTxnHandler());
-        getLogsAsEth(networkName, null, address, ETH_EVENT_ERC20_TRANSFER, blockStart, blockEnd, rid, coordinator.createLogHandler());
+        getTransactionsAsEth(networkName, address, blockStart, blockEnd, rid, query, coordinator.createTxnHandler());
+        getLogsAsEth(networkName, null, address, ETH_EVENT_ERC20_TRANSFER, blockStart, blockEnd, rid, query, coordinator.createLogHandler());
     }
 
     private static class GetBlocksCoordinator {
 
         private final String address;
         private final UnsignedInteger interests;
+        private final CancellableQuery query;
         private final CompletionHandler<List<UnsignedLong>, QueryError> handler;
 
         private List<EthTransaction> transactions;
         private List<EthLog> logs;
         private QueryError error;
 
-        private GetBlocksCoordinator(String address, UnsignedInteger interests, CompletionHandler<List<UnsignedLong>, QueryError> handler) {
+        private GetBlocksCoordinator(String address, UnsignedInteger interests, CancellableQuery query, CompletionHandler<List<UnsignedLong>, QueryError> handler) {
             this.address = address;
             this.interests = interests;
+            this.query = query;
             this.handler = handler;
         }
 
@@ -221,6 +229,8 @@ public class EthTransferApi {
             }
 
             if (transitionToError) {
+                // the other half of the query is of no use anymore
+                query.cancel();
                 handleFailure(error);
             }
         }
@@ -0,0 +1,15 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb.errors;
+
+// Query was cancelled before it completed
+public class QueryCancelledError extends QueryError {
+
+    public QueryCancelledError() {
+        super("Cancelled");
+    }
+}
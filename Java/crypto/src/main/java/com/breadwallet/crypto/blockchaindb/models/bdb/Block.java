@@ -40,7 +40,7 @@ public class Block {
                                @JsonProperty("prev_hash") @Nullable String prevHash,
                                @JsonProperty("next_hash") @Nullable String nextHash,
                                @JsonProperty("header") @Nullable String header,
-                               @JsonProperty("raw") @Nullable String raw) {
+                               @JsonProperty("raw") @Nullable byte[] raw) {
         return new Block(
                 checkNotNull(blockId),
                 checkNotNull(hash),
@@ -77,7 +77,7 @@ public class Block {
     private final @Nullable String prevHash;
     private final @Nullable String nextHash;
     private final @Nullable String header;
-    private final @Nullable String raw;
+    private final @Nullable byte[] raw;
 
     private Block(String blockId,
                   String hash,
@@ -93,7 +93,7 @@ public class Block {
                   @Nullable String prevHash,
                   @Nullable String nextHash,
                   @Nullable String header,
-                  @Nullable String raw) {
+                  @Nullable byte[] raw) {
         this.blockId = blockId;
         this.hash = hash;
         this.blockchainId = blockchainId;
@@ -178,8 +178,11 @@ public class Block {
         return Optional.fromNullable(header);
     }
 
+    /**
+     * The raw block bytes. The array is not copied and must not be modified.
+     */
     @JsonProperty("raw")
-    public Optional<String> getRaw() {
+    public Optional<byte[]> getRaw() {
         return Optional.fromNullable(raw);
     }
 
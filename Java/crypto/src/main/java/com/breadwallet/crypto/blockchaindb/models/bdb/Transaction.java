@@ -9,11 +9,11 @@ package com.breadwallet.crypto.blockchaindb.models.bdb;
 
 import android.support.annotation.Nullable;
 
-import com.breadwallet.crypto.blockchaindb.models.Utilities;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Optional;
+import com.google.common.io.BaseEncoding;
 import com.google.common.primitives.UnsignedLong;
 
 import java.util.Collections;
@@ -41,8 +41,8 @@ public class Transaction {
                                      @JsonProperty("block_height") @Nullable UnsignedLong blockHeight,
                                      @JsonProperty("acknowledgements") @Nullable UnsignedLong acknowledgements,
                                      @JsonProperty("confirmations") @Nullable UnsignedLong confirmations,
-                                     @JsonProperty("raw") @Nullable String raw,
-                                     @JsonProperty("proof") @Nullable String proof) {
+                                     @JsonProperty("raw") @Nullable byte[] raw,
+                                     @JsonProperty("proof") @Nullable byte[] proof) {
         return new Transaction(
                 checkNotNull(transactionId),
                 checkNotNull(identifier),
@@ -81,8 +81,9 @@ public class Transaction {
     private final @Nullable UnsignedLong blockHeight;
     private final @Nullable UnsignedLong acknowledgements;
     private final @Nullable UnsignedLong confirmations;
-    private final @Nullable String raw;
-    private final @Nullable String proof;
+    // decoded from base64 once, by the parser; shared with callers rather than copied
+    private final @Nullable byte[] raw;
+    private final @Nullable byte[] proof;
 
     private Transaction(String transactionId,
                         String identifier,
@@ -99,8 +100,8 @@ public class Transaction {
                         @Nullable UnsignedLong blockHeight,
                         @Nullable UnsignedLong acknowledgements,
                         @Nullable UnsignedLong confirmations,
-                        @Nullable String raw,
-                        @Nullable String proof) {
+                        @Nullable byte[] raw,
+                        @Nullable byte[] proof) {
         this.transactionId = transactionId;
         this.identifier = identifier;
         this.hash = hash;
@@ -191,18 +192,27 @@ public class Transaction {
         return Optional.fromNullable(confirmations);
     }
 
-    @JsonProperty("raw")
+    /**
+     * The raw value re-encoded as base64; prefer {@link #getRaw()}.
+     */
+    @JsonIgnore
     public Optional<String> getRawValue() {
-        return Optional.fromNullable(raw);
+        return getRaw().transform(BaseEncoding.base64()::encode);
     }
 
-    @JsonIgnore
+    /**
+     * The raw transaction bytes. The array is not copied and must not be modified.
+     */
+    @JsonProperty("raw")
     public Optional<byte[]> getRaw() {
-        return Utilities.getOptionalBase64Bytes(raw);
+        return Optional.fromNullable(raw);
     }
 
+    /**
+     * The proof bytes. The array is not copied and must not be modified.
+     */
     @JsonProperty("proof")
-    public Optional<String> getProof() {
+    public Optional<byte[]> getProof() {
         return Optional.fromNullable(proof);
     }
 
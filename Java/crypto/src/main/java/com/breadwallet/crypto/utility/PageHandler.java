@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+*
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.utility;
+
+/**
+ * Receives the results of a paged query incrementally.
+ *
+ * `handlePage` is called once per decoded page, never concurrently, and is followed by exactly
+ * one of `handleComplete` or `handleError`; nothing is delivered after either.
+ */
+public interface PageHandler<T, E> {
+    void handlePage(T data);
+    void handleComplete();
+    void handleError(E error);
+}
@@ -378,6 +378,25 @@ public class BlockchainDbIT {
         assertFalse(output.isEmpty());
     }
 
+    @Test
+    public void testGetBalancesAsEthBatched() {
+        SynchronousCompletionHandler<String> ethHandler = new SynchronousCompletionHandler<>();
+        SynchronousCompletionHandler<String> tokHandler = new SynchronousCompletionHandler<>();
+        SynchronousCompletionHandler<String> nonceHandler = new SynchronousCompletionHandler<>();
+
+        // issued within the batch window, so sent as a single JSON-RPC batch
+        blockchainDb.getBalanceAsEth("mainnet", "0x04d542459de6765682d21771d1ba23dc30fb675f", ethHandler);
+        blockchainDb.getBalanceAsTok("mainnet", "0x04d542459de6765682d21771d1ba23dc30fb675f",
+                "0xE41d2489571d322189246Dafa5EBDE1f4699F498", tokHandler);
+        blockchainDb.getNonceAsEth("mainnet", "0x04d542459de6765682d21771d1ba23dc30fb675f", nonceHandler);
+
+        for (SynchronousCompletionHandler<String> handler : Arrays.asList(ethHandler, tokHandler, nonceHandler)) {
+            String output = handler.dat().orNull();
+            assertNotNull(output);
+            assertFalse(output.isEmpty());
+        }
+    }
+
     @Test
     public void testGetGasPriceAsEth() {
         SynchronousCompletionHandler<String> handler = new SynchronousCompletionHandler<>();
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakerDataTaskTest {
+
+    private static final String HOST = "api.blockset.com";
+    private static final String URL = "https://" + HOST + "/blocks";
+
+    private OkHttpClient client;
+    private FakeDataTask network;
+    private FakeTicker ticker;
+    private CircuitBreakerDataTask dataTask;
+
+    @Before
+    public void setup() {
+        client = new OkHttpClient();
+        network = new FakeDataTask();
+        ticker = new FakeTicker();
+        dataTask = new CircuitBreakerDataTask(network, 2, 10, TimeUnit.SECONDS, ticker);
+    }
+
+    @Test
+    public void testCircuitBreakerOpensAfterConsecutiveFailures() throws Exception {
+        send();
+        network.get(0).respond(500, "");
+        send();
+        network.get(1).respond(200, "[]");
+        send();
+        network.get(2).respond(429, "");
+        assertFalse(dataTask.isOpen(HOST));
+
+        send();
+        network.get(3).fail(new IOException("reset"));
+        assertTrue(dataTask.isOpen(HOST));
+
+        RecordingCallback callback = send();
+        assertEquals(4, network.getRequestCount());
+        assertNotNull(callback.failure);
+        assertEquals(1, dataTask.getShortCircuitCount());
+
+        // other hosts are unaffected
+        dataTask.execute(client, new Request.Builder().url("https://api.breadwallet.com/ethq").build(), new RecordingCallback());
+        assertEquals(5, network.getRequestCount());
+    }
+
+    @Test
+    public void testCircuitBreakerLetsOneTrialThroughWhenHalfOpen() throws Exception {
+        open();
+
+        ticker.advance(10, TimeUnit.SECONDS);
+        assertFalse(dataTask.isOpen(HOST));
+
+        // a single trial; everything else still fails fast
+        send();
+        assertEquals(3, network.getRequestCount());
+        assertNotNull(send().failure);
+        assertEquals(3, network.getRequestCount());
+
+        // a failed trial re-opens the circuit for a full period
+        network.get(2).respond(503, "");
+        assertTrue(dataTask.isOpen(HOST));
+        ticker.advance(9, TimeUnit.SECONDS);
+        assertNotNull(send().failure);
+
+        // a successful trial closes it
+        ticker.advance(1, TimeUnit.SECONDS);
+        send();
+        network.get(3).respond(200, "[]");
+        assertFalse(dataTask.isOpen(HOST));
+
+        send();
+        send();
+        assertEquals(6, network.getRequestCount());
+    }
+
+    @Test
+    public void testCircuitBreakerReleasesCancelledTrial() throws Exception {
+        open();
+        ticker.advance(10, TimeUnit.SECONDS);
+
+        send();
+        Call cancelled = client.newCall(network.get(2).request);
+        cancelled.cancel();
+        network.get(2).callback.onFailure(cancelled, new IOException("Canceled"));
+
+        // the cancelled trial says nothing about the host; the next request is the trial
+        send();
+        assertEquals(4, network.getRequestCount());
+    }
+
+    private void open() throws IOException {
+        send();
+        network.get(0).respond(500, "");
+        send();
+        network.get(1).respond(500, "");
+        assertTrue(dataTask.isOpen(HOST));
+    }
+
+    private RecordingCallback send() {
+        RecordingCallback callback = new RecordingCallback();
+        dataTask.execute(client, new Request.Builder().url(URL).build(), callback);
+        return callback;
+    }
+
+    private static class RecordingCallback implements Callback {
+
+        Response response;
+        IOException failure;
+
+        @Override
+        public void onResponse(Call call, Response response) {
+            this.response = response;
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            this.failure = e;
+        }
+    }
+}
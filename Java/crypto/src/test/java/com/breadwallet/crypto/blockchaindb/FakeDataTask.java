@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Callback;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * A {@link DataTask} that holds on to every request until the test answers it.
+ */
+/* package */
+class FakeDataTask implements DataTask {
+
+    private static final MediaType MEDIA_TYPE_JSON = MediaType.get("application/json; charset=utf-8");
+
+    /* package */
+    static final class Exchange {
+
+        final OkHttpClient client;
+        final Request request;
+        final Callback callback;
+
+        Exchange(OkHttpClient client, Request request, Callback callback) {
+            this.client = client;
+            this.request = request;
+            this.callback = callback;
+        }
+
+        /**
+         * Answer the request with `code`, `body` and header name/value pairs.
+         */
+        void respond(int code, String body, String... headers) throws IOException {
+            callback.onResponse(client.newCall(request), response(request, code, body, headers));
+        }
+
+        void fail(IOException e) {
+            callback.onFailure(client.newCall(request), e);
+        }
+
+        CancellableQuery getQuery() {
+            return request.tag(CancellableQuery.class);
+        }
+    }
+
+    private final List<Exchange> exchanges = new ArrayList<>();
+
+    @Override
+    public synchronized void execute(OkHttpClient client, Request request, Callback callback) {
+        exchanges.add(new Exchange(client, request, callback));
+    }
+
+    /* package */
+    synchronized int getRequestCount() {
+        return exchanges.size();
+    }
+
+    /* package */
+    synchronized Exchange get(int index) {
+        return exchanges.get(index);
+    }
+
+    /* package */
+    static Response response(Request request, int code, String body, String... headers) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("")
+                .headers(Headers.of(headers))
+                .body(ResponseBody.create(body, MEDIA_TYPE_JSON))
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static org.junit.Assert.*;
+
+public class RateLimitedDataTaskTest {
+
+    private static final String URL = "https://api.blockset.com/transfers";
+
+    private OkHttpClient client;
+    private FakeDataTask network;
+    private ManualScheduledExecutor scheduler;
+    private FakeTicker ticker;
+    private RateLimitedDataTask dataTask;
+
+    @Before
+    public void setup() {
+        client = new OkHttpClient();
+        network = new FakeDataTask();
+        scheduler = new ManualScheduledExecutor();
+        ticker = new FakeTicker();
+        dataTask = new RateLimitedDataTask(network, scheduler, 2, 2, ticker);
+    }
+
+    @Test
+    public void testRateLimitedDataTaskDefersOverBurst() {
+        send(URL);
+        send(URL);
+        assertEquals(2, network.getRequestCount());
+        assertEquals(0, dataTask.getThrottleCount());
+
+        // two per second: the third waits half a second and the fourth a full one
+        send(URL);
+        send(URL);
+        assertEquals(2, network.getRequestCount());
+        assertEquals(2, scheduler.getTaskCount());
+        assertEquals(500, scheduler.getTask(0).getDelay(TimeUnit.MILLISECONDS));
+        assertEquals(1000, scheduler.getTask(1).getDelay(TimeUnit.MILLISECONDS));
+        assertEquals(2, dataTask.getThrottleCount());
+        assertEquals(1500, dataTask.getThrottleWait(TimeUnit.MILLISECONDS));
+
+        scheduler.runAll();
+        assertEquals(4, network.getRequestCount());
+    }
+
+    @Test
+    public void testRateLimitedDataTaskRefillsOverTime() {
+        send(URL);
+        send(URL);
+        send(URL);
+        assertEquals(1, scheduler.getTaskCount());
+
+        // the debt is paid off and the bucket refills, up to the burst
+        ticker.advance(10, TimeUnit.SECONDS);
+        send(URL);
+        send(URL);
+        assertEquals(4, network.getRequestCount());
+        send(URL);
+        assertEquals(2, scheduler.getTaskCount());
+    }
+
+    @Test
+    public void testRateLimitedDataTaskLimitsEachHost() {
+        send(URL);
+        send(URL);
+        send("https://api.breadwallet.com/ethq");
+        assertEquals(3, network.getRequestCount());
+        assertEquals(0, scheduler.getTaskCount());
+    }
+
+    private void send(String url) {
+        dataTask.execute(client, new Request.Builder().url(url).build(), new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+            }
+        });
+    }
+}
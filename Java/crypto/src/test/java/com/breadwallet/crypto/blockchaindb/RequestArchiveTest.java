@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import com.google.common.base.Strings;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import static org.junit.Assert.*;
+
+public class RequestArchiveTest {
+
+    private static final String URL = "https://api.blockset.com/blockchains";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private OkHttpClient client;
+    private FakeDataTask network;
+    private ManualScheduledExecutor scheduler;
+
+    @Before
+    public void setup() {
+        client = new OkHttpClient();
+        network = new FakeDataTask();
+        scheduler = new ManualScheduledExecutor();
+    }
+
+    @Test
+    public void testRequestArchiveRoundTripsLargeKeysAndHeaders() throws Exception {
+        // a JSON-RPC batch easily exceeds the 64KB that writeUTF can store
+        String body = "[" + Strings.repeat("{\"jsonrpc\":\"2.0\",\"method\":\"eth_getBalance\",\"id\":1},", 2000) + "]";
+        Request request = new Request.Builder()
+                .url("https://api.breadwallet.com/ethq/mainnet/proxy")
+                .post(RequestBody.create(body, MediaType.get("application/json")))
+                .build();
+        assertTrue(RequestArchive.getKey(request).length() > 64 * 1024);
+
+        RequestArchive recorded = new RequestArchive();
+        new RecordingDataTask(network, recorded).execute(client, request, new RecordingCallback());
+        network.get(0).respond(429, "{}", "Retry-After", "3", "ETag", "\"v1\"");
+
+        File file = folder.newFile();
+        recorded.write(file);
+        RequestArchive archive = RequestArchive.read(file);
+        assertEquals(1, archive.size());
+
+        RecordingCallback callback = new RecordingCallback();
+        new ReplayDataTask(archive, scheduler, 0, TimeUnit.MILLISECONDS, 0).execute(client, request, callback);
+        scheduler.runAll();
+
+        assertEquals(429, callback.response.code());
+        assertEquals("3", callback.response.header("Retry-After"));
+        assertEquals("\"v1\"", callback.response.header("ETag"));
+        assertEquals("{}", callback.response.body().string());
+    }
+
+    @Test
+    public void testRequestArchiveReplaysRetryAfter() throws Exception {
+        RequestArchive archive = record(
+                new String[] {"503", "", "Retry-After", "1"},
+                new String[] {"200", "[]"});
+
+        RecordingCallback callback = new RecordingCallback();
+        ReplayDataTask replay = new ReplayDataTask(archive, scheduler, 0, TimeUnit.MILLISECONDS, 0);
+        new RetryingDataTask(replay, scheduler, 3, 100, 5000, TimeUnit.MILLISECONDS).execute(client, get(), callback);
+
+        scheduler.runNext();
+        assertEquals(2, scheduler.getTaskCount());
+        assertEquals(1000, scheduler.getTask(1).getDelay(TimeUnit.MILLISECONDS));
+
+        scheduler.runAll();
+        assertEquals(200, callback.response.code());
+    }
+
+    @Test
+    public void testRequestArchiveReplaysRevalidation() throws Exception {
+        RequestArchive archive = record(
+                new String[] {"200", "[1]", "ETag", "\"v1\""},
+                new String[] {"304", "", "ETag", "\"v1\""});
+
+        ResponseCache cache = new ResponseCache(1024, scheduler);
+        cache.setTimeToLive(ResponseCache.Endpoint.BLOCKCHAINS, 0, TimeUnit.MILLISECONDS);
+        DataTask replay = cache.decorate(ResponseCache.Endpoint.BLOCKCHAINS,
+                new ReplayDataTask(archive, scheduler, 0, TimeUnit.MILLISECONDS, 0));
+
+        replay.execute(client, get(), new RecordingCallback());
+        scheduler.runAll();
+
+        RecordingCallback callback = new RecordingCallback();
+        replay.execute(client, get(), callback);
+        scheduler.runAll();
+
+        assertEquals(200, callback.response.code());
+        assertEquals("[1]", callback.response.body().string());
+        assertEquals(1, cache.getRevalidationCount());
+    }
+
+    /**
+     * Record a response, given as code, body and header name/value pairs, for each of a series of
+     * identical GETs, and read the archive back from disk.
+     */
+    private RequestArchive record(String[]... responses) throws IOException {
+        RequestArchive recorded = new RequestArchive();
+        RecordingDataTask recording = new RecordingDataTask(network, recorded);
+
+        for (int i = 0; i < responses.length; i++) {
+            String[] response = responses[i];
+            String[] headers = new String[response.length - 2];
+            System.arraycopy(response, 2, headers, 0, headers.length);
+
+            recording.execute(client, get(), new RecordingCallback());
+            network.get(i).respond(Integer.parseInt(response[0]), response[1], headers);
+        }
+
+        File file = folder.newFile();
+        recorded.write(file);
+        return RequestArchive.read(file);
+    }
+
+    private static Request get() {
+        return new Request.Builder().url(URL).build();
+    }
+
+    private static class RecordingCallback implements Callback {
+
+        Response response;
+
+        @Override
+        public void onResponse(Call call, Response response) {
+            this.response = response;
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
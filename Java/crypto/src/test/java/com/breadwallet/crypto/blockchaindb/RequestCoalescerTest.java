@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import com.breadwallet.crypto.blockchaindb.errors.QueryCancelledError;
+import com.breadwallet.crypto.blockchaindb.errors.QueryError;
+import com.breadwallet.crypto.blockchaindb.errors.QuerySubmissionError;
+import com.breadwallet.crypto.blockchaindb.models.bdb.Blockchain;
+import com.breadwallet.crypto.utility.Cancellable;
+import com.breadwallet.crypto.utility.CompletionHandler;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+import static org.junit.Assert.*;
+
+public class RequestCoalescerTest {
+
+    private static final String BLOCKCHAIN_ID = "bitcoin-mainnet";
+    private static final String BLOCKCHAIN_JSON = "{\"id\":\"bitcoin-mainnet\",\"name\":\"Bitcoin\"," +
+            "\"network\":\"mainnet\",\"is_mainnet\":true,\"native_currency_id\":\"bitcoin-mainnet:__native__\"," +
+            "\"block_height\":600000,\"fee_estimates\":[],\"confirmations_until_final\":6}";
+
+    private FakeDataTask dataTask;
+    private BlockchainDb blockchainDb;
+
+    @Before
+    public void setup() {
+        dataTask = new FakeDataTask();
+        blockchainDb = new BlockchainDb(new OkHttpClient(), null, dataTask, null, null);
+    }
+
+    @Test
+    public void testRequestCoalescerSharesOneRequest() throws Exception {
+        RecordingHandler<Blockchain> first = new RecordingHandler<>();
+        RecordingHandler<Blockchain> second = new RecordingHandler<>();
+        blockchainDb.getBlockchain(BLOCKCHAIN_ID, first);
+        blockchainDb.getBlockchain(BLOCKCHAIN_ID, second);
+        assertEquals(1, dataTask.getRequestCount());
+
+        dataTask.get(0).respond(200, BLOCKCHAIN_JSON);
+        assertNotNull(first.data);
+        assertSame(first.data, second.data);
+        assertEquals(BLOCKCHAIN_ID, first.data.getId());
+
+        RequestCoalescer coalescer = blockchainDb.getRequestCoalescer();
+        assertEquals(1, coalescer.getHitCount(RequestCoalescer.Endpoint.BLOCKCHAIN));
+        assertEquals(1, coalescer.getMissCount(RequestCoalescer.Endpoint.BLOCKCHAIN));
+
+        // nothing is cached once the result is delivered
+        blockchainDb.getBlockchain(BLOCKCHAIN_ID, new RecordingHandler<>());
+        assertEquals(2, dataTask.getRequestCount());
+
+        // nor are different parameters coalesced
+        blockchainDb.getBlockchain("ethereum-mainnet", new RecordingHandler<>());
+        assertEquals(3, dataTask.getRequestCount());
+    }
+
+    @Test
+    public void testRequestCoalescerDetachesCancelledWaiter() throws Exception {
+        RecordingHandler<Blockchain> first = new RecordingHandler<>();
+        RecordingHandler<Blockchain> second = new RecordingHandler<>();
+        Cancellable firstQuery = blockchainDb.getBlockchain(BLOCKCHAIN_ID, first);
+        blockchainDb.getBlockchain(BLOCKCHAIN_ID, second);
+
+        firstQuery.cancel();
+        assertTrue(first.error instanceof QueryCancelledError);
+        assertFalse(dataTask.get(0).getQuery().isCancelled());
+
+        dataTask.get(0).respond(200, BLOCKCHAIN_JSON);
+        assertNull(first.data);
+        assertNotNull(second.data);
+        assertEquals(1, first.calls);
+    }
+
+    @Test
+    public void testRequestCoalescerCancelsOnceEveryWaiterDetached() {
+        RecordingHandler<Blockchain> first = new RecordingHandler<>();
+        RecordingHandler<Blockchain> second = new RecordingHandler<>();
+        Cancellable firstQuery = blockchainDb.getBlockchain(BLOCKCHAIN_ID, first);
+        Cancellable secondQuery = blockchainDb.getBlockchain(BLOCKCHAIN_ID, second);
+
+        firstQuery.cancel();
+        secondQuery.cancel();
+        assertTrue(dataTask.get(0).getQuery().isCancelled());
+        assertTrue(second.error instanceof QueryCancelledError);
+
+        // the next call does not join the cancelled request
+        blockchainDb.getBlockchain(BLOCKCHAIN_ID, new RecordingHandler<>());
+        assertEquals(2, dataTask.getRequestCount());
+    }
+
+    @Test
+    public void testRequestCoalescerReleasesGroupWhenSendThrows() {
+        RecordingHandler<Blockchain> attached = new RecordingHandler<>();
+        DataTask throwingDataTask = new DataTask() {
+            private boolean thrown;
+
+            @Override
+            public void execute(OkHttpClient client, Request request, Callback callback) {
+                if (thrown) {
+                    dataTask.execute(client, request, callback);
+                    return;
+                }
+
+                // a call made while the request is being sent attaches to it
+                thrown = true;
+                blockchainDb.getBlockchain(BLOCKCHAIN_ID, attached);
+                throw new IllegalStateException("rejected");
+            }
+        };
+        OkHttpClient client = new OkHttpClient();
+        client.dispatcher().setMaxRequestsPerHost(1);
+        blockchainDb = new BlockchainDb(client, null, throwingDataTask, null, null);
+
+        RecordingHandler<Blockchain> sender = new RecordingHandler<>();
+        try {
+            blockchainDb.getBlockchain(BLOCKCHAIN_ID, sender);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(0, sender.calls);
+        assertTrue(attached.error instanceof QuerySubmissionError);
+
+        // the key is free again, and so is the per-host slot
+        RecordingHandler<Blockchain> next = new RecordingHandler<>();
+        blockchainDb.getBlockchain(BLOCKCHAIN_ID, next);
+        assertEquals(1, dataTask.getRequestCount());
+        assertEquals(0, blockchainDb.getRequestQueueDepth());
+    }
+
+    private static class RecordingHandler<T> implements CompletionHandler<T, QueryError> {
+
+        T data;
+        QueryError error;
+        int calls;
+
+        @Override
+        public synchronized void handleData(T data) {
+            this.data = data;
+            calls += 1;
+        }
+
+        @Override
+        public synchronized void handleError(QueryError error) {
+            this.error = error;
+            calls += 1;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static org.junit.Assert.*;
+
+public class ResponseCacheTest {
+
+    private static final String URL = "https://api.blockset.com/blockchains";
+
+    private OkHttpClient client;
+    private FakeDataTask network;
+    private ManualExecutor executor;
+
+    @Before
+    public void setup() {
+        client = new OkHttpClient();
+        network = new FakeDataTask();
+        executor = new ManualExecutor();
+    }
+
+    @Test
+    public void testResponseCacheServesFreshHitOnExecutor() throws Exception {
+        ResponseCache cache = new ResponseCache(1024, executor);
+        DataTask dataTask = cache.decorate(ResponseCache.Endpoint.BLOCKCHAINS, network);
+
+        RecordingCallback first = get(dataTask, URL);
+        network.get(0).respond(200, "[1]", "ETag", "\"v1\"");
+        assertEquals("[1]", first.body);
+        assertEquals(1, cache.getMissCount());
+
+        RecordingCallback second = get(dataTask, URL);
+        assertEquals(1, network.getRequestCount());
+        assertEquals(1, cache.getHitCount());
+
+        // not on the calling thread
+        assertNull(second.body);
+        executor.runAll();
+        assertEquals("[1]", second.body);
+    }
+
+    @Test
+    public void testResponseCacheRevalidatesStaleEntry() throws Exception {
+        ResponseCache cache = new ResponseCache(1024, executor);
+        cache.setTimeToLive(ResponseCache.Endpoint.BLOCKCHAINS, 0, TimeUnit.MILLISECONDS);
+        DataTask dataTask = cache.decorate(ResponseCache.Endpoint.BLOCKCHAINS, network);
+
+        get(dataTask, URL);
+        network.get(0).respond(200, "[1]", "ETag", "\"v1\"");
+
+        RecordingCallback second = get(dataTask, URL);
+        assertEquals(2, network.getRequestCount());
+        assertEquals("\"v1\"", network.get(1).request.header("If-None-Match"));
+
+        network.get(1).respond(304, "");
+        assertEquals(200, second.code);
+        assertEquals("[1]", second.body);
+        assertEquals(1, cache.getRevalidationCount());
+
+        // a changed response replaces the entry
+        RecordingCallback third = get(dataTask, URL);
+        network.get(2).respond(200, "[2]", "ETag", "\"v2\"");
+        assertEquals("[2]", third.body);
+
+        get(dataTask, URL);
+        assertEquals("\"v2\"", network.get(3).request.header("If-None-Match"));
+    }
+
+    @Test
+    public void testResponseCacheEvictsLeastRecentlyUsedByBytes() throws Exception {
+        ResponseCache cache = new ResponseCache(10, executor);
+        DataTask dataTask = cache.decorate(ResponseCache.Endpoint.BLOCKCHAINS, network);
+
+        get(dataTask, URL + "?a");
+        network.get(0).respond(200, "aaaa");
+        get(dataTask, URL + "?b");
+        network.get(1).respond(200, "bbbb");
+
+        // touch `a`, then add `c`: `b` is the least recently used and goes
+        get(dataTask, URL + "?a");
+        get(dataTask, URL + "?c");
+        network.get(2).respond(200, "cccc");
+        assertEquals(3, network.getRequestCount());
+
+        get(dataTask, URL + "?a");
+        get(dataTask, URL + "?c");
+        assertEquals(3, network.getRequestCount());
+
+        get(dataTask, URL + "?b");
+        assertEquals(4, network.getRequestCount());
+    }
+
+    @Test
+    public void testResponseCacheSkipsDisabledEndpoint() throws Exception {
+        ResponseCache cache = new ResponseCache(1024, executor);
+        cache.setEnabled(ResponseCache.Endpoint.BLOCKCHAINS, false);
+        DataTask dataTask = cache.decorate(ResponseCache.Endpoint.BLOCKCHAINS, network);
+
+        get(dataTask, URL);
+        network.get(0).respond(200, "[1]");
+        get(dataTask, URL);
+        assertEquals(2, network.getRequestCount());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    private RecordingCallback get(DataTask dataTask, String url) {
+        RecordingCallback callback = new RecordingCallback();
+        dataTask.execute(client, new Request.Builder().url(url).build(), callback);
+        return callback;
+    }
+
+    private static class RecordingCallback implements Callback {
+
+        int code;
+        String body;
+
+        @Override
+        public void onResponse(Call call, Response response) throws IOException {
+            code = response.code();
+            body = response.body().string();
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static class ManualExecutor implements Executor {
+
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runAll() {
+            Runnable task;
+            while (null != (task = tasks.poll())) {
+                task.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import static org.junit.Assert.*;
+
+public class RetryingDataTaskTest {
+
+    private static final String URL = "https://api.blockset.com/transactions";
+
+    private OkHttpClient client;
+    private FakeDataTask network;
+    private ManualScheduledExecutor scheduler;
+    private RetryingDataTask dataTask;
+
+    @Before
+    public void setup() {
+        client = new OkHttpClient();
+        network = new FakeDataTask();
+        scheduler = new ManualScheduledExecutor();
+        dataTask = new RetryingDataTask(network, scheduler, 5, 100, 1000, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testRetryingDataTaskBacksOffWithinBounds() throws Exception {
+        RecordingCallback callback = send(get());
+
+        for (int attempt = 0; attempt < 5; attempt++) {
+            network.get(attempt).respond(503, "");
+            assertEquals(attempt + 1, scheduler.getTaskCount());
+
+            long delayMillis = scheduler.getTask(attempt).getDelay(TimeUnit.MILLISECONDS);
+            assertTrue(delayMillis >= 0);
+            assertTrue(delayMillis <= Math.min(100L << attempt, 1000));
+
+            assertNull(callback.response);
+            scheduler.runNext();
+        }
+
+        // out of retries; the last response is handed on
+        network.get(5).respond(503, "");
+        assertEquals(503, callback.response.code());
+        assertEquals(5, dataTask.getRetryCount());
+        assertEquals(5, scheduler.getTaskCount());
+    }
+
+    @Test
+    public void testRetryingDataTaskHonoursRetryAfter() throws Exception {
+        RecordingCallback callback = send(get());
+
+        network.get(0).respond(429, "", "Retry-After", "1");
+        assertEquals(1000, scheduler.getTask(0).getDelay(TimeUnit.MILLISECONDS));
+        scheduler.runNext();
+
+        // a longer pause than the maximum delay is not waited out
+        network.get(1).respond(429, "", "Retry-After", "2");
+        assertEquals(1, scheduler.getTaskCount());
+        assertEquals(429, callback.response.code());
+    }
+
+    @Test
+    public void testRetryingDataTaskOnlyRetriesRateLimitForPost() throws Exception {
+        RecordingCallback callback = send(post());
+        network.get(0).respond(503, "");
+        assertEquals(0, scheduler.getTaskCount());
+        assertEquals(503, callback.response.code());
+
+        callback = send(post());
+        network.get(1).fail(new IOException("reset"));
+        assertEquals(0, scheduler.getTaskCount());
+        assertNotNull(callback.failure);
+
+        callback = send(post());
+        network.get(2).respond(429, "");
+        assertEquals(1, scheduler.getTaskCount());
+        scheduler.runNext();
+        network.get(3).respond(200, "{}");
+        assertEquals(200, callback.response.code());
+    }
+
+    @Test
+    public void testRetryingDataTaskRetriesFailedGet() throws Exception {
+        RecordingCallback callback = send(get());
+        network.get(0).fail(new IOException("reset"));
+        assertEquals(1, scheduler.getTaskCount());
+        scheduler.runNext();
+
+        network.get(1).respond(200, "[]");
+        assertNull(callback.failure);
+        assertEquals(200, callback.response.code());
+    }
+
+    private RecordingCallback send(Request request) {
+        RecordingCallback callback = new RecordingCallback();
+        dataTask.execute(client, request, callback);
+        return callback;
+    }
+
+    private static Request get() {
+        return new Request.Builder().url(URL).build();
+    }
+
+    private static Request post() {
+        return new Request.Builder().url(URL).post(RequestBody.create("{}", MediaType.get("application/json"))).build();
+    }
+
+    private static class RecordingCallback implements Callback {
+
+        Response response;
+        IOException failure;
+
+        @Override
+        public void onResponse(Call call, Response response) {
+            this.response = response;
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            this.failure = e;
+        }
+    }
+}
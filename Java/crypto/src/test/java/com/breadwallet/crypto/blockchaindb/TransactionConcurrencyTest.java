@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb;
+
+import com.breadwallet.crypto.blockchaindb.apis.bdb.HeightRangeSharding;
+import com.breadwallet.crypto.blockchaindb.errors.QueryError;
+import com.breadwallet.crypto.blockchaindb.models.bdb.Transaction;
+import com.breadwallet.crypto.utility.CompletionHandler;
+import com.google.common.primitives.UnsignedLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.OkHttpClient;
+
+import static org.junit.Assert.*;
+
+public class TransactionConcurrencyTest {
+
+    private FakeDataTask dataTask;
+    private BlockchainDb blockchainDb;
+
+    @Before
+    public void setup() {
+        // keep the per-host limit out of the way
+        OkHttpClient client = new OkHttpClient();
+        client.dispatcher().setMaxRequestsPerHost(64);
+
+        dataTask = new FakeDataTask();
+        blockchainDb = new BlockchainDb(client, null, dataTask, null, null);
+    }
+
+    @Test
+    public void testTransactionsDefaultToFourChunksWithoutSharding() {
+        getTransactions(40);
+        assertEquals(4, dataTask.getRequestCount());
+    }
+
+    @Test
+    public void testTransactionsUseShardingParallelismByDefault() {
+        blockchainDb.setHeightRangeSharding(HeightRangeSharding.create(8, 100));
+        getTransactions(40);
+        assertEquals(8, dataTask.getRequestCount());
+    }
+
+    @Test
+    public void testTransactionsTakeLowerOfCapAndSharding() {
+        blockchainDb.setHeightRangeSharding(HeightRangeSharding.create(8, 100));
+        blockchainDb.setMaxConcurrentTransactionChunks(2);
+        getTransactions(40);
+        assertEquals(2, dataTask.getRequestCount());
+
+        setup();
+        blockchainDb.setHeightRangeSharding(HeightRangeSharding.create(8, 100));
+        blockchainDb.setMaxConcurrentTransactionChunks(16);
+        getTransactions(40);
+        assertEquals(8, dataTask.getRequestCount());
+    }
+
+    @Test
+    public void testTransactionsHonourCapWithoutSharding() {
+        blockchainDb.setMaxConcurrentTransactionChunks(6);
+        getTransactions(40);
+        assertEquals(6, dataTask.getRequestCount());
+    }
+
+    private void getTransactions(int addressCount) {
+        List<String> addresses = new ArrayList<>();
+        for (int i = 0; i < addressCount; i++) {
+            addresses.add("address" + i);
+        }
+
+        blockchainDb.getTransactions("bitcoin-mainnet", addresses, UnsignedLong.ZERO, UnsignedLong.valueOf(800),
+                false, false, new CompletionHandler<List<Transaction>, QueryError>() {
+                    @Override
+                    public void handleData(List<Transaction> data) {
+                    }
+
+                    @Override
+                    public void handleError(QueryError error) {
+                    }
+                });
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb.apis.bdb;
+
+import com.google.common.base.Strings;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class AddressChunkerTest {
+
+    private static final int MAX_ADDRESSES_URL_LENGTH = 8000 - 512;
+
+    private AddressChunker chunker;
+
+    @Before
+    public void setup() {
+        chunker = new AddressChunker();
+    }
+
+    @Test
+    public void testAddressChunkerStartsAtInitialSize() {
+        assertEquals(50, chunker.getChunkSize());
+
+        List<List<String>> chunks = chunker.partition(addresses(120, 34), 1);
+        assertEquals(3, chunks.size());
+        assertEquals(50, chunks.get(0).size());
+        assertEquals(50, chunks.get(1).size());
+        assertEquals(20, chunks.get(2).size());
+    }
+
+    @Test
+    public void testAddressChunkerShrinksToMinimum() {
+        for (int i = 0; i < 100; i++) {
+            chunker.record(50, TimeUnit.SECONDS.toNanos(60), 1024);
+        }
+        assertEquals(5, chunker.getChunkSize());
+
+        // heavy responses shrink chunks even when they are quick
+        chunker = new AddressChunker();
+        for (int i = 0; i < 100; i++) {
+            chunker.record(50, TimeUnit.MILLISECONDS.toNanos(10), 64 * 1024 * 1024);
+        }
+        assertEquals(5, chunker.getChunkSize());
+    }
+
+    @Test
+    public void testAddressChunkerGrowsToMaximum() {
+        for (int i = 0; i < 100; i++) {
+            chunker.record(50, TimeUnit.MILLISECONDS.toNanos(1), 10);
+        }
+        assertEquals(250, chunker.getChunkSize());
+
+        // short enough that the URL length is not what limits the chunk
+        List<List<String>> chunks = chunker.partition(addresses(600, 10), 1);
+        assertEquals(250, chunks.get(0).size());
+    }
+
+    @Test
+    public void testAddressChunkerIgnoresSplitChunks() {
+        for (int i = 0; i < 100; i++) {
+            chunker.record(4, TimeUnit.SECONDS.toNanos(60), 1024);
+        }
+        assertEquals(50, chunker.getChunkSize());
+    }
+
+    @Test
+    public void testAddressChunkerCapsUrlLength() {
+        for (int i = 0; i < 100; i++) {
+            chunker.record(50, TimeUnit.MILLISECONDS.toNanos(1), 10);
+        }
+
+        List<String> addresses = addresses(600, 100);
+        List<List<String>> chunks = chunker.partition(addresses, 1);
+
+        int total = 0;
+        for (List<String> chunk : chunks) {
+            assertTrue(getEncodedLength(chunk) <= MAX_ADDRESSES_URL_LENGTH);
+            total += chunk.size();
+        }
+        assertEquals(addresses.size(), total);
+        assertEquals(MAX_ADDRESSES_URL_LENGTH / ("&address=".length() + 100), chunks.get(0).size());
+
+        // characters that are percent-encoded count three times
+        List<List<String>> encoded = chunker.partition(addresses(600, 100, ':'), 1);
+        assertTrue(encoded.get(0).size() < chunks.get(0).size());
+    }
+
+    @Test
+    public void testAddressChunkerSplitsSmallQueries() {
+        List<List<String>> chunks = chunker.partition(addresses(10, 34), 4);
+        assertEquals(4, chunks.size());
+        assertEquals(3, chunks.get(0).size());
+        assertEquals(1, chunks.get(3).size());
+
+        assertEquals(2, chunker.partition(addresses(2, 34), 4).size());
+        assertEquals(0, chunker.partition(new ArrayList<>(), 4).size());
+    }
+
+    private static List<String> addresses(int count, int length) {
+        return addresses(count, length, 'a');
+    }
+
+    private static List<String> addresses(int count, int length, char fill) {
+        List<String> addresses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String suffix = String.valueOf(i);
+            addresses.add(Strings.repeat(String.valueOf(fill), length - suffix.length()) + suffix);
+        }
+        return addresses;
+    }
+
+    private static int getEncodedLength(List<String> chunk) {
+        int length = 0;
+        for (String address : chunk) {
+            length += "&address=".length() + address.length();
+        }
+        return length;
+    }
+}
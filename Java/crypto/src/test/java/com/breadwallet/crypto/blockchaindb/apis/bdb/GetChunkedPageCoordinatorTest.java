@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2019 Breadwinner AG.  All right reserved.
+ *
+ * See the LICENSE file at the project root for license information.
+ * See the CONTRIBUTORS file at the project root for a list of contributors.
+ */
+package com.breadwallet.crypto.blockchaindb.apis.bdb;
+
+import com.breadwallet.crypto.blockchaindb.errors.QueryError;
+import com.breadwallet.crypto.blockchaindb.errors.QueryNoDataError;
+import com.breadwallet.crypto.utility.PageHandler;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class GetChunkedPageCoordinatorTest {
+
+    @Test
+    public void testGetChunkedPageCoordinatorDeliversInOrder() {
+        RecordingHandler handler = new RecordingHandler();
+        GetChunkedPageCoordinator<String, String> coordinator =
+                new GetChunkedPageCoordinator<>(Arrays.asList("a", "b"), 2, () -> {}, handler);
+        List<String> fetched = new ArrayList<>();
+        coordinator.start(fetched::add);
+        assertEquals(Arrays.asList("a", "b"), fetched);
+
+        coordinator.handleChunkPage("a", Collections.singletonList("a1"), () -> fetched.add("a-next"));
+        coordinator.handleChunkPage("b", Collections.singletonList("b1"), null);
+        coordinator.handleChunkComplete("b");
+        coordinator.handleChunkPage("a", Collections.singletonList("a2"), null);
+        coordinator.handleChunkComplete("a");
+
+        assertEquals(Arrays.asList("a", "b", "a-next"), fetched);
+        assertEquals(Arrays.asList("a1", "b1", "a2", "complete"), handler.events);
+    }
+
+    @Test
+    public void testGetChunkedPageCoordinatorDeliversOutsideLock() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingHandler handler = new RecordingHandler() {
+            @Override
+            public void handlePage(List<String> data) {
+                if (data.contains("a1")) {
+                    entered.countDown();
+                    await(release);
+                }
+                super.handlePage(data);
+            }
+        };
+        GetChunkedPageCoordinator<String, String> coordinator =
+                new GetChunkedPageCoordinator<>(Arrays.asList("a", "b"), 2, () -> {}, handler);
+        coordinator.start(chunk -> {});
+
+        Thread deliverer = new Thread(() -> coordinator.handleChunkPage("a", Collections.singletonList("a1"), null));
+        deliverer.start();
+        await(entered);
+
+        // another chunk's page is queued and its next page requested while the handler is busy
+        AtomicBoolean fetchedNext = new AtomicBoolean();
+        coordinator.handleChunkPage("b", Collections.singletonList("b1"), () -> fetchedNext.set(true));
+        assertTrue(fetchedNext.get());
+        assertEquals(Collections.emptyList(), handler.events);
+
+        release.countDown();
+        deliverer.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(deliverer.isAlive());
+        assertEquals(Arrays.asList("a1", "b1"), handler.events);
+    }
+
+    @Test
+    public void testGetChunkedPageCoordinatorStopsOnError() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        RecordingHandler handler = new RecordingHandler();
+        GetChunkedPageCoordinator<String, String> coordinator =
+                new GetChunkedPageCoordinator<>(Arrays.asList("a", "b", "c"), 2, () -> cancelled.set(true), handler);
+        List<String> fetched = new ArrayList<>();
+        coordinator.start(fetched::add);
+
+        coordinator.handleChunkPage("a", Collections.singletonList("a1"), null);
+        coordinator.handleError(new QueryNoDataError());
+        assertTrue(cancelled.get());
+
+        AtomicBoolean fetchedNext = new AtomicBoolean();
+        coordinator.handleChunkPage("b", Collections.singletonList("b1"), () -> fetchedNext.set(true));
+        coordinator.handleChunkComplete("a");
+        assertFalse(fetchedNext.get());
+        assertEquals(Arrays.asList("a", "b"), fetched);
+        assertEquals(Arrays.asList("a1", "error"), handler.events);
+    }
+
+    @Test
+    public void testGetChunkedPageCoordinatorCompletesWithoutChunks() {
+        RecordingHandler handler = new RecordingHandler();
+        GetChunkedPageCoordinator<String, String> coordinator =
+                new GetChunkedPageCoordinator<>(Collections.emptyList(), 2, () -> {}, handler);
+        coordinator.start(chunk -> fail());
+        assertEquals(Collections.singletonList("complete"), handler.events);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static class RecordingHandler implements PageHandler<List<String>, QueryError> {
+
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void handlePage(List<String> data) {
+            events.addAll(data);
+        }
+
+        @Override
+        public void handleComplete() {
+            events.add("complete");
+        }
+
+        @Override
+        public void handleError(QueryError error) {
+            events.add("error");
+        }
+    }
+}
@@ -150,6 +150,7 @@ public class CoreCryptoApplication extends Application {
             account = Account.createFromPhrase(paperKey, new Date(TimeUnit.SECONDS.toMillis(timestamp)), uids);
 
             blockchainDb = BlockchainDb.createForTest (new OkHttpClient(), BDB_AUTH_TOKEN);
+            blockchainDb.getResponseCache().setDiskStore(new File(getCacheDir(), "bdb-query-cache"));
             system = System.create(systemExecutor, systemListener, account,
                     isMainnet, storageFile.getAbsolutePath(), blockchainDb);
             system.configure(Collections.emptyList());
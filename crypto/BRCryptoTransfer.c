@@ -529,6 +529,8 @@ cryptoTransferGetState (BRCryptoTransfer transfer) {
     return state;
 }
 
+static atomic_uint_fast64_t cryptoTransferStateGeneration = 0;
+
 private_extern void
 cryptoTransferSetState (BRCryptoTransfer transfer,
                         BRCryptoTransferState state) {
@@ -539,9 +541,17 @@ cryptoTransferSetState (BRCryptoTransfer transfer,
     transfer->state = newState;
     pthread_mutex_unlock (&transfer->lock);
 
+    // After the state is set; a reader of the generation then sees the new state
+    atomic_fetch_add (&cryptoTransferStateGeneration, 1);
+
     cryptoTransferStateRelease (&oldState);
 }
 
+private_extern uint64_t
+cryptoTransferGetStateGeneration (void) {
+    return atomic_load (&cryptoTransferStateGeneration);
+}
+
 static BRCryptoTransferDirection
 cryptoTransferDirectionFromBTC (uint64_t send, uint64_t recv, uint64_t fee) {
     if (UINT64_MAX == fee) fee = 0;
@@ -827,6 +837,78 @@ cryptoTransferCompare (BRCryptoTransfer transfer1, BRCryptoTransfer transfer2) {
     return compareValue;
 }
 
+/// MARK: - Transfer Snapshot
+
+static void
+cryptoTransferSnapshotFillValue (uint8_t *bytes, BRCryptoAmount amount) {
+    UInt256 value = cryptoAmountGetValue (amount);
+
+    // u64[0] is the least significant word
+    for (size_t index = 0; index < CRYPTO_TRANSFER_SNAPSHOT_VALUE_BYTES; index++) {
+        size_t shift = 8 * (CRYPTO_TRANSFER_SNAPSHOT_VALUE_BYTES - 1 - index);
+        bytes[index] = (uint8_t) (value.u64[shift / 64] >> (shift % 64));
+    }
+}
+
+static void
+cryptoTransferSnapshotFillString (char *chars, size_t charsLength, char *string) {
+    // `string` is owned; an absent or oversized string is left empty
+    if (NULL != string && strlen (string) < charsLength)
+        strcpy (chars, string);
+    if (NULL != string) free (string);
+}
+
+extern void
+cryptoTransferGetSnapshot (BRCryptoTransfer transfer,
+                           BRCryptoTransferSnapshot *snapshot) {
+    memset (snapshot, 0, sizeof (BRCryptoTransferSnapshot));
+
+    BRCryptoTransferState state = cryptoTransferGetState (transfer);
+    snapshot->state = state.type;
+    if (CRYPTO_TRANSFER_STATE_INCLUDED == state.type) {
+        snapshot->blockNumber      = state.u.included.blockNumber;
+        snapshot->transactionIndex = state.u.included.transactionIndex;
+        snapshot->timestamp        = state.u.included.timestamp;
+    }
+    cryptoTransferStateRelease (&state);
+
+    snapshot->direction = cryptoTransferGetDirection (transfer);
+
+    BRCryptoAmount amount = cryptoTransferGetAmount (transfer);
+    cryptoTransferSnapshotFillValue (snapshot->amount, amount);
+    cryptoAmountGive (amount);
+
+    BRCryptoFeeBasis feeBasis = cryptoTransferGetConfirmedFeeBasis (transfer);
+    if (NULL == feeBasis) feeBasis = cryptoTransferGetEstimatedFeeBasis (transfer);
+    if (NULL != feeBasis) {
+        BRCryptoAmount fee = cryptoFeeBasisGetFee (feeBasis);
+        if (NULL != fee) {
+            snapshot->hasFee = CRYPTO_TRUE;
+            cryptoTransferSnapshotFillValue (snapshot->fee, fee);
+            cryptoAmountGive (fee);
+        }
+        cryptoFeeBasisGive (feeBasis);
+    }
+
+    BRCryptoHash hash = cryptoTransferGetHash (transfer);
+    if (NULL != hash) {
+        cryptoTransferSnapshotFillString (snapshot->hash, sizeof (snapshot->hash), cryptoHashString (hash));
+        cryptoHashGive (hash);
+    }
+
+    BRCryptoAddress source = cryptoTransferGetSourceAddress (transfer);
+    if (NULL != source) {
+        cryptoTransferSnapshotFillString (snapshot->sourceAddress, sizeof (snapshot->sourceAddress), cryptoAddressAsString (source));
+        cryptoAddressGive (source);
+    }
+
+    BRCryptoAddress target = cryptoTransferGetTargetAddress (transfer);
+    if (NULL != target) {
+        cryptoTransferSnapshotFillString (snapshot->targetAddress, sizeof (snapshot->targetAddress), cryptoAddressAsString (target));
+        cryptoAddressGive (target);
+    }
+}
+
 extern void
 cryptoTransferExtractBlobAsBTC (BRCryptoTransfer transfer,
                                 uint8_t **bytes,
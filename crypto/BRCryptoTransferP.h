@@ -82,6 +82,10 @@ private_extern void
 cryptoTransferSetState (BRCryptoTransfer transfer,
                         BRCryptoTransferState state);
 
+/// Incremented whenever the state of any transfer changes
+private_extern uint64_t
+cryptoTransferGetStateGeneration (void);
+
 private_extern BRCryptoTransfer
 cryptoTransferCreateAsBTC (BRCryptoUnit unit,
                            BRCryptoUnit unitForFee,
@@ -23,6 +23,12 @@
 
 IMPLEMENT_CRYPTO_GIVE_TAKE (BRCryptoWallet, cryptoWallet)
 
+static void
+cryptoWalletTransferIndexFree (BRSet *index);
+
+static void
+cryptoWalletTransfersSortedFree (BRCryptoTransfer *transfers, size_t count);
+
 static BRCryptoWallet
 cryptoWalletCreateInternal (BRCryptoBlockChainType type,
                             BRCryptoUnit unit,
@@ -34,6 +40,14 @@ cryptoWalletCreateInternal (BRCryptoBlockChainType type,
     wallet->unit  = cryptoUnitTake (unit);
     wallet->unitForFee = cryptoUnitTake (unitForFee);
     array_new (wallet->transfers, 5);
+    wallet->transfersGeneration = 0;
+    wallet->transfersByHash = NULL;
+    wallet->transfersByHashGeneration = 0;
+    wallet->transfersByHashMissing = 0;
+    wallet->transfersSorted = NULL;
+    wallet->transfersSortedCount = 0;
+    wallet->transfersSortedGeneration = 0;
+    wallet->transfersSortedStateGeneration = 0;
 
     wallet->ref = CRYPTO_REF_ASSIGN (cryptoWalletRelease);
 
@@ -95,6 +109,9 @@ cryptoWalletRelease (BRCryptoWallet wallet) {
         cryptoTransferGive (wallet->transfers[index]);
     array_free (wallet->transfers);
 
+    if (NULL != wallet->transfersByHash) cryptoWalletTransferIndexFree (wallet->transfersByHash);
+    if (NULL != wallet->transfersSorted) cryptoWalletTransfersSortedFree (wallet->transfersSorted, wallet->transfersSortedCount);
+
     switch (wallet->type) {
         case BLOCK_CHAIN_TYPE_BTC:
             break;
@@ -278,6 +295,7 @@ cryptoWalletAddTransfer (BRCryptoWallet wallet,
     pthread_mutex_lock (&wallet->lock);
     if (CRYPTO_FALSE == cryptoWalletHasTransfer (wallet, transfer)) {
         array_add (wallet->transfers, cryptoTransferTake(transfer));
+        wallet->transfersGeneration += 1;
     }
     pthread_mutex_unlock (&wallet->lock);
 }
@@ -290,6 +308,7 @@ cryptoWalletRemTransfer (BRCryptoWallet wallet, BRCryptoTransfer transfer) {
         if (CRYPTO_TRUE == cryptoTransferEqual (wallet->transfers[index], transfer)) {
             walletTransfer = wallet->transfers[index];
             array_rm (wallet->transfers, index);
+            wallet->transfersGeneration += 1;
             break;
         }
     }
@@ -314,6 +333,268 @@ cryptoWalletGetTransfers (BRCryptoWallet wallet, size_t *count) {
     return transfers;
 }
 
+extern size_t
+cryptoWalletGetTransferCount (BRCryptoWallet wallet) {
+    pthread_mutex_lock (&wallet->lock);
+    size_t count = array_count (wallet->transfers);
+    pthread_mutex_unlock (&wallet->lock);
+    return count;
+}
+
+typedef struct {
+    BRCryptoTransfer transfer;
+    BRCryptoBoolean included;
+    uint64_t timestamp;
+    uint64_t blockNumber;
+    uint64_t transactionIndex;
+} BRCryptoWalletTransferKey;
+
+static int
+cryptoWalletTransferKeyCompare (const void *p1, const void *p2) {
+    const BRCryptoWalletTransferKey *k1 = p1;
+    const BRCryptoWalletTransferKey *k2 = p2;
+
+    // As cryptoTransferCompare(), from a state read once per transfer rather than per comparison
+    if (k1->included != k2->included)
+        return CRYPTO_TRUE == k1->included ? -1 : 1;
+
+    if (CRYPTO_FALSE == k1->included)
+        return ((uintptr_t) k1->transfer > (uintptr_t) k2->transfer ? 1
+                : ((uintptr_t) k1->transfer < (uintptr_t) k2->transfer ? -1 : 0));
+
+    if (k1->timestamp != k2->timestamp)
+        return k1->timestamp > k2->timestamp ? 1 : -1;
+
+    if (k1->blockNumber != k2->blockNumber)
+        return k1->blockNumber > k2->blockNumber ? 1 : -1;
+
+    if (k1->transactionIndex != k2->transactionIndex)
+        return k1->transactionIndex > k2->transactionIndex ? 1 : -1;
+
+    return 0;
+}
+
+static void
+cryptoWalletTransfersSortedFree (BRCryptoTransfer *transfers, size_t count) {
+    for (size_t index = 0; index < count; index++)
+        cryptoTransferGive (transfers[index]);
+    free (transfers);
+}
+
+static BRCryptoTransfer *
+cryptoWalletTransfersSortedPage (BRCryptoTransfer *transfers,
+                                 size_t transfersCount,
+                                 size_t offset,
+                                 size_t limit,
+                                 size_t *count) {
+    *count = 0;
+    if (offset < transfersCount)
+        *count = (limit < transfersCount - offset ? limit : transfersCount - offset);
+
+    BRCryptoTransfer *page = (0 == *count ? NULL : calloc (*count, sizeof(BRCryptoTransfer)));
+    for (size_t index = 0; index < *count; index++)
+        page[index] = cryptoTransferTake (transfers[offset + index]);
+
+    return page;
+}
+
+extern BRCryptoTransfer *
+cryptoWalletGetTransfersPage (BRCryptoWallet wallet,
+                              size_t offset,
+                              size_t limit,
+                              size_t *count) {
+    // Read before any state; a state set since then invalidates what is sorted below
+    uint64_t stateGeneration = cryptoTransferGetStateGeneration ();
+
+    pthread_mutex_lock (&wallet->lock);
+    if (NULL != wallet->transfersSorted &&
+        wallet->transfersSortedGeneration == wallet->transfersGeneration &&
+        wallet->transfersSortedStateGeneration == stateGeneration) {
+        BRCryptoTransfer *page = cryptoWalletTransfersSortedPage (wallet->transfersSorted,
+                                                                  wallet->transfersSortedCount,
+                                                                  offset, limit, count);
+        pthread_mutex_unlock (&wallet->lock);
+        return page;
+    }
+    uint64_t generation = wallet->transfersGeneration;
+    pthread_mutex_unlock (&wallet->lock);
+
+    size_t transfersCount;
+    BRCryptoTransfer *transfers = cryptoWalletGetTransfers (wallet, &transfersCount);
+
+    *count = 0;
+    if (NULL == transfers) return NULL;
+
+    // Sort outside of `wallet->lock`; reading a transfer's state takes the transfer's lock.
+    BRCryptoWalletTransferKey *keys = calloc (transfersCount, sizeof(BRCryptoWalletTransferKey));
+    for (size_t index = 0; index < transfersCount; index++) {
+        BRCryptoTransferState state = cryptoTransferGetState (transfers[index]);
+
+        keys[index].transfer = transfers[index];
+        keys[index].included = AS_CRYPTO_BOOLEAN (CRYPTO_TRANSFER_STATE_INCLUDED == state.type);
+        if (CRYPTO_TRANSFER_STATE_INCLUDED == state.type) {
+            keys[index].timestamp        = state.u.included.timestamp;
+            keys[index].blockNumber      = state.u.included.blockNumber;
+            keys[index].transactionIndex = state.u.included.transactionIndex;
+        }
+
+        cryptoTransferStateRelease (&state);
+    }
+
+    qsort (keys, transfersCount, sizeof(BRCryptoWalletTransferKey), cryptoWalletTransferKeyCompare);
+
+    // Reuse `transfers`, and the references it holds, for the sorted order
+    for (size_t index = 0; index < transfersCount; index++)
+        transfers[index] = keys[index].transfer;
+    free (keys);
+
+    BRCryptoTransfer *page = cryptoWalletTransfersSortedPage (transfers, transfersCount, offset, limit, count);
+
+    // Keep the order unless the transfers changed while it was being sorted; `generation` was read
+    // before the transfers were copied, so a transfer added in between discards it.
+    pthread_mutex_lock (&wallet->lock);
+    if (generation == wallet->transfersGeneration) {
+        BRCryptoTransfer *replaced      = wallet->transfersSorted;
+        size_t            replacedCount = wallet->transfersSortedCount;
+
+        wallet->transfersSorted                = transfers;
+        wallet->transfersSortedCount           = transfersCount;
+        wallet->transfersSortedGeneration      = generation;
+        wallet->transfersSortedStateGeneration = stateGeneration;
+
+        transfers      = replaced;
+        transfersCount = replacedCount;
+    }
+    pthread_mutex_unlock (&wallet->lock);
+
+    if (NULL != transfers) cryptoWalletTransfersSortedFree (transfers, transfersCount);
+
+    return page;
+}
+
+typedef struct {
+    BRCryptoHash hash;
+    BRCryptoTransfer transfer;
+} BRCryptoWalletTransferIndexEntry;
+
+static size_t
+cryptoWalletTransferIndexEntryHashValue (const void *entry) {
+    return (size_t) cryptoHashGetHashValue (((const BRCryptoWalletTransferIndexEntry *) entry)->hash);
+}
+
+static int
+cryptoWalletTransferIndexEntryIsEqual (const void *entry1, const void *entry2) {
+    return CRYPTO_TRUE == cryptoHashEqual (((const BRCryptoWalletTransferIndexEntry *) entry1)->hash,
+                                           ((const BRCryptoWalletTransferIndexEntry *) entry2)->hash);
+}
+
+static void
+cryptoWalletTransferIndexEntryRelease (BRCryptoWalletTransferIndexEntry *entry) {
+    cryptoHashGive (entry->hash);
+    cryptoTransferGive (entry->transfer);
+    free (entry);
+}
+
+static void
+cryptoWalletTransferIndexEntryReleaseApply (void *info, void *entry) {
+    cryptoWalletTransferIndexEntryRelease (entry);
+}
+
+static void
+cryptoWalletTransferIndexFree (BRSet *index) {
+    BRSetApply (index, NULL, cryptoWalletTransferIndexEntryReleaseApply);
+    BRSetFree (index);
+}
+
+static BRCryptoTransfer
+cryptoWalletTransferIndexGet (BRSet *index, BRCryptoHash hash) {
+    BRCryptoWalletTransferIndexEntry probe = { hash, NULL };
+    BRCryptoWalletTransferIndexEntry *entry = BRSetGet (index, &probe);
+    return NULL == entry ? NULL : cryptoTransferTake (entry->transfer);
+}
+
+extern BRCryptoTransfer
+cryptoWalletGetTransferByHash (BRCryptoWallet wallet,
+                               BRCryptoHash hash) {
+    BRCryptoTransfer transfer = NULL;
+
+    pthread_mutex_lock (&wallet->lock);
+    if (NULL != wallet->transfersByHash &&
+        wallet->transfersByHashGeneration == wallet->transfersGeneration) {
+        transfer = cryptoWalletTransferIndexGet (wallet->transfersByHash, hash);
+
+        // A miss is final unless some transfer may have been given a hash since being indexed
+        if (NULL != transfer || 0 == wallet->transfersByHashMissing) {
+            pthread_mutex_unlock (&wallet->lock);
+            return transfer;
+        }
+    }
+
+    uint64_t generation = wallet->transfersGeneration;
+    size_t transfersCount = array_count (wallet->transfers);
+    BRCryptoTransfer *transfers = calloc (transfersCount + 1, sizeof(BRCryptoTransfer));
+    for (size_t index = 0; index < transfersCount; index++)
+        transfers[index] = cryptoTransferTake (wallet->transfers[index]);
+    pthread_mutex_unlock (&wallet->lock);
+
+    // Build outside of `wallet->lock`; a transfer's hash may come from its wallet manager.
+    BRSet *index = BRSetNew (cryptoWalletTransferIndexEntryHashValue,
+                             cryptoWalletTransferIndexEntryIsEqual,
+                             transfersCount);
+    size_t missing = 0;
+
+    for (size_t i = 0; i < transfersCount; i++) {
+        BRCryptoHash transferHash = cryptoTransferGetHash (transfers[i]);
+        if (NULL == transferHash) {
+            cryptoTransferGive (transfers[i]);
+            missing += 1;
+            continue;
+        }
+
+        BRCryptoWalletTransferIndexEntry *entry = malloc (sizeof (BRCryptoWalletTransferIndexEntry));
+        entry->hash = transferHash;
+        entry->transfer = transfers[i];
+
+        BRCryptoWalletTransferIndexEntry *replaced = BRSetAdd (index, entry);
+        if (NULL != replaced) cryptoWalletTransferIndexEntryRelease (replaced);
+    }
+    free (transfers);
+
+    transfer = cryptoWalletTransferIndexGet (index, hash);
+
+    // Keep the index unless the transfers changed while it was being built
+    pthread_mutex_lock (&wallet->lock);
+    if (generation == wallet->transfersGeneration) {
+        BRSet *replaced = wallet->transfersByHash;
+        wallet->transfersByHash = index;
+        wallet->transfersByHashGeneration = generation;
+        wallet->transfersByHashMissing = missing;
+        index = replaced;
+    }
+    pthread_mutex_unlock (&wallet->lock);
+
+    if (NULL != index) cryptoWalletTransferIndexFree (index);
+
+    return transfer;
+}
+
+extern size_t
+cryptoWalletGetTransferSnapshots (BRCryptoWallet wallet,
+                                  BRCryptoTransferSnapshot *snapshots,
+                                  size_t count) {
+    // Snapshot outside of `wallet->lock`; filling a snapshot may call into the wallet manager.
+    size_t transfersCount;
+    BRCryptoTransfer *transfers = cryptoWalletGetTransfers (wallet, &transfersCount);
+
+    for (size_t index = 0; index < transfersCount; index++) {
+        if (index < count) cryptoTransferGetSnapshot (transfers[index], &snapshots[index]);
+        cryptoTransferGive (transfers[index]);
+    }
+    if (NULL != transfers) free (transfers);
+
+    return transfersCount;
+}
+
 extern BRCryptoAddress
 cryptoWalletGetAddress (BRCryptoWallet wallet,
                         BRCryptoAddressScheme addressScheme) {
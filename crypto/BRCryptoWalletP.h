@@ -16,6 +16,7 @@
 #include "BRCryptoWallet.h"
 #include "BRCryptoBaseP.h"
 
+#include "support/BRSet.h"
 #include "bitcoin/BRWallet.h"
 #include "bitcoin/BRWalletManager.h"
 
@@ -62,6 +63,22 @@ struct BRCryptoWalletRecord {
     //
     BRArrayOf (BRCryptoTransfer) transfers;
 
+    // Incremented whenever `transfers` changes
+    uint64_t transfersGeneration;
+
+    // An index of `transfers` by hash, built on lookup and valid while `transfers` is unchanged.
+    // Transfers without a hash when indexed, such as unsigned ones, are counted as missing.
+    BRSet *transfersByHash;
+    uint64_t transfersByHashGeneration;
+    size_t transfersByHashMissing;
+
+    // `transfers` in page order, built on paging and valid while `transfers` and the state of
+    // every transfer are unchanged.
+    BRCryptoTransfer *transfersSorted;
+    size_t transfersSortedCount;
+    uint64_t transfersSortedGeneration;
+    uint64_t transfersSortedStateGeneration;
+
     BRCryptoRef ref;
 };
 
@@ -314,6 +314,47 @@ extern "C" {
 
     DECLARE_CRYPTO_GIVE_TAKE (BRCryptoTransfer, cryptoTransfer);
 
+    /// MARK: - Transfer Snapshot
+
+#define CRYPTO_TRANSFER_SNAPSHOT_VALUE_BYTES      (32)
+#define CRYPTO_TRANSFER_SNAPSHOT_HASH_LENGTH      (128)
+#define CRYPTO_TRANSFER_SNAPSHOT_ADDRESS_LENGTH   (128)
+
+    /**
+     * A transfer's commonly displayed fields, copied by value so that many transfers can be read
+     * in a single call.
+     *
+     * The amount and fee are unsigned values in the base unit of the transfer's unit and unit
+     * for fee, respectively, as big-endian bytes.  Strings are NUL-terminated and are empty if
+     * absent or too long to fit.
+     */
+    typedef struct {
+        BRCryptoTransferStateType state;
+        BRCryptoTransferDirection direction;
+
+        // valid if `state` is CRYPTO_TRANSFER_STATE_INCLUDED
+        uint64_t blockNumber;
+        uint64_t transactionIndex;
+        uint64_t timestamp;
+
+        uint8_t amount[CRYPTO_TRANSFER_SNAPSHOT_VALUE_BYTES];
+
+        BRCryptoBoolean hasFee;
+        uint8_t fee[CRYPTO_TRANSFER_SNAPSHOT_VALUE_BYTES];
+
+        char hash[CRYPTO_TRANSFER_SNAPSHOT_HASH_LENGTH];
+        char sourceAddress[CRYPTO_TRANSFER_SNAPSHOT_ADDRESS_LENGTH];
+        char targetAddress[CRYPTO_TRANSFER_SNAPSHOT_ADDRESS_LENGTH];
+    } BRCryptoTransferSnapshot;
+
+    /**
+     * Fill `snapshot` from `transfer`.  The fee is from the confirmed fee basis, if included, and
+     * otherwise from the estimated fee basis.
+     */
+    extern void
+    cryptoTransferGetSnapshot (BRCryptoTransfer transfer,
+                               BRCryptoTransferSnapshot *snapshot);
+
     extern void
     cryptoTransferExtractBlobAsBTC (BRCryptoTransfer transfer,
                                     uint8_t **bytes,
@@ -156,6 +156,42 @@ extern "C" {
     cryptoWalletGetTransfers (BRCryptoWallet wallet,
                               size_t *count);
 
+    extern size_t
+    cryptoWalletGetTransferCount (BRCryptoWallet wallet);
+
+    /**
+     * Returns up to `limit` of `wallet`'s transfers, starting at `offset`, in the order of
+     * `cryptoTransferCompare()`.  The transfers are taken; the array must be freed.
+     *
+     * @param count the number of transfers returned
+     *
+     * @return the transfers, or NULL if `count` is zero
+     */
+    extern BRCryptoTransfer *
+    cryptoWalletGetTransfersPage (BRCryptoWallet wallet,
+                                  size_t offset,
+                                  size_t limit,
+                                  size_t *count);
+
+    /**
+     * Returns the transfer in `wallet` having `hash`, with an incremented reference count, or NULL.
+     * The wallet's transfers are indexed by hash on the first lookup after they change.
+     */
+    extern BRCryptoTransfer
+    cryptoWalletGetTransferByHash (BRCryptoWallet wallet,
+                                   BRCryptoHash hash);
+
+    /**
+     * Fill `snapshots` with the snapshots of up to `count` of `wallet`'s transfers, in the order
+     * of `cryptoWalletGetTransfers()`.
+     *
+     * @return the number of transfers in `wallet`, which may exceed `count`
+     */
+    extern size_t
+    cryptoWalletGetTransferSnapshots (BRCryptoWallet wallet,
+                                      BRCryptoTransferSnapshot *snapshots,
+                                      size_t count);
+
     /**
      * Returns a 'new' adddress from `wallet` according to the provided `addressScheme`.  For BTC
      * this is a segwit or a bech32 address.  Note that the returned address is not associated with